@@ -0,0 +1,259 @@
+package com.gamesbykevin.floppybird;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import com.gamesbykevin.floppybird.autopilot.Autopilot;
+import com.gamesbykevin.floppybird.background.Parallax;
+import com.gamesbykevin.floppybird.game.GameStep;
+import com.gamesbykevin.floppybird.metrics.JankDetector;
+import com.gamesbykevin.floppybird.metrics.MetricsRecorder;
+import com.gamesbykevin.floppybird.replay.GhostRun;
+import com.gamesbykevin.floppybird.replay.Recording;
+import com.gamesbykevin.floppybird.simulation.Rules;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.storage.score.DigitLayout;
+import com.gamesbykevin.floppybird.trace.RingTracer;
+import com.gamesbykevin.floppybird.trace.Trace;
+
+/**
+ * Make sure the per frame code of the game doesn't allocate once it is running.<br>
+ * We play the same objects the game does on the desktop JVM (GameStep with the autopilot deciding, the run stepping and
+ * recording, the GhostRun playing the previous run back, the background Parallax scrolling, the score digits, the trace
+ * sections, the jank check and the metrics sample) for thousands of ticks, starting a new run every so often like a player
+ * pressing retry. Only the rendering and the screens need Android, and they are not played here.<br>
+ * Each part is measured on its own with the bytes the thread allocated, after a warm up so the one time allocations
+ * (growing the recording, loading classes, compiling) are not counted.<br>
+ * Any bytes allocated per tick are reported and the check exits with 1, so it can fail a build.<br>
+ * This needs a HotSpot based JVM, which counts the bytes allocated by each thread.
+ * @author GOD
+ */
+public class AllocationCheck
+{
+    /**
+     * The number of steps per second, the same as MainThread.FPS
+     */
+    private static final int FPS = 30;
+
+    /**
+     * The number of ticks we play before measuring
+     */
+    private static final int WARMUP = 20000;
+
+    /**
+     * The number of ticks we measure
+     */
+    private static final int TICKS = 10000;
+
+    /**
+     * The number of steps in each run before we start a new one, the autopilot rarely dies on its own
+     */
+    private static final int RUN_LENGTH = 1500;
+
+    /**
+     * The time the autopilot is allowed to search each step, less than the game so the check runs quickly (nanoseconds)
+     */
+    private static final long AUTOPILOT_BUDGET = 100000L;
+
+    /**
+     * The screen states of the metrics, the screens need Android so they are only labels here
+     */
+    private static final String[] STATES = {"Check"};
+
+    /**
+     * A part of the frame we measure on its own
+     */
+    private static abstract class Part
+    {
+        //the name we report
+        private final String name;
+
+        //the bytes allocated while measuring
+        private long allocated;
+
+        private Part(final String name)
+        {
+            this.name = name;
+        }
+
+        /**
+         * Play the part of a single frame
+         * @param tick The number of the frame
+         */
+        abstract void tick(final int tick);
+    }
+
+    //the thread allocation counter
+    private static com.sun.management.ThreadMXBean THREADS;
+
+    //the game we are playing, and the ghost playing the previous run
+    private static final Simulation GAME = new Simulation(1, Simulation.PIPE_GAP_NORMAL, false);
+    private static final GhostRun GHOST = new GhostRun();
+    private static final Autopilot AUTOPILOT = new Autopilot(Rules.DEFAULT, AUTOPILOT_BUDGET);
+    private static final Recording RECORDING = new Recording(), PREVIOUS = new Recording();
+
+    //the rest of the frame
+    private static final Parallax PARALLAX = Parallax.createBackground(Simulation.WIDTH);
+    private static final DigitLayout DIGITS = new DigitLayout(55, Simulation.WIDTH);
+    private static final RingTracer TRACER = new RingTracer(4096);
+    private static MetricsRecorder METRICS;
+
+    //the number of runs played
+    private static int RUNS = 0;
+
+    public static void main(final String[] args) throws IOException
+    {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            Check.fail("This JVM doesn't count the bytes allocated by each thread");
+
+        THREADS = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        final File file = File.createTempFile("Metrics", null);
+        file.deleteOnExit();
+        new File(file.getPath() + MetricsRecorder.PREVIOUS_SUFFIX).deleteOnExit();
+        METRICS = new MetricsRecorder(file, FPS * 60, FPS, STATES);
+
+        JankDetector.setup(FPS, STATES);
+        Trace.setTracer(TRACER);
+
+        final Part[] parts = {
+            new Part("Game")
+            {
+                @Override
+                void tick(final int tick)
+                {
+                    Trace.begin("Game.update");
+                    stepGame();
+                    Trace.end();
+                }
+            },
+            new Part("Ghost")
+            {
+                @Override
+                void tick(final int tick)
+                {
+                    GHOST.update(GAME.getState());
+                }
+            },
+            new Part("Parallax")
+            {
+                @Override
+                void tick(final int tick)
+                {
+                    PARALLAX.update();
+                }
+            },
+            new Part("Digits")
+            {
+                @Override
+                void tick(final int tick)
+                {
+                    //the score while playing, then the score and best on the game over screen
+                    DIGITS.set(GAME.getState().score, 0, true);
+                    DIGITS.set(tick, 346, false);
+                    DIGITS.set(Integer.MAX_VALUE, 346, false);
+                }
+            },
+            new Part("Metrics")
+            {
+                @Override
+                void tick(final int tick)
+                {
+                    final SimulationState state = GAME.getState();
+
+                    JankDetector.mark(JankDetector.FLAG_SOUND);
+
+                    //every so often the frame is late
+                    final long frame = (tick % 100 == 0) ? 50000000L : 33000000L;
+                    final int flags = JankDetector.check(frame, 2000000L, 500000L, 8000000L, 1000000L, false, 0,
+                        state.step, state.score, state.pipeCount, state.fuelCount);
+
+                    METRICS.record(state.step, frame, 2000000L, 8000000L, 0, state.pipeCount, state.fuelCount, flags, 12, 0, 0);
+                }
+            },
+        };
+
+        //warm up, the recording grows and the code is compiled
+        for (int tick = 0; tick < WARMUP; tick++)
+        {
+            for (Part part : parts)
+            {
+                part.tick(tick);
+            }
+        }
+
+        //the counter itself may allocate, measure it so we don't blame the game
+        final long before = allocated();
+        final long overhead = allocated() - before;
+
+        for (Part part : parts)
+        {
+            final long start = allocated();
+
+            for (int tick = 0; tick < TICKS; tick++)
+            {
+                part.tick(WARMUP + tick);
+            }
+
+            part.allocated = Math.max(0, allocated() - start - overhead);
+        }
+
+        METRICS.close();
+
+        int failures = 0;
+
+        for (Part part : parts)
+        {
+            System.out.println(
+                part.name + ": " + part.allocated + " bytes in " + TICKS + " ticks, " +
+                ((double)part.allocated / TICKS) + " bytes per tick"
+            );
+
+            if (part.allocated > 0)
+                failures++;
+        }
+
+        System.out.println("Runs " + RUNS + ", autopilot decisions " + AUTOPILOT.getDecisionCount() + ", trace sections " + TRACER.getWritten());
+
+        Check.finish("Parts allocating per tick", failures);
+    }
+
+    /**
+     * Play a step of the game, like Game.update
+     */
+    private static void stepGame()
+    {
+        final SimulationState state = GAME.getState();
+
+        //start a new run once this one is over, the ghost plays the run we just finished
+        if (state.dead || state.step >= RUN_LENGTH)
+        {
+            RECORDING.finish(state);
+            PREVIOUS.copy(RECORDING);
+            GHOST.reset(PREVIOUS);
+
+            RUNS++;
+
+            final boolean survival = (RUNS % 2 == 1);
+            GAME.reset(RUNS, Simulation.PIPE_GAP_NORMAL, survival);
+            RECORDING.reset(RUNS, Simulation.PIPE_GAP_NORMAL, survival);
+            AUTOPILOT.reset();
+            PARALLAX.reset();
+        }
+
+        //the autopilot assists a player who never jumps, so every jump is recorded like the player's
+        GameStep.step(GAME, AUTOPILOT, RECORDING, false, false, true);
+    }
+
+    /**
+     * Get the bytes allocated by this thread
+     * @return The bytes allocated since the thread started
+     */
+    private static long allocated()
+    {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
\ No newline at end of file
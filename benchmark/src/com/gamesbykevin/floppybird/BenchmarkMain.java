@@ -0,0 +1,46 @@
+package com.gamesbykevin.floppybird;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run every benchmark of the per frame hot paths on the desktop JVM.<br>
+ * The android bound classes are not measured directly, instead we measure the pure java code they delegate to
+ * (the simulation, the outlines, the parallax, the digit layout, the leaderboard and the run statistics).<br>
+ * <br>
+ * Compile the benchmark sources together with the pure java packages of the game (the simulation, background.Parallax,
+ * storage.score.DigitLayout, storage.score.Leaderboard and storage.history) against jmh-core, with the
+ * jmh-generator-annprocess annotation processor on the processor path, then run this class.<br>
+ * Each benchmark reports the average time per operation in nanoseconds, and the GC profiler adds the allocation rate
+ * (gc.alloc.rate.norm should be 0 bytes per operation for anything called each frame).<br>
+ * Any arguments are passed as a regular expression to select the benchmarks to run.
+ * @author GOD
+ */
+public class BenchmarkMain
+{
+    public static void main(final String[] args) throws RunnerException
+    {
+        final OptionsBuilder builder = new OptionsBuilder();
+
+        //run the selected benchmarks, or all of them
+        if (args.length > 0)
+        {
+            for (String include : args)
+            {
+                builder.include(include);
+            }
+        }
+        else
+        {
+            builder.include("com\\.gamesbykevin\\.floppybird\\..*Benchmark");
+        }
+
+        //report the allocations along with the time
+        final Options options = builder.addProfiler(GCProfiler.class).build();
+
+        new Runner(options).run();
+    }
+}
\ No newline at end of file
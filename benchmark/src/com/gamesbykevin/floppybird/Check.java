@@ -0,0 +1,37 @@
+package com.gamesbykevin.floppybird;
+
+/**
+ * The end of every check run from the command line (AllocationCheck, ReplayCheck and ConcurrencyCheck).<br>
+ * A check prints what it measured, then hands its failures here, and the JVM exits with 1 if any failed so it can fail a build.
+ * @author GOD
+ */
+public final class Check
+{
+    private Check()
+    {
+        //static helper, no instances
+    }
+
+    /**
+     * Exit with 1 if the check failed
+     * @param what What failed, reported with the number of failures
+     * @param failures The number of failures, 0 if the check passed
+     */
+    public static void finish(final String what, final int failures)
+    {
+        if (failures == 0)
+            return;
+
+        fail(what + " " + failures);
+    }
+
+    /**
+     * Report why the check can't pass and exit with 1
+     * @param message What went wrong
+     */
+    public static void fail(final String message)
+    {
+        System.out.println(message);
+        System.exit(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.gamesbykevin.floppybird.autopilot;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Measure the decisions per second of the autopilot playing back to back games.<br>
+ * After each iteration we also print how well it played: the games survived, the causes of death,
+ * and how often a single decision took more than twice the budget (the longest decisions are usually the scheduler, not the search)
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutopilotBenchmark
+{
+    /**
+     * Games that last this long are stopped and counted as survived (5 minutes at 30 steps per second)
+     */
+    private static final int STEPS_LIMIT = 30 * 300;
+
+    @Param({"150", "120", "100"})
+    public int gap;
+
+    @Param({"false", "true"})
+    public boolean survival;
+
+    private final Simulation simulation = new Simulation(0, Simulation.PIPE_GAP_NORMAL, false);
+
+    private Autopilot autopilot;
+
+    //the seed of the current game
+    private long seed;
+
+    //the number of games finished, survived, and the total score
+    private int games, survived;
+    private long score;
+
+    //the number of decisions that took more than twice the budget
+    private long slow;
+
+    //the number of games for each cause of death
+    private final int[] deaths = new int[SimulationState.DEATH_CAUSES];
+
+    @Setup(Level.Iteration)
+    public void setup()
+    {
+        //a new autopilot each iteration, so the longest decision is not from the warm up
+        autopilot = new Autopilot();
+        games = 0;
+        survived = 0;
+        score = 0;
+        slow = 0;
+
+        for (int index = 0; index < deaths.length; index++)
+        {
+            deaths[index] = 0;
+        }
+
+        simulation.reset(seed, gap, survival);
+    }
+
+    @Benchmark
+    public boolean decide()
+    {
+        final SimulationState state = simulation.getState();
+
+        //start the next game once this one ends
+        if (state.dead || state.ticks >= STEPS_LIMIT)
+        {
+            games++;
+            score += state.score;
+
+            if (state.dead)
+                deaths[state.death]++;
+            else
+                survived++;
+
+            simulation.reset(++seed, gap, survival);
+        }
+
+        final boolean decision = autopilot.decide(state);
+        simulation.step(decision);
+
+        if (autopilot.getSearchTime() > Autopilot.BUDGET * 2)
+            slow++;
+
+        return decision;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report()
+    {
+        System.out.println();
+        System.out.println(
+            "games " + games + ", survived " + survived +
+            ", ground " + deaths[SimulationState.DEATH_GROUND] +
+            ", pipe " + deaths[SimulationState.DEATH_PIPE] +
+            ", fuel " + deaths[SimulationState.DEATH_FUEL] +
+            ", mean score " + ((games == 0) ? 0 : score / games) +
+            ", steps simulated per decision " + (autopilot.getNodeCount() / Math.max(1, autopilot.getDecisionCount())) +
+            ", decisions over twice the budget " + slow + " of " + autopilot.getDecisionCount() +
+            ", longest decision " + (autopilot.getSearchTimeMax() / 1000) + "us"
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.gamesbykevin.floppybird.background;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.floppybird.simulation.Simulation;
+
+/**
+ * Measure the background scrolling done in Background.update
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallaxBenchmark
+{
+    //the same layers as the game: ground, sky, cloud and bush
+    private final Parallax parallax = Parallax.createBackground(Simulation.WIDTH);
+
+    @Benchmark
+    public int update()
+    {
+        parallax.update();
+
+        return parallax.getX(Parallax.LAYER_GROUND);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,284 @@
+package com.gamesbykevin.floppybird.balance;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.gamesbykevin.floppybird.simulation.Rules;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Play a large number of seeded games with scripted players on every core,
+ * and report how survivable each difficulty and mode is.<br>
+ * <br>
+ * Options (all optional):<br>
+ * --games=N        the number of games for each difficulty, mode and player (default 100000)<br>
+ * --gaps=A,B,C     the pipe gaps to compare (default the easy, normal and hard gaps)<br>
+ * --jump=N --drop=N --spawn=N --display=N --fuel=N --fuelAdd=N  play different rules<br>
+ * --threads=N      the number of threads (default every core)<br>
+ * --curves         also print the complete survival curve and score distribution as CSV<br>
+ * <br>
+ * Every configuration plays the same seeds, so the differences between configurations are not noise from the seeds.
+ * @author GOD
+ */
+public class Balancer
+{
+    /**
+     * The number of steps per second in the game, the same as MainThread.FPS
+     */
+    private static final int FPS = 30;
+
+    /**
+     * Games that last this long are stopped and counted as survived (10 minutes)
+     */
+    private static final int SECONDS_LIMIT = 600;
+
+    /**
+     * The number of games played by a single task before we split the work
+     */
+    private static final int THRESHOLD = 2048;
+
+    /**
+     * The players we simulate, from a slow new player to a quick precise one
+     */
+    private static final Player.Profile[] PROFILES = {
+        new Player.Profile("novice", 8, 16, 4),
+        new Player.Profile("casual", 5, 10, 6),
+        new Player.Profile("skilled", 3, 6, 6),
+        new Player.Profile("expert", 1, 3, 6),
+    };
+
+    /**
+     * The name of each mode, the same order as the options screen
+     */
+    private static final String[] MODES = {"Normal", "Survival"};
+
+    /**
+     * The seconds reported in the summary
+     */
+    private static final int[] SURVIVAL_SECONDS = {5, 10, 30, 60, 120};
+
+    /**
+     * A single configuration to play
+     */
+    private static final class Configuration
+    {
+        final Rules rules;
+        final int pipeGap;
+        final boolean survival;
+        final Player.Profile profile;
+
+        Configuration(final Rules rules, final int pipeGap, final boolean survival, final Player.Profile profile)
+        {
+            this.rules = rules;
+            this.pipeGap = pipeGap;
+            this.survival = survival;
+            this.profile = profile;
+        }
+    }
+
+    /**
+     * Play a range of games, splitting the range until it is small enough to play on one thread
+     */
+    private static final class Task extends RecursiveTask<Outcome>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Configuration configuration;
+        private final long from, to;
+
+        Task(final Configuration configuration, final long from, final long to)
+        {
+            this.configuration = configuration;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Outcome compute()
+        {
+            if (to - from > THRESHOLD)
+            {
+                final long middle = (from + to) >>> 1;
+                final Task left = new Task(configuration, from, middle);
+                final Task right = new Task(configuration, middle, to);
+
+                left.fork();
+                final Outcome outcome = right.compute();
+                outcome.merge(left.join());
+                return outcome;
+            }
+
+            final Outcome outcome = new Outcome(SECONDS_LIMIT, FPS);
+            final Simulation simulation = new Simulation(0, configuration.pipeGap, configuration.survival, configuration.rules);
+            final SimulationState state = simulation.getState();
+            final Player player = new Player(configuration.profile, configuration.rules);
+            final int limit = SECONDS_LIMIT * FPS;
+
+            for (long game = from; game < to; game++)
+            {
+                //the same seeds for every configuration
+                simulation.reset(game, configuration.pipeGap, configuration.survival);
+                player.reset(~game);
+
+                while (!state.dead && state.ticks < limit)
+                {
+                    simulation.step(player.decide(state));
+                }
+
+                outcome.add(state);
+            }
+
+            return outcome;
+        }
+    }
+
+    public static void main(final String[] args)
+    {
+        long games = 100000;
+        int[] gaps = {Simulation.PIPE_GAP_EASY, Simulation.PIPE_GAP_NORMAL, Simulation.PIPE_GAP_HARD};
+        int jump = Simulation.JUMP_HEIGHT_MAX, drop = Simulation.DROP_HEIGHT_MAX;
+        int spawn = Simulation.PIPE_PIXEL_SPAWN, display = Simulation.PIPE_DISPLAY_MIN;
+        int fuel = Simulation.FUEL_MAX, fuelAdd = Simulation.FUEL_ADD;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean curves = false;
+
+        for (String arg : args)
+        {
+            final String value = arg.substring(arg.indexOf('=') + 1);
+
+            if (arg.startsWith("--games="))
+                games = Long.parseLong(value);
+            else if (arg.startsWith("--gaps="))
+                gaps = parse(value);
+            else if (arg.startsWith("--jump="))
+                jump = Integer.parseInt(value);
+            else if (arg.startsWith("--drop="))
+                drop = Integer.parseInt(value);
+            else if (arg.startsWith("--spawn="))
+                spawn = Integer.parseInt(value);
+            else if (arg.startsWith("--display="))
+                display = Integer.parseInt(value);
+            else if (arg.startsWith("--fuel="))
+                fuel = Integer.parseInt(value);
+            else if (arg.startsWith("--fuelAdd="))
+                fuelAdd = Integer.parseInt(value);
+            else if (arg.startsWith("--threads="))
+                threads = Integer.parseInt(value);
+            else if (arg.equals("--curves"))
+                curves = true;
+            else
+                throw new IllegalArgumentException("Unknown option " + arg);
+        }
+
+        final Rules rules = new Rules(jump, drop, spawn, display, fuel, fuelAdd);
+
+        //make sure every pipe gap fits on the screen
+        for (int gap : gaps)
+        {
+            rules.checkGap(gap);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+
+        System.out.println("# " + rules + ", " + games + " games per configuration, " + threads + " threads");
+
+        final StringBuilder header = new StringBuilder("gap,mode,player,games,meanScore,p50,p90,p99,best,meanSeconds");
+
+        for (int second : SURVIVAL_SECONDS)
+        {
+            header.append(",alive").append(second).append('s');
+        }
+
+        header.append(",ground,pipe,fuel,limit");
+        System.out.println(header);
+
+        long played = 0;
+        final long start = System.nanoTime();
+
+        for (int gap : gaps)
+        {
+            for (int mode = 0; mode < MODES.length; mode++)
+            {
+                for (Player.Profile profile : PROFILES)
+                {
+                    final Configuration configuration = new Configuration(rules, gap, mode == 1, profile);
+                    final Outcome outcome = pool.invoke(new Task(configuration, 0, games));
+                    played += outcome.games;
+
+                    final StringBuilder line = new StringBuilder();
+                    line.append(gap).append(',').append(MODES[mode]).append(',').append(profile.name);
+                    line.append(',').append(outcome.games);
+                    line.append(',').append(format(outcome.getMeanScore()));
+                    line.append(',').append(outcome.getPercentile(50));
+                    line.append(',').append(outcome.getPercentile(90));
+                    line.append(',').append(outcome.getPercentile(99));
+                    line.append(',').append(outcome.best);
+                    line.append(',').append(format(outcome.getMeanSeconds()));
+
+                    for (int second : SURVIVAL_SECONDS)
+                    {
+                        line.append(',').append(format(outcome.getSurvival(second)));
+                    }
+
+                    line.append(',').append(outcome.deaths[SimulationState.DEATH_GROUND]);
+                    line.append(',').append(outcome.deaths[SimulationState.DEATH_PIPE]);
+                    line.append(',').append(outcome.deaths[SimulationState.DEATH_FUEL]);
+                    line.append(',').append(outcome.deaths[SimulationState.DEATH_NONE]);
+                    System.out.println(line);
+
+                    if (curves)
+                        printCurves(gap + "," + MODES[mode] + "," + profile.name, outcome);
+                }
+            }
+        }
+
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.println("# " + played + " games in " + (elapsed / 1000000) + "ms, " + (long)(played * 1000000000.0 / elapsed) + " games per second");
+
+        pool.shutdown();
+    }
+
+    /**
+     * Print the survival curve (fraction of games going after each second) and the score distribution
+     * @param prefix The configuration at the start of each line
+     * @param outcome The results to print
+     */
+    private static void printCurves(final String prefix, final Outcome outcome)
+    {
+        for (int second = 0; second <= SECONDS_LIMIT; second++)
+        {
+            System.out.println("curve," + prefix + "," + second + "," + format(outcome.getSurvival(second)));
+
+            //stop once every game has ended
+            if (outcome.getSurvival(second) == 0)
+                break;
+        }
+
+        for (int score = 0; score < outcome.scores.length; score++)
+        {
+            if (outcome.scores[score] > 0)
+                System.out.println("score," + prefix + "," + score + "," + outcome.scores[score]);
+        }
+    }
+
+    private static String format(final double value)
+    {
+        return String.format(Locale.US, "%.4f", value);
+    }
+
+    private static int[] parse(final String value)
+    {
+        final String[] values = value.split(",");
+        final int[] result = new int[values.length];
+
+        for (int index = 0; index < values.length; index++)
+        {
+            result[index] = Integer.parseInt(values[index].trim());
+        }
+
+        return result;
+    }
+}
\ No newline at end of file
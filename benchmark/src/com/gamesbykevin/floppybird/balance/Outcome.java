@@ -0,0 +1,140 @@
+package com.gamesbykevin.floppybird.balance;
+
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * The combined results of many games played with the same configuration
+ * @author GOD
+ */
+final class Outcome
+{
+    /**
+     * Scores at or above this are counted together
+     */
+    static final int SCORE_LIMIT = 256;
+
+    //the number of games
+    long games;
+
+    //the total score and the total steps alive
+    long totalScore, totalTicks;
+
+    //the best score
+    int best;
+
+    //the number of games for each score
+    final long[] scores = new long[SCORE_LIMIT + 1];
+
+    //the number of games that ended in each second, the last is every game that lasted longer
+    final long[] ended;
+
+    //the number of games for each cause of death, games that reached the step limit count as DEATH_NONE
+    final long[] deaths = new long[SimulationState.DEATH_CAUSES];
+
+    //the number of steps per second
+    private final int fps;
+
+    Outcome(final int seconds, final int fps)
+    {
+        this.ended = new long[seconds + 1];
+        this.fps = fps;
+    }
+
+    /**
+     * Add a game
+     * @param state The state of the game when it ended
+     */
+    void add(final SimulationState state)
+    {
+        games++;
+        totalScore += state.score;
+        totalTicks += state.ticks;
+        best = Math.max(best, state.score);
+        scores[Math.min(state.score, SCORE_LIMIT)]++;
+        ended[Math.min(state.ticks / fps, ended.length - 1)]++;
+        deaths[state.dead ? state.death : SimulationState.DEATH_NONE]++;
+    }
+
+    /**
+     * Combine the results of another outcome
+     * @param other The results we are adding
+     */
+    void merge(final Outcome other)
+    {
+        games += other.games;
+        totalScore += other.totalScore;
+        totalTicks += other.totalTicks;
+        best = Math.max(best, other.best);
+
+        for (int index = 0; index < scores.length; index++)
+        {
+            scores[index] += other.scores[index];
+        }
+
+        for (int index = 0; index < ended.length; index++)
+        {
+            ended[index] += other.ended[index];
+        }
+
+        for (int index = 0; index < deaths.length; index++)
+        {
+            deaths[index] += other.deaths[index];
+        }
+    }
+
+    /**
+     * Get the survival
+     * @param second The number of seconds
+     * @return The fraction of games still going after the number of seconds
+     */
+    double getSurvival(final int second)
+    {
+        long count = 0;
+
+        for (int index = 0; index < Math.min(second, ended.length); index++)
+        {
+            count += ended[index];
+        }
+
+        return (games == 0) ? 0 : (double)(games - count) / games;
+    }
+
+    /**
+     * Get the score percentile
+     * @param percentile The percentile (0 - 100)
+     * @return The lowest score reached by the percentile of games, scores at the limit are reported as the limit
+     */
+    int getPercentile(final double percentile)
+    {
+        final long rank = (long)Math.ceil(games * (percentile / 100.0));
+        long count = 0;
+
+        for (int index = 0; index < scores.length; index++)
+        {
+            count += scores[index];
+
+            if (count >= rank && count > 0)
+                return index;
+        }
+
+        return SCORE_LIMIT;
+    }
+
+    /**
+     * Get the mean score
+     * @return The average score of every game
+     */
+    double getMeanScore()
+    {
+        return (games == 0) ? 0 : (double)totalScore / games;
+    }
+
+    /**
+     * Get the mean seconds
+     * @return The average number of seconds the bird was alive
+     */
+    double getMeanSeconds()
+    {
+        return (games == 0) ? 0 : (double)totalTicks / games / fps;
+    }
+}
\ No newline at end of file
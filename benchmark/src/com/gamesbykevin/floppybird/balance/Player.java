@@ -0,0 +1,164 @@
+package com.gamesbykevin.floppybird.balance;
+
+import java.util.Random;
+
+import com.gamesbykevin.floppybird.simulation.Rules;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * A scripted player with human limits.<br>
+ * The player aims to stay just above the bottom of the next gap, but sees the screen late (the reaction delay)
+ * and misjudges where the bottom is (the jitter, picked again after every jump).<br>
+ * The player allows for their own delay when judging the fall, but can't see the next pipe coming any sooner.
+ * @author GOD
+ */
+final class Player
+{
+    /**
+     * A player profile
+     */
+    static final class Profile
+    {
+        //the name of the profile
+        final String name;
+
+        //the number of steps between seeing the screen and the jump
+        final int delay;
+
+        //the standard deviation of the misjudged gap (pixels)
+        final double jitter;
+
+        //how close to the bottom of the gap the player lets the bird fall (pixels)
+        final int margin;
+
+        Profile(final String name, final int delay, final double jitter, final int margin)
+        {
+            this.name = name;
+            this.delay = delay;
+            this.jitter = jitter;
+            this.margin = margin;
+        }
+    }
+
+    //the profile we are playing
+    private final Profile profile;
+
+    //the rules of the game, the player knows how fast the bird falls
+    private final Rules rules;
+
+    //the decisions made but not yet applied, one for each step of the delay
+    private final boolean[] pending;
+
+    //the position in our pending decisions
+    private int head;
+
+    //the number of jumps pending
+    private int queued;
+
+    //the misjudged distance of the current jump
+    private int offset;
+
+    //the player's own random numbers, separate from the simulation
+    private final Random random = new Random();
+
+    Player(final Profile profile, final Rules rules)
+    {
+        this.profile = profile;
+        this.rules = rules;
+        this.pending = new boolean[profile.delay];
+    }
+
+    /**
+     * Start a new game
+     * @param seed The seed of the player's random numbers
+     */
+    void reset(final long seed)
+    {
+        random.setSeed(seed);
+
+        for (int index = 0; index < pending.length; index++)
+        {
+            pending[index] = false;
+        }
+
+        head = 0;
+        queued = 0;
+        offset = 0;
+    }
+
+    /**
+     * Should the bird jump?
+     * @param state The current state of the game
+     * @return true if the bird should jump on the next step, false otherwise
+     */
+    boolean decide(final SimulationState state)
+    {
+        //the player won't jump again until the previous jump happens
+        final boolean now = (queued == 0) && wants(state);
+
+        if (pending.length == 0)
+            return now;
+
+        //the decision made the delay ago is applied now
+        final boolean result = pending[head];
+        pending[head] = now;
+        head = (head + 1) % pending.length;
+
+        if (now)
+            queued++;
+        if (result)
+            queued--;
+
+        return result;
+    }
+
+    /**
+     * Does the player want to jump based on what they see now?
+     * @param state The current state of the game
+     * @return true if the player wants to jump, false otherwise
+     */
+    private boolean wants(final SimulationState state)
+    {
+        //the bird needs to jump to start
+        if (!state.started)
+            return true;
+
+        //by default stay above the middle of the screen
+        int target = (Simulation.HEIGHT - Simulation.GROUND_HEIGHT) / 2;
+        int nearest = Integer.MAX_VALUE;
+
+        //find the next pipe the bird has not passed
+        for (int index = 0; index < state.pipeCount; index++)
+        {
+            if (state.pipePause[index] || state.pipeX[index] + Simulation.PIPE_WIDTH < state.birdX)
+                continue;
+
+            if (state.pipeX[index] < nearest)
+            {
+                nearest = state.pipeX[index];
+                target = state.pipeBottom[index] - profile.margin;
+            }
+        }
+
+        //the player knows they are slow, so they judge where the bird will be once the jump happens
+        int bottom = state.birdY + state.birdHeight;
+        int velocity = state.birdDY;
+
+        for (int step = 0; step <= profile.delay; step++)
+        {
+            bottom += velocity;
+            velocity = Math.min(velocity + 1, rules.dropHeightMax);
+        }
+
+        //jump if the fall would take the bird below where the player thinks the target is
+        if (bottom > target + offset)
+        {
+            //the player misjudges the next jump differently
+            offset = (int)Math.round(random.nextGaussian() * profile.jitter);
+            return true;
+        }
+
+        return false;
+    }
+}
\ No newline at end of file
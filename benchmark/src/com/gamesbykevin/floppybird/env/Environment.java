@@ -0,0 +1,243 @@
+package com.gamesbykevin.floppybird.env;
+
+import com.gamesbykevin.floppybird.simulation.Rules;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * A reinforcement learning environment over the game simulation.<br>
+ * reset() starts an episode, step() applies an action and returns the reward,
+ * and observe() writes the observation into an array the caller owns, so nothing is allocated per step.<br>
+ * <br>
+ * The observation is OBSERVATION_SIZE floats, y-coordinates are scaled by the height above the ground and x-distances by the screen width:<br>
+ * 0: the y-coordinate of the bird<br>
+ * 1: the y-velocity of the bird, scaled by the maximum fall speed<br>
+ * 2: the fuel left, scaled by the starting fuel (always 1 when the bird does not use fuel)<br>
+ * 3 - 5: the distance to the end of the next pipe, the top and the bottom of its gap<br>
+ * 6 - 8: the same for the pipe after that<br>
+ * 9 - 10: the distance to the next fuel tank, and the y-coordinate of its middle<br>
+ * 11: 1 if the bird uses fuel, 0 otherwise<br>
+ * A missing pipe or tank is reported as far away, with the gap covering the whole screen.
+ * @author GOD
+ */
+public final class Environment
+{
+    /**
+     * The number of floats in each observation
+     */
+    public static final int OBSERVATION_SIZE = 12;
+
+    //the height above the ground, and the scale of each coordinate
+    private static final int PLAYABLE = Simulation.HEIGHT - Simulation.GROUND_HEIGHT;
+    private static final float SCALE_X = 1f / Simulation.WIDTH, SCALE_Y = 1f / PLAYABLE;
+
+    //the simulation we play
+    private final Simulation simulation;
+
+    //the state of the simulation
+    private final SimulationState state;
+
+    //the reward for each step
+    private final Reward reward;
+
+    //the pipe gap, does the bird use fuel, and the number of steps before the episode is stopped
+    private final int pipeGap, stepsLimit;
+    private final boolean survival;
+
+    //the sum of the rewards of the current episode
+    private float total;
+
+    //did the bird die, did the episode reach the step limit
+    private boolean terminated, truncated;
+
+    /**
+     * Create an environment
+     * @param rules The rules of the game
+     * @param reward The reward for each step
+     * @param pipeGap The y-pixel difference between the top and bottom pipes
+     * @param survival Does the bird use fuel
+     * @param stepsLimit The number of steps before an episode is stopped, 0 for no limit
+     */
+    public Environment(final Rules rules, final Reward reward, final int pipeGap, final boolean survival, final int stepsLimit)
+    {
+        if (stepsLimit < 0)
+            throw new IllegalArgumentException("The step limit can't be negative " + stepsLimit);
+
+        this.simulation = new Simulation(0, pipeGap, survival, rules);
+        this.state = simulation.getState();
+        this.reward = reward;
+        this.pipeGap = pipeGap;
+        this.survival = survival;
+        this.stepsLimit = stepsLimit;
+    }
+
+    /**
+     * Start a new episode.<br>
+     * The bird waits for the first jump before it falls, so the episode starts with that jump already made
+     * @param seed The seed of the episode, the same seed and actions will always play the same
+     */
+    public void reset(final long seed)
+    {
+        simulation.reset(seed, pipeGap, survival);
+        simulation.step(true);
+
+        this.total = 0;
+        this.terminated = false;
+        this.truncated = false;
+    }
+
+    /**
+     * Apply an action
+     * @param flap true to jump, false to let the bird fall
+     * @return The reward for the step
+     */
+    public float step(final boolean flap)
+    {
+        //there is nothing left to do once the episode is done
+        if (isDone())
+            return 0;
+
+        final int events = simulation.step(flap);
+
+        float result = 0;
+
+        if ((events & Simulation.EVENT_FLAP) != 0)
+            result += reward.flap;
+        if ((events & Simulation.EVENT_SCORE) != 0)
+            result += reward.pipe;
+        if ((events & Simulation.EVENT_FUEL) != 0)
+            result += reward.fuel;
+
+        if (state.dead)
+        {
+            result += reward.death;
+            terminated = true;
+        }
+        else
+        {
+            result += reward.alive;
+
+            if (stepsLimit > 0 && state.ticks >= stepsLimit)
+                truncated = true;
+        }
+
+        total += result;
+        return result;
+    }
+
+    /**
+     * Write the current observation
+     * @param observation Where we write the observation
+     * @param offset The position of the first float
+     */
+    public void observe(final float[] observation, final int offset)
+    {
+        //find the next two pipes the bird has not passed, and the next fuel tank
+        int pipe = -1, following = -1, fuel = -1;
+
+        for (int index = 0; index < state.pipeCount; index++)
+        {
+            if (state.pipePause[index] || state.pipeX[index] + Simulation.PIPE_WIDTH < state.birdX)
+                continue;
+
+            if (pipe < 0 || state.pipeX[index] < state.pipeX[pipe])
+            {
+                following = pipe;
+                pipe = index;
+            }
+            else if (following < 0 || state.pipeX[index] < state.pipeX[following])
+            {
+                following = index;
+            }
+        }
+
+        for (int index = 0; index < state.fuelCount; index++)
+        {
+            if (state.fuelPause[index] || state.fuelX[index] + Simulation.FUEL_WIDTH < state.birdX)
+                continue;
+
+            if (fuel < 0 || state.fuelX[index] < state.fuelX[fuel])
+                fuel = index;
+        }
+
+        observation[offset] = state.birdY * SCALE_Y;
+        observation[offset + 1] = (float)state.birdDY / simulation.getRules().dropHeightMax;
+        observation[offset + 2] = (survival) ? (float)state.fuel / simulation.getRules().fuelMax : 1f;
+        observePipe(observation, offset + 3, pipe);
+        observePipe(observation, offset + 6, following);
+
+        if (fuel < 0)
+        {
+            observation[offset + 9] = 1f;
+            observation[offset + 10] = 0.5f;
+        }
+        else
+        {
+            observation[offset + 9] = (state.fuelX[fuel] + Simulation.FUEL_WIDTH - state.birdX) * SCALE_X;
+            observation[offset + 10] = (state.fuelY[fuel] + (Simulation.FUEL_HEIGHT / 2)) * SCALE_Y;
+        }
+
+        observation[offset + 11] = (survival) ? 1f : 0f;
+    }
+
+    private void observePipe(final float[] observation, final int offset, final int index)
+    {
+        if (index < 0)
+        {
+            observation[offset] = 1f;
+            observation[offset + 1] = 0f;
+            observation[offset + 2] = 1f;
+        }
+        else
+        {
+            observation[offset] = (state.pipeX[index] + Simulation.PIPE_WIDTH - state.birdX) * SCALE_X;
+            observation[offset + 1] = (state.pipeBottom[index] - state.pipeGap) * SCALE_Y;
+            observation[offset + 2] = state.pipeBottom[index] * SCALE_Y;
+        }
+    }
+
+    /**
+     * Is the episode done?
+     * @return true if the bird died or the episode reached the step limit, false otherwise
+     */
+    public boolean isDone()
+    {
+        return (terminated || truncated);
+    }
+
+    /**
+     * Did the bird die?
+     * @return true if the episode ended because the bird died, false otherwise
+     */
+    public boolean isTerminated()
+    {
+        return this.terminated;
+    }
+
+    /**
+     * Did the episode reach the step limit?
+     * @return true if the episode was stopped with the bird alive, false otherwise
+     */
+    public boolean isTruncated()
+    {
+        return this.truncated;
+    }
+
+    /**
+     * Get the return
+     * @return The sum of the rewards of the current episode
+     */
+    public float getReturn()
+    {
+        return this.total;
+    }
+
+    /**
+     * Get the state
+     * @return The state of the simulation, for statistics and debugging
+     */
+    public SimulationState getState()
+    {
+        return this.state;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.gamesbykevin.floppybird.env;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.floppybird.simulation.Rules;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+
+/**
+ * Measure the environment steps per second, a single environment and a batch on every core.<br>
+ * The actions are a random policy picked in advance, so we measure the environment and not the policy
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark
+{
+    /**
+     * The number of environments in the batch
+     */
+    private static final int COUNT = 4096;
+
+    /**
+     * The number of different action batches we cycle through
+     */
+    private static final int BATCHES = 64;
+
+    /**
+     * The chance of jumping on any step, about what keeps a random bird in the air
+     */
+    private static final float FLAP_CHANCE = 0.09f;
+
+    /**
+     * The number of steps before an episode is stopped (5 minutes)
+     */
+    private static final int STEPS_LIMIT = 30 * 300;
+
+    //the number of threads stepping the batch, 0 for every core
+    @Param({"1", "0"})
+    public int threads;
+
+    private final boolean[][] actions = new boolean[BATCHES][COUNT];
+
+    private final Environment environment = new Environment(Rules.DEFAULT, Reward.DEFAULT, Simulation.PIPE_GAP_NORMAL, false, STEPS_LIMIT);
+
+    private final float[] observation = new float[Environment.OBSERVATION_SIZE];
+
+    private VectorEnvironment batch;
+
+    //the current action batch, and the current action of the single environment
+    private int current, action;
+
+    private long seed;
+
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(0);
+
+        for (boolean[] batch : actions)
+        {
+            for (int index = 0; index < batch.length; index++)
+            {
+                batch[index] = random.nextFloat() < FLAP_CHANCE;
+            }
+        }
+
+        final int count = (threads == 0) ? Runtime.getRuntime().availableProcessors() : threads;
+        batch = new VectorEnvironment(COUNT, count, Rules.DEFAULT, Reward.DEFAULT, Simulation.PIPE_GAP_NORMAL, false, STEPS_LIMIT, 0);
+        environment.reset(seed);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        batch.close();
+    }
+
+    @Benchmark
+    public float single()
+    {
+        if (environment.isDone())
+            environment.reset(++seed);
+
+        final boolean[] batch = actions[current];
+        action = (action + 1) % COUNT;
+
+        if (action == 0)
+            current = (current + 1) % BATCHES;
+
+        final float reward = environment.step(batch[action]);
+        environment.observe(observation, 0);
+        return reward + observation[0];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public float vector()
+    {
+        batch.step(actions[current]);
+        current = (current + 1) % BATCHES;
+        return batch.getRewards()[0] + batch.getObservations()[0];
+    }
+}
\ No newline at end of file
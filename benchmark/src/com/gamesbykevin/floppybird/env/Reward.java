@@ -0,0 +1,52 @@
+package com.gamesbykevin.floppybird.env;
+
+/**
+ * The reward given to an agent for each step of the environment
+ * @author GOD
+ */
+public final class Reward
+{
+    /**
+     * A small reward for staying alive, a larger one for each pipe and fuel tank, and a penalty for dying
+     */
+    public static final Reward DEFAULT = new Reward(0.01f, 1f, 0.5f, -1f, 0f);
+
+    //the reward for each step the bird is alive
+    public final float alive;
+
+    //the reward for each pipe cleared, and each fuel tank collected
+    public final float pipe, fuel;
+
+    //the reward when the bird dies
+    public final float death;
+
+    //the reward for each jump, a negative value makes jumping cost something
+    public final float flap;
+
+    /**
+     * Create the reward
+     * @param alive The reward for each step the bird is alive
+     * @param pipe The reward for each pipe cleared
+     * @param fuel The reward for each fuel tank collected
+     * @param death The reward when the bird dies
+     * @param flap The reward for each jump
+     * @throws IllegalArgumentException If any reward is not a number
+     */
+    public Reward(final float alive, final float pipe, final float fuel, final float death, final float flap)
+    {
+        if (Float.isNaN(alive) || Float.isNaN(pipe) || Float.isNaN(fuel) || Float.isNaN(death) || Float.isNaN(flap))
+            throw new IllegalArgumentException("Every reward has to be a number");
+
+        this.alive = alive;
+        this.pipe = pipe;
+        this.fuel = fuel;
+        this.death = death;
+        this.flap = flap;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "alive=" + alive + " pipe=" + pipe + " fuel=" + fuel + " death=" + death + " flap=" + flap;
+    }
+}
\ No newline at end of file
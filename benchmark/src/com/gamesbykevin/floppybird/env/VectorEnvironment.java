@@ -0,0 +1,355 @@
+package com.gamesbykevin.floppybird.env;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.gamesbykevin.floppybird.simulation.Rules;
+
+/**
+ * Many independent environments stepped together on every core.<br>
+ * The results are written to primitive arrays owned by this object: the observations (OBSERVATION_SIZE floats for each environment),
+ * the rewards, and if each episode terminated or was truncated. Read them after each step, they are overwritten on the next.<br>
+ * An environment that is done starts its next episode right away, so the observation is already the first of the next episode.
+ * The score, return and length of the episode that just ended are kept until the environment is done again.<br>
+ * <br>
+ * The environments are split into one range for each thread. The caller steps the first range itself,
+ * and the worker threads are woken up with a generation number, so a step allocates nothing.
+ * @author GOD
+ */
+public final class VectorEnvironment implements Closeable
+{
+    /**
+     * The number of times a waiting thread checks for work before it parks
+     */
+    private static final int SPINS = 1 << 10;
+
+    //the environments
+    private final Environment[] environments;
+
+    //the observations, OBSERVATION_SIZE floats for each environment
+    private final float[] observations;
+
+    //the reward of the last step
+    private final float[] rewards;
+
+    //did the last step end the episode, because the bird died or because it reached the step limit
+    private final boolean[] terminated, truncated;
+
+    //the score, return and number of steps of the last episode that ended
+    private final int[] finalScores, finalLengths;
+    private final float[] finalReturns;
+
+    //the seed of the next episode of each environment
+    private final long[] seeds;
+
+    //the environments stepped by each thread, the caller has the first range
+    private final int[] ranges;
+
+    //the worker threads
+    private final Worker[] workers;
+
+    //the actions of the current step
+    private boolean[] actions;
+
+    //the thread waiting for the step to finish
+    private volatile Thread caller;
+
+    //the current step, the workers start when it changes
+    private volatile long generation;
+
+    //the number of workers still stepping
+    private final AtomicInteger pending = new AtomicInteger();
+
+    //have we been closed
+    private volatile boolean closed = false;
+
+    /**
+     * Create the environments
+     * @param count The number of environments
+     * @param threads The number of threads stepping the environments, including the caller
+     * @param rules The rules of the game
+     * @param reward The reward for each step
+     * @param pipeGap The y-pixel difference between the top and bottom pipes
+     * @param survival Does the bird use fuel
+     * @param stepsLimit The number of steps before an episode is stopped, 0 for no limit
+     * @param seed The seed of the first environment, every episode of every environment has its own seed after that
+     */
+    public VectorEnvironment(final int count, final int threads, final Rules rules, final Reward reward,
+        final int pipeGap, final boolean survival, final int stepsLimit, final long seed)
+    {
+        if (count < 1)
+            throw new IllegalArgumentException("We need at least 1 environment " + count);
+        if (threads < 1)
+            throw new IllegalArgumentException("We need at least 1 thread " + threads);
+
+        this.environments = new Environment[count];
+        this.observations = new float[count * Environment.OBSERVATION_SIZE];
+        this.rewards = new float[count];
+        this.terminated = new boolean[count];
+        this.truncated = new boolean[count];
+        this.finalScores = new int[count];
+        this.finalLengths = new int[count];
+        this.finalReturns = new float[count];
+        this.seeds = new long[count];
+
+        for (int index = 0; index < count; index++)
+        {
+            this.environments[index] = new Environment(rules, reward, pipeGap, survival, stepsLimit);
+            this.seeds[index] = seed + index;
+        }
+
+        //split the environments evenly, there is no point in more threads than environments
+        final int used = Math.min(threads, count);
+        this.ranges = new int[used + 1];
+
+        for (int index = 0; index <= used; index++)
+        {
+            this.ranges[index] = (int)((long)count * index / used);
+        }
+
+        this.workers = new Worker[used - 1];
+
+        for (int index = 0; index < workers.length; index++)
+        {
+            workers[index] = new Worker(index + 1);
+            workers[index].start();
+        }
+
+        reset();
+    }
+
+    /**
+     * A thread stepping a range of the environments
+     */
+    private final class Worker extends Thread
+    {
+        //the range we step
+        private final int range;
+
+        //the last step we finished
+        private long seen = 0;
+
+        private Worker(final int range)
+        {
+            super("VectorEnvironment-" + range);
+            this.range = range;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            while (true)
+            {
+                //wait for the next step
+                for (int spin = 0; spin < SPINS && generation == seen && !closed; spin++)
+                {
+                    //check again
+                }
+
+                if (closed)
+                    return;
+
+                if (generation == seen)
+                {
+                    LockSupport.park(this);
+                    continue;
+                }
+
+                seen = generation;
+                work(ranges[range], ranges[range + 1]);
+
+                //the last worker to finish wakes up the caller
+                if (pending.decrementAndGet() == 0)
+                    LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    /**
+     * Start a new episode in every environment
+     */
+    public void reset()
+    {
+        for (int index = 0; index < environments.length; index++)
+        {
+            environments[index].reset(nextSeed(index));
+            environments[index].observe(observations, index * Environment.OBSERVATION_SIZE);
+            rewards[index] = 0;
+            terminated[index] = false;
+            truncated[index] = false;
+        }
+    }
+
+    /**
+     * Step every environment
+     * @param actions The action for each environment, true to jump
+     */
+    public void step(final boolean[] actions)
+    {
+        if (closed)
+            throw new IllegalStateException("The environments have been closed");
+        if (actions.length < environments.length)
+            throw new IllegalArgumentException("We need an action for each environment " + actions.length);
+
+        this.actions = actions;
+        this.caller = Thread.currentThread();
+        this.pending.set(workers.length);
+
+        //the volatile write publishes the actions to the workers
+        this.generation++;
+
+        for (int index = 0; index < workers.length; index++)
+        {
+            LockSupport.unpark(workers[index]);
+        }
+
+        //step our own range while the workers step theirs
+        work(ranges[0], ranges[1]);
+
+        //wait for the workers
+        for (int spin = 0; pending.get() != 0; spin++)
+        {
+            if (spin >= SPINS)
+                LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Step a range of the environments
+     * @param from The first environment
+     * @param to The environment after the last
+     */
+    private void work(final int from, final int to)
+    {
+        final boolean[] actions = this.actions;
+
+        for (int index = from; index < to; index++)
+        {
+            final Environment environment = environments[index];
+
+            rewards[index] = environment.step(actions[index]);
+            terminated[index] = environment.isTerminated();
+            truncated[index] = environment.isTruncated();
+
+            //keep the results of the episode, and start the next
+            if (environment.isDone())
+            {
+                finalScores[index] = environment.getState().score;
+                finalLengths[index] = environment.getState().ticks;
+                finalReturns[index] = environment.getReturn();
+                environment.reset(nextSeed(index));
+            }
+
+            environment.observe(observations, index * Environment.OBSERVATION_SIZE);
+        }
+    }
+
+    /**
+     * Get the seed of the next episode, each environment counts in steps of the number of environments so no two episodes share a seed
+     * @param index The environment
+     * @return The seed of the next episode
+     */
+    private long nextSeed(final int index)
+    {
+        final long seed = seeds[index];
+        seeds[index] += environments.length;
+        return seed;
+    }
+
+    /**
+     * Stop the worker threads
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+
+        for (int index = 0; index < workers.length; index++)
+        {
+            LockSupport.unpark(workers[index]);
+
+            try
+            {
+                workers[index].join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Get the number of environments
+     * @return The number of environments stepped together
+     */
+    public int getCount()
+    {
+        return this.environments.length;
+    }
+
+    /**
+     * Get the observations
+     * @return OBSERVATION_SIZE floats for each environment, the observation of environment i starts at i * OBSERVATION_SIZE
+     */
+    public float[] getObservations()
+    {
+        return this.observations;
+    }
+
+    /**
+     * Get the rewards
+     * @return The reward of the last step of each environment
+     */
+    public float[] getRewards()
+    {
+        return this.rewards;
+    }
+
+    /**
+     * Get the terminated flags
+     * @return true for each environment where the bird died on the last step
+     */
+    public boolean[] getTerminated()
+    {
+        return this.terminated;
+    }
+
+    /**
+     * Get the truncated flags
+     * @return true for each environment that reached the step limit on the last step
+     */
+    public boolean[] getTruncated()
+    {
+        return this.truncated;
+    }
+
+    /**
+     * Get the final scores
+     * @return The score of the last episode that ended in each environment
+     */
+    public int[] getFinalScores()
+    {
+        return this.finalScores;
+    }
+
+    /**
+     * Get the final lengths
+     * @return The number of steps the bird was alive in the last episode that ended in each environment
+     */
+    public int[] getFinalLengths()
+    {
+        return this.finalLengths;
+    }
+
+    /**
+     * Get the final returns
+     * @return The sum of the rewards of the last episode that ended in each environment
+     */
+    public float[] getFinalReturns()
+    {
+        return this.finalReturns;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,488 @@
+package com.gamesbykevin.floppybird.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Read the frame metrics recorded on a device and report where the frames were slow.<br>
+ * Pull the "Metrics" file (and "Metrics.previous" for the launch before) from the internal storage and pass them as arguments.
+ * Add --jank followed by a time in milliseconds to choose when a frame is slow, by default a frame is slow after 1.5 frame budgets.<br>
+ * <br>
+ * For each file we print the percentiles of each phase, the percentiles of the frame time in each screen state,
+ * and the jank episodes (slow frames in a row) along with the state of the game, the garbage collections
+ * and the events (sounds, pipes cleared, saves, ...) while they happened.
+ * @author GOD
+ */
+public class MetricsAnalyzer
+{
+    /**
+     * The percentiles we report
+     */
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    /**
+     * The number of the worst jank episodes we list
+     */
+    private static final int EPISODES_LISTED = 20;
+
+    /**
+     * The samples of a recording, each array has one entry for each sample
+     */
+    private static final class Samples
+    {
+        private final String[] states;
+        private final int fps, count;
+        private final long started, written;
+        private final long[] sequence;
+        private final int[] tick, frame, update, draw, state, pipes, fuel, flags, drawCalls, collections, heap;
+
+        private Samples(final String[] states, final int fps, final long started, final long written, final int count)
+        {
+            this.states = states;
+            this.fps = fps;
+            this.started = started;
+            this.written = written;
+            this.count = count;
+            this.sequence = new long[count];
+            this.tick = new int[count];
+            this.frame = new int[count];
+            this.update = new int[count];
+            this.draw = new int[count];
+            this.state = new int[count];
+            this.pipes = new int[count];
+            this.fuel = new int[count];
+            this.flags = new int[count];
+            this.drawCalls = new int[count];
+            this.collections = new int[count];
+            this.heap = new int[count];
+        }
+
+        private String getStateName(final int index)
+        {
+            return (index >= 0 && index < states.length) ? states[index] : "State" + index;
+        }
+    }
+
+    /**
+     * Slow frames in a row
+     */
+    private static final class Episode
+    {
+        //the first sample and the number of samples
+        private int first, length;
+
+        //the slowest sample
+        private int worst;
+
+        //what happened during the episode, the JankDetector flags combined
+        private int flags;
+    }
+
+    public static void main(final String[] args) throws IOException
+    {
+        double jank = 0;
+        final List<String> files = new ArrayList<String>();
+
+        for (int index = 0; index < args.length; index++)
+        {
+            if (args[index].equals("--jank") && index + 1 < args.length)
+            {
+                jank = Double.parseDouble(args[++index]);
+            }
+            else
+            {
+                files.add(args[index]);
+            }
+        }
+
+        if (files.isEmpty())
+        {
+            System.out.println("Usage: MetricsAnalyzer [--jank milliseconds] file...");
+            System.exit(1);
+        }
+
+        for (String file : files)
+        {
+            final Samples samples = load(new File(file));
+
+            //by default a frame is slow once it takes half a frame longer than the budget
+            final int threshold = (jank > 0) ? (int)(jank * 1000) : (int)(1500000L / samples.fps);
+
+            System.out.println("== " + file);
+            report(samples, threshold);
+            System.out.println();
+        }
+    }
+
+    /**
+     * Read a recording
+     * @param file The file to read
+     * @return The samples, oldest first
+     * @throws IOException If the file can't be read or is not a recording
+     */
+    private static Samples load(final File file) throws IOException
+    {
+        final byte[] content = new byte[(int)file.length()];
+        final RandomAccessFile access = new RandomAccessFile(file, "r");
+
+        try
+        {
+            access.readFully(content);
+        }
+        finally
+        {
+            access.close();
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(content);
+
+        if (content.length < MetricsRecorder.HEADER_SIZE || buffer.getInt(MetricsRecorder.HEADER_MAGIC) != MetricsRecorder.MAGIC)
+            throw new IOException(file + " is not a metrics recording");
+        if (buffer.getInt(MetricsRecorder.HEADER_VERSION) != MetricsRecorder.VERSION)
+            throw new IOException(file + " has version " + buffer.getInt(MetricsRecorder.HEADER_VERSION) + ", expected " + MetricsRecorder.VERSION);
+
+        final int size = buffer.getInt(MetricsRecorder.HEADER_SAMPLE_SIZE);
+        final int capacity = buffer.getInt(MetricsRecorder.HEADER_CAPACITY);
+        final int fps = buffer.getInt(MetricsRecorder.HEADER_FPS);
+        final long started = buffer.getLong(MetricsRecorder.HEADER_STARTED);
+        final long written = buffer.getLong(MetricsRecorder.HEADER_WRITTEN);
+
+        if (size != MetricsRecorder.SAMPLE_SIZE || content.length < MetricsRecorder.HEADER_SIZE + (long)capacity * size)
+            throw new IOException(file + " is incomplete");
+
+        //the name of each state
+        int position = MetricsRecorder.HEADER_STATES;
+        final String[] states = new String[buffer.getInt(position)];
+        position += 4;
+
+        for (int index = 0; index < states.length; index++)
+        {
+            final int length = buffer.getShort(position) & 0xFFFF;
+            states[index] = new String(content, position + 2, length, "UTF-8");
+            position += 2 + length;
+        }
+
+        //the ring only holds the most recent samples
+        final long first = Math.max(0, written - capacity);
+        final Samples samples = new Samples(states, fps, started, written, (int)(written - first));
+
+        for (int index = 0; index < samples.count; index++)
+        {
+            final long sequence = first + index;
+            final int offset = MetricsRecorder.HEADER_SIZE + (int)(sequence % capacity) * size;
+
+            samples.sequence[index] = buffer.getLong(offset + MetricsRecorder.SAMPLE_SEQUENCE);
+            samples.tick[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_TICK);
+            samples.frame[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_FRAME);
+            samples.update[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_UPDATE);
+            samples.draw[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_DRAW);
+            samples.state[index] = buffer.get(offset + MetricsRecorder.SAMPLE_STATE);
+            samples.pipes[index] = buffer.get(offset + MetricsRecorder.SAMPLE_PIPES);
+            samples.fuel[index] = buffer.get(offset + MetricsRecorder.SAMPLE_FUEL);
+            samples.flags[index] = buffer.get(offset + MetricsRecorder.SAMPLE_FLAGS) & 0xFF;
+            samples.drawCalls[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_DRAW_CALLS);
+            samples.collections[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_COLLECTIONS);
+            samples.heap[index] = buffer.getInt(offset + MetricsRecorder.SAMPLE_HEAP);
+
+            if (samples.sequence[index] != sequence)
+                throw new IOException(file + " sample " + sequence + " is numbered " + samples.sequence[index]);
+        }
+
+        return samples;
+    }
+
+    /**
+     * Print the report of a recording
+     * @param samples The samples
+     * @param threshold The time a frame is slow (microseconds)
+     */
+    private static void report(final Samples samples, final int threshold)
+    {
+        System.out.println("Started " + new Date(samples.started) + ", " + samples.written + " frames written, " + samples.count + " kept");
+        System.out.println("Frame budget " + millis(1000000 / samples.fps) + "ms, slow after " + millis(threshold) + "ms");
+
+        if (samples.count == 0)
+            return;
+
+        final int collections = samples.collections[samples.count - 1] - samples.collections[0];
+
+        //the percentiles of each phase
+        System.out.println();
+        System.out.println(row("phase (ms)", header()));
+        System.out.println(row("frame", percentiles(samples.frame, samples.state, -1, true)));
+        System.out.println(row("update", percentiles(samples.update, samples.state, -1, true)));
+        System.out.println(row("draw", percentiles(samples.draw, samples.state, -1, true)));
+        System.out.println(row("draw calls", percentiles(samples.drawCalls, samples.state, -1, false)));
+        System.out.println(row("heap (kb)", percentiles(samples.heap, samples.state, -1, false)));
+        System.out.println("Garbage collections " + collections);
+
+        //the frame time in each state
+        System.out.println();
+        System.out.println(row("state (ms)", header()) + pad("frames", 9) + pad("slow", 8));
+
+        for (int state = 0; state < samples.states.length; state++)
+        {
+            int count = 0, slow = 0;
+
+            for (int index = 0; index < samples.count; index++)
+            {
+                if (samples.state[index] != state)
+                    continue;
+
+                count++;
+
+                if (samples.frame[index] > threshold)
+                    slow++;
+            }
+
+            if (count == 0)
+                continue;
+
+            System.out.println(
+                row(samples.getStateName(state), percentiles(samples.frame, samples.state, state, true)) +
+                pad(String.valueOf(count), 9) + pad(percent(slow, count), 8)
+            );
+        }
+
+        //the slow frames in a row
+        final List<Episode> episodes = findEpisodes(samples, threshold);
+
+        int withCollection = 0, update = 0, draw = 0, outside = 0;
+
+        for (Episode episode : episodes)
+        {
+            if (collected(samples, episode))
+                withCollection++;
+
+            final String phase = phase(samples, episode.worst);
+
+            if (phase.equals("update"))
+                update++;
+            else if (phase.equals("draw"))
+                draw++;
+            else
+                outside++;
+        }
+
+        System.out.println();
+        System.out.println(
+            "Jank episodes " + episodes.size() + ", with a garbage collection " + withCollection +
+            ", slowest in update " + update + ", in draw " + draw + ", outside the frame " + outside
+        );
+
+        //the number of episodes during each event
+        final StringBuilder events = new StringBuilder("Episodes during each event:");
+
+        for (int bit = 0; bit < JankDetector.FLAGS_NAMES.length; bit++)
+        {
+            int count = 0;
+
+            for (Episode episode : episodes)
+            {
+                if ((episode.flags & (1 << bit)) != 0)
+                    count++;
+            }
+
+            events.append(' ').append(JankDetector.FLAGS_NAMES[bit]).append(' ').append(count);
+        }
+
+        System.out.println(events);
+
+        if (episodes.isEmpty())
+            return;
+
+        //list the worst episodes
+        Collections.sort(episodes, new Comparator<Episode>()
+        {
+            @Override
+            public int compare(final Episode a, final Episode b)
+            {
+                return samples.frame[b.worst] - samples.frame[a.worst];
+            }
+        });
+
+        System.out.println(
+            pad("frame", 10) + pad("tick", 8) + pad("length", 8) + pad("worst", 9) + pad("update", 9) + pad("draw", 9) +
+            pad("phase", 9) + pad("state", 10) + pad("pipes", 7) + pad("fuel", 6) + pad("calls", 7) + pad("gc", 4) + pad("heap", 8) + "  events"
+        );
+
+        for (int index = 0; index < Math.min(EPISODES_LISTED, episodes.size()); index++)
+        {
+            final Episode episode = episodes.get(index);
+            final int worst = episode.worst;
+
+            System.out.println(
+                pad(String.valueOf(samples.sequence[episode.first]), 10) +
+                pad(String.valueOf(samples.tick[worst]), 8) +
+                pad(String.valueOf(episode.length), 8) +
+                pad(millis(samples.frame[worst]), 9) +
+                pad(millis(samples.update[worst]), 9) +
+                pad(millis(samples.draw[worst]), 9) +
+                pad(phase(samples, worst), 9) +
+                pad(samples.getStateName(samples.state[worst]), 10) +
+                pad(String.valueOf(samples.pipes[worst]), 7) +
+                pad(String.valueOf(samples.fuel[worst]), 6) +
+                pad(String.valueOf(samples.drawCalls[worst]), 7) +
+                pad(collected(samples, episode) ? "yes" : "no", 4) +
+                pad(String.valueOf(samples.heap[worst]), 8) + "  " +
+                JankDetector.describe(episode.flags)
+            );
+        }
+    }
+
+    /**
+     * Find the slow frames in a row
+     * @param samples The samples
+     * @param threshold The time a frame is slow (microseconds)
+     * @return Each episode
+     */
+    private static List<Episode> findEpisodes(final Samples samples, final int threshold)
+    {
+        final List<Episode> episodes = new ArrayList<Episode>();
+        Episode current = null;
+
+        for (int index = 0; index < samples.count; index++)
+        {
+            //a fast frame ends the episode
+            if (samples.frame[index] <= threshold)
+            {
+                current = null;
+                continue;
+            }
+
+            if (current == null)
+            {
+                current = new Episode();
+                current.first = index;
+                current.worst = index;
+                episodes.add(current);
+            }
+
+            current.length++;
+            current.flags |= samples.flags[index];
+
+            if (samples.frame[index] > samples.frame[current.worst])
+                current.worst = index;
+        }
+
+        return episodes;
+    }
+
+    /**
+     * Was there a garbage collection during the episode?
+     * @param samples The samples
+     * @param episode The episode
+     * @return true if the collection count went up during the episode, or right before it
+     */
+    private static boolean collected(final Samples samples, final Episode episode)
+    {
+        final int before = Math.max(0, episode.first - 1);
+        final int last = episode.first + episode.length - 1;
+        return samples.collections[last] > samples.collections[before];
+    }
+
+    /**
+     * Decide where the time of a slow frame went
+     * @param samples The samples
+     * @param index The sample
+     * @return "update" or "draw" if that phase took most of the budget, otherwise "outside" (a pause of the whole process, or the sleep overslept)
+     */
+    private static String phase(final Samples samples, final int index)
+    {
+        final int budget = 1000000 / samples.fps;
+
+        if (samples.update[index] + samples.draw[index] < budget)
+            return "outside";
+
+        return (samples.update[index] >= samples.draw[index]) ? "update" : "draw";
+    }
+
+    /**
+     * Calculate the percentiles
+     * @param values The value of each sample
+     * @param states The state of each sample
+     * @param state The state we want, -1 for every state
+     * @param time Are the values times (microseconds), reported in milliseconds
+     * @return The percentiles followed by the maximum
+     */
+    private static String[] percentiles(final int[] values, final int[] states, final int state, final boolean time)
+    {
+        int count = 0;
+        final int[] sorted = new int[values.length];
+
+        for (int index = 0; index < values.length; index++)
+        {
+            if (state < 0 || states[index] == state)
+                sorted[count++] = values[index];
+        }
+
+        Arrays.sort(sorted, 0, count);
+
+        final String[] result = new String[PERCENTILES.length + 1];
+
+        for (int index = 0; index <= PERCENTILES.length; index++)
+        {
+            //nearest rank, the maximum is the 100th percentile
+            final double percentile = (index < PERCENTILES.length) ? PERCENTILES[index] : 100;
+            final int rank = Math.max(0, (int)Math.ceil(percentile / 100 * count) - 1);
+            final int value = (count > 0) ? sorted[rank] : 0;
+            result[index] = (time) ? millis(value) : String.valueOf(value);
+        }
+
+        return result;
+    }
+
+    private static String[] header()
+    {
+        final String[] result = new String[PERCENTILES.length + 1];
+
+        for (int index = 0; index < PERCENTILES.length; index++)
+        {
+            result[index] = "p" + ((PERCENTILES[index] == (int)PERCENTILES[index]) ? String.valueOf((int)PERCENTILES[index]) : String.valueOf(PERCENTILES[index]));
+        }
+
+        result[PERCENTILES.length] = "max";
+        return result;
+    }
+
+    private static String row(final String label, final String[] columns)
+    {
+        final StringBuilder builder = new StringBuilder(pad(label, -12));
+
+        for (String column : columns)
+        {
+            builder.append(pad(column, 9));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Pad the text
+     * @param text The text
+     * @param width The width, negative to align left
+     * @return The padded text
+     */
+    private static String pad(final String text, final int width)
+    {
+        return String.format("%" + width + "s", text);
+    }
+
+    private static String millis(final int micros)
+    {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static String percent(final int count, final int total)
+    {
+        return String.format("%.1f%%", (100.0 * count) / total);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.gamesbykevin.floppybird.profiler;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.Writer;
+
+import com.gamesbykevin.floppybird.autopilot.Autopilot;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+
+/**
+ * Play the game with the autopilot on the desktop JVM while the sampling profiler samples it, and export the profile.<br>
+ * The first argument is the file to write (profile.txt by default), the second the number of seconds to play,
+ * the third the number of samples per second.
+ * The file is in the collapsed stack format, draw it with flamegraph.pl or open it in speedscope.app.<br>
+ * The frames are played at the game's frame rate, so the profile shows the time sleeping as well as the time deciding
+ * and stepping, the same as a profile taken on the device.
+ * @author GOD
+ */
+public class ProfileExport
+{
+    /**
+     * The number of steps per second, the same as MainThread.FPS
+     */
+    private static final int FPS = 30;
+
+    /**
+     * The number of seconds we play by default
+     */
+    private static final int SECONDS = 20;
+
+    public static void main(final String[] args) throws Exception
+    {
+        final String filename = (args.length > 0) ? args[0] : "profile.txt";
+        final int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : SECONDS;
+        final int rate = (args.length > 2) ? Integer.parseInt(args[2]) : SamplingProfiler.RATE_DEFAULT;
+
+        final Thread game = new Thread("MainThread")
+        {
+            @Override
+            public void run()
+            {
+                play(seconds * FPS);
+            }
+        };
+
+        final SamplingProfiler profiler = new SamplingProfiler();
+
+        game.start();
+        profiler.start(game, rate);
+        game.join();
+        profiler.stop();
+
+        final Writer writer = new BufferedWriter(new FileWriter(filename));
+
+        try
+        {
+            profiler.export(writer);
+        }
+        finally
+        {
+            writer.close();
+        }
+
+        System.out.println(
+            "Samples " + profiler.getSamples() + ", truncated " + profiler.getTruncated() + ", nodes " + profiler.getNodes() +
+            ", written to " + filename
+        );
+    }
+
+    /**
+     * Play the frames like the main thread, sleeping the rest of each frame
+     * @param frames The number of frames to play
+     */
+    private static void play(final int frames)
+    {
+        final Simulation simulation = new Simulation(0, Simulation.PIPE_GAP_NORMAL, false);
+        final Autopilot autopilot = new Autopilot();
+        final long target = 1000000000L / FPS;
+
+        int runs = 1;
+
+        for (int frame = 0; frame < frames; frame++)
+        {
+            final long start = System.nanoTime();
+
+            //start the next run once the bird dies
+            if (simulation.getState().dead)
+            {
+                simulation.reset(runs++, Simulation.PIPE_GAP_NORMAL, false);
+                autopilot.reset();
+            }
+
+            simulation.step(autopilot.decide(simulation.getState()));
+
+            final long wait = target - (System.nanoTime() - start);
+
+            try
+            {
+                if (wait > 0)
+                    Thread.sleep(wait / 1000000L, (int)(wait % 1000000L));
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.gamesbykevin.floppybird.replay;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Measure the work the ghost adds to each frame: a single step of the best run
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaybackBenchmark
+{
+    /**
+     * The chance the recorded player jumps on any step
+     */
+    private static final float FLAP_CHANCE = 0.09f;
+
+    private final Recording recording = new Recording();
+
+    private final Playback playback = new Playback();
+
+    private final Simulation simulation = new Simulation(0, Simulation.PIPE_GAP_EASY, false);
+
+    @Setup
+    public void setup()
+    {
+        final Random random = new Random(0);
+        final SimulationState state = simulation.getState();
+
+        //record the longest of a number of runs
+        int best = -1;
+
+        for (long seed = 0; seed < 1000; seed++)
+        {
+            final Recording current = new Recording();
+            current.reset(seed, Simulation.PIPE_GAP_EASY, false);
+            simulation.reset(seed, Simulation.PIPE_GAP_EASY, false);
+
+            while (!state.dead)
+            {
+                final boolean flap = !state.started || random.nextFloat() < FLAP_CHANCE;
+
+                if (flap)
+                    current.record(state.step);
+
+                simulation.step(flap);
+            }
+
+            current.finish(state);
+
+            if (current.getEnd() > best)
+            {
+                best = current.getEnd();
+                recording.copy(current);
+            }
+        }
+
+        playback.reset(recording);
+        simulation.reset(recording.getSeed(), recording.getPipeGap(), recording.isSurvival());
+    }
+
+    @Benchmark
+    public int step()
+    {
+        final SimulationState state = simulation.getState();
+
+        //start over once the best run has ended, the same as the next run in the game
+        if (state.dead)
+        {
+            playback.reset(recording);
+            simulation.reset(recording.getSeed(), recording.getPipeGap(), recording.isSurvival());
+        }
+
+        return simulation.step(playback.isFlap(state.step));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.gamesbykevin.floppybird.replay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import com.gamesbykevin.floppybird.Check;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Play recordings back on the desktop JVM and make sure each one reproduces the same run.<br>
+ * Pass the recordings pulled from the device (the "Replay" file in the internal storage) as arguments,
+ * or pass nothing to record and check a number of runs played by a random player.<br>
+ * Each run is also interrupted halfway, saved and restored the way a session is, and has to keep recording to the same end.<br>
+ * We also report how much faster than realtime the recordings are played.
+ * @author GOD
+ */
+public class ReplayCheck
+{
+    /**
+     * The number of steps per second when playing, the same as MainThread.FPS
+     */
+    private static final int FPS = 30;
+
+    /**
+     * The number of runs we record when no recordings are provided
+     */
+    private static final int RUNS = 10000;
+
+    /**
+     * The chance the random player jumps on any step
+     */
+    private static final float FLAP_CHANCE = 0.09f;
+
+    public static void main(final String[] args) throws IOException
+    {
+        final Recording[] recordings = (args.length > 0) ? load(args) : record(RUNS);
+
+        final Simulation simulation = new Simulation(0, Simulation.PIPE_GAP_NORMAL, false);
+        final Playback playback = new Playback();
+
+        //play each recording once to warm up
+        for (Recording recording : recordings)
+        {
+            playback.reset(recording);
+            playback.play(simulation);
+        }
+
+        int failures = 0;
+        long steps = 0;
+        long bytes = 0;
+        long flaps = 0;
+
+        final long start = System.nanoTime();
+
+        for (int index = 0; index < recordings.length; index++)
+        {
+            playback.reset(recordings[index]);
+
+            if (!playback.verify(simulation))
+            {
+                failures++;
+
+                final SimulationState state = simulation.getState();
+                System.out.println(
+                    "Recording " + index + " does not match, expected score " + recordings[index].getScore() +
+                    " at step " + recordings[index].getEnd() + ", played score " + state.score + " at step " + state.step
+                );
+            }
+
+            steps += simulation.getState().step;
+            bytes += recordings[index].getSize();
+            flaps += recordings[index].getFlaps();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.println("Recordings " + recordings.length + ", failures " + failures);
+        System.out.println("Jumps " + flaps + ", encoded bytes " + bytes);
+        System.out.println("Steps " + steps + " in " + (elapsed / 1000000) + "ms");
+
+        if (elapsed > 0)
+        {
+            final double rate = (steps * 1000000000.0) / elapsed;
+            System.out.println("Steps per second " + (long)rate + ", " + (long)(rate / FPS) + "x realtime");
+        }
+
+        //continue each run after a save and restore halfway
+        final int resumed = resume(recordings);
+
+        System.out.println("Resumed " + recordings.length + ", failures " + resumed);
+
+        Check.finish("Recordings not matching", failures + resumed);
+    }
+
+    /**
+     * Replay each run, save and restore the recording halfway like Session and Game.restore, then keep recording to the end
+     * @param recordings The recordings of the runs
+     * @return The number of runs that did not end with the same recording
+     * @throws IOException
+     */
+    private static int resume(final Recording[] recordings) throws IOException
+    {
+        final Playback playback = new Playback();
+        final Recording partial = new Recording(), restored = new Recording(), resumed = new Recording();
+
+        int failures = 0;
+
+        for (int index = 0; index < recordings.length; index++)
+        {
+            final Recording recording = recordings[index];
+            final Simulation simulation = new Simulation(recording.getSeed(), recording.getPipeGap(), recording.isSurvival());
+            final SimulationState state = simulation.getState();
+
+            playback.reset(recording);
+            partial.reset(recording.getSeed(), recording.getPipeGap(), recording.isSurvival());
+
+            //record the first half of the run
+            Recording current = partial;
+
+            while (!state.dead && state.step < recording.getEnd())
+            {
+                if (current == partial && state.step == recording.getEnd() / 2)
+                {
+                    //save the run in progress and read it back
+                    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    final DataOutputStream output = new DataOutputStream(bytes);
+                    partial.write(output);
+                    output.flush();
+
+                    restored.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+                    resumed.copy(restored);
+                    current = resumed;
+                }
+
+                final boolean flap = playback.isFlap(state.step);
+
+                if (flap && !state.dead)
+                    current.record(state.step);
+
+                simulation.step(flap);
+            }
+
+            current.finish(state);
+
+            if (current != resumed || resumed.getFlaps() != recording.getFlaps() || resumed.getSize() != recording.getSize() ||
+                resumed.getEnd() != recording.getEnd() || resumed.getScore() != recording.getScore() ||
+                resumed.getDeath() != recording.getDeath())
+            {
+                failures++;
+
+                System.out.println(
+                    "Recording " + index + " resumed with " + current.getFlaps() + " jumps, end " + current.getEnd() +
+                    ", score " + current.getScore() + ", expected " + recording.getFlaps() + " jumps, end " +
+                    recording.getEnd() + ", score " + recording.getScore()
+                );
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Read the recordings
+     * @param filenames The files to read
+     * @return The recordings
+     * @throws IOException
+     */
+    private static Recording[] load(final String[] filenames) throws IOException
+    {
+        final Recording[] recordings = new Recording[filenames.length];
+
+        for (int index = 0; index < filenames.length; index++)
+        {
+            final DataInputStream stream = new DataInputStream(new FileInputStream(new File(filenames[index])));
+
+            try
+            {
+                recordings[index] = new Recording();
+                recordings[index].read(stream);
+            }
+            finally
+            {
+                stream.close();
+            }
+        }
+
+        return recordings;
+    }
+
+    /**
+     * Record runs played by a random player, the same way the game records them
+     * @param runs The number of runs
+     * @return The recordings
+     */
+    private static Recording[] record(final int runs)
+    {
+        final Recording[] recordings = new Recording[runs];
+        final Random random = new Random(runs);
+        final int[] gaps = {Simulation.PIPE_GAP_NORMAL, Simulation.PIPE_GAP_HARD, Simulation.PIPE_GAP_EASY};
+
+        for (int index = 0; index < runs; index++)
+        {
+            final long seed = random.nextLong();
+            final int pipeGap = gaps[index % gaps.length];
+            final boolean survival = (index % 2 == 1);
+
+            final Simulation simulation = new Simulation(seed, pipeGap, survival);
+            final SimulationState state = simulation.getState();
+
+            recordings[index] = new Recording();
+            recordings[index].reset(seed, pipeGap, survival);
+
+            while (!state.dead)
+            {
+                //the first jump starts the run
+                final boolean flap = !state.started || random.nextFloat() < FLAP_CHANCE;
+
+                if (flap)
+                    recordings[index].record(state.step);
+
+                simulation.step(flap);
+            }
+
+            recordings[index].finish(state);
+        }
+
+        return recordings;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.gamesbykevin.floppybird.simulation;
+
+import com.gamesbykevin.floppybird.Check;
+import com.gamesbykevin.floppybird.game.GameContext;
+
+/**
+ * Make sure the simulation keeps no state between instances, by playing many simulations at the same time on separate threads.<br>
+ * Each simulation picks its runs from its own GameContext with a fixed seed, and a random player picks its jumps from the
+ * same context. Every simulation is played once on its own first, then all of them are played again at the same time,
+ * and each has to finish with the same result both times.<br>
+ * Only the rules and the context are checked here, the objects rendering a session (Game, Bird, Pipes and Background)
+ * need Android and can't run on the desktop JVM.<br>
+ * A simulation that differs is reported and the check exits with 1, so it can fail a build.
+ * The first argument is the number of simulations (the number of processors times 4 by default).
+ * @author GOD
+ */
+public class ConcurrencyCheck
+{
+    /**
+     * The number of runs each simulation plays
+     */
+    private static final int RUNS = 200;
+
+    /**
+     * The most steps of a run, the random player rarely lives this long
+     */
+    private static final int STEPS = 3000;
+
+    /**
+     * The chance the random player jumps on any step
+     */
+    private static final float FLAP_CHANCE = 0.09f;
+
+    public static void main(final String[] args) throws Exception
+    {
+        final int count = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors() * 4;
+
+        //play each simulation on its own
+        final long[] expected = new long[count];
+
+        for (int index = 0; index < count; index++)
+        {
+            expected[index] = play(index);
+        }
+
+        //play every simulation at the same time
+        final long[] actual = new long[count];
+        final Thread[] threads = new Thread[count];
+        final long start = System.nanoTime();
+
+        for (int index = 0; index < count; index++)
+        {
+            final int seed = index;
+
+            threads[index] = new Thread("Simulation" + index)
+            {
+                @Override
+                public void run()
+                {
+                    actual[seed] = play(seed);
+                }
+            };
+
+            threads[index].start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+
+        int failures = 0;
+
+        for (int index = 0; index < count; index++)
+        {
+            if (actual[index] != expected[index])
+            {
+                System.out.println("Simulation " + index + " expected " + expected[index] + ", actual " + actual[index]);
+                failures++;
+            }
+        }
+
+        System.out.println(
+            "Simulations " + count + ", runs " + (count * RUNS) + ", concurrent " + (elapsed / 1000000L) + "ms, failures " + failures
+        );
+
+        Check.finish("Simulations differing", failures);
+    }
+
+    /**
+     * Play the runs of a simulation
+     * @param seed The seed of its context
+     * @return A fingerprint of every run played, the same seed always gives the same fingerprint
+     */
+    private static long play(final long seed)
+    {
+        final GameContext context = new GameContext(seed);
+        final Simulation simulation = new Simulation(context.nextSeed(), Simulation.PIPE_GAP_NORMAL, false);
+        final SimulationState state = simulation.getState();
+
+        long fingerprint = 17;
+
+        for (int run = 0; run < RUNS; run++)
+        {
+            simulation.reset(context.nextSeed(), Simulation.PIPE_GAP_NORMAL, (run % 2) == 1);
+
+            for (int step = 0; step < STEPS && !state.dead; step++)
+            {
+                simulation.step(context.getRandom().nextFloat() < FLAP_CHANCE);
+            }
+
+            fingerprint = (fingerprint * 31) + state.score;
+            fingerprint = (fingerprint * 31) + state.step;
+            fingerprint = (fingerprint * 31) + state.birdY;
+        }
+
+        return fingerprint;
+    }
+}
\ No newline at end of file
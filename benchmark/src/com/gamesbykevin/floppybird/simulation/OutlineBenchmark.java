@@ -0,0 +1,94 @@
+package com.gamesbykevin.floppybird.simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the collision outlines, these replace Entity.updateOutline and Entity.hasCollision
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutlineBenchmark
+{
+    /**
+     * The outline of the bird
+     */
+    private static final int[] BIRD_X_POINTS = {-24, -13, 6, 17, 24, 24, 37, 27, 18, -1, -23, -25};
+    private static final int[] BIRD_Y_POINTS = {-4, -15, -17, -12, -5, 3, 10, 10, 14, 19, 10, 5};
+
+    /**
+     * The outline of the bottom pipe
+     */
+    private static final int[] PIPE_X_POINTS = {-37, 35, 42, 42, 31, 31, -33, -33, -45, -45};
+    private static final int[] PIPE_Y_POINTS = {-240, -240, -232, -215, -206, 240, 240, -206, -215, -232};
+
+    //our outlines
+    private final Outline bird = new Outline(BIRD_X_POINTS.length);
+    private final Outline pipe = new Outline(PIPE_X_POINTS.length);
+    private final Outline far = new Outline(PIPE_X_POINTS.length);
+    private final Outline inside = new Outline(PIPE_X_POINTS.length);
+
+    //the rotation, changed on each update so nothing can be cached
+    private float rotation = 0;
+
+    @Setup
+    public void setup()
+    {
+        bird.setPoints(BIRD_X_POINTS, BIRD_Y_POINTS);
+        pipe.setPoints(PIPE_X_POINTS, PIPE_Y_POINTS);
+        far.setPoints(PIPE_X_POINTS, PIPE_Y_POINTS);
+        inside.setPoints(PIPE_X_POINTS, PIPE_Y_POINTS);
+
+        //the bird is touching the top of the pipe
+        bird.update(100, 300, 75, 52, 20);
+        pipe.update(110, 330, 89, 480, 0);
+
+        //the pipe is far from the bird, rejected by the bounds
+        far.update(500, 330, 89, 480, 0);
+
+        //the bird is completely inside the pipe, every edge is checked
+        inside.update(95, 0, 89, 480, 0);
+    }
+
+    @Benchmark
+    public int updateOutline()
+    {
+        rotation = (rotation + 1) % 90;
+        bird.update(100, 300, 75, 52, rotation - 45);
+
+        return bird.getX(0);
+    }
+
+    @Benchmark
+    public boolean intersectsHit()
+    {
+        return pipe.intersects(bird);
+    }
+
+    @Benchmark
+    public boolean intersectsFar()
+    {
+        return far.intersects(bird);
+    }
+
+    @Benchmark
+    public boolean intersectsInside()
+    {
+        return inside.intersects(bird);
+    }
+}
\ No newline at end of file
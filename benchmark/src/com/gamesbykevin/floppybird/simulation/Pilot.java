@@ -0,0 +1,46 @@
+package com.gamesbykevin.floppybird.simulation;
+
+/**
+ * A simple scripted player used to keep the bird alive while measuring.<br>
+ * The bird jumps whenever it would fall too close to the bottom of the gap of the next pipe.
+ * @author GOD
+ */
+final class Pilot
+{
+    /**
+     * How close to the bottom of the gap the bird can fall
+     */
+    private static final int MARGIN = 6;
+
+    /**
+     * Should the bird jump?
+     * @param state The current state of the run
+     * @return true if the bird should jump on the next step, false otherwise
+     */
+    static boolean decide(final SimulationState state)
+    {
+        //the bird needs to jump to start
+        if (!state.started)
+            return true;
+
+        //by default stay above the middle of the screen
+        int target = (Simulation.HEIGHT - Simulation.GROUND_HEIGHT) / 2;
+        int nearest = Integer.MAX_VALUE;
+
+        //find the next pipe the bird has not passed
+        for (int index = 0; index < state.pipeCount; index++)
+        {
+            if (state.pipePause[index] || state.pipeX[index] + Simulation.PIPE_WIDTH < state.birdX)
+                continue;
+
+            if (state.pipeX[index] < nearest)
+            {
+                nearest = state.pipeX[index];
+                target = state.pipeBottom[index] - MARGIN;
+            }
+        }
+
+        //jump if the next fall would take the bird below the target
+        return (state.birdY + state.birdHeight + state.birdDY + 1 > target);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.gamesbykevin.floppybird.simulation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the simulation: a whole step, and each part of the step on its own.<br>
+ * These replace the per frame work previously done in Bird.update, Pipes.update, Pipes.hasPipeCollision,
+ * Pipes.hasFuelCollision and Pipes.spawn.
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark
+{
+    /**
+     * The difficulty, the pipe gap
+     */
+    @Param({"100", "120", "150"})
+    public int pipeGap;
+
+    /**
+     * Does the bird use fuel
+     */
+    @Param({"false", "true"})
+    public boolean survival;
+
+    /**
+     * How many steps we play before measuring
+     */
+    private static final int SETUP_STEPS = 100000;
+
+    //the simulation we are measuring
+    private Simulation simulation;
+
+    //a state with pipes and fuel in play, used to measure each part on its own
+    private final SimulationState busy = new SimulationState();
+
+    //the seed of the next run
+    private long seed = 0;
+
+    @Setup
+    public void setup()
+    {
+        simulation = new Simulation(seed, pipeGap, survival);
+
+        //play for a while and keep the state with the most pipes in play
+        for (int count = 0; count < SETUP_STEPS; count++)
+        {
+            final SimulationState state = simulation.getState();
+
+            if (state.dead)
+            {
+                simulation.reset(++seed, pipeGap, survival);
+            }
+            else if (state.pipeCount > busy.pipeCount)
+            {
+                busy.copy(state);
+            }
+
+            simulation.step(Pilot.decide(state));
+        }
+
+        simulation.restore(busy);
+    }
+
+    @Benchmark
+    public int step()
+    {
+        final SimulationState state = simulation.getState();
+
+        //start a new run once the bird dies
+        if (state.dead)
+            simulation.reset(++seed, pipeGap, survival);
+
+        return simulation.step(Pilot.decide(state));
+    }
+
+    @Benchmark
+    public int updateBird()
+    {
+        final SimulationState state = simulation.getState();
+
+        //keep the bird in the air
+        state.birdY = Simulation.START_Y;
+        state.dead = false;
+        simulation.updateBird();
+
+        return state.birdY;
+    }
+
+    @Benchmark
+    public int updatePipes()
+    {
+        //always measure from the same busy state
+        simulation.restore(busy);
+        simulation.updatePipes();
+
+        return simulation.getState().score;
+    }
+
+    @Benchmark
+    public boolean hasPipeCollision()
+    {
+        simulation.restore(busy);
+
+        return simulation.hasPipeCollision();
+    }
+
+    @Benchmark
+    public boolean hasFuelCollision()
+    {
+        simulation.restore(busy);
+
+        return simulation.hasFuelCollision();
+    }
+
+    @Benchmark
+    public int spawn()
+    {
+        final SimulationState state = simulation.getState();
+
+        //every pipe has been created, make one available to reuse
+        state.pipePause[0] = true;
+        state.fuelPause[0] = true;
+        simulation.spawn();
+
+        return state.pipeTop[0];
+    }
+
+    @Benchmark
+    public int restore()
+    {
+        //the cost of restoring, to subtract from the benchmarks above
+        simulation.restore(busy);
+
+        return simulation.getState().pipeCount;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.gamesbykevin.floppybird.storage.history;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the run history aggregates updated at the end of each run
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunStatsBenchmark
+{
+    private final RunStats stats = new RunStats();
+
+    private final Run run = new Run();
+
+    @Benchmark
+    public int add()
+    {
+        run.score = (run.score + 7) % 500;
+        stats.add(run);
+
+        return stats.getCount();
+    }
+
+    @Benchmark
+    public int getPercentile()
+    {
+        return stats.getPercentile(90);
+    }
+}
\ No newline at end of file
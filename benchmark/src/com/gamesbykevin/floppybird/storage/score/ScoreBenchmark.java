@@ -0,0 +1,76 @@
+package com.gamesbykevin.floppybird.storage.score;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the score paths: the digit layout done in Digits.setNumber,
+ * and the leaderboard lookup and update done in Score.getHighScore and Score.updateScore
+ * @author GOD
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBenchmark
+{
+    //the same dimensions as the game
+    private final DigitLayout layout = new DigitLayout(55, 800);
+
+    //2 modes and 3 difficulties, the same as the options screen
+    private final Leaderboard leaderboard = new Leaderboard(2, 3);
+
+    //the number we are laying out
+    private int number = 0;
+
+    @Setup
+    public void setup()
+    {
+        //fill every board
+        for (int index = 0; index < Leaderboard.CAPACITY; index++)
+        {
+            leaderboard.add(1, 2, 100 + index, 0, 0);
+        }
+    }
+
+    @Benchmark
+    public int setNumber()
+    {
+        number = (number + 1) % 1000;
+        layout.set(number, 0, true);
+
+        return layout.getX(0);
+    }
+
+    @Benchmark
+    public int getHighScore()
+    {
+        return leaderboard.getBest(1, 2);
+    }
+
+    @Benchmark
+    public int updateScoreRejected()
+    {
+        //the score is too low to make the board
+        return leaderboard.add(1, 2, 1, 0, 0);
+    }
+
+    @Benchmark
+    public int updateScoreBest()
+    {
+        //the score is the best, every run moves down
+        return leaderboard.add(1, 2, Integer.MAX_VALUE, 0, 0);
+    }
+}
\ No newline at end of file
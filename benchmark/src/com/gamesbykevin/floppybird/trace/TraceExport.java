@@ -0,0 +1,74 @@
+package com.gamesbykevin.floppybird.trace;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.gamesbykevin.floppybird.autopilot.Autopilot;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+
+/**
+ * Play the game with the autopilot on the desktop JVM and export the trace sections as a Chrome trace.<br>
+ * The first argument is the file to write (trace.json by default), the second the number of frames to play.
+ * Open the file in chrome://tracing or ui.perfetto.dev, each frame shows the time deciding and the time stepping the simulation.<br>
+ * The frames are played back to back without sleeping, the android bound sections (the rendering) only appear in a system trace of the device.
+ * @author GOD
+ */
+public class TraceExport
+{
+    /**
+     * The number of frames we play by default (1 minute)
+     */
+    private static final int FRAMES = 30 * 60;
+
+    public static void main(final String[] args) throws IOException
+    {
+        final String filename = (args.length > 0) ? args[0] : "trace.json";
+        final int frames = (args.length > 1) ? Integer.parseInt(args[1]) : FRAMES;
+
+        //each frame has 3 sections of 2 events
+        final RingTracer tracer = new RingTracer(frames * 6);
+        Trace.setTracer(tracer);
+
+        final Simulation simulation = new Simulation(0, Simulation.PIPE_GAP_NORMAL, false);
+        final Autopilot autopilot = new Autopilot();
+
+        int runs = 1;
+
+        for (int frame = 0; frame < frames; frame++)
+        {
+            Trace.begin("frame");
+
+            //start the next run once the bird dies
+            if (simulation.getState().dead)
+            {
+                simulation.reset(runs++, Simulation.PIPE_GAP_NORMAL, false);
+                autopilot.reset();
+            }
+
+            final boolean flap = autopilot.decide(simulation.getState());
+
+            Trace.begin("Simulation.step");
+            simulation.step(flap);
+            Trace.end();
+
+            Trace.end();
+        }
+
+        Trace.setTracer(null);
+
+        final Writer writer = new BufferedWriter(new FileWriter(filename));
+
+        try
+        {
+            tracer.export(writer);
+        }
+        finally
+        {
+            writer.close();
+        }
+
+        System.out.println("Frames " + frames + ", runs " + runs + ", events " + tracer.getWritten() + ", written to " + filename);
+    }
+}
\ No newline at end of file
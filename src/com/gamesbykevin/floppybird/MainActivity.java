@@ -1,188 +1,240 @@
-package com.gamesbykevin.floppybird;
-
-import com.gamesbykevin.floppybird.panel.GamePanel;
-
-import android.app.Activity;
-import android.content.Intent;
-import android.net.Uri;
-import android.os.Bundle;
-import android.view.Window;
-import android.view.WindowManager;
-
-public class MainActivity extends Activity 
-{
-    //our game panel
-    private GamePanel panel;
-    
-    /**
-     * Our web site address where more games can be found
-     */
-    public static final String WEBPAGE_MORE_GAMES_URL = "http://gamesbykevin.com";
-
-    /**
-     * The web address where this game can be rated
-     */
-    public static final String WEBPAGE_RATE_URL = "https://play.google.com/store/apps/details?id=com.gamesbykevin.floppybird";
-
-    /**
-     * The url that contains the instructions for the game
-     */
-    public static final String WEBPAGE_GAME_INSTRUCTIONS_URL = "http://gamesbykevin.com/2016/03/06/floppy-bird";
-    
-    /**
-     * The face book url
-     */
-    public static final String WEBPAGE_FACEBOOK_URL = "https://facebook.com/gamesbykevin";
-    
-    /**
-     * The twitter url
-     */
-    public static final String WEBPAGE_TWITTER_URL = "https://twitter.com/gamesbykevin";
-    
-    /**
-     * Called when the activity is first created
-     * @param savedInstanceState 
-     */
-    @Override
-    public void onCreate(Bundle savedInstanceState)
-    {
-        //turn the title off
-        super.requestWindowFeature(Window.FEATURE_NO_TITLE);
-
-        //set the screen to full screen
-        super.getWindow().setFlags(
-        	WindowManager.LayoutParams.FLAG_FULLSCREEN, 
-        	WindowManager.LayoutParams.FLAG_FULLSCREEN
-        );
-        
-        //call parent create
-        super.onCreate(savedInstanceState);
-        
-        //if the panel has not been created
-        if (getGamePanel() == null)
-        {
-            //create the game panel
-            setGamePanel(new GamePanel(this));
-
-            //add callback to the game panel to intercept events
-            getGamePanel().getHolder().addCallback(getGamePanel());
-        }
-
-        //set the content view to our game
-        setContentView(getGamePanel());
-    }
-    
-    /**
-     * Override the finish call
-     */
-    @Override
-    public void finish()
-    {
-        //cleanup game panel if it exists
-        if (getGamePanel() != null)
-        {
-            getGamePanel().dispose();
-            setGamePanel(null);
-        }
-        
-        //call parent
-        super.finish();
-    }
-    
-    /**
-     * Part of the activity life cycle
-     */
-    @Override
-    public void onStart()
-    {
-        //call parent
-        super.onStart();
-    }
-    
-    /**
-     * Part of the activity life cycle
-     */
-    @Override
-    public void onStop()
-    {
-        //call parent
-        super.onStop();
-    }
-    
-    /**
-     * Part of the activity life cycle
-     */
-    @Override
-    public void onDestroy()
-    {
-        //finish the activity
-        this.finish();
-        
-        //perform final cleanup
-        super.onDestroy();
-    }
-    
-    /**
-     * Part of the activity life cycle
-     */
-    @Override
-    public void onPause()
-    {
-    	//call parent
-        super.onPause();
-    }
-    
-    /**
-     * Part of the activity life cycle
-     */
-    @Override
-    public void onWindowFocusChanged(final boolean hasFocus)
-    {
-    	//call parent
-    	super.onWindowFocusChanged(true);
-    }
-    
-    /**
-     * Part of the activity life cycle
-     */
-    @Override
-    public void onResume()
-    {
-    	//call parent
-    	super.onResume();
-    }
-    
-    /**
-     * Navigate to the desired web page
-     * @param url The desired url
-     */
-    public void openWebpage(final String url)
-    {
-        //create action view intent
-        Intent intent = new Intent(Intent.ACTION_VIEW);
-        
-        //the content will be the web page
-        intent.setData(Uri.parse(url.trim()));
-        
-        //start this new activity
-        startActivity(intent);        
-    }
-    
-    /**
-     * Get the game panel.
-     * @return The object containing our game logic, assets, threads, etc...
-     */
-    private GamePanel getGamePanel()
-    {
-        return this.panel;
-    }
-    
-    /**
-     * Assign the game panel
-     * @param panel The game panel
-     */
-    private void setGamePanel(final GamePanel panel)
-    {
-        this.panel = panel;
-    }
+package com.gamesbykevin.floppybird;
+
+import com.gamesbykevin.floppybird.assets.Assets;
+import com.gamesbykevin.floppybird.panel.GamePanel;
+import com.gamesbykevin.floppybird.storage.WriteBehind;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+import android.view.Window;
+import android.view.WindowManager;
+
+public class MainActivity extends Activity 
+{
+    //our game panel
+    private GamePanel panel;
+    
+    /**
+     * Our web site address where more games can be found
+     */
+    public static final String WEBPAGE_MORE_GAMES_URL = "http://gamesbykevin.com";
+
+    /**
+     * The web address where this game can be rated
+     */
+    public static final String WEBPAGE_RATE_URL = "https://play.google.com/store/apps/details?id=com.gamesbykevin.floppybird";
+
+    /**
+     * The url that contains the instructions for the game
+     */
+    public static final String WEBPAGE_GAME_INSTRUCTIONS_URL = "http://gamesbykevin.com/2016/03/06/floppy-bird";
+    
+    /**
+     * The face book url
+     */
+    public static final String WEBPAGE_FACEBOOK_URL = "https://facebook.com/gamesbykevin";
+    
+    /**
+     * The twitter url
+     */
+    public static final String WEBPAGE_TWITTER_URL = "https://twitter.com/gamesbykevin";
+    
+    /**
+     * The intent extra to profile the main thread from the start, the value is the number of samples per second.<br>
+     * adb shell am start -n com.gamesbykevin.floppybird/.MainActivity --ei profile 100
+     */
+    public static final String EXTRA_PROFILE = "profile";
+    
+    /**
+     * Called when the activity is first created
+     * @param savedInstanceState 
+     */
+    @Override
+    public void onCreate(Bundle savedInstanceState)
+    {
+        //turn the title off
+        super.requestWindowFeature(Window.FEATURE_NO_TITLE);
+
+        //set the screen to full screen
+        super.getWindow().setFlags(
+        	WindowManager.LayoutParams.FLAG_FULLSCREEN, 
+        	WindowManager.LayoutParams.FLAG_FULLSCREEN
+        );
+        
+        //call parent create
+        super.onCreate(savedInstanceState);
+        
+        //if the panel has not been created
+        if (getGamePanel() == null)
+        {
+            //create the game panel
+            setGamePanel(new GamePanel(this));
+
+            //add callback to the game panel to intercept events
+            getGamePanel().getHolder().addCallback(getGamePanel());
+            
+            //profile the main thread if we were asked to
+            final int rate = getIntent().getIntExtra(EXTRA_PROFILE, 0);
+            
+            if (rate > 0)
+            	getGamePanel().startProfiler(rate);
+        }
+
+        //set the content view to our game
+        setContentView(getGamePanel());
+    }
+    
+    /**
+     * Override the finish call
+     */
+    @Override
+    public void finish()
+    {
+        //cleanup game panel if it exists
+        if (getGamePanel() != null)
+        {
+            //save the session first, so a run that already ended is not resumed
+            getGamePanel().saveSession();
+            
+            getGamePanel().dispose();
+            setGamePanel(null);
+        }
+        
+        //call parent
+        super.finish();
+    }
+    
+    /**
+     * Part of the activity life cycle
+     */
+    @Override
+    public void onStart()
+    {
+        //call parent
+        super.onStart();
+    }
+    
+    /**
+     * Part of the activity life cycle
+     */
+    @Override
+    public void onStop()
+    {
+        //make sure everything waiting to be saved is written, in case the process is killed
+        WriteBehind.flush();
+        
+        //call parent
+        super.onStop();
+    }
+    
+    /**
+     * Part of the activity life cycle
+     */
+    @Override
+    public void onDestroy()
+    {
+        //finish the activity
+        this.finish();
+        
+        //perform final cleanup
+        super.onDestroy();
+    }
+    
+    /**
+     * Part of the activity life cycle
+     */
+    @Override
+    public void onPause()
+    {
+    	//save the run in progress, it is written before we are stopped
+    	if (getGamePanel() != null)
+    		getGamePanel().saveSession();
+    	
+    	//call parent
+        super.onPause();
+    }
+    
+    /**
+     * The system is asking us to release memory
+     * @param level The level of memory we should release
+     */
+    @Override
+    public void onTrimMemory(final int level)
+    {
+    	//call parent
+    	super.onTrimMemory(level);
+    	
+    	//release the images we can decode again later
+    	Assets.onTrimMemory(level);
+    }
+    
+    /**
+     * The system is running low on memory
+     */
+    @Override
+    public void onLowMemory()
+    {
+    	//call parent
+    	super.onLowMemory();
+    	
+    	//release everything we can
+    	Assets.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
+    
+    /**
+     * Part of the activity life cycle
+     */
+    @Override
+    public void onWindowFocusChanged(final boolean hasFocus)
+    {
+    	//call parent
+    	super.onWindowFocusChanged(true);
+    }
+    
+    /**
+     * Part of the activity life cycle
+     */
+    @Override
+    public void onResume()
+    {
+    	//call parent
+    	super.onResume();
+    }
+    
+    /**
+     * Navigate to the desired web page
+     * @param url The desired url
+     */
+    public void openWebpage(final String url)
+    {
+        //create action view intent
+        Intent intent = new Intent(Intent.ACTION_VIEW);
+        
+        //the content will be the web page
+        intent.setData(Uri.parse(url.trim()));
+        
+        //start this new activity
+        startActivity(intent);        
+    }
+    
+    /**
+     * Get the game panel.
+     * @return The object containing our game logic, assets, threads, etc...
+     */
+    private GamePanel getGamePanel()
+    {
+        return this.panel;
+    }
+    
+    /**
+     * Assign the game panel
+     * @param panel The game panel
+     */
+    private void setGamePanel(final GamePanel panel)
+    {
+        this.panel = panel;
+    }
 }
\ No newline at end of file
@@ -1,176 +1,330 @@
-package com.gamesbykevin.floppybird.assets;
-
-import com.gamesbykevin.androidframework.resources.Audio;
-import com.gamesbykevin.androidframework.resources.Files;
-import com.gamesbykevin.androidframework.resources.Font;
-import com.gamesbykevin.androidframework.resources.Images;
-
-import android.app.Activity;
-
-/**
- * This class will contain all of our assets
- * @author GOD
- */
-public class Assets 
-{
-    /**
-     * The directory where audio sound effect resources are kept
-     */
-    private static final String DIRECTORY_MENU_AUDIO = "audio/menu";
-    
-    /**
-     * The directory where audio sound effect resources are kept
-     */
-    private static final String DIRECTORY_GAME_AUDIO = "audio/game";
-    
-    /**
-     * The directory where image resources are kept for the menu
-     */
-    private static final String DIRECTORY_MENU_IMAGE = "image/menu";
-    
-    /**
-     * The directory where image resources are kept for the game
-     */
-    private static final String DIRECTORY_GAME_IMAGE = "image/game";
-    
-    /**
-     * The directory where font resources are kept
-     */
-    private static final String DIRECTORY_MENU_FONT = "font/menu";
-    
-    /**
-     * The directory where font resources are kept
-     */
-    private static final String DIRECTORY_GAME_FONT = "font/game";
-    
-    /**
-     * The directory where our text files are kept
-     */
-    private static final String DIRECTORY_TEXT = "text";
-    
-    /**
-     * The different fonts used in our game.<br>
-     * Order these according to the file name in the "font" assets folder.
-     */
-    public enum FontMenuKey
-    {
-        //Default
-    }
-    
-    /**
-     * The different fonts used in our game.<br>
-     * Order these according to the file name in the "font" assets folder.
-     */
-    public enum FontGameKey
-    {
-    	//Default
-    }
-    
-    /**
-     * The different images for our menu items
-     */
-    public enum ImageMenuKey
-    {
-    	Button, 
-    	Cancel, 
-    	Confirm,
-    	Facebook, 
-    	Gameover,
-    	GameoverEasyEndless,
-    	GameoverEasySurvival,
-    	GameoverHardEndless,
-    	GameoverHardSurvival,
-    	GameoverNormalEndless,
-    	GameoverNormalSurvival,
-    	Instructions,
-    	Logo,
-    	Record,
-    	Splash,
-    	Twitter
-    }
-    
-    /**
-     * The different images in our game.<br>
-     * Order these according to the file name in the "image" assets folder.
-     */
-    public enum ImageGameKey
-    {
-    	bird1, bird2, bird3, bird4, fuel, numbers, pipe, pipe1, sheet
-    }
-    
-    /**
-     * The key of each text file.<br>
-     * Order these according to the file name in the "text" assets folder.
-     */
-    public enum TextKey
-    {
-        
-    }
-    
-    /**
-     * The key of each sound in our game.<br>
-     * Order these according to the file name in the "audio" assets folder.
-     */
-    public enum AudioMenuKey
-    {
-    	Music,
-    	Selection 
-    }
-    
-    /**
-     * The key of each sound in our game.<br>
-     * Order these according to the file name in the "audio" assets folder.
-     */
-    public enum AudioGameKey
-    {
-    	Dead, Fuel, Music, Score
-    }
-    
-    /**
-     * Load all assets.<br>
-     * If an asset already exists, it won't be loaded again
-     * @param activity Object containing AssetManager needed to load assets
-     * @throws Exception 
-     */
-    public static final void load(final Activity activity) throws Exception
-    {
-        //load all images for the menu
-        Images.load(activity, ImageMenuKey.values(), DIRECTORY_MENU_IMAGE, true);
-        
-        //load all fonts for the menu
-        Font.load(activity, FontMenuKey.values(), DIRECTORY_MENU_FONT, true);
-        
-        //load all audio for the menu
-        Audio.load(activity, AudioMenuKey.values(), DIRECTORY_MENU_AUDIO, true);
-        
-        //load images for the game
-        Images.load(activity, ImageGameKey.values(), DIRECTORY_GAME_IMAGE, true);
-        
-        //load all audio for the game
-        Audio.load(activity, AudioGameKey.values(), DIRECTORY_GAME_AUDIO, true);
-        
-        //load all fonts for the game
-        Font.load(activity, FontGameKey.values(), DIRECTORY_GAME_FONT, true);
-        
-        //load all text files
-        Files.load(activity, TextKey.values(), DIRECTORY_TEXT, true);
-    }
-    
-    /**
-     * Recycle all assets
-     */
-    public static void recycle()
-    {
-        try
-        {
-            Images.dispose();
-            Font.dispose();
-            Audio.dispose();
-            Files.dispose();
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-    }
+package com.gamesbykevin.floppybird.assets;
+
+import com.gamesbykevin.androidframework.resources.Files;
+import com.gamesbykevin.androidframework.resources.Font;
+import com.gamesbykevin.floppybird.audio.SoundEngine;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+
+/**
+ * This class will contain all of our assets
+ * @author GOD
+ */
+public class Assets 
+{
+    /**
+     * The directory where audio sound effect resources are kept
+     */
+    private static final String DIRECTORY_MENU_AUDIO = "audio/menu";
+    
+    /**
+     * The directory where audio sound effect resources are kept
+     */
+    private static final String DIRECTORY_GAME_AUDIO = "audio/game";
+    
+    /**
+     * The directory where image resources are kept for the menu
+     */
+    private static final String DIRECTORY_MENU_IMAGE = "image/menu";
+    
+    /**
+     * The directory where image resources are kept for the game
+     */
+    private static final String DIRECTORY_GAME_IMAGE = "image/game";
+    
+    /**
+     * The directory where font resources are kept
+     */
+    private static final String DIRECTORY_MENU_FONT = "font/menu";
+    
+    /**
+     * The directory where font resources are kept
+     */
+    private static final String DIRECTORY_GAME_FONT = "font/game";
+    
+    /**
+     * The directory where our text files are kept
+     */
+    private static final String DIRECTORY_TEXT = "text";
+    
+    /**
+     * The object managing the memory of our images
+     */
+    private static BitmapBudget BUDGET;
+    
+    /**
+     * The cache for the game over images, only the variant for the current mode and difficulty is needed
+     */
+    private static BitmapCache GAMEOVER;
+    
+    /**
+     * The number of game over images to keep in our cache
+     */
+    private static final int GAMEOVER_CACHE_CAPACITY = 2;
+    
+    /**
+     * The game over image for each mode (row) and difficulty (column) index in the options screen
+     */
+    private static final ImageMenuKey[][] GAMEOVER_KEYS = new ImageMenuKey[][]
+    {
+        //Endless
+        {ImageMenuKey.GameoverNormalEndless, ImageMenuKey.GameoverHardEndless, ImageMenuKey.GameoverEasyEndless},
+        
+        //Survival
+        {ImageMenuKey.GameoverNormalSurvival, ImageMenuKey.GameoverHardSurvival, ImageMenuKey.GameoverEasySurvival},
+    };
+    
+    /**
+     * The different fonts used in our game.<br>
+     * Order these according to the file name in the "font" assets folder.
+     */
+    public enum FontMenuKey
+    {
+        //Default
+    }
+    
+    /**
+     * The different fonts used in our game.<br>
+     * Order these according to the file name in the "font" assets folder.
+     */
+    public enum FontGameKey
+    {
+    	//Default
+    }
+    
+    /**
+     * The different images for our menu items
+     */
+    public enum ImageMenuKey
+    {
+    	Button, 
+    	Cancel, 
+    	Confirm,
+    	Facebook, 
+    	Gameover,
+    	GameoverEasyEndless,
+    	GameoverEasySurvival,
+    	GameoverHardEndless,
+    	GameoverHardSurvival,
+    	GameoverNormalEndless,
+    	GameoverNormalSurvival,
+    	Instructions,
+    	Logo,
+    	Record,
+    	Splash,
+    	Twitter
+    }
+    
+    /**
+     * The different images in our game.<br>
+     * Order these according to the file name in the "image" assets folder.
+     */
+    public enum ImageGameKey
+    {
+    	bird1, bird2, bird3, bird4, fuel, numbers, pipe, pipe1, sheet
+    }
+    
+    /**
+     * The key of each text file.<br>
+     * Order these according to the file name in the "text" assets folder.
+     */
+    public enum TextKey
+    {
+        
+    }
+    
+    /**
+     * The key of each sound in our game.<br>
+     * Order these according to the file name in the "audio" assets folder.
+     */
+    public enum AudioMenuKey
+    {
+    	Music,
+    	Selection 
+    }
+    
+    /**
+     * The key of each sound in our game.<br>
+     * Order these according to the file name in the "audio" assets folder.
+     */
+    public enum AudioGameKey
+    {
+    	Dead, Fuel, Music, Score
+    }
+    
+    /**
+     * Get the tier of the menu image
+     * @param key The key of the image
+     * @return How long we will keep the image in memory
+     */
+    private static BitmapBudget.Tier getTier(final ImageMenuKey key)
+    {
+        switch (key)
+        {
+            //this is only rendered on the menu screens
+            case Logo:
+                return BitmapBudget.Tier.Menu;
+                
+            //only one of these is needed per game, so they are kept in our cache
+            case GameoverEasyEndless:
+            case GameoverEasySurvival:
+            case GameoverHardEndless:
+            case GameoverHardSurvival:
+            case GameoverNormalEndless:
+            case GameoverNormalSurvival:
+                return BitmapBudget.Tier.Cached;
+                
+            //our buttons hold a reference to these, the game over messages are needed the moment the bird dies,
+            //and the splash is rendered by the loading screen right after the game starts playing
+            default:
+                return BitmapBudget.Tier.Pinned;
+        }
+    }
+    
+    /**
+     * Load all images.<br>
+     * If an image already exists, it won't be loaded again
+     * @param activity Object containing AssetManager needed to load assets
+     * @throws Exception
+     */
+    private static void loadImages(final Activity activity) throws Exception
+    {
+        //create our budget manager if it does not exist
+        if (BUDGET == null)
+            BUDGET = new BitmapBudget(activity);
+        
+        //create our game over cache if it does not exist
+        if (GAMEOVER == null)
+            GAMEOVER = new BitmapCache(BUDGET, GAMEOVER_CACHE_CAPACITY);
+        
+        //the file names are sorted to match the order of our keys
+        String[] files = BUDGET.list(DIRECTORY_MENU_IMAGE);
+        
+        //register all images for the menu
+        for (ImageMenuKey key : ImageMenuKey.values())
+        {
+            BUDGET.register(key, DIRECTORY_MENU_IMAGE + "/" + files[key.ordinal()], getTier(key));
+        }
+        
+        //the file names are sorted to match the order of our keys
+        files = BUDGET.list(DIRECTORY_GAME_IMAGE);
+        
+        //register all images for the game, these are always in use
+        for (ImageGameKey key : ImageGameKey.values())
+        {
+            BUDGET.register(key, DIRECTORY_GAME_IMAGE + "/" + files[key.ordinal()], BitmapBudget.Tier.Pinned);
+        }
+    }
+    
+    /**
+     * Get the image
+     * @param key The key of the image we want
+     * @return The image, null while an image that was released is decoded again in the background
+     */
+    public static Bitmap getImage(final Object key)
+    {
+        return BUDGET.get(key);
+    }
+    
+    /**
+     * Get the game over image
+     * @param modeIndex The index of the game mode
+     * @param difficultyIndex The index of the difficulty
+     * @return The game over image for the mode and difficulty, null if it is still being decoded
+     */
+    public static Bitmap getGameoverImage(final int modeIndex, final int difficultyIndex)
+    {
+        return GAMEOVER.get(GAMEOVER_KEYS[modeIndex][difficultyIndex]);
+    }
+    
+    /**
+     * Decode the game over image in the background, so it is ready when the game is over
+     * @param modeIndex The index of the game mode
+     * @param difficultyIndex The index of the difficulty
+     */
+    public static void prefetchGameoverImage(final int modeIndex, final int difficultyIndex)
+    {
+        if (GAMEOVER != null)
+            GAMEOVER.prefetch(GAMEOVER_KEYS[modeIndex][difficultyIndex]);
+    }
+    
+    /**
+     * Get the budget manager
+     * @return The object managing the memory of our images
+     */
+    public static BitmapBudget getBudget()
+    {
+        return BUDGET;
+    }
+    
+    /**
+     * Release images in response to the system asking us to release memory
+     * @param level The level provided by ComponentCallbacks2
+     */
+    public static void onTrimMemory(final int level)
+    {
+        if (BUDGET != null)
+            BUDGET.onTrimMemory(level);
+        
+        //the game over image will be prefetched again on the next game
+        if (GAMEOVER != null)
+            GAMEOVER.clear();
+    }
+    
+    /**
+     * Load all assets.<br>
+     * If an asset already exists, it won't be loaded again
+     * @param activity Object containing AssetManager needed to load assets
+     * @throws Exception 
+     */
+    public static final void load(final Activity activity) throws Exception
+    {
+        //load all images
+        loadImages(activity);
+        
+        //load all fonts for the menu
+        Font.load(activity, FontMenuKey.values(), DIRECTORY_MENU_FONT, true);
+        
+        //load all audio for the menu
+        SoundEngine.load(activity, AudioMenuKey.values(), DIRECTORY_MENU_AUDIO);
+        
+        //load all audio for the game
+        SoundEngine.load(activity, AudioGameKey.values(), DIRECTORY_GAME_AUDIO);
+        
+        //load all fonts for the game
+        Font.load(activity, FontGameKey.values(), DIRECTORY_GAME_FONT, true);
+        
+        //load all text files
+        Files.load(activity, TextKey.values(), DIRECTORY_TEXT, true);
+    }
+    
+    /**
+     * Recycle all assets
+     */
+    public static void recycle()
+    {
+        try
+        {
+            if (GAMEOVER != null)
+            {
+                GAMEOVER.dispose();
+                GAMEOVER = null;
+            }
+            
+            if (BUDGET != null)
+            {
+                BUDGET.dispose();
+                BUDGET = null;
+            }
+            
+            Font.dispose();
+            SoundEngine.dispose();
+            Files.dispose();
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,521 @@
+package com.gamesbykevin.floppybird.assets;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.res.AssetManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+/**
+ * This class will manage the memory used by our images.<br>
+ * Each image is decoded with a format chosen for the asset, the resident bytes are tracked per key,
+ * and images we rarely use can be released and decoded again the next time they are requested.<br>
+ * A released image is decoded again in the background, the game thread never waits for a decode.
+ * @author GOD
+ */
+public final class BitmapBudget implements Disposable
+{
+    /**
+     * How long we will keep an image in memory
+     */
+    public enum Tier
+    {
+        //always resident, objects like our buttons hold a reference to these
+        Pinned,
+
+        //menu art we don't need while the game is being played
+        Menu,
+
+        //only decoded when requested (in the background), these are released first
+        OnDemand,
+
+        //never kept here, these are decoded for a BitmapCache that manages them and tracks their memory here
+        Cached
+    }
+
+    /**
+     * Images with this extension have no transparency and can be decoded with less memory
+     */
+    private static final String EXTENSION_OPAQUE = ".jpg";
+
+    /**
+     * The portion of the heap our images are allowed to use (1 / ratio)
+     */
+    private static final long HEAP_RATIO = 4;
+
+    //object used to open our assets
+    private final AssetManager manager;
+
+    //every image we manage
+    private final HashMap<Object, Entry> entries;
+
+    //the total number of bytes in memory for our images
+    private long resident = 0;
+
+    //the maximum number of bytes we want to use
+    private final long limit;
+
+    //is the game being played
+    private boolean gameplay = false;
+
+    //counter used to track when each image was last used
+    private long counter = 0;
+
+    //the number of times we had to decode an image
+    private int decodes = 0;
+
+    //the thread we decode released images on
+    private ExecutorService executor;
+
+    /**
+     * Create a new budget manager
+     * @param activity Object containing AssetManager needed to decode our images
+     */
+    public BitmapBudget(final Activity activity)
+    {
+        //store the asset manager
+        this.manager = activity.getAssets();
+
+        //create our list of images
+        this.entries = new HashMap<Object, Entry>();
+
+        //determine how much memory we can use
+        this.limit = Runtime.getRuntime().maxMemory() / HEAP_RATIO;
+
+        //a single low priority thread to decode released images
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "BitmapBudget");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Get the files in the directory.<br>
+     * The files are sorted by name so they match the order of our keys
+     * @param directory The directory in the "assets" folder
+     * @return The sorted file names
+     * @throws Exception
+     */
+    public String[] list(final String directory) throws Exception
+    {
+        //get the files in the directory
+        final String[] files = manager.list(directory);
+
+        //sort by file name
+        Arrays.sort(files);
+
+        //return our result
+        return files;
+    }
+
+    /**
+     * Register an image.<br>
+     * If the key already exists, it won't be registered again
+     * @param key The unique key of the image
+     * @param path The location of the image in the "assets" folder
+     * @param tier How long we will keep the image in memory
+     * @throws Exception
+     */
+    public synchronized void register(final Object key, final String path, final Tier tier) throws Exception
+    {
+        //if the image already exists, no need to continue
+        if (entries.get(key) != null)
+            return;
+
+        //create our entry
+        final Entry entry = new Entry(path, tier);
+
+        //add to our list
+        entries.put(key, entry);
+
+        //images we keep are decoded right away, on demand images will wait
+        if (tier == Tier.Pinned || tier == Tier.Menu && !gameplay)
+        {
+            decode(entry);
+
+            //make sure we stay within our budget
+            trim(entry);
+        }
+    }
+
+    /**
+     * Decode a new copy of the image.<br>
+     * The image is not kept here, this is used by caches that manage their own images and track them with track()
+     * @param key The unique key of the image
+     * @return The decoded image, null if the key was never registered
+     * @throws Exception
+     */
+    public Bitmap decode(final Object key) throws Exception
+    {
+        final String path;
+
+        //only hold the lock long enough to find the location
+        synchronized (this)
+        {
+            final Entry entry = entries.get(key);
+
+            if (entry == null)
+                return null;
+
+            path = entry.path;
+        }
+
+        //decode outside of the lock so we don't hold up the game thread
+        return decode(path);
+    }
+
+    /**
+     * Get the image.<br>
+     * If the image was released it is decoded again in the background, and null is returned until it is ready.
+     * Menu images are not decoded again while the game is being played
+     * @param key The unique key of the image
+     * @return The image, null if the key was never registered, the image is not decoded yet, or we were disposed
+     */
+    public synchronized Bitmap get(final Object key)
+    {
+        //get the entry
+        final Entry entry = entries.get(key);
+
+        //if the entry does not exist or is managed by a cache, there is no image
+        if (entry == null || entry.tier == Tier.Cached)
+            return null;
+
+        //decode again in the background if we released the image, the menu images wait until the menu is back
+        if (entry.bitmap == null)
+        {
+            if (entry.tier != Tier.Menu || !gameplay)
+                load(entry);
+
+            return null;
+        }
+
+        //mark when this image was last used
+        entry.used = ++counter;
+
+        //return our image
+        return entry.bitmap;
+    }
+
+    /**
+     * Decode the image of the entry in the background, unless it is already being decoded
+     * @param entry The entry we want to decode
+     */
+    private void load(final Entry entry)
+    {
+        if (executor == null || entry.loading)
+            return;
+
+        entry.loading = true;
+
+        executor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                Bitmap bitmap = null;
+
+                try
+                {
+                    //decode the image outside of the lock
+                    bitmap = decode(entry.path);
+                }
+                catch (Exception e)
+                {
+                    GameLog.error("BitmapBudget.load", e);
+                }
+
+                synchronized (BitmapBudget.this)
+                {
+                    entry.loading = false;
+
+                    //if we were disposed, the image is back already, or the game started playing, no need to continue
+                    if (executor == null || bitmap == null || entry.bitmap != null || entry.tier == Tier.Menu && gameplay)
+                        return;
+
+                    //track our memory
+                    entry.bitmap = bitmap;
+                    entry.bytes = bitmap.getByteCount();
+                    entry.used = ++counter;
+                    resident += entry.bytes;
+
+                    //make sure we stay within our budget
+                    trim(entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Decode the image of the specified entry
+     * @param entry The entry we want to decode
+     * @throws Exception
+     */
+    private void decode(final Entry entry) throws Exception
+    {
+        //decode the image
+        entry.bitmap = decode(entry.path);
+
+        //track our memory
+        entry.bytes = (entry.bitmap == null) ? 0 : entry.bitmap.getByteCount();
+        resident += entry.bytes;
+    }
+
+    /**
+     * Decode the image at the specified location
+     * @param path The location of the image in the "assets" folder
+     * @return The decoded image
+     * @throws Exception
+     */
+    private Bitmap decode(final String path) throws Exception
+    {
+        //images without transparency only need 2 bytes per pixel
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = (path.endsWith(EXTENSION_OPAQUE)) ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+
+        //decoding reads the asset, the guard reports it if we are on the main thread
+        HotThread.check(HotThread.BLOCK_DISK, "BitmapBudget.decode");
+
+        //open the asset
+        final InputStream stream = manager.open(path);
+
+        try
+        {
+            //keep track of our decodes
+            synchronized (this)
+            {
+                decodes++;
+            }
+
+            //decode the image
+            return BitmapFactory.decodeStream(stream, null, options);
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    /**
+     * Release the image of the specified entry.<br>
+     * We don't recycle the image in case it is still being rendered, the garbage collector will reclaim it.
+     * @param entry The entry we want to release
+     */
+    private void release(final Entry entry)
+    {
+        //if there is no image, no need to continue
+        if (entry.bitmap == null)
+            return;
+
+        //update our memory
+        resident -= entry.bytes;
+
+        //remove the reference
+        entry.bitmap = null;
+        entry.bytes = 0;
+    }
+
+    /**
+     * Release all images in the specified tier
+     * @param tier The tier of images we want to release
+     */
+    public synchronized void release(final Tier tier)
+    {
+        for (Entry entry : entries.values())
+        {
+            if (entry.tier == tier)
+                release(entry);
+        }
+    }
+
+    /**
+     * Release the least recently used images until we are within our budget
+     * @param keep The entry we want to keep in memory, null to consider every entry
+     */
+    private void trim(final Entry keep)
+    {
+        while (resident > limit)
+        {
+            //the candidate we will release
+            Entry candidate = null;
+
+            for (Entry entry : entries.values())
+            {
+                //we can't release these
+                if (entry == keep || entry.bitmap == null || entry.tier == Tier.Pinned)
+                    continue;
+
+                //on demand images are released before menu images, then the oldest first
+                if (candidate == null ||
+                    entry.tier.ordinal() > candidate.tier.ordinal() ||
+                    entry.tier == candidate.tier && entry.used < candidate.used)
+                    candidate = entry;
+            }
+
+            //if there is nothing left to release we are done
+            if (candidate == null)
+                break;
+
+            //release the image
+            release(candidate);
+        }
+    }
+
+    /**
+     * Track the memory of the images a cache decoded for the Cached keys.<br>
+     * Our other images are released if the cache puts us over our budget
+     * @param bytes The number of bytes the cache added, negative when the cache removes images
+     */
+    public synchronized void track(final long bytes)
+    {
+        //once disposed there is nothing to track
+        if (executor == null)
+            return;
+
+        resident += bytes;
+
+        //make room for the cached images
+        if (bytes > 0)
+            trim(null);
+    }
+
+    /**
+     * Flag the game as being played.<br>
+     * If the game is being played we release the menu images
+     * @param gameplay true = yes, false = no
+     */
+    public synchronized void setGameplay(final boolean gameplay)
+    {
+        this.gameplay = gameplay;
+
+        //release the menu images while playing
+        if (gameplay)
+        {
+            release(Tier.Menu);
+        }
+        else
+        {
+            //decode the menu images again before the menu renders them
+            for (Entry entry : entries.values())
+            {
+                if (entry.tier == Tier.Menu && entry.bitmap == null)
+                    load(entry);
+            }
+        }
+    }
+
+    /**
+     * Respond to the system asking us to release memory
+     * @param level The level provided by ComponentCallbacks2
+     */
+    public synchronized void onTrimMemory(final int level)
+    {
+        //on demand images are always the first to go
+        release(Tier.OnDemand);
+
+        //if memory is running low, the app is hidden, or we are playing, release the menu images as well
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW || gameplay)
+            release(Tier.Menu);
+    }
+
+    /**
+     * Get the total memory used by our images
+     * @return The number of bytes in memory
+     */
+    public synchronized long getResidentBytes()
+    {
+        return this.resident;
+    }
+
+    /**
+     * Get the memory used by the specified image
+     * @param key The unique key of the image
+     * @return The number of bytes in memory, 0 if the image is not in memory
+     */
+    public synchronized long getResidentBytes(final Object key)
+    {
+        final Entry entry = entries.get(key);
+
+        return (entry == null) ? 0 : entry.bytes;
+    }
+
+    /**
+     * Get the number of decodes
+     * @return The number of times an image was decoded
+     */
+    public synchronized int getDecodeCount()
+    {
+        return this.decodes;
+    }
+
+    @Override
+    public synchronized void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+
+        for (Entry entry : entries.values())
+        {
+            if (entry.bitmap != null)
+            {
+                entry.bitmap.recycle();
+                entry.bitmap = null;
+            }
+        }
+
+        //the images are gone, get() returns null from now on
+        entries.clear();
+
+        resident = 0;
+    }
+
+    /**
+     * This class represents a single image we manage
+     */
+    private static class Entry
+    {
+        //location of the image
+        private final String path;
+
+        //how long we keep the image
+        private final Tier tier;
+
+        //the decoded image
+        private Bitmap bitmap;
+
+        //the number of bytes in memory
+        private long bytes = 0;
+
+        //when was this image last used
+        private long used = 0;
+
+        //is the image being decoded in the background
+        private boolean loading = false;
+
+        private Entry(final String path, final Tier tier)
+        {
+            this.path = path;
+            this.tier = tier;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,198 @@
+package com.gamesbykevin.floppybird.assets;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.floppybird.log.GameLog;
+
+import android.graphics.Bitmap;
+
+/**
+ * A small cache that keeps the most recently used images.<br>
+ * Images can be prefetched in the background so they are ready before they are rendered.
+ * Images are only ever decoded in the background, getting an image never waits for a decode.
+ * @author GOD
+ */
+public final class BitmapCache implements Disposable
+{
+    //the object that decodes our images
+    private final BitmapBudget budget;
+
+    //our images, ordered from least to most recently used
+    private LinkedHashMap<Object, Bitmap> bitmaps;
+
+    //the number of bytes of our images, tracked against the budget
+    private long bytes = 0;
+
+    //the keys currently being decoded in the background
+    private HashSet<Object> pending;
+
+    //the thread we will decode on
+    private ExecutorService executor;
+
+    /**
+     * Create a new cache
+     * @param budget The object that decodes our images
+     * @param capacity The maximum number of images to keep
+     */
+    public BitmapCache(final BitmapBudget budget, final int capacity)
+    {
+        //store our budget reference
+        this.budget = budget;
+
+        //the access order will move each image we get to the end of the list
+        this.bitmaps = new LinkedHashMap<Object, Bitmap>(capacity + 1, 1f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Bitmap> eldest)
+            {
+                //remove the least recently used image when we are over capacity
+                if (size() <= capacity)
+                    return false;
+
+                untrack(eldest.getValue());
+                return true;
+            }
+        };
+
+        //create our list of pending keys
+        this.pending = new HashSet<Object>();
+
+        //a single low priority thread to decode our images
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory()
+        {
+            @Override
+            public Thread newThread(final Runnable runnable)
+            {
+                final Thread thread = new Thread(runnable, "BitmapCache");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Get the image.<br>
+     * If the image is not in the cache it is prefetched, and the caller skips the image until it is ready
+     * @param key The unique key of the image
+     * @return The image, null if it is not in the cache yet
+     */
+    public synchronized Bitmap get(final Object key)
+    {
+        //if the cache was disposed there is nothing to return
+        if (bitmaps == null)
+            return null;
+
+        //get our image
+        final Bitmap bitmap = bitmaps.get(key);
+
+        //if the image is not in the cache (it was cleared, or the prefetch was missed), decode it in the background
+        if (bitmap == null)
+            prefetch(key);
+
+        //return our image
+        return bitmap;
+    }
+
+    /**
+     * Decode the image in the background so it is in the cache before we need it
+     * @param key The unique key of the image
+     */
+    public synchronized void prefetch(final Object key)
+    {
+        //if we already have the image or it is being decoded, no need to continue
+        if (executor == null || bitmaps.containsKey(key) || pending.contains(key))
+            return;
+
+        //flag the key as pending
+        pending.add(key);
+
+        executor.execute(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                Bitmap bitmap = null;
+
+                try
+                {
+                    //decode the image outside of the lock
+                    bitmap = budget.decode(key);
+                }
+                catch (Exception e)
+                {
+                    GameLog.error("BitmapCache.prefetch", e);
+                }
+
+                synchronized (BitmapCache.this)
+                {
+                    //add the image to the cache, and count it against the budget
+                    if (bitmap != null && bitmaps != null)
+                    {
+                        bitmaps.put(key, bitmap);
+                        bytes += bitmap.getByteCount();
+                        budget.track(bitmap.getByteCount());
+                    }
+
+                    //the image is no longer pending
+                    if (pending != null)
+                        pending.remove(key);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove all images from the cache.<br>
+     * The garbage collector will reclaim the images once they are no longer rendered
+     */
+    public synchronized void clear()
+    {
+        if (bitmaps != null)
+            bitmaps.clear();
+
+        //the budget no longer counts our images
+        budget.track(-bytes);
+        bytes = 0;
+    }
+
+    /**
+     * Stop counting the image against the budget
+     * @param bitmap The image we removed
+     */
+    private void untrack(final Bitmap bitmap)
+    {
+        bytes -= bitmap.getByteCount();
+        budget.track(-bitmap.getByteCount());
+    }
+
+    @Override
+    public synchronized void dispose()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            executor = null;
+        }
+
+        if (bitmaps != null)
+        {
+            clear();
+            bitmaps = null;
+        }
+
+        if (pending != null)
+        {
+            pending.clear();
+            pending = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.gamesbykevin.floppybird.audio;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock free queue of int commands.<br>
+ * Any thread can write a command, only a single thread is allowed to read them.<br>
+ * Writing a command never blocks and never creates any objects.
+ * @author GOD
+ */
+public final class CommandQueue
+{
+    //the commands in our queue
+    private final int[] commands;
+
+    //the sequence of each slot, used to know when a slot has been written/read
+    private final AtomicLongArray sequences;
+
+    //used to wrap the position to our capacity
+    private final int mask;
+
+    //the next position to write
+    private final AtomicLong tail = new AtomicLong(0);
+
+    //the next position to read, only accessed by the reading thread
+    private long head = 0;
+
+    //the number of commands we had to drop because the queue was full
+    private final AtomicInteger dropped = new AtomicInteger(0);
+
+    /**
+     * Create a new queue
+     * @param capacity The number of commands we can hold, must be a power of 2
+     */
+    public CommandQueue(final int capacity)
+    {
+        //make sure the capacity is a power of 2
+        if (capacity < 2 || (capacity & (capacity - 1)) != 0)
+            throw new IllegalArgumentException("Capacity must be a power of 2: " + capacity);
+
+        this.commands = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        //each slot is ready to be written for the first lap
+        for (int index = 0; index < capacity; index++)
+        {
+            this.sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Add a command to the queue
+     * @param command The command we want to add
+     * @return true if the command was added, false if the queue was full
+     */
+    public boolean offer(final int command)
+    {
+        while (true)
+        {
+            //the position we want to write
+            final long position = tail.get();
+
+            //the slot for this position
+            final int slot = (int)(position & mask);
+
+            //find out if the slot is ready to be written
+            final long difference = sequences.get(slot) - position;
+
+            if (difference == 0)
+            {
+                //claim the position, if another thread beat us we will try again
+                if (tail.compareAndSet(position, position + 1))
+                {
+                    //write the command
+                    commands[slot] = command;
+
+                    //publish the command to the reader, a full volatile write so the command is visible
+                    //before the writer checks if the reader is sleeping
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+            }
+            else if (difference < 0)
+            {
+                //the queue is full, drop the command rather than wait
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Is there a command waiting to be read?<br>
+     * This should only be called by the reading thread
+     * @return true = yes, false = no
+     */
+    public boolean hasNext()
+    {
+        return sequences.get((int)(head & mask)) == head + 1;
+    }
+
+    /**
+     * Read the next command.<br>
+     * This should only be called by the reading thread, after hasNext() returns true
+     * @return The next command in the queue
+     */
+    public int next()
+    {
+        //the slot we are reading
+        final int slot = (int)(head & mask);
+
+        //read the command
+        final int command = commands[slot];
+
+        //the slot can be written again on the next lap, so a writer doesn't see the queue full after we read it
+        sequences.set(slot, head + mask + 1);
+
+        //move to the next position
+        head++;
+
+        //return our command
+        return command;
+    }
+
+    /**
+     * Get the number of dropped commands
+     * @return The number of commands we could not add because the queue was full
+     */
+    public int getDropped()
+    {
+        return this.dropped.get();
+    }
+}
\ No newline at end of file
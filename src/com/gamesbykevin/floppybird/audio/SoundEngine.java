@@ -0,0 +1,675 @@
+package com.gamesbykevin.floppybird.audio;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import android.app.Activity;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.media.AudioManager;
+import android.media.MediaPlayer;
+import android.media.SoundPool;
+
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.metrics.JankDetector;
+
+/**
+ * Our low latency audio engine.<br>
+ * Sound effects are decoded once when loaded and played from a fixed pool of voices,
+ * while music is streamed from the asset instead of being held in memory.<br>
+ * Every request is written to a lock free queue and performed on the audio thread, so playing a sound
+ * from the game thread only costs a queue write.
+ * @author GOD
+ */
+public final class SoundEngine
+{
+    /**
+     * The number of sound effects that can play at the same time
+     */
+    private static final int VOICES = 4;
+
+    /**
+     * The number of commands our queue can hold
+     */
+    private static final int QUEUE_CAPACITY = 64;
+
+    /**
+     * Files with this extension will be streamed as music
+     */
+    private static final String EXTENSION_MUSIC = ".mp3";
+
+    /**
+     * The time (nanoseconds) the audio thread will sleep when it has nothing to do
+     */
+    private static final long IDLE_SLEEP = 250000000L;
+
+    /**
+     * The default duration (milliseconds) of a sound effect, if we can't read it from the file
+     */
+    private static final long DEFAULT_DURATION = 1000L;
+
+    //the different commands, stored in the upper bits of each queued command
+    private static final int COMMAND_EFFECT = 1;
+    private static final int COMMAND_MUSIC = 2;
+    private static final int COMMAND_MUSIC_LOOP = 3;
+    private static final int COMMAND_STOP = 4;
+
+    //the number of bits used to store the index in each command
+    private static final int COMMAND_SHIFT = 16;
+
+    //mask to read the index from each command
+    private static final int INDEX_MASK = (1 << COMMAND_SHIFT) - 1;
+
+    //every sound ready to play, replaced by a new snapshot once a sound is ready so it is read without a lock
+    private static volatile Library LIBRARY = new Library(new HashMap<Object, Integer>(), new ArrayList<Sound>());
+
+    //the index of each sound effect the sound pool is still decoding, by the id of its sample
+    private static final HashMap<Integer, Integer> PENDING = new HashMap<Integer, Integer>();
+
+    //our queue of commands
+    private static final CommandQueue QUEUE = new CommandQueue(QUEUE_CAPACITY);
+
+    //object used to play our sound effects
+    private static SoundPool POOL;
+
+    //object used to open our assets
+    private static AssetManager MANAGER;
+
+    //the thread that performs our commands
+    private static Worker WORKER;
+
+    //is audio enabled
+    private static volatile boolean ENABLED = true;
+
+    /**
+     * Load the audio in the specified directory.<br>
+     * If a key already exists, it won't be loaded again
+     * @param activity Object containing AssetManager needed to load assets
+     * @param keys The keys, in the same order as the file names
+     * @param directory The directory in the "assets" folder
+     * @throws Exception
+     */
+    public static synchronized void load(final Activity activity, final Object[] keys, final String directory) throws Exception
+    {
+        //if there are no keys, there is nothing to load
+        if (keys.length < 1)
+            return;
+
+        //create our objects if they don't exist
+        if (MANAGER == null)
+            MANAGER = activity.getAssets();
+        if (POOL == null)
+        {
+            POOL = new SoundPool(VOICES, AudioManager.STREAM_MUSIC, 0);
+
+            //the sound pool decodes in the background, a sound effect can only be played once it is decoded
+            POOL.setOnLoadCompleteListener(new SoundPool.OnLoadCompleteListener()
+            {
+                @Override
+                public void onLoadComplete(final SoundPool pool, final int sample, final int status)
+                {
+                    loaded(sample, status);
+                }
+            });
+        }
+
+        //start our audio thread
+        if (WORKER == null)
+        {
+            WORKER = new Worker();
+            WORKER.start();
+        }
+
+        //get the file names sorted so they match the order of our keys
+        final String[] files = MANAGER.list(directory);
+        Arrays.sort(files);
+
+        //add to a copy of the sounds, the audio thread keeps reading the current snapshot while we load
+        final HashMap<Object, Integer> indexes = new HashMap<Object, Integer>(LIBRARY.indexes);
+        final ArrayList<Sound> sounds = new ArrayList<Sound>(LIBRARY.sounds);
+
+        for (int index = 0; index < keys.length; index++)
+        {
+            //if the key was already loaded, skip it
+            if (indexes.get(keys[index]) != null || isPending(sounds, keys[index]))
+                continue;
+
+            //the location of the file
+            final String path = directory + "/" + files[index];
+
+            //create our sound
+            final Sound sound = new Sound(keys[index], path, path.endsWith(EXTENSION_MUSIC));
+
+            //add to our list
+            sounds.add(sound);
+
+            //music is streamed when played, so it is ready right away
+            if (sound.music)
+            {
+                indexes.put(keys[index], sounds.size() - 1);
+                continue;
+            }
+
+            //read how long the sound plays for, so we know when a voice is free
+            sound.duration = getDuration(path);
+
+            //start decoding the sound effect, it is added once the sound pool has decoded it
+            final AssetFileDescriptor descriptor = MANAGER.openFd(path);
+
+            try
+            {
+                sound.sample = POOL.load(descriptor, 1);
+            }
+            finally
+            {
+                descriptor.close();
+            }
+
+            PENDING.put(sound.sample, sounds.size() - 1);
+        }
+
+        //publish the sounds, the sound effects can't be played until they are decoded
+        LIBRARY = new Library(indexes, sounds);
+    }
+
+    /**
+     * Is the sound pool still decoding the sound?
+     * @param sounds Every sound we have loaded
+     * @param key The key of the sound
+     * @return true if the sound will be ready once decoded, false otherwise
+     */
+    private static boolean isPending(final ArrayList<Sound> sounds, final Object key)
+    {
+        for (Integer index : PENDING.values())
+        {
+            if (sounds.get(index).key.equals(key))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * A sound effect has been decoded, publish it so it can be played
+     * @param sample The id of the sample in our sound pool
+     * @param status 0 if the sample was decoded
+     */
+    private static synchronized void loaded(final int sample, final int status)
+    {
+        final Integer index = PENDING.remove(sample);
+
+        //we were disposed, or the sound is not ours
+        if (index == null)
+            return;
+
+        final Library library = LIBRARY;
+        final Sound sound = library.sounds.get(index);
+
+        //a sound that could not be decoded is never played
+        if (status != 0)
+        {
+            GameLog.error("SoundEngine.loaded", new Exception("Unable to decode " + sound.path + ", status " + status));
+            return;
+        }
+
+        final HashMap<Object, Integer> indexes = new HashMap<Object, Integer>(library.indexes);
+        indexes.put(sound.key, index);
+
+        LIBRARY = new Library(indexes, new ArrayList<Sound>(library.sounds));
+    }
+
+    /**
+     * Read the duration of a wav file from its header
+     * @param path The location of the file in the "assets" folder
+     * @return The duration (milliseconds)
+     */
+    private static long getDuration(final String path)
+    {
+        try
+        {
+            final InputStream stream = MANAGER.open(path);
+
+            try
+            {
+                //the header will be in the beginning of the file
+                final byte[] header = new byte[512];
+                final int length = stream.read(header);
+
+                //the number of bytes per second of audio
+                long byteRate = 0;
+
+                //skip the "RIFF" header and check each chunk
+                int position = 12;
+
+                while (position + 8 <= length)
+                {
+                    //the size of this chunk
+                    final long size = readInt(header, position + 4);
+
+                    if (header[position] == 'f' && header[position + 1] == 'm' && header[position + 2] == 't')
+                    {
+                        byteRate = readInt(header, position + 16);
+                    }
+                    else if (header[position] == 'd' && header[position + 1] == 'a' && header[position + 2] == 't' && header[position + 3] == 'a')
+                    {
+                        if (byteRate > 0)
+                            return (size * 1000L) / byteRate;
+                        break;
+                    }
+
+                    //move to the next chunk, a chunk with an odd size is followed by a pad byte
+                    position += 8 + size + (size & 1);
+                }
+            }
+            finally
+            {
+                stream.close();
+            }
+        }
+        catch (Exception e)
+        {
+            GameLog.error("SoundEngine.getDuration", e);
+        }
+
+        //we could not read the duration
+        return DEFAULT_DURATION;
+    }
+
+    /**
+     * Read a little endian int
+     * @param bytes The bytes
+     * @param offset The position of the int
+     * @return The value
+     */
+    private static long readInt(final byte[] bytes, final int offset)
+    {
+        return (bytes[offset] & 0xFFL) | (bytes[offset + 1] & 0xFFL) << 8 | (bytes[offset + 2] & 0xFFL) << 16 | (bytes[offset + 3] & 0xFFL) << 24;
+    }
+
+    /**
+     * Play the sound.<br>
+     * This won't block, the sound is played on the audio thread
+     * @param key The key of the sound we want to play
+     */
+    public static void play(final Object key)
+    {
+        play(key, false);
+    }
+
+    /**
+     * Play the sound.<br>
+     * This won't block, the sound is played on the audio thread
+     * @param key The key of the sound we want to play
+     * @param loop Do we loop the sound? This only applies to music
+     */
+    public static void play(final Object key, final boolean loop)
+    {
+        //if audio is disabled we won't play anything
+        if (!ENABLED)
+            return;
+
+        final Library library = LIBRARY;
+
+        //get the index of the sound
+        final Integer index = library.indexes.get(key);
+
+        //if the sound does not exist, we can't play it
+        if (index == null)
+            return;
+
+        //let the jank detector know a sound was played this frame
+        JankDetector.mark(JankDetector.FLAG_SOUND);
+
+        //music and sound effects are handled differently
+        if (library.sounds.get(index).music)
+        {
+            send((loop) ? COMMAND_MUSIC_LOOP : COMMAND_MUSIC, index);
+        }
+        else
+        {
+            send(COMMAND_EFFECT, index);
+        }
+    }
+
+    /**
+     * Stop all music and sound effects
+     */
+    public static void stop()
+    {
+        send(COMMAND_STOP, 0);
+    }
+
+    /**
+     * Add the command to our queue and wake the audio thread
+     * @param command The command
+     * @param index The index of the sound
+     */
+    private static void send(final int command, final int index)
+    {
+        //add our command
+        QUEUE.offer((command << COMMAND_SHIFT) | index);
+
+        //wake the audio thread, if it is sleeping.
+        //the queue publishes the command with a volatile write before we read idle, and the audio thread writes idle
+        //before it checks the queue again, so either we see it idle or it sees our command
+        final Worker worker = WORKER;
+
+        if (worker != null && worker.idle)
+            LockSupport.unpark(worker);
+    }
+
+    /**
+     * Flag audio enabled
+     * @param enabled true = yes, false = no
+     */
+    public static void setAudioEnabled(final boolean enabled)
+    {
+        ENABLED = enabled;
+
+        //if disabled, stop everything that is playing
+        if (!enabled)
+            stop();
+    }
+
+    /**
+     * Is audio enabled?
+     * @return true = yes, false = no
+     */
+    public static boolean isAudioEnabled()
+    {
+        return ENABLED;
+    }
+
+    /**
+     * Get the number of dropped commands
+     * @return The number of sounds we did not play because the queue was full
+     */
+    public static int getDropped()
+    {
+        return QUEUE.getDropped();
+    }
+
+    /**
+     * Stop the audio thread and release all audio
+     */
+    public static synchronized void dispose()
+    {
+        if (WORKER != null)
+        {
+            WORKER.running = false;
+            LockSupport.unpark(WORKER);
+
+            try
+            {
+                WORKER.join();
+            }
+            catch (InterruptedException e)
+            {
+                GameLog.error("SoundEngine.dispose", e);
+            }
+
+            WORKER = null;
+        }
+
+        if (POOL != null)
+        {
+            POOL.release();
+            POOL = null;
+        }
+
+        LIBRARY = new Library(new HashMap<Object, Integer>(), new ArrayList<Sound>());
+        PENDING.clear();
+        MANAGER = null;
+    }
+
+    /**
+     * An immutable snapshot of the sounds we have loaded
+     */
+    private static final class Library
+    {
+        //the index of each audio key that is ready to play
+        private final Map<Object, Integer> indexes;
+
+        //every sound we have loaded
+        private final List<Sound> sounds;
+
+        private Library(final HashMap<Object, Integer> indexes, final ArrayList<Sound> sounds)
+        {
+            this.indexes = Collections.unmodifiableMap(indexes);
+            this.sounds = Collections.unmodifiableList(sounds);
+        }
+    }
+
+    /**
+     * A sound we have loaded
+     */
+    private static class Sound
+    {
+        //the key the sound is played with
+        private final Object key;
+
+        //the location of the sound
+        private final String path;
+
+        //is this music we will stream
+        private final boolean music;
+
+        //the id of the decoded sample in our sound pool
+        private int sample;
+
+        //how long the sound plays (milliseconds)
+        private long duration = DEFAULT_DURATION;
+
+        private Sound(final Object key, final String path, final boolean music)
+        {
+            this.key = key;
+            this.path = path;
+            this.music = music;
+        }
+    }
+
+    /**
+     * The thread that performs our queued commands
+     */
+    private static class Worker extends Thread
+    {
+        //is the thread running
+        private volatile boolean running = true;
+
+        //is the thread waiting for commands
+        private volatile boolean idle = false;
+
+        //the stream id playing in each voice
+        private final int[] streams = new int[VOICES];
+
+        //the time each voice will be finished
+        private final long[] finish = new long[VOICES];
+
+        //the time each voice started
+        private final long[] start = new long[VOICES];
+
+        //the music we are streaming
+        private MediaPlayer player;
+
+        private Worker()
+        {
+            super("SoundEngine");
+
+            //don't prevent the app from closing
+            setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            //audio needs to be on time
+            android.os.Process.setThreadPriority(android.os.Process.THREAD_PRIORITY_AUDIO);
+
+            while (running)
+            {
+                //perform every command in the queue
+                while (QUEUE.hasNext())
+                {
+                    final int command = QUEUE.next();
+
+                    try
+                    {
+                        perform(command >>> COMMAND_SHIFT, command & INDEX_MASK);
+                    }
+                    catch (Exception e)
+                    {
+                        GameLog.error("SoundEngine.Worker", e);
+                    }
+                }
+
+                //flag that we are waiting
+                idle = true;
+
+                //check the queue again in case a command was added before we flagged idle
+                if (!QUEUE.hasNext() && running)
+                    LockSupport.parkNanos(IDLE_SLEEP);
+
+                idle = false;
+            }
+
+            //release the music
+            stopMusic();
+        }
+
+        /**
+         * Perform the command
+         * @param command The command
+         * @param index The index of the sound
+         * @throws Exception
+         */
+        private void perform(final int command, final int index) throws Exception
+        {
+            switch (command)
+            {
+                case COMMAND_EFFECT:
+                    playEffect(LIBRARY.sounds.get(index));
+                    break;
+
+                case COMMAND_MUSIC:
+                case COMMAND_MUSIC_LOOP:
+                    playMusic(LIBRARY.sounds.get(index), command == COMMAND_MUSIC_LOOP);
+                    break;
+
+                case COMMAND_STOP:
+                    stopMusic();
+                    stopEffects();
+                    break;
+
+                default:
+                    throw new Exception("Command not handled here: " + command);
+            }
+        }
+
+        /**
+         * Play the sound effect in a free voice, if there is no free voice we will steal the oldest
+         * @param sound The sound effect
+         */
+        private void playEffect(final Sound sound)
+        {
+            //the current time
+            final long time = System.currentTimeMillis();
+
+            //the voice we will use
+            int voice = 0;
+
+            for (int index = 0; index < VOICES; index++)
+            {
+                //if this voice is finished we can use it
+                if (finish[index] <= time)
+                {
+                    voice = index;
+                    break;
+                }
+
+                //else keep track of the oldest voice
+                if (start[index] < start[voice])
+                    voice = index;
+            }
+
+            //stop the sound in the voice we are stealing
+            if (finish[voice] > time)
+                POOL.stop(streams[voice]);
+
+            //play our sound effect
+            streams[voice] = POOL.play(sound.sample, 1f, 1f, 1, 0, 1f);
+            start[voice] = time;
+            finish[voice] = time + sound.duration;
+        }
+
+        /**
+         * Stop all sound effects
+         */
+        private void stopEffects()
+        {
+            for (int index = 0; index < VOICES; index++)
+            {
+                if (streams[index] != 0)
+                    POOL.stop(streams[index]);
+
+                streams[index] = 0;
+                finish[index] = 0;
+            }
+        }
+
+        /**
+         * Stream the music from the asset
+         * @param sound The music
+         * @param loop Do we loop the music
+         * @throws Exception
+         */
+        private void playMusic(final Sound sound, final boolean loop) throws Exception
+        {
+            //stop the current music
+            stopMusic();
+
+            //open the asset, the music will be streamed from here
+            final AssetFileDescriptor descriptor = MANAGER.openFd(sound.path);
+
+            try
+            {
+                player = new MediaPlayer();
+                player.setAudioStreamType(AudioManager.STREAM_MUSIC);
+                player.setDataSource(descriptor.getFileDescriptor(), descriptor.getStartOffset(), descriptor.getLength());
+                player.setLooping(loop);
+                player.prepare();
+                player.start();
+            }
+            finally
+            {
+                descriptor.close();
+            }
+        }
+
+        /**
+         * Stop and release the music
+         */
+        private void stopMusic()
+        {
+            if (player != null)
+            {
+                try
+                {
+                    player.stop();
+                }
+                catch (Exception e)
+                {
+                    GameLog.error("SoundEngine.stopMusic", e);
+                }
+
+                player.release();
+                player = null;
+            }
+        }
+    }
+}
\ No newline at end of file
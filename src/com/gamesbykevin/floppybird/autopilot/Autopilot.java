@@ -0,0 +1,353 @@
+package com.gamesbykevin.floppybird.autopilot;
+
+import com.gamesbykevin.floppybird.simulation.Rules;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.trace.Trace;
+
+/**
+ * Plays the game by searching the future steps with the same simulation the game uses.<br>
+ * We keep a plan of jumps that survives the next HORIZON steps. Each step we take the first decision of the plan
+ * and extend the plan by a depth first search, backtracking when a branch dies.<br>
+ * The search continues where it left off on the next step, and stops once the step budget is spent,
+ * so a single step never takes longer than the budget no matter how hard the position is.
+ * @author GOD
+ */
+public final class Autopilot
+{
+    /**
+     * The number of steps we plan ahead (2 seconds)
+     */
+    public static final int HORIZON = 60;
+
+    /**
+     * The time we are allowed to search each step (nanoseconds)
+     */
+    public static final long BUDGET = 1000000L;
+
+    /**
+     * The number of steps simulated between checking the time
+     */
+    private static final int CHECK_INTERVAL = 32;
+
+    /**
+     * We only consider jumping once the bird has slowed down to this y-velocity.<br>
+     * Jumping sooner rarely helps, and skipping it keeps the number of plans to search small
+     */
+    private static final int FLAP_VELOCITY_MIN = -2;
+
+    /**
+     * How close to the bottom of the gap we let the bird fall (pixels)
+     */
+    private static final int MARGIN = 8;
+
+    /**
+     * How far ahead of the bird we start going for a fuel tank (pixels)
+     */
+    private static final int FUEL_LOOKAHEAD = 200;
+
+    /**
+     * How far below the middle of the tank the bird falls before jumping, about half the height of a jump (pixels)
+     */
+    private static final int FUEL_OFFSET = 24;
+
+    /**
+     * Each decision we tried from a state
+     */
+    private static final int TRIED_WAIT = 1, TRIED_FLAP = 2, TRIED_BOTH = TRIED_WAIT | TRIED_FLAP;
+
+    //the simulation we search with
+    private final Simulation simulation;
+
+    //the planned states, states[head] is the current state, followed by the state after each planned decision
+    private final SimulationState[] states = new SimulationState[HORIZON + 1];
+
+    //the decision made from each planned state
+    private final boolean[] decisions = new boolean[HORIZON + 1];
+
+    //the decisions we tried from each planned state
+    private final int[] tried = new int[HORIZON + 1];
+
+    //the position of the current state, and the number of planned decisions
+    private int head, length;
+
+    //the time we are allowed to search each step
+    private final long budget;
+
+    //the number of decisions made, and the number of steps simulated while searching
+    private long decisionCount, nodeCount;
+
+    //the time spent searching on the previous step, and the longest time spent on a single step (nanoseconds)
+    private long searchTime, searchTimeMax;
+
+    /**
+     * Create an autopilot with the default rules and budget
+     */
+    public Autopilot()
+    {
+        this(Rules.DEFAULT, BUDGET);
+    }
+
+    /**
+     * Create an autopilot
+     * @param rules The rules of the game we are playing
+     * @param budget The time we are allowed to search each step (nanoseconds)
+     */
+    public Autopilot(final Rules rules, final long budget)
+    {
+        this.simulation = new Simulation(0, Simulation.PIPE_GAP_NORMAL, false, rules);
+        this.budget = budget;
+
+        for (int index = 0; index < states.length; index++)
+        {
+            states[index] = new SimulationState();
+        }
+    }
+
+    /**
+     * Forget the plan, we will start over on the next decision
+     */
+    public void reset()
+    {
+        this.length = 0;
+        this.tried[head] = 0;
+    }
+
+    /**
+     * Decide if the bird should jump
+     * @param current The current state of the game
+     * @return true if the bird should jump on the next step, false otherwise
+     */
+    public boolean decide(final SimulationState current)
+    {
+        Trace.begin("Autopilot.decide");
+
+        final long start = System.nanoTime();
+
+        //if the game did not go as planned (the player jumped, or a new run started), start over
+        if (!matches(states[head], current))
+        {
+            states[head].copy(current);
+            tried[head] = 0;
+            length = 0;
+        }
+
+        search(start + budget);
+
+        final boolean decision;
+
+        if (length > 0)
+        {
+            //take the first planned decision
+            decision = decisions[head];
+            head = next(head);
+            length--;
+        }
+        else
+        {
+            //every branch we could search dies, do what looks best
+            decision = prefer(current);
+        }
+
+        decisionCount++;
+        searchTime = System.nanoTime() - start;
+        searchTimeMax = Math.max(searchTime, searchTimeMax);
+
+        Trace.end();
+
+        return decision;
+    }
+
+    /**
+     * Extend the plan until it reaches the horizon or we run out of time
+     * @param deadline The time we have to stop searching (nanoseconds)
+     */
+    private void search(final long deadline)
+    {
+        //there is no future for a dead bird
+        if (states[head].dead)
+            return;
+
+        int count = 0;
+
+        while (length < HORIZON)
+        {
+            //check the time every so often
+            if (++count % CHECK_INTERVAL == 0 && System.nanoTime() >= deadline)
+                return;
+
+            final int index = position(length);
+            final SimulationState from = states[index];
+
+            //if both decisions die, go back to the previous decision
+            if (tried[index] == TRIED_BOTH)
+            {
+                //the current state can't survive, there is nothing left to search
+                if (length == 0)
+                    return;
+
+                length--;
+                continue;
+            }
+
+            //don't consider jumping while the bird is still climbing quickly
+            if (from.started && from.birdDY < FLAP_VELOCITY_MIN)
+                tried[index] |= TRIED_FLAP;
+
+            //try the decision that looks best first
+            final boolean preferred = prefer(from);
+            final boolean decision = ((tried[index] & flag(preferred)) == 0) ? preferred : !preferred;
+            tried[index] |= flag(decision);
+
+            simulation.restore(from);
+            simulation.step(decision);
+            nodeCount++;
+
+            //this branch dies, try the other decision
+            if (simulation.getState().dead)
+                continue;
+
+            //add the decision to our plan
+            final int following = next(index);
+            states[following].copy(simulation.getState());
+            tried[following] = 0;
+            decisions[index] = decision;
+            length++;
+        }
+    }
+
+    /**
+     * Pick the decision to try first, jump when the bird would fall below the gap of the next pipe or fuel tank
+     * @param state The state we are deciding from
+     * @return true to try jumping first, false to try waiting first
+     */
+    private static boolean prefer(final SimulationState state)
+    {
+        //the bird needs to jump to start
+        if (!state.started)
+            return true;
+
+        //by default stay above the middle of the screen
+        int target = (Simulation.HEIGHT - Simulation.GROUND_HEIGHT) / 2;
+        int nearest = Integer.MAX_VALUE;
+
+        //find the next pipe the bird has not passed
+        for (int index = 0; index < state.pipeCount; index++)
+        {
+            if (state.pipePause[index] || state.pipeX[index] + Simulation.PIPE_WIDTH < state.birdX)
+                continue;
+
+            if (state.pipeX[index] < nearest)
+            {
+                nearest = state.pipeX[index];
+                target = state.pipeBottom[index] - MARGIN;
+            }
+        }
+
+        //if the bird uses fuel, go for the next tank once it is close, the tanks are right behind the pipes
+        if (state.survival)
+        {
+            nearest = Integer.MAX_VALUE;
+
+            for (int index = 0; index < state.fuelCount; index++)
+            {
+                if (state.fuelPause[index] || state.fuelX[index] + Simulation.FUEL_WIDTH < state.birdX)
+                    continue;
+                if (state.fuelX[index] - state.birdX > FUEL_LOOKAHEAD)
+                    continue;
+
+                if (state.fuelX[index] < nearest)
+                {
+                    //keep the middle of the jumps level with the middle of the tank
+                    nearest = state.fuelX[index];
+                    target = state.fuelY[index] + (Simulation.FUEL_HEIGHT / 2) + (state.birdHeight / 2) + FUEL_OFFSET;
+                }
+            }
+        }
+
+        //jump if the next fall would take the bird below the target
+        return (state.birdY + state.birdHeight + state.birdDY + 1 > target);
+    }
+
+    /**
+     * Is the game in the state we planned?
+     * @param planned The state we planned
+     * @param actual The state of the game
+     * @return true if the states are the same, false otherwise
+     */
+    private static boolean matches(final SimulationState planned, final SimulationState actual)
+    {
+        return (
+            planned.step == actual.step &&
+            planned.random == actual.random &&
+            planned.started == actual.started &&
+            planned.dead == actual.dead &&
+            planned.birdY == actual.birdY &&
+            planned.birdDY == actual.birdDY &&
+            planned.score == actual.score &&
+            planned.fuel == actual.fuel &&
+            planned.pipeGap == actual.pipeGap &&
+            planned.survival == actual.survival
+        );
+    }
+
+    private static int flag(final boolean decision)
+    {
+        return (decision) ? TRIED_FLAP : TRIED_WAIT;
+    }
+
+    private int position(final int offset)
+    {
+        return (head + offset) % states.length;
+    }
+
+    private int next(final int index)
+    {
+        return (index + 1) % states.length;
+    }
+
+    /**
+     * Get the length of the plan
+     * @return The number of steps we know the bird survives
+     */
+    public int getLength()
+    {
+        return this.length;
+    }
+
+    /**
+     * Get the decision count
+     * @return The number of decisions made
+     */
+    public long getDecisionCount()
+    {
+        return this.decisionCount;
+    }
+
+    /**
+     * Get the node count
+     * @return The number of steps simulated while searching
+     */
+    public long getNodeCount()
+    {
+        return this.nodeCount;
+    }
+
+    /**
+     * Get the search time
+     * @return The time spent deciding the previous step (nanoseconds)
+     */
+    public long getSearchTime()
+    {
+        return this.searchTime;
+    }
+
+    /**
+     * Get the maximum search time
+     * @return The longest time spent deciding a single step (nanoseconds)
+     */
+    public long getSearchTimeMax()
+    {
+        return this.searchTimeMax;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.gamesbykevin.floppybird.background;
+
+import com.gamesbykevin.floppybird.simulation.Simulation;
+
+/**
+ * The scroll position of each background layer.<br>
+ * Each layer moves at its own speed and wraps back around once it scrolls off the screen.
+ * @author GOD
+ */
+public final class Parallax
+{
+    /**
+     * The layers of the game background, in the order of Background.Key
+     */
+    public static final int LAYER_GROUND = 0, LAYER_SKY = 1, LAYER_CLOUD = 2, LAYER_BUSH = 3;
+
+    /**
+     * The speed at which the clouds move, the ground and bushes move with the pipes
+     */
+    public static final int CLOUD_SCROLL = 2;
+
+    //the width of the screen, where each layer wraps around
+    private final int width;
+
+    //the speed of each layer, 0 if the layer doesn't scroll
+    private final int[] speeds;
+
+    //the current x-coordinate of each layer
+    private final int[] x;
+
+    /**
+     * Create the scroll positions
+     * @param width The width of the screen
+     * @param speeds The number of pixels each layer scrolls on each update
+     */
+    public Parallax(final int width, final int[] speeds)
+    {
+        this.width = width;
+        this.speeds = speeds;
+        this.x = new int[speeds.length];
+    }
+
+    /**
+     * Create the scroll positions of the game background
+     * @param width The width of the screen
+     * @return The scroll positions of the ground, sky, cloud and bush layers
+     */
+    public static Parallax createBackground(final int width)
+    {
+        final int[] speeds = new int[4];
+        speeds[LAYER_GROUND] = Simulation.SCROLL_X;
+        speeds[LAYER_SKY] = 0;
+        speeds[LAYER_CLOUD] = CLOUD_SCROLL;
+        speeds[LAYER_BUSH] = Simulation.SCROLL_X;
+
+        return new Parallax(width, speeds);
+    }
+
+    /**
+     * Move every layer back to the start
+     */
+    public void reset()
+    {
+        for (int layer = 0; layer < x.length; layer++)
+        {
+            x[layer] = 0;
+        }
+    }
+
+    /**
+     * Scroll each layer
+     */
+    public void update()
+    {
+        for (int layer = 0; layer < x.length; layer++)
+        {
+            //skip the layers that don't scroll
+            if (speeds[layer] == 0)
+                continue;
+
+            //update x-coordinate
+            x[layer] -= speeds[layer];
+
+            //adjust if we move off the screen
+            if (x[layer] < 0)
+                x[layer] = width;
+        }
+    }
+
+    /**
+     * Get the x
+     * @param layer The index of the layer
+     * @return The current x-coordinate of the layer
+     */
+    public int getX(final int layer)
+    {
+        return this.x[layer];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.gamesbykevin.floppybird.bird;
+
+import com.gamesbykevin.androidframework.anim.Animation;
+import com.gamesbykevin.floppybird.assets.Assets;
+import com.gamesbykevin.floppybird.common.ICommon;
+import com.gamesbykevin.floppybird.game.Game;
+import com.gamesbykevin.floppybird.hud.PerformanceHud;
+import com.gamesbykevin.floppybird.replay.GhostRun;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.thread.MainThread;
+import com.gamesbykevin.floppybird.trace.Trace;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * A translucent bird that replays the personal best run next to the player.<br>
+ * The best run is played back by a GhostRun one step at a time, this renders it.
+ * @author GOD
+ */
+public class Ghost implements ICommon
+{
+	/**
+	 * The transparency of the ghost
+	 */
+	private static final int GHOST_ALPHA = 90;
+
+	/**
+	 * The number of frames in each bird animation
+	 */
+	private static final int FRAMES = 4;
+
+	/**
+	 * The number of steps each animation frame is displayed, the same speed as the bird animation
+	 */
+	private static final int FRAME_STEPS = Math.max(1, (int)((75L * MainThread.FPS) / Animation.MILLISECONDS_PER_SECOND));
+
+	/**
+	 * The image for each bird variant in the simulation
+	 */
+	private static final Assets.ImageGameKey[] VARIANTS = {
+		Assets.ImageGameKey.bird1,
+		Assets.ImageGameKey.bird2,
+		Assets.ImageGameKey.bird3,
+		Assets.ImageGameKey.bird4
+	};
+
+	//game reference object
+	private final Game game;
+
+	//the best run we are playing
+	private final GhostRun run;
+
+	//the part of the image to render, and where to render it
+	private final Rect source, destination;
+
+	//the paint object to render the ghost translucent
+	private Paint paint;
+
+	/**
+	 * Create our ghost
+	 * @param game Game reference object
+	 */
+	public Ghost(final Game game)
+	{
+		//store our game reference object
+		this.game = game;
+
+		//the run is created once and reused for every run
+		this.run = new GhostRun();
+
+		this.source = new Rect();
+		this.destination = new Rect();
+
+		this.paint = new Paint();
+		this.paint.setAlpha(GHOST_ALPHA);
+		this.paint.setFilterBitmap(true);
+	}
+
+	/**
+	 * Start playing the best run for the current mode and difficulty
+	 */
+	@Override
+	public final void reset()
+	{
+		//play the best run, if there is one
+		run.reset(game.getReplays().getBest(
+			game.getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Mode),
+			game.getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Difficulty)
+		));
+	}
+
+	/**
+	 * Start playing the best run from the same point as the player's run, when a run is restored
+	 */
+	public void resume()
+	{
+		reset();
+
+		run.resume(game.getSimulation().getState());
+	}
+
+	/**
+	 * Is the ghost active?
+	 * @return true if we are playing a best run, false otherwise
+	 */
+	public boolean isActive()
+	{
+		return run.isActive();
+	}
+
+	/**
+	 * Get the simulation
+	 * @return The simulation replaying the best run
+	 */
+	public Simulation getSimulation()
+	{
+		return run.getSimulation();
+	}
+
+	@Override
+	public void update() throws Exception
+	{
+		run.update(game.getSimulation().getState());
+	}
+
+	@Override
+	public void render(final Canvas canvas) throws Exception
+	{
+		if (!isActive())
+			return;
+
+		Trace.begin("Ghost.render");
+
+		try
+		{
+			final SimulationState state = run.getSimulation().getState();
+
+			//the animation does not loop, it stays on the last frame until the next jump
+			final int frame = Math.min(FRAMES - 1, run.getSteps() / FRAME_STEPS);
+
+			//the animation frames are next to each other in the image
+			source.set(frame * state.birdWidth, 0, (frame + 1) * state.birdWidth, state.birdHeight);
+			destination.set(state.birdX, state.birdY, state.birdX + state.birdWidth, state.birdY + state.birdHeight);
+
+			//save the canvas here so the rotation changes below only affect this object
+			canvas.save(Canvas.MATRIX_SAVE_FLAG);
+
+			//rotate the canvas
+			canvas.rotate(state.rotation, destination.exactCenterX(), destination.exactCenterY());
+
+			//render the current frame
+			canvas.drawBitmap(Assets.getImage(VARIANTS[state.variant]), source, destination, paint);
+			PerformanceHud.addDrawCall();
+
+			//restore canvas to previous state so only this object is affected
+			canvas.restore();
+		}
+		finally
+		{
+			Trace.end();
+		}
+	}
+
+	@Override
+	public void dispose()
+	{
+		this.paint = null;
+	}
+}
\ No newline at end of file
@@ -1,385 +1,751 @@
-package com.gamesbykevin.floppybird.game;
-
-import android.content.Context;
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.os.Vibrator;
-import android.view.MotionEvent;
-
-import com.gamesbykevin.androidframework.resources.Images;
-import com.gamesbykevin.floppybird.assets.Assets;
-import com.gamesbykevin.floppybird.background.Background;
-import com.gamesbykevin.floppybird.bird.Bird;
-import com.gamesbykevin.floppybird.pipes.Pipes;
-import com.gamesbykevin.floppybird.screen.OptionsScreen;
-import com.gamesbykevin.floppybird.screen.ScreenManager;
-import com.gamesbykevin.floppybird.screen.ScreenManager.State;
-import com.gamesbykevin.floppybird.storage.score.Digits;
-import com.gamesbykevin.floppybird.storage.score.Score;
-
-/**
- * The main game logic will happen here
- * @author ABRAHAM
- */
-public final class Game implements IGame
-{
-    //our main screen object reference
-    private final ScreenManager screen;
-    
-    //paint object to draw text
-    private Paint paint;
-    
-    //is the game being reset
-    private boolean reset = false;
-    
-    //has the player been notified (has the user seen the loading screen)
-    private boolean notify = false;
-    
-    //is the game over?
-    private boolean gameover = false;
-    
-    //track the best score for each mode index
-    private Score scoreboard;
-    
-    //object used to render a nice looking number
-    private Digits digits;
-    
-    //the duration we want to vibrate the phone for
-    private static final long VIBRATION_DURATION = 500L;
-    
-    //our bird
-    private Bird bird;
-    
-    //collection of pipes
-    private Pipes pipes;
-    
-    //did the user press the screen
-    private boolean press = false;
-    
-    /**
-     * Create our game object
-     * @param screen The main screen
-     * @throws Exception
-     */
-    public Game(final ScreenManager screen) throws Exception
-    {
-        //our main screen object reference
-        this.screen = screen;
-        
-        //create a new score board
-        this.scoreboard = new Score(screen.getScreenOptions(), screen.getPanel().getActivity());
-        
-        //create our bird
-        this.bird = new Bird(this);
-        
-        //create our pipes container
-        this.pipes = new Pipes(this);
-        
-        //create new instance
-        this.digits = new Digits();
-    }
-    
-    /**
-     * Get the main screen object reference
-     * @return The main screen object reference
-     */
-    public ScreenManager getScreen()
-    {
-        return this.screen;
-    }
-    
-    /**
-     * Get the digits
-     * @return Object used to render numbers
-     */
-    public Digits getDigits()
-    {
-    	return this.digits;
-    }
-    
-    /**
-     * Get the bird
-     * @return The bird in play
-     */
-    public Bird getBird()
-    {
-    	return this.bird;
-    }
-    
-    /**
-     * Get the pipes
-     * @return The container for the pipes in play
-     */
-    public Pipes getPipes()
-    {
-    	return this.pipes;
-    }
-    
-    /**
-     * Is the game over?
-     * @return true = yes, false = no
-     */
-    private boolean hasGameover()
-    {
-    	return this.gameover;
-    }
-    
-    /**
-     * Flag the game over
-     * @param gameover true = yes, false = no
-     */
-    public void setGameover(final boolean gameover)
-    {
-    	this.gameover = gameover;
-    	
-    	//if the game is flagged as over 
-    	if (hasGameover())
-    		getScreen().setState(State.GameOver);
-    }
-    
-    /**
-     * Get the score board
-     * @return The object containing the personal best records
-     */
-    public Score getScoreboard()
-    {
-    	return this.scoreboard;
-    }
-    
-    /**
-     * Reset the game
-     */
-    private void reset() 
-    {
-    	//make sure we have notified first
-    	if (hasNotify())
-    	{
-        	//flag reset false
-        	setReset(false);
-        	
-        	//flag game over false
-        	setGameover(false);
-        	
-        	if (getBird() != null)
-        		getBird().reset();
-        	
-        	if (getPipes() != null)
-        		getPipes().reset();
-        	
-        	//reset current score
-        	getScoreboard().setCurrentScore(0);
-        	getDigits().setNumber(0, 0, Score.SCORE_Y, true);
-        	
-    		//reset depending on the difficulty
-    		switch (getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Difficulty))
-    		{
-	    		//Normal
-	    		case 0:
-    			default:
-    				getPipes().setPipeGap(Pipes.PIPE_GAP_NORMAL);
-	    			break;
-	    			
-	    		//Hard
-	    		case 1:
-	    			getPipes().setPipeGap(Pipes.PIPE_GAP_HARD);
-	    			break;
-	    			
-	    		//Easy
-	    		case 2:
-	    			getPipes().setPipeGap(Pipes.PIPE_GAP_EASY);
-	    			break;
-    		}
-    	}
-    }
-    
-    /**
-     * Flag reset, we also will flag notify to false if reset is true
-     * @param reset true to reset the game, false otherwise
-     */
-    @Override
-    public void setReset(final boolean reset)
-    {
-    	this.reset = reset;
-    	
-    	//flag that the user has not been notified, since we are resetting
-    	if (hasReset())
-    		setNotify(false);
-    }
-    
-    /**
-     * Do we have reset flagged?
-     * @return true = yes, false = no
-     */
-    public boolean hasReset()
-    {
-    	return this.reset;
-    }
-    
-    /**
-     * Flag notify
-     * @param notify True if we notified the user, false otherwise
-     */
-    private void setNotify(final boolean notify)
-    {
-    	this.notify = notify;
-    }
-    
-    /**
-     * Do we have notify flagged?
-     * @return true if we notified the user, false otherwise
-     */
-    protected boolean hasNotify()
-    {
-    	return this.notify;
-    }
-    
-    /**
-     * Get the paint object
-     * @return The paint object used to draw text in the game
-     */
-    public Paint getPaint()
-    {
-    	//if the object has not been created yet
-    	if (this.paint == null)
-    	{
-            //create new paint object
-            this.paint = new Paint();
-            //this.paint.setTypeface(Font.getFont(Assets.FontGameKey.Default));
-            this.paint.setTextSize(48f);
-            this.paint.setColor(Color.WHITE);
-            this.paint.setLinearText(false);
-    	}
-    	
-        return this.paint;
-    }
-    
-    @Override
-    public void update(final int action, final float x, final float y) throws Exception
-    {
-    	//if reset we can't continue
-    	if (hasReset())
-    		return;
-    	
-    	//if the game is over, we can't continue
-    	if (hasGameover())
-    		return;
-    	
-    	if (action == MotionEvent.ACTION_UP)
-    	{
-    		//flag press false
-    		press = false;
-    	}
-    	else if (action == MotionEvent.ACTION_DOWN)
-		{
-			if (!press)
-			{
-				//flag press true
-				press = true;
-				
-				//start jumping
-	    		if (getBird() != null)
-	    			getBird().jump();
-			}
-		}
-		else if (action == MotionEvent.ACTION_MOVE)
-    	{
-			//do something here?
-    	}
-    }
-    
-    /**
-     * Update game
-     * @throws Exception 
-     */
-    public void update() throws Exception
-    {
-        //if we are to reset the game
-        if (hasReset())
-        {
-        	//reset the game
-        	reset();
-        }
-        else
-        {
-        	//update the bird
-    		getBird().update();
-    		
-    		//update the pipes
-    		getPipes().update();
-    		
-    		//the background should be scrolling if the bird is not dead
-        	if (!getBird().isDead())
-        		getScreen().getBackground().update();
-        }
-    }
-    
-    /**
-     * Vibrate the phone if the setting is enabled
-     */
-    public void vibrate()
-    {
-		//make sure vibrate option is enabled
-		if (getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Vibrate) == 0)
-		{
-    		//get our vibrate object
-    		Vibrator v = (Vibrator) getScreen().getPanel().getActivity().getSystemService(Context.VIBRATOR_SERVICE);
-    		 
-			//vibrate for a specified amount of milliseconds
-			v.vibrate(VIBRATION_DURATION);
-		}
-    }
-    
-    /**
-     * Render game elements
-     * @param canvas Where to write the pixel data
-     * @throws Exception 
-     */
-    @Override
-    public void render(final Canvas canvas) throws Exception
-    {
-    	if (hasReset())
-    	{
-			//render loading screen
-			canvas.drawBitmap(Images.getImage(Assets.ImageMenuKey.Splash), 0, 0, null);
-			
-			//flag that the user has been notified
-			setNotify(true);
-    	}
-    	else
-    	{
-    		//render pipes
-        	if (getPipes() != null)
-        		getPipes().render(canvas);
-    		
-    		//render current score as long as the bird is alive
-    		if (getDigits() != null && !getBird().isDead())
-    			getDigits().render(canvas);
-    		
-    		//render the ground
-    		getScreen().getBackground().renderAnimation(canvas, Background.Key.Ground);
-    		
-        	//render the bird last
-    		if (getBird() != null)
-    			getBird().render(canvas);
-    	}
-    }
-    
-    @Override
-    public void dispose()
-    {
-        this.paint = null;
-        
-        if (this.scoreboard != null)
-        {
-        	this.scoreboard.dispose();
-        	this.scoreboard = null;
-        }
-        
-        if (this.bird != null)
-        {
-        	this.bird.dispose();
-        	this.bird = null;
-        }
-    }
+package com.gamesbykevin.floppybird.game;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.os.Vibrator;
+import android.view.MotionEvent;
+
+import com.gamesbykevin.androidframework.anim.Animation;
+import com.gamesbykevin.floppybird.assets.Assets;
+import com.gamesbykevin.floppybird.audio.SoundEngine;
+import com.gamesbykevin.floppybird.autopilot.Autopilot;
+import com.gamesbykevin.floppybird.background.Background;
+import com.gamesbykevin.floppybird.bird.Bird;
+import com.gamesbykevin.floppybird.bird.Ghost;
+import com.gamesbykevin.floppybird.metrics.JankDetector;
+import com.gamesbykevin.floppybird.pipes.Pipes;
+import com.gamesbykevin.floppybird.replay.Recording;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.screen.ScreenManager;
+import com.gamesbykevin.floppybird.screen.ScreenManager.State;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.storage.history.History;
+import com.gamesbykevin.floppybird.storage.replay.Replays;
+import com.gamesbykevin.floppybird.storage.session.Session;
+import com.gamesbykevin.floppybird.storage.score.Digits;
+import com.gamesbykevin.floppybird.storage.score.Score;
+import com.gamesbykevin.floppybird.thread.HotThread;
+import com.gamesbykevin.floppybird.thread.MainThread;
+
+/**
+ * The main game logic will happen here.<br>
+ * The rules are played by our simulation, this feeds it the player input and renders the result
+ * @author ABRAHAM
+ */
+public final class Game implements IGame
+{
+    //our main screen object reference
+    private final ScreenManager screen;
+    
+    //the state of our game session
+    private final GameContext context;
+    
+    //paint object to draw text
+    private Paint paint;
+    
+    //is the game being reset
+    private boolean reset = false;
+    
+    //has the player been notified (has the user seen the loading screen)
+    private boolean notify = false;
+    
+    //is the game over?
+    private boolean gameover = false;
+    
+    //track the best score for each mode index
+    private Score scoreboard;
+    
+    //the history of every run played
+    private History history;
+    
+    //object used to render a nice looking number
+    private Digits digits;
+    
+    //the duration we want to vibrate the phone for
+    private static final long VIBRATION_DURATION = 500L;
+    
+    //the vibrate service, looked up the first time we vibrate
+    private Vibrator vibrator;
+    
+    //the game rules and the state of the current run
+    private final Simulation simulation;
+    
+    //the recording of the current run, and where the recordings are saved
+    private final Recording recording;
+    private final Replays replays;
+    
+    //our bird
+    private Bird bird;
+    
+    //the ghost of the best run
+    private Ghost ghost;
+    
+    //collection of pipes
+    private Pipes pipes;
+    
+    //did the user press the screen
+    private boolean press = false;
+    
+    //did the user jump since the last update, set on the input thread
+    private volatile boolean flap = false;
+    
+    //plays the demo behind the menu, and helps the player when assist is enabled
+    private final Autopilot autopilot;
+    
+    //is the autopilot playing the demo, and is the autopilot helping the player in the current run
+    private boolean demo = false, assisted = false;
+    
+    //the number of updates since the demo bird died
+    private int demoDelay = 0;
+    
+    //the number of updates we wait before starting the next demo (1 second)
+    private static final int DEMO_DELAY = MainThread.FPS;
+    
+    /**
+     * Create our game object
+     * @param screen The main screen
+     * @param context The state of our game session
+     * @throws Exception
+     */
+    public Game(final ScreenManager screen, final GameContext context) throws Exception
+    {
+        //our main screen object reference
+        this.screen = screen;
+        
+        //store our session
+        this.context = context;
+        
+        //create a new score board
+        this.scoreboard = new Score(screen.getScreenOptions(), screen.getPanel().getActivity());
+        
+        //create our run history
+        this.history = new History(screen.getScreenOptions(), screen.getPanel().getActivity());
+        
+        //create our simulation
+        this.simulation = new Simulation(context.nextSeed(), Simulation.PIPE_GAP_NORMAL, false);
+        
+        //create our recording
+        this.recording = new Recording();
+        this.replays = new Replays(screen.getScreenOptions(), screen.getPanel().getActivity());
+        
+        //create our bird
+        this.bird = new Bird(this);
+        
+        //create our pipes container
+        this.pipes = new Pipes(this);
+        
+        //create the ghost of the best run
+        this.ghost = new Ghost(this);
+        
+        //create our autopilot
+        this.autopilot = new Autopilot();
+        
+        //create new instance
+        this.digits = new Digits();
+    }
+    
+    /**
+     * Get the main screen object reference
+     * @return The main screen object reference
+     */
+    public ScreenManager getScreen()
+    {
+        return this.screen;
+    }
+    
+    /**
+     * Get the game context
+     * @return The state of our game session
+     */
+    public GameContext getContext()
+    {
+    	return this.context;
+    }
+    
+    /**
+     * Get the digits
+     * @return Object used to render numbers
+     */
+    public Digits getDigits()
+    {
+    	return this.digits;
+    }
+    
+    /**
+     * Get the simulation
+     * @return The game rules and the state of the current run
+     */
+    public Simulation getSimulation()
+    {
+    	return this.simulation;
+    }
+    
+    /**
+     * Get the recording
+     * @return The recording of the current run
+     */
+    public Recording getRecording()
+    {
+    	return this.recording;
+    }
+    
+    /**
+     * Get the replays
+     * @return Where the recordings are saved
+     */
+    public Replays getReplays()
+    {
+    	return this.replays;
+    }
+    
+    /**
+     * Get the ghost
+     * @return The ghost of the best run
+     */
+    public Ghost getGhost()
+    {
+    	return this.ghost;
+    }
+    
+    /**
+     * Get the autopilot
+     * @return The autopilot that plays the demo and assists the player
+     */
+    public Autopilot getAutopilot()
+    {
+    	return this.autopilot;
+    }
+    
+    /**
+     * Is the current run assisted?
+     * @return true if the autopilot helped the player in the current run, assisted runs are not ranked
+     */
+    public boolean isAssisted()
+    {
+    	return this.assisted;
+    }
+    
+    /**
+     * Get the bird
+     * @return The bird in play
+     */
+    public Bird getBird()
+    {
+    	return this.bird;
+    }
+    
+    /**
+     * Get the pipes
+     * @return The container for the pipes in play
+     */
+    public Pipes getPipes()
+    {
+    	return this.pipes;
+    }
+    
+    /**
+     * Is the game over?
+     * @return true = yes, false = no
+     */
+    private boolean hasGameover()
+    {
+    	return this.gameover;
+    }
+    
+    /**
+     * Flag the game over
+     * @param gameover true = yes, false = no
+     */
+    public void setGameover(final boolean gameover)
+    {
+    	this.gameover = gameover;
+    	
+    	//if the game is flagged as over 
+    	if (hasGameover())
+    		getScreen().setState(State.GameOver);
+    }
+    
+    /**
+     * Get the score board
+     * @return The object containing the personal best records
+     */
+    public Score getScoreboard()
+    {
+    	return this.scoreboard;
+    }
+    
+    /**
+     * Get the history
+     * @return The history of every run played
+     */
+    public History getHistory()
+    {
+    	return this.history;
+    }
+    
+    /**
+     * Reset the game
+     */
+    private void reset() 
+    {
+    	//make sure we have notified first
+    	if (hasNotify())
+    	{
+        	//flag reset false
+        	setReset(false);
+        	
+        	//flag game over false
+        	setGameover(false);
+        	
+        	//reset current score
+        	getScoreboard().setCurrentScore(0);
+        	
+        	//the player is playing now, not the demo
+        	this.demo = false;
+        	
+        	//start a new run and record it
+        	start(true);
+    		
+    		//the player's run is assisted if the option is enabled
+    		this.assisted = (getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Assist) == 1);
+    		
+    		//decode the game over image for this mode and difficulty now, so it is ready when the game ends
+    		Assets.prefetchGameoverImage(
+    			getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Mode), 
+    			getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Difficulty)
+    		);
+    	}
+    }
+    
+    /**
+     * Start a new run with the current mode and difficulty
+     * @param record Do we record the run, the demo is not recorded
+     */
+    private void start(final boolean record)
+    {
+    	getDigits().setNumber(0, 0, Score.SCORE_Y, true);
+    	
+    	//the pipe gap depends on the difficulty
+    	final int pipeGap;
+    	
+		switch (getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Difficulty))
+		{
+			//Normal
+			case 0:
+			default:
+				pipeGap = Simulation.PIPE_GAP_NORMAL;
+				break;
+				
+			//Hard
+			case 1:
+				pipeGap = Simulation.PIPE_GAP_HARD;
+				break;
+				
+			//Easy
+			case 2:
+				pipeGap = Simulation.PIPE_GAP_EASY;
+				break;
+		}
+		
+		//start a new run, the bird uses fuel in survival mode
+		final long seed = getContext().nextSeed();
+		final boolean survival = getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Mode) == 1;
+		getSimulation().reset(seed, pipeGap, survival);
+		
+		//record the new run
+		if (record)
+			getRecording().reset(seed, pipeGap, survival);
+		
+		//ignore any jump from the previous run, and forget the previous plan
+		this.flap = false;
+		getAutopilot().reset();
+		
+    	if (getBird() != null)
+    		getBird().reset();
+    	
+    	if (getPipes() != null)
+    		getPipes().reset();
+    	
+    	if (getGhost() != null)
+    		getGhost().reset();
+    }
+    
+    /**
+     * Can the current run be resumed later?
+     * @return true if the player's run has started and the bird is alive, false otherwise
+     */
+    public boolean isResumable()
+    {
+    	final SimulationState state = getSimulation().getState();
+    	
+    	return (!hasReset() && !hasGameover() && !demo && state.started && !state.dead);
+    }
+    
+    /**
+     * Continue a run that was in progress when the app was last closed
+     * @param session The snapshot of the run
+     */
+    public synchronized void restore(final Session session)
+    {
+    	//the run replaces the reset
+    	setReset(false);
+    	setNotify(true);
+    	setGameover(false);
+    	
+    	//the mode and difficulty of the run
+    	getScreen().getScreenOptions().setIndex(OptionsScreen.Key.Mode, session.getMode());
+    	getScreen().getScreenOptions().setIndex(OptionsScreen.Key.Difficulty, session.getDifficulty());
+    	getScreen().getScreenOptions().reset();
+    	
+    	//continue the run exactly where it was
+    	getSimulation().restore(session.getState());
+    	getRecording().copy(session.getRecording());
+    	
+    	this.demo = false;
+    	this.assisted = session.isAssisted();
+    	this.flap = false;
+    	getAutopilot().reset();
+    	
+    	//display the score of the run
+    	final int score = getSimulation().getState().score;
+    	getScoreboard().setCurrentScore(score);
+    	getDigits().setNumber(score, 0, Score.SCORE_Y, true);
+    	
+    	if (getBird() != null)
+    		getBird().reset();
+    	
+    	if (getPipes() != null)
+    		getPipes().reset();
+    	
+    	//the ghost catches up to the run
+    	if (getGhost() != null)
+    		getGhost().resume();
+    	
+		//decode the game over image for this mode and difficulty now, so it is ready when the game ends
+		Assets.prefetchGameoverImage(session.getMode(), session.getDifficulty());
+    }
+    
+    /**
+     * Flag reset, we also will flag notify to false if reset is true
+     * @param reset true to reset the game, false otherwise
+     */
+    @Override
+    public void setReset(final boolean reset)
+    {
+    	this.reset = reset;
+    	
+    	//flag that the user has not been notified, since we are resetting
+    	if (hasReset())
+    		setNotify(false);
+    }
+    
+    /**
+     * Do we have reset flagged?
+     * @return true = yes, false = no
+     */
+    public boolean hasReset()
+    {
+    	return this.reset;
+    }
+    
+    /**
+     * Flag notify
+     * @param notify True if we notified the user, false otherwise
+     */
+    private void setNotify(final boolean notify)
+    {
+    	this.notify = notify;
+    }
+    
+    /**
+     * Do we have notify flagged?
+     * @return true if we notified the user, false otherwise
+     */
+    protected boolean hasNotify()
+    {
+    	return this.notify;
+    }
+    
+    /**
+     * Get the paint object
+     * @return The paint object used to draw text in the game
+     */
+    public Paint getPaint()
+    {
+    	//if the object has not been created yet
+    	if (this.paint == null)
+    	{
+            //create new paint object
+            this.paint = new Paint();
+            //this.paint.setTypeface(Font.getFont(Assets.FontGameKey.Default));
+            this.paint.setTextSize(48f);
+            this.paint.setColor(Color.WHITE);
+            this.paint.setLinearText(false);
+    	}
+    	
+        return this.paint;
+    }
+    
+    @Override
+    public void update(final int action, final float x, final float y) throws Exception
+    {
+    	//if reset we can't continue
+    	if (hasReset())
+    		return;
+    	
+    	//if the game is over, we can't continue
+    	if (hasGameover())
+    		return;
+    	
+    	if (action == MotionEvent.ACTION_UP)
+    	{
+    		//flag press false
+    		press = false;
+    	}
+    	else if (action == MotionEvent.ACTION_DOWN)
+		{
+			if (!press)
+			{
+				//flag press true
+				press = true;
+				
+				//start jumping on the next update
+				flap = true;
+			}
+		}
+		else if (action == MotionEvent.ACTION_MOVE)
+    	{
+			//do something here?
+    	}
+    }
+    
+    /**
+     * Update game.<br>
+     * This is synchronized so the run can be saved from another thread when the app is paused
+     * @throws Exception 
+     */
+    public synchronized void update() throws Exception
+    {
+        //if we are to reset the game
+        if (hasReset())
+        {
+        	//reset the game
+        	reset();
+        }
+        else
+        {
+        	final SimulationState state = getSimulation().getState();
+        	
+        	//the autopilot plays a demo while the menu is displayed
+        	if (getScreen().getState() == State.Ready || getScreen().getState() == State.Options)
+        	{
+        		//start a demo, or the next demo a second after the demo bird dies
+        		if (!demo || (state.dead && ++demoDelay >= DEMO_DELAY))
+        		{
+        			this.demo = true;
+        			this.demoDelay = 0;
+        			start(false);
+        		}
+        	}
+        	else if (demo)
+        	{
+        		//the demo is only played behind the menu
+        		return;
+        	}
+        	
+        	//take the jump, if any
+        	final boolean input = flap;
+        	flap = false;
+        	
+        	//advance the run, the autopilot decides the jump if it is playing
+        	final int events = GameStep.step(getSimulation(), getAutopilot(), getRecording(), input, demo, assisted);
+        	
+        	//start the jump animation
+        	if ((events & Simulation.EVENT_FLAP) != 0)
+        		getBird().jump();
+        	
+        	//update the bird
+    		getBird().update();
+    		
+    		//update the ghost next to the bird
+    		getGhost().update();
+    		
+    		//update the pipes
+    		getPipes().update();
+    		
+    		//the demo is silent and only displays the score, the player's run is scored
+    		if (!demo)
+    		{
+    			handle(state, events);
+    		}
+    		else if ((events & Simulation.EVENT_SCORE) != 0)
+    		{
+    			getDigits().setNumber(state.score, 0, Score.SCORE_Y, true);
+    		}
+    		
+    		//the background should be scrolling if the bird is not dead
+        	if (!state.dead)
+        		getScreen().getBackground().update();
+        }
+    }
+    
+    /**
+     * Handle the events of the player's run
+     * @param state The state of the run
+     * @param events The events of the step
+     */
+    private void handle(final SimulationState state, final int events)
+    {
+    	//if the bird cleared a pipe
+    	if ((events & Simulation.EVENT_SCORE) != 0)
+    	{
+    		JankDetector.mark(JankDetector.FLAG_SCORE);
+    		
+    		//play sound
+    		SoundEngine.play(Assets.AudioGameKey.Score);
+			
+    		//update the score
+    		getScoreboard().setCurrentScore(state.score);
+    		getDigits().setNumber(state.score, 0, Score.SCORE_Y, true);
+    	}
+		
+    	//if the bird collected fuel, play sound effect
+    	if ((events & Simulation.EVENT_FUEL) != 0)
+    		SoundEngine.play(Assets.AudioGameKey.Fuel);
+		
+    	//if the bird died
+    	if ((events & Simulation.EVENT_DEAD) != 0)
+    	{
+    		JankDetector.mark(JankDetector.FLAG_DEAD);
+    		
+    		//finish the recording and save it, assisted runs are not saved
+    		getRecording().finish(state);
+			
+    		if (!isAssisted())
+    		{
+    			getReplays().save(
+    				getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Mode),
+    				getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Difficulty),
+    				getRecording()
+    			);
+    		}
+			
+    		//stop the music
+    		SoundEngine.stop();
+			
+    		//play dead audio sound effect
+    		SoundEngine.play(Assets.AudioGameKey.Dead);
+			
+    		//flag game over
+    		setGameover(true);
+			
+    		//vibrate phone
+    		vibrate();
+    	}
+    }
+    
+    /**
+     * Get the duration of the current run
+     * @return The time (milliseconds) the bird has been alive since the first jump
+     */
+    public long getDuration()
+    {
+    	return (getSimulation().getState().ticks * Animation.MILLISECONDS_PER_SECOND) / MainThread.FPS;
+    }
+    
+    /**
+     * Vibrate the phone if the setting is enabled
+     */
+    public void vibrate()
+    {
+		//make sure vibrate option is enabled
+		if (getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Vibrate) == 0)
+		{
+    		//get our vibrate object, looking up a service can block so we only do it once
+    		if (vibrator == null)
+    		{
+    			HotThread.check(HotThread.BLOCK_SERVICE, "Game.vibrate");
+    			vibrator = (Vibrator) getScreen().getPanel().getActivity().getSystemService(Context.VIBRATOR_SERVICE);
+    		}
+    		 
+			//vibrate for a specified amount of milliseconds
+			vibrator.vibrate(VIBRATION_DURATION);
+		}
+    }
+    
+    /**
+     * Render game elements
+     * @param canvas Where to write the pixel data
+     * @throws Exception 
+     */
+    @Override
+    public void render(final Canvas canvas) throws Exception
+    {
+    	if (hasReset())
+    	{
+			//render loading screen, the image is a menu image so it may still be decoding
+			final Bitmap splash = Assets.getImage(Assets.ImageMenuKey.Splash);
+			
+			if (splash != null)
+				canvas.drawBitmap(splash, 0, 0, null);
+			
+			//flag that the user has been notified
+			setNotify(true);
+    	}
+    	else
+    	{
+    		//render pipes
+        	if (getPipes() != null)
+        		getPipes().render(canvas);
+    		
+    		//render current score as long as the bird is alive
+    		if (getDigits() != null && !getSimulation().getState().dead)
+    			getDigits().render(canvas);
+    		
+    		//render the ground
+    		getScreen().getBackground().renderAnimation(canvas, Background.Key.Ground);
+    		
+    		//render the ghost behind the bird
+    		if (getGhost() != null)
+    			getGhost().render(canvas);
+    		
+        	//render the bird last
+    		if (getBird() != null)
+    			getBird().render(canvas);
+    	}
+    }
+    
+    @Override
+    public void dispose()
+    {
+        this.paint = null;
+        
+        if (this.scoreboard != null)
+        {
+        	this.scoreboard.dispose();
+        	this.scoreboard = null;
+        }
+        
+        if (this.history != null)
+        {
+        	this.history.dispose();
+        	this.history = null;
+        }
+        
+        if (this.bird != null)
+        {
+        	this.bird.dispose();
+        	this.bird = null;
+        }
+        
+        if (this.ghost != null)
+        {
+        	this.ghost.dispose();
+        	this.ghost = null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.gamesbykevin.floppybird.game;
+
+import java.util.Random;
+
+/**
+ * The state of one game session that used to be shared through static fields.<br>
+ * Each panel owns a context and hands it to its game, so every session picks its runs from its own random numbers
+ * and several sessions can run side by side on separate threads.<br>
+ * The dimensions of the game are fixed constants of the simulation, they are not part of the context.
+ * A context is only used by the thread running its session.
+ * @author GOD
+ */
+public final class GameContext
+{
+    //our random object used to make random decisions, such as the seed of each run
+    private final Random random;
+
+    /**
+     * Create a context with a new seed
+     */
+    public GameContext()
+    {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Create a context
+     * @param seed The seed of our random numbers, the same seed gives the same runs
+     */
+    public GameContext(final long seed)
+    {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Get the random object
+     * @return Our random object used to make random decisions
+     */
+    public Random getRandom()
+    {
+        return this.random;
+    }
+
+    /**
+     * Pick the seed of the next run
+     * @return The seed the simulation plays the run from
+     */
+    public long nextSeed()
+    {
+        return this.random.nextLong();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.gamesbykevin.floppybird.game;
+
+import com.gamesbykevin.floppybird.autopilot.Autopilot;
+import com.gamesbykevin.floppybird.replay.Recording;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.trace.Trace;
+
+/**
+ * A single step of the run, the part of Game.update that doesn't render or play sounds.<br>
+ * The autopilot decides the jump if it plays the run, the jump is recorded, and the simulation advances.
+ * @author GOD
+ */
+public final class GameStep
+{
+    private GameStep()
+    {
+        //static helper, no instances
+    }
+
+    /**
+     * Play a step of the run
+     * @param simulation The simulation of the run
+     * @param autopilot The autopilot that plays the demo and assists the player
+     * @param recording The recording of the run, the demo is not recorded
+     * @param input Did the player jump since the last step
+     * @param demo Is the autopilot playing the demo
+     * @param assisted Is the autopilot helping the player
+     * @return The events of the step
+     */
+    public static int step(
+        final Simulation simulation, final Autopilot autopilot, final Recording recording,
+        boolean input, final boolean demo, final boolean assisted)
+    {
+        final SimulationState state = simulation.getState();
+
+        //the autopilot decides every step while assisting, so it can follow the player's jumps
+        if (demo)
+            input = autopilot.decide(state);
+        else if (assisted)
+            input = autopilot.decide(state) || input;
+
+        //record the jump at the step it is applied, a dead bird can't jump
+        if (input && !state.dead && !demo)
+            recording.record(state.step);
+
+        //advance the run, the simulation moves the pipes and fuel
+        Trace.begin("Simulation.step");
+        final int events = simulation.step(input);
+        Trace.end();
+
+        return events;
+    }
+}
\ No newline at end of file
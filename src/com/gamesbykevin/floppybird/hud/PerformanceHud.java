@@ -0,0 +1,501 @@
+package com.gamesbykevin.floppybird.hud;
+
+import java.lang.ref.WeakReference;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import com.gamesbykevin.floppybird.metrics.JankDetector;
+import com.gamesbykevin.floppybird.profiler.SamplingProfiler;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.thread.MainThread;
+
+/**
+ * A developer overlay showing how long each frame takes.<br>
+ * The main thread marks the start of each frame, the end of the update and the end of the draw,
+ * and the overlay is rendered last so it is on top of everything.<br>
+ * Every number is written into a char array we own, and the graph into a float array we own,
+ * so the overlay allocates nothing per frame and doesn't disturb the numbers it displays.<br>
+ * Toggle it with a three finger tap, while it is displayed a four finger tap starts or stops the profiler.
+ * @author GOD
+ */
+public final class PerformanceHud
+{
+    /**
+     * The number of frames in our graph
+     */
+    private static final int GRAPH_FRAMES = 120;
+
+    /**
+     * The time we have for each frame (nanoseconds)
+     */
+    private static final long FRAME_BUDGET = 1000000000L / MainThread.FPS;
+
+    /**
+     * The location and dimensions of the overlay
+     */
+    private static final int X = 10, Y = 10, WIDTH = 360, LINE_HEIGHT = 22, GRAPH_HEIGHT = 80;
+
+    /**
+     * The number of lines of text
+     */
+    private static final int LINES = 7;
+
+    /**
+     * The number of bytes in a megabyte
+     */
+    private static final long MEGABYTE = 1024L * 1024L;
+
+    //is the overlay displayed, this is changed on the input thread
+    private static volatile boolean ENABLED = false;
+
+    //the time the current frame started, the previous frame started, and each phase ended (nanoseconds)
+    private static long FRAME_START, FRAME_PREVIOUS, UPDATE_END, LOCK_END, RENDER_END;
+
+    //the times of the previous frame, the draw time is the lock, render and post together (nanoseconds)
+    private static long FRAME_TIME, UPDATE_TIME, DRAW_TIME, LOCK_TIME, RENDER_TIME, POST_TIME;
+
+    //the number of garbage collections when the previous frame started
+    private static int COLLECTIONS_PREVIOUS = 0;
+
+    //the time of each recent frame, and the position of the next (nanoseconds)
+    private static final long[] FRAMES = new long[GRAPH_FRAMES];
+    private static int FRAME_INDEX = 0;
+
+    //the draw calls of the current frame, and of the previous frame
+    private static int DRAW_CALLS = 0, DRAW_CALLS_PREVIOUS = 0;
+
+    //an object only we know about, it is gone after a garbage collection
+    private static WeakReference<Object> SENTINEL = new WeakReference<Object>(new Object());
+
+    //the number of garbage collections we noticed since the game started
+    private static int COLLECTIONS = 0;
+
+    //the text of each line
+    private static final String FRAME_LABEL = "frame ", WORST_LABEL = "ms  worst ", UPDATE_LABEL = "update ", DRAW_LABEL = "ms  draw ";
+    private static final String DRAW_CALLS_LABEL = "draw calls ", PIPES_LABEL = "pipes ", FUEL_LABEL = "  fuel ";
+    private static final String HEAP_LABEL = "heap ", HEAP_SEPARATOR = "/", MEGABYTE_LABEL = "MB  gc ";
+    private static final String JANK_LABEL = "late ", JANK_LAST_LABEL = "  last ", JANK_SEPARATOR = "ms ";
+    private static final String PROFILE_LABEL = "  profiling ";
+
+    //the profiler sampling the main thread, null if we never profiled
+    private static SamplingProfiler PROFILER;
+
+    //where we write our text and graph
+    private static final char[] TEXT = new char[96];
+    private static final float[] POINTS = new float[GRAPH_FRAMES * 4];
+
+    //the paint objects for the background, text, graph and frame budget
+    private static Paint BACKGROUND, PAINT_TEXT, PAINT_GRAPH, PAINT_BUDGET;
+
+    /**
+     * This class only has static methods
+     */
+    private PerformanceHud()
+    {
+        //do nothing
+    }
+
+    /**
+     * Display or hide the overlay
+     */
+    public static void toggle()
+    {
+        ENABLED = !ENABLED;
+    }
+
+    /**
+     * Is the overlay displayed?
+     * @return true if the overlay is displayed, false otherwise
+     */
+    public static boolean isEnabled()
+    {
+        return ENABLED;
+    }
+
+    /**
+     * Assign the profiler, the number of samples is displayed while it is running
+     * @param profiler The profiler sampling the main thread
+     */
+    public static void setProfiler(final SamplingProfiler profiler)
+    {
+        PROFILER = profiler;
+    }
+
+    /**
+     * Mark the start of a frame, called by the main thread before the update
+     */
+    public static void startFrame()
+    {
+        FRAME_START = System.nanoTime();
+
+        //the time since the previous frame started includes the sleep, it is the frame the player sees
+        if (FRAME_PREVIOUS != 0)
+        {
+            FRAME_TIME = FRAME_START - FRAME_PREVIOUS;
+            FRAMES[FRAME_INDEX] = FRAME_TIME;
+            FRAME_INDEX = (FRAME_INDEX + 1) % GRAPH_FRAMES;
+        }
+        else
+        {
+            FRAME_TIME = 0;
+        }
+
+        FRAME_PREVIOUS = FRAME_START;
+
+        DRAW_CALLS_PREVIOUS = DRAW_CALLS;
+        DRAW_CALLS = 0;
+
+        COLLECTIONS_PREVIOUS = COLLECTIONS;
+
+        //if our object is gone, there was a garbage collection
+        if (SENTINEL.get() == null)
+        {
+            COLLECTIONS++;
+            SENTINEL = new WeakReference<Object>(new Object());
+        }
+    }
+
+    /**
+     * Forget the previous frame, called by the main thread while paused so the pause is not counted as a frame
+     */
+    public static void pause()
+    {
+        FRAME_PREVIOUS = 0;
+    }
+
+    /**
+     * Mark the end of the update, called by the main thread before the draw
+     */
+    public static void endUpdate()
+    {
+        UPDATE_END = System.nanoTime();
+        UPDATE_TIME = UPDATE_END - FRAME_START;
+
+        //in case the canvas is never locked
+        LOCK_END = UPDATE_END;
+        RENDER_END = UPDATE_END;
+    }
+
+    /**
+     * Mark the end of locking the canvas, called by the main thread before rendering
+     */
+    public static void endLock()
+    {
+        LOCK_END = System.nanoTime();
+        RENDER_END = LOCK_END;
+    }
+
+    /**
+     * Mark the end of rendering, called by the main thread before posting the canvas
+     */
+    public static void endRender()
+    {
+        RENDER_END = System.nanoTime();
+    }
+
+    /**
+     * Mark the end of the draw, called by the main thread once the canvas is posted
+     */
+    public static void endFrame()
+    {
+        final long end = System.nanoTime();
+
+        DRAW_TIME = end - UPDATE_END;
+        LOCK_TIME = LOCK_END - UPDATE_END;
+        RENDER_TIME = RENDER_END - LOCK_END;
+        POST_TIME = end - RENDER_END;
+    }
+
+    /**
+     * Count a draw call of the current frame
+     */
+    public static void addDrawCall()
+    {
+        DRAW_CALLS++;
+    }
+
+    /**
+     * Get the frame time
+     * @return The time between the start of the two most recent frames, 0 for the first frame after a pause (nanoseconds)
+     */
+    public static long getFrameTime()
+    {
+        return FRAME_TIME;
+    }
+
+    /**
+     * Get the update time
+     * @return The time spent on the most recent update (nanoseconds)
+     */
+    public static long getUpdateTime()
+    {
+        return UPDATE_TIME;
+    }
+
+    /**
+     * Get the draw time
+     * @return The time spent on the most recent draw, including posting the canvas (nanoseconds)
+     */
+    public static long getDrawTime()
+    {
+        return DRAW_TIME;
+    }
+
+    /**
+     * Get the lock time
+     * @return The time spent locking the canvas on the most recent draw (nanoseconds)
+     */
+    public static long getLockTime()
+    {
+        return LOCK_TIME;
+    }
+
+    /**
+     * Get the render time
+     * @return The time spent rendering on the most recent draw (nanoseconds)
+     */
+    public static long getRenderTime()
+    {
+        return RENDER_TIME;
+    }
+
+    /**
+     * Get the post time
+     * @return The time spent posting the canvas on the most recent draw (nanoseconds)
+     */
+    public static long getPostTime()
+    {
+        return POST_TIME;
+    }
+
+    /**
+     * Was there a garbage collection?
+     * @return true if we noticed a garbage collection at the start of the current frame, false otherwise
+     */
+    public static boolean hasCollected()
+    {
+        return (COLLECTIONS != COLLECTIONS_PREVIOUS);
+    }
+
+    /**
+     * Get the draw calls
+     * @return The number of draw calls of the previous frame, the current frame is still being counted
+     */
+    public static int getDrawCalls()
+    {
+        return DRAW_CALLS_PREVIOUS;
+    }
+
+    /**
+     * Get the number of garbage collections
+     * @return The number of garbage collections we noticed since the game started
+     */
+    public static int getCollections()
+    {
+        return COLLECTIONS;
+    }
+
+    /**
+     * Render the overlay, this should be rendered last
+     * @param canvas Where we render
+     * @param state The state of the run, null if there is no game
+     */
+    public static void render(final Canvas canvas, final SimulationState state)
+    {
+        if (!ENABLED)
+            return;
+
+        //create our paint objects the first time
+        if (BACKGROUND == null)
+        {
+            BACKGROUND = new Paint();
+            BACKGROUND.setColor(Color.argb(160, 0, 0, 0));
+
+            PAINT_TEXT = new Paint();
+            PAINT_TEXT.setColor(Color.WHITE);
+            PAINT_TEXT.setTextSize(18f);
+            PAINT_TEXT.setTypeface(Typeface.MONOSPACE);
+            PAINT_TEXT.setAntiAlias(true);
+
+            PAINT_GRAPH = new Paint();
+            PAINT_GRAPH.setColor(Color.GREEN);
+
+            PAINT_BUDGET = new Paint();
+            PAINT_BUDGET.setColor(Color.RED);
+        }
+
+        final int height = (LINES * LINE_HEIGHT) + GRAPH_HEIGHT + 10;
+        canvas.drawRect(X, Y, X + WIDTH, Y + height, BACKGROUND);
+
+        //the worst frame in our graph
+        long worst = 0;
+
+        for (int index = 0; index < GRAPH_FRAMES; index++)
+        {
+            worst = Math.max(worst, FRAMES[index]);
+        }
+
+        int x = X + 6;
+        int y = Y + LINE_HEIGHT;
+        int length;
+
+        length = appendMillis(WORST_LABEL, appendMillis(FRAME_LABEL, 0, FRAME_TIME), worst);
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+        y += LINE_HEIGHT;
+
+        length = appendMillis(DRAW_LABEL, appendMillis(UPDATE_LABEL, 0, UPDATE_TIME), DRAW_TIME);
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+        y += LINE_HEIGHT;
+
+        length = append(DRAW_CALLS_PREVIOUS, append(DRAW_CALLS_LABEL, 0));
+
+        if (PROFILER != null && PROFILER.isRunning())
+            length = append(PROFILER.getSamples(), append(PROFILE_LABEL, length));
+
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+        y += LINE_HEIGHT;
+
+        //the pipes and fuel in play
+        final int pipes = (state != null) ? state.countPipes() : 0;
+        final int fuel = (state != null) ? state.countFuel() : 0;
+
+        length = append(fuel, append(FUEL_LABEL, append(pipes, append(PIPES_LABEL, 0))));
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+        y += LINE_HEIGHT;
+
+        //the heap used and the heap we are allowed
+        final Runtime runtime = Runtime.getRuntime();
+        final long used = runtime.totalMemory() - runtime.freeMemory();
+
+        length = append(HEAP_LABEL, 0);
+        length = appendTenths(HEAP_SEPARATOR, length, (used * 10) / MEGABYTE);
+        length = appendTenths(MEGABYTE_LABEL, length, (runtime.maxMemory() * 10) / MEGABYTE);
+        length = append(COLLECTIONS, length);
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+        y += LINE_HEIGHT;
+
+        //the late frames, and why the last one was late
+        length = append(JankDetector.getCount(), append(JANK_LABEL, 0));
+
+        if (JankDetector.getSize() > 0)
+        {
+            length = appendMillis(JANK_SEPARATOR, append(JANK_LAST_LABEL, length), JankDetector.getFrame(0) * 1000L);
+            length = append(JankDetector.PHASES[JankDetector.getPhase(0)], length);
+        }
+
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+        y += LINE_HEIGHT;
+
+        //the state and what happened during the last late frame
+        length = 0;
+
+        if (JankDetector.getSize() > 0)
+        {
+            length = append(JankDetector.getState(0), length);
+
+            final int flags = JankDetector.getFlags(0);
+
+            for (int bit = 0; bit < JankDetector.FLAGS_NAMES.length; bit++)
+            {
+                if ((flags & (1 << bit)) == 0)
+                    continue;
+
+                TEXT[length++] = ' ';
+                length = append(JankDetector.FLAGS_NAMES[bit], length);
+            }
+        }
+
+        canvas.drawText(TEXT, 0, length, x, y, PAINT_TEXT);
+
+        //the graph of recent frames, oldest on the left
+        final int bottom = y + 10 + GRAPH_HEIGHT;
+        final float scale = (GRAPH_HEIGHT / 2f) / FRAME_BUDGET;
+        final float bar = (WIDTH - 12f) / GRAPH_FRAMES;
+
+        for (int index = 0; index < GRAPH_FRAMES; index++)
+        {
+            final long time = FRAMES[(FRAME_INDEX + index) % GRAPH_FRAMES];
+            final float left = x + (index * bar);
+
+            POINTS[(index * 4)] = left;
+            POINTS[(index * 4) + 1] = bottom;
+            POINTS[(index * 4) + 2] = left;
+            POINTS[(index * 4) + 3] = bottom - Math.min(GRAPH_HEIGHT, time * scale);
+        }
+
+        canvas.drawLines(POINTS, 0, POINTS.length, PAINT_GRAPH);
+
+        //the frame budget is half way up the graph
+        canvas.drawLine(x, bottom - (GRAPH_HEIGHT / 2), X + WIDTH - 6, bottom - (GRAPH_HEIGHT / 2), PAINT_BUDGET);
+    }
+
+    /**
+     * Add the text
+     * @param text The text to add
+     * @param position Where in our text we add it
+     * @return The position after the text
+     */
+    private static int append(final String text, final int position)
+    {
+        text.getChars(0, text.length(), TEXT, position);
+        return position + text.length();
+    }
+
+    /**
+     * Add the number
+     * @param value The number, at least 0
+     * @param position Where in our text we add it
+     * @return The position after the number
+     */
+    private static int append(final long value, final int position)
+    {
+        //count the digits
+        int digits = 1;
+
+        for (long remaining = value / 10; remaining > 0; remaining /= 10)
+        {
+            digits++;
+        }
+
+        //write the digits from the right
+        long remaining = value;
+
+        for (int index = position + digits - 1; index >= position; index--)
+        {
+            TEXT[index] = (char)('0' + (remaining % 10));
+            remaining /= 10;
+        }
+
+        return position + digits;
+    }
+
+    /**
+     * Add a number with one decimal, followed by the text
+     * @param text The text after the number
+     * @param position Where in our text we add it
+     * @param tenths The number in tenths
+     * @return The position after the text
+     */
+    private static int appendTenths(final String text, final int position, final long tenths)
+    {
+        int result = append(tenths / 10, position);
+        TEXT[result++] = '.';
+        TEXT[result++] = (char)('0' + (tenths % 10));
+        return append(text, result);
+    }
+
+    /**
+     * Add a time in milliseconds with one decimal, followed by the text
+     * @param text The text after the time
+     * @param position Where in our text we add it
+     * @param nanoseconds The time
+     * @return The position after the text
+     */
+    private static int appendMillis(final String text, final int position, final long nanoseconds)
+    {
+        return appendTenths(text, position, nanoseconds / 100000L);
+    }
+}
\ No newline at end of file
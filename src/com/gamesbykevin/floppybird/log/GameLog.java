@@ -0,0 +1,329 @@
+package com.gamesbykevin.floppybird.log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logs the messages and exceptions of the game without blocking the thread logging them.<br>
+ * Each entry is added to a ring of slots we own with a compare and set, and a background thread writes the entries
+ * to the console (logcat on the device), so the game thread never waits for a lock or for the output.<br>
+ * Each call site logs at most once per REPEAT_INTERVAL, the repeats in between are counted and reported with the next
+ * entry of the site, so an exception thrown every frame is written once a second instead of 30 times.
+ * When the ring is full the entry is dropped and counted, the counters are kept for the life of the game.<br>
+ * The site is a constant naming where we log from, the sites are compared by their text.
+ * @author GOD
+ */
+public final class GameLog
+{
+    /**
+     * The number of entries waiting to be written we can hold
+     */
+    public static final int CAPACITY = 256;
+
+    /**
+     * The number of different sites we rate limit, any sites after these are not rate limited
+     */
+    public static final int SITES = 64;
+
+    /**
+     * The time a site has to wait before it is logged again (nanoseconds)
+     */
+    public static final long REPEAT_INTERVAL = 1000000000L;
+
+    /**
+     * The time the writing thread waits for entries when it isn't woken up (nanoseconds)
+     */
+    private static final long DRAIN_INTERVAL = 250000000L;
+
+    //the number of entries claimed, and the number of entries written
+    private static final AtomicLong HEAD = new AtomicLong();
+    private static volatile long TAIL = 0;
+
+    //each entry, the site, the message or the exception, and the repeats of the site before this entry
+    private static final String[] ENTRY_SITE = new String[CAPACITY], ENTRY_MESSAGE = new String[CAPACITY];
+    private static final Throwable[] ENTRY_ERROR = new Throwable[CAPACITY];
+    private static final int[] ENTRY_REPEATS = new int[CAPACITY];
+
+    //the sequence + 1 of the entry in each slot once it is written, the writing thread waits for this
+    private static final AtomicLongArray PUBLISHED = new AtomicLongArray(CAPACITY);
+
+    //each site we rate limit, the time it can be logged again (0 before it is logged), and the repeats since it was logged
+    private static final AtomicReferenceArray<String> SITE = new AtomicReferenceArray<String>(SITES);
+    private static final AtomicLongArray NEXT = new AtomicLongArray(SITES);
+    private static final AtomicIntegerArray REPEATS = new AtomicIntegerArray(SITES);
+
+    //the entries added, the repeats not logged, the entries dropped because the ring was full, and the entries written
+    private static final AtomicInteger LOGGED = new AtomicInteger(), SUPPRESSED = new AtomicInteger(), DROPPED = new AtomicInteger();
+    private static volatile int WRITTEN = 0;
+
+    //the thread writing the entries
+    private static Thread DRAIN;
+
+    /**
+     * This class only has static methods
+     */
+    private GameLog()
+    {
+        //do nothing
+    }
+
+    /**
+     * Start the thread writing the entries, until then the entries wait in the ring
+     */
+    public static synchronized void start()
+    {
+        if (DRAIN != null && DRAIN.isAlive())
+            return;
+
+        DRAIN = new Thread("GameLog")
+        {
+            @Override
+            public void run()
+            {
+                while (true)
+                {
+                    drain();
+                    LockSupport.parkNanos(DRAIN_INTERVAL);
+                }
+            }
+        };
+
+        DRAIN.setPriority(Thread.MIN_PRIORITY);
+        DRAIN.setDaemon(true);
+        DRAIN.start();
+    }
+
+    /**
+     * Log an exception
+     * @param site Where we are logging from, for example "GamePanel.update"
+     * @param error The exception
+     */
+    public static void error(final String site, final Throwable error)
+    {
+        add(site, null, error);
+    }
+
+    /**
+     * Log a message
+     * @param site Where we are logging from
+     * @param message The message
+     */
+    public static void info(final String site, final String message)
+    {
+        add(site, message, null);
+    }
+
+    /**
+     * Add the entry to the ring unless the site was logged recently
+     * @param site Where we are logging from
+     * @param message The message, null for an exception
+     * @param error The exception, null for a message
+     */
+    private static void add(final String site, final String message, final Throwable error)
+    {
+        final int slot = site(site);
+        int repeats = 0;
+
+        if (slot >= 0)
+        {
+            final long time = System.nanoTime();
+            final long next = NEXT.get(slot);
+
+            //if the site was logged recently, or another thread is logging it right now, count the repeat
+            if ((next != 0 && time - next < 0) || !NEXT.compareAndSet(slot, next, time + REPEAT_INTERVAL))
+            {
+                REPEATS.incrementAndGet(slot);
+                SUPPRESSED.incrementAndGet();
+                return;
+            }
+
+            repeats = REPEATS.getAndSet(slot, 0);
+        }
+
+        //claim the next entry, unless the ring is full
+        long sequence;
+
+        do
+        {
+            sequence = HEAD.get();
+
+            if (sequence - TAIL >= CAPACITY)
+            {
+                DROPPED.incrementAndGet();
+                return;
+            }
+        }
+        while (!HEAD.compareAndSet(sequence, sequence + 1));
+
+        final int index = (int)(sequence % CAPACITY);
+        ENTRY_SITE[index] = site;
+        ENTRY_MESSAGE[index] = message;
+        ENTRY_ERROR[index] = error;
+        ENTRY_REPEATS[index] = repeats;
+
+        //the entry can be written now
+        PUBLISHED.set(index, sequence + 1);
+        LOGGED.incrementAndGet();
+
+        //wake the writing thread, this never blocks
+        final Thread drain = DRAIN;
+
+        if (drain != null)
+            LockSupport.unpark(drain);
+    }
+
+    /**
+     * Locate the rate limit of the site, claiming a slot the first time we see it
+     * @param site Where we are logging from
+     * @return The slot of the site, or -1 if every slot is claimed by other sites
+     */
+    private static int site(final String site)
+    {
+        final int start = (site.hashCode() & 0x7FFFFFFF) % SITES;
+
+        for (int count = 0; count < SITES; count++)
+        {
+            final int slot = (start + count) % SITES;
+            final String current = SITE.get(slot);
+
+            if (current == null)
+            {
+                //claim the empty slot, unless another thread claimed it for a different site first
+                if (SITE.compareAndSet(slot, null, site) || site.equals(SITE.get(slot)))
+                    return slot;
+            }
+            else if (current == site || current.equals(site))
+            {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Write every entry that is ready, only the writing thread calls this
+     */
+    private static void drain()
+    {
+        while (true)
+        {
+            final long sequence = TAIL;
+            final int index = (int)(sequence % CAPACITY);
+
+            //the next entry isn't claimed, or it is still being filled
+            if (PUBLISHED.get(index) != sequence + 1)
+                return;
+
+            final String site = ENTRY_SITE[index];
+            final String message = ENTRY_MESSAGE[index];
+            final Throwable error = ENTRY_ERROR[index];
+            final int repeats = ENTRY_REPEATS[index];
+
+            //release the references before the slot is reused
+            ENTRY_SITE[index] = null;
+            ENTRY_MESSAGE[index] = null;
+            ENTRY_ERROR[index] = null;
+            TAIL = sequence + 1;
+
+            write(site, message, error, repeats);
+            WRITTEN++;
+        }
+    }
+
+    /**
+     * Write an entry to the console
+     * @param site Where we logged from
+     * @param message The message, null for an exception
+     * @param error The exception, null for a message
+     * @param repeats The number of times the site was not logged since the previous entry
+     */
+    private static void write(final String site, final String message, final Throwable error, final int repeats)
+    {
+        final String suffix = (repeats > 0) ? " (repeated " + repeats + " times since the last entry)" : "";
+
+        if (error != null)
+        {
+            System.err.println(site + suffix);
+            error.printStackTrace();
+        }
+        else
+        {
+            System.out.println(site + ": " + message + suffix);
+        }
+    }
+
+    /**
+     * Wait for the entries waiting in the ring to be written
+     * @param timeout The longest we wait (milliseconds)
+     * @return true if every entry was written, false if we timed out or the writing thread isn't started
+     */
+    public static boolean flush(final long timeout)
+    {
+        final Thread drain = DRAIN;
+
+        if (drain == null)
+            return false;
+
+        final long deadline = System.currentTimeMillis() + timeout;
+
+        while (TAIL < HEAD.get())
+        {
+            if (System.currentTimeMillis() >= deadline)
+                return false;
+
+            LockSupport.unpark(drain);
+
+            try
+            {
+                Thread.sleep(1);
+            }
+            catch (InterruptedException e)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the number of entries logged
+     * @return The number of entries added to the ring
+     */
+    public static int getLogged()
+    {
+        return LOGGED.get();
+    }
+
+    /**
+     * Get the number of entries suppressed
+     * @return The number of entries not logged because their site was logged recently
+     */
+    public static int getSuppressed()
+    {
+        return SUPPRESSED.get();
+    }
+
+    /**
+     * Get the number of entries dropped
+     * @return The number of entries lost because the ring was full
+     */
+    public static int getDropped()
+    {
+        return DROPPED.get();
+    }
+
+    /**
+     * Get the number of entries written
+     * @return The number of entries written to the console
+     */
+    public static int getWritten()
+    {
+        return WRITTEN;
+    }
+}
\ No newline at end of file
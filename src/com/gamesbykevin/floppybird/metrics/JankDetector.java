@@ -0,0 +1,305 @@
+package com.gamesbykevin.floppybird.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flags the frames that take longer than the budget and keeps a report of the most recent ones.<br>
+ * The overrun is blamed on the phase of the frame that took the longest (update, lock, draw or post),
+ * or outside the frame when the phases fit in the budget (the process was paused, collected garbage or the sleep overslept).<br>
+ * Anything that may cause a hitch marks a flag while the frame runs (a sound played, a pipe cleared, a file saved, the bird died,
+ * the screen changed), the flags are attached to the report of the frame so we can see what the game was doing.<br>
+ * The reports are kept in a ring of primitive arrays, so checking a frame allocates nothing.
+ * @author GOD
+ */
+public final class JankDetector
+{
+    /**
+     * The phase the overrun is blamed on
+     */
+    public static final int PHASE_UPDATE = 0, PHASE_LOCK = 1, PHASE_DRAW = 2, PHASE_POST = 3, PHASE_OUTSIDE = 4;
+
+    /**
+     * The name of each phase
+     */
+    public static final String[] PHASES = {"update", "lock", "draw", "post", "outside"};
+
+    /**
+     * What happened during the frame
+     */
+    public static final int FLAG_SOUND = 1, FLAG_SCORE = 2, FLAG_SAVE = 4, FLAG_DEAD = 8, FLAG_STATE = 16, FLAG_GC = 32;
+
+    /**
+     * The name of each flag, in the order of the bits
+     */
+    public static final String[] FLAGS_NAMES = {"sound", "score", "save", "dead", "state", "gc"};
+
+    /**
+     * The number of reports we keep
+     */
+    public static final int CAPACITY = 32;
+
+    //what happened during the current frame, this can be marked from any thread
+    private static final AtomicInteger FLAGS = new AtomicInteger();
+
+    //a frame is late once it takes this long (nanoseconds)
+    private static long BUDGET = 1000000000L / 30, THRESHOLD = BUDGET + (BUDGET / 4);
+
+    //the name of each screen state
+    private static String[] STATES = new String[0];
+
+    //the number of frames checked, and the number of late frames
+    private static long FRAMES = 0, COUNT = 0;
+
+    //the report of each late frame, the times are in microseconds
+    private static final long[] SEQUENCE = new long[CAPACITY];
+    private static final int[] TICK = new int[CAPACITY], FRAME = new int[CAPACITY];
+    private static final int[] UPDATE = new int[CAPACITY], LOCK = new int[CAPACITY], DRAW = new int[CAPACITY], POST = new int[CAPACITY];
+    private static final int[] PHASE = new int[CAPACITY], STATE = new int[CAPACITY], FLAGS_REPORTED = new int[CAPACITY];
+    private static final int[] SCORE = new int[CAPACITY], PIPES = new int[CAPACITY], FUEL = new int[CAPACITY];
+
+    /**
+     * This class only has static methods
+     */
+    private JankDetector()
+    {
+        //do nothing
+    }
+
+    /**
+     * Assign the frame budget and the state names, this should be done before the game thread starts
+     * @param fps The frames per second of the game, a frame is late once it takes a quarter of a frame longer than its budget
+     * @param states The name of each screen state, in order
+     */
+    public static void setup(final int fps, final String[] states)
+    {
+        BUDGET = 1000000000L / fps;
+        THRESHOLD = BUDGET + (BUDGET / 4);
+        STATES = states;
+    }
+
+    /**
+     * Mark something that happened during the current frame
+     * @param flag One of the FLAG constants
+     */
+    public static void mark(final int flag)
+    {
+        while (true)
+        {
+            final int current = FLAGS.get();
+
+            if ((current & flag) == flag || FLAGS.compareAndSet(current, current | flag))
+                return;
+        }
+    }
+
+    /**
+     * Check the frame that just finished, called by the game thread at the start of the next frame
+     * @param frame The time between the start of the frame and the start of the next (nanoseconds)
+     * @param update The time updating (nanoseconds)
+     * @param lock The time locking the canvas (nanoseconds)
+     * @param draw The time drawing (nanoseconds)
+     * @param post The time posting the canvas (nanoseconds)
+     * @param collected Was there a garbage collection during the frame
+     * @param state The ordinal of the screen state
+     * @param tick The step of the run, -1 without a game
+     * @param score The score of the run
+     * @param pipes The number of pipes in play
+     * @param fuel The number of fuel tanks in play
+     * @return The flags marked during the frame
+     */
+    public static int check(final long frame, final long update, final long lock, final long draw, final long post,
+        final boolean collected, final int state, final int tick, final int score, final int pipes, final int fuel)
+    {
+        final int flags = FLAGS.getAndSet(0) | ((collected) ? FLAG_GC : 0);
+
+        FRAMES++;
+
+        if (frame <= THRESHOLD)
+            return flags;
+
+        //blame the longest phase, unless the phases fit in the budget
+        int phase = PHASE_OUTSIDE;
+
+        if (update + lock + draw + post > BUDGET)
+        {
+            phase = PHASE_UPDATE;
+            long longest = update;
+
+            if (lock > longest)
+            {
+                phase = PHASE_LOCK;
+                longest = lock;
+            }
+
+            if (draw > longest)
+            {
+                phase = PHASE_DRAW;
+                longest = draw;
+            }
+
+            if (post > longest)
+                phase = PHASE_POST;
+        }
+
+        final int index = (int)(COUNT % CAPACITY);
+
+        SEQUENCE[index] = FRAMES - 1;
+        TICK[index] = tick;
+        FRAME[index] = (int)(frame / 1000);
+        UPDATE[index] = (int)(update / 1000);
+        LOCK[index] = (int)(lock / 1000);
+        DRAW[index] = (int)(draw / 1000);
+        POST[index] = (int)(post / 1000);
+        PHASE[index] = phase;
+        STATE[index] = state;
+        FLAGS_REPORTED[index] = flags;
+        SCORE[index] = score;
+        PIPES[index] = pipes;
+        FUEL[index] = fuel;
+
+        COUNT++;
+
+        return flags;
+    }
+
+    /**
+     * Get the number of late frames
+     * @return The number of frames over budget since the game started
+     */
+    public static long getCount()
+    {
+        return COUNT;
+    }
+
+    /**
+     * Get the number of frames checked
+     * @return The number of frames checked since the game started
+     */
+    public static long getFrames()
+    {
+        return FRAMES;
+    }
+
+    /**
+     * Get the number of reports kept
+     * @return The number of reports that can be read, at most CAPACITY
+     */
+    public static int getSize()
+    {
+        return (int)Math.min(COUNT, CAPACITY);
+    }
+
+    /**
+     * Locate a report
+     * @param age 0 for the most recent report, 1 for the one before, and so on
+     * @return The index of the report
+     */
+    private static int index(final int age)
+    {
+        if (age < 0 || age >= getSize())
+            throw new IndexOutOfBoundsException("There is no report " + age);
+
+        return (int)((COUNT - 1 - age) % CAPACITY);
+    }
+
+    /**
+     * Get the frame time of a report
+     * @param age 0 for the most recent report
+     * @return The time between the start of the late frame and the next (microseconds)
+     */
+    public static int getFrame(final int age)
+    {
+        return FRAME[index(age)];
+    }
+
+    /**
+     * Get the phase of a report
+     * @param age 0 for the most recent report
+     * @return The phase the overrun is blamed on, one of the PHASE constants
+     */
+    public static int getPhase(final int age)
+    {
+        return PHASE[index(age)];
+    }
+
+    /**
+     * Get the flags of a report
+     * @param age 0 for the most recent report
+     * @return What happened during the late frame, FLAG constants combined
+     */
+    public static int getFlags(final int age)
+    {
+        return FLAGS_REPORTED[index(age)];
+    }
+
+    /**
+     * Get the score of a report
+     * @param age 0 for the most recent report
+     * @return The score of the run during the late frame
+     */
+    public static int getScore(final int age)
+    {
+        return SCORE[index(age)];
+    }
+
+    /**
+     * Get the state name of a report
+     * @param age 0 for the most recent report
+     * @return The name of the screen state during the late frame
+     */
+    public static String getState(final int age)
+    {
+        return name(STATE[index(age)]);
+    }
+
+    private static String name(final int state)
+    {
+        return (state >= 0 && state < STATES.length) ? STATES[state] : "State" + state;
+    }
+
+    /**
+     * Write every report we kept, oldest first
+     * @param out Where we write the reports
+     * @throws IOException If the reports can't be written
+     */
+    public static void dump(final Appendable out) throws IOException
+    {
+        out.append("Late frames " + COUNT + " of " + FRAMES + ", budget " + (BUDGET / 1000) + "us\n");
+
+        for (int age = getSize() - 1; age >= 0; age--)
+        {
+            final int index = index(age);
+
+            out.append(
+                "frame " + SEQUENCE[index] + " tick " + TICK[index] + ": " + FRAME[index] + "us, blamed on " + PHASES[PHASE[index]] +
+                " (update " + UPDATE[index] + "us, lock " + LOCK[index] + "us, draw " + DRAW[index] + "us, post " + POST[index] + "us)" +
+                ", state " + name(STATE[index]) + ", score " + SCORE[index] + ", pipes " + PIPES[index] + ", fuel " + FUEL[index] +
+                ", events " + describe(FLAGS_REPORTED[index]) + "\n"
+            );
+        }
+    }
+
+    /**
+     * Describe the flags
+     * @param flags FLAG constants combined
+     * @return The name of each flag joined with '+', or "none"
+     */
+    public static String describe(final int flags)
+    {
+        final StringBuilder builder = new StringBuilder();
+
+        for (int bit = 0; bit < FLAGS_NAMES.length; bit++)
+        {
+            if ((flags & (1 << bit)) == 0)
+                continue;
+
+            if (builder.length() > 0)
+                builder.append('+');
+
+            builder.append(FLAGS_NAMES[bit]);
+        }
+
+        return (builder.length() > 0) ? builder.toString() : "none";
+    }
+}
\ No newline at end of file
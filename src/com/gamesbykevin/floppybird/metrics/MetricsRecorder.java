@@ -0,0 +1,228 @@
+package com.gamesbykevin.floppybird.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Records a fixed size sample for each frame into a memory mapped ring file.<br>
+ * Recording a sample is a handful of writes to memory, the operating system writes the pages to the file for us,
+ * so the samples survive the process being killed and there is no file i/o on the game thread.<br>
+ * Once the ring is full the oldest samples are replaced, the header keeps the number of samples written so a reader
+ * knows where the ring starts.<br>
+ * The file of the previous launch is kept with the PREVIOUS_SUFFIX, so a crash is not overwritten by the next launch.<br>
+ * <br>
+ * The header is HEADER_SIZE bytes: MAGIC, VERSION, SAMPLE_SIZE, the capacity and the frames per second (int each),
+ * the time the recording started (long, milliseconds since 1970), the number of samples written (long),
+ * then the number of states (int) followed by the name of each (unsigned short length and the UTF-8 bytes).<br>
+ * Each sample is SAMPLE_SIZE bytes at the offsets below, all numbers are big endian.
+ * @author GOD
+ */
+public final class MetricsRecorder
+{
+    /**
+     * Identifies the file as our recording
+     */
+    public static final int MAGIC = 0x46424D52;
+
+    /**
+     * The version of the file layout
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The suffix of the recording of the previous launch
+     */
+    public static final String PREVIOUS_SUFFIX = ".previous";
+
+    /**
+     * The size of the header (bytes)
+     */
+    public static final int HEADER_SIZE = 256;
+
+    /**
+     * The offsets of the header
+     */
+    public static final int HEADER_MAGIC = 0, HEADER_VERSION = 4, HEADER_SAMPLE_SIZE = 8, HEADER_CAPACITY = 12, HEADER_FPS = 16,
+        HEADER_STARTED = 20, HEADER_WRITTEN = 28, HEADER_STATES = 36;
+
+    /**
+     * The size of each sample (bytes)
+     */
+    public static final int SAMPLE_SIZE = 40;
+
+    /**
+     * The offsets within each sample.<br>
+     * SEQUENCE (long) the number of the sample, starting at 0, a reader can tell a sample was replaced when it doesn't match<br>
+     * TICK (int) the step of the run, -1 without a game<br>
+     * FRAME, UPDATE, DRAW (int) the time between frames, the time updating and the time drawing (microseconds)<br>
+     * STATE, PIPES, FUEL (byte) the screen state and the pipes and fuel tanks in play<br>
+     * FLAGS (byte) what happened during the frame, the JankDetector flags<br>
+     * DRAW_CALLS (int) the draw calls of the frame<br>
+     * COLLECTIONS (int) the garbage collections since the game started<br>
+     * HEAP (int) the heap used (kilobytes)
+     */
+    public static final int SAMPLE_SEQUENCE = 0, SAMPLE_TICK = 8, SAMPLE_FRAME = 12, SAMPLE_UPDATE = 16, SAMPLE_DRAW = 20,
+        SAMPLE_STATE = 24, SAMPLE_PIPES = 25, SAMPLE_FUEL = 26, SAMPLE_FLAGS = 27, SAMPLE_DRAW_CALLS = 28, SAMPLE_COLLECTIONS = 32, SAMPLE_HEAP = 36;
+
+    //the mapped file
+    private MappedByteBuffer buffer;
+
+    //the number of samples the ring holds
+    private final int capacity;
+
+    //the number of samples written
+    private long written = 0;
+
+    /**
+     * Create the recording, the file of the previous launch is renamed
+     * @param file The file we record to
+     * @param capacity The number of samples the ring holds
+     * @param fps The frames per second of the game
+     * @param states The name of each screen state, in order
+     * @throws IOException If the file can't be created or mapped
+     */
+    public MetricsRecorder(final File file, final int capacity, final int fps, final String[] states) throws IOException
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity has to be at least 1 " + capacity);
+
+        this.capacity = capacity;
+
+        //keep the recording of the previous launch
+        if (file.exists())
+        {
+            final File previous = new File(file.getPath() + PREVIOUS_SUFFIX);
+
+            if (previous.exists() && !previous.delete())
+                throw new IOException("Unable to delete " + previous);
+            if (!file.renameTo(previous))
+                throw new IOException("Unable to rename " + file);
+        }
+
+        final RandomAccessFile access = new RandomAccessFile(file, "rw");
+
+        try
+        {
+            final long size = HEADER_SIZE + ((long)capacity * SAMPLE_SIZE);
+            access.setLength(size);
+
+            //the mapping stays valid after the file is closed
+            this.buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        finally
+        {
+            access.close();
+        }
+
+        buffer.putInt(HEADER_MAGIC, MAGIC);
+        buffer.putInt(HEADER_VERSION, VERSION);
+        buffer.putInt(HEADER_SAMPLE_SIZE, SAMPLE_SIZE);
+        buffer.putInt(HEADER_CAPACITY, capacity);
+        buffer.putInt(HEADER_FPS, fps);
+        buffer.putLong(HEADER_STARTED, System.currentTimeMillis());
+        buffer.putLong(HEADER_WRITTEN, 0);
+        writeStates(states);
+    }
+
+    /**
+     * Write the name of each state into the header
+     * @param states The name of each state
+     * @throws IOException If the names don't fit in the header
+     */
+    private void writeStates(final String[] states) throws IOException
+    {
+        int position = HEADER_STATES;
+        buffer.putInt(position, states.length);
+        position += 4;
+
+        for (String state : states)
+        {
+            final byte[] bytes;
+
+            try
+            {
+                bytes = state.getBytes("UTF-8");
+            }
+            catch (UnsupportedEncodingException e)
+            {
+                throw new IOException(e.getMessage());
+            }
+
+            if (position + 2 + bytes.length > HEADER_SIZE)
+                throw new IOException("The state names don't fit in the header");
+
+            buffer.putShort(position, (short)bytes.length);
+            position += 2;
+
+            for (int index = 0; index < bytes.length; index++)
+            {
+                buffer.put(position++, bytes[index]);
+            }
+        }
+    }
+
+    /**
+     * Record the sample of a frame, nothing is allocated
+     * @param tick The step of the run, -1 without a game
+     * @param frame The time between frames (nanoseconds)
+     * @param update The time updating (nanoseconds)
+     * @param draw The time drawing (nanoseconds)
+     * @param state The ordinal of the screen state
+     * @param pipes The number of pipes in play
+     * @param fuel The number of fuel tanks in play
+     * @param flags What happened during the frame
+     * @param drawCalls The number of draw calls
+     * @param collections The garbage collections since the game started
+     * @param heap The heap used (bytes)
+     */
+    public void record(final int tick, final long frame, final long update, final long draw, final int state,
+        final int pipes, final int fuel, final int flags, final int drawCalls, final int collections, final long heap)
+    {
+        if (buffer == null)
+            return;
+
+        final int offset = HEADER_SIZE + (int)(written % capacity) * SAMPLE_SIZE;
+
+        buffer.putLong(offset + SAMPLE_SEQUENCE, written);
+        buffer.putInt(offset + SAMPLE_TICK, tick);
+        buffer.putInt(offset + SAMPLE_FRAME, (int)(frame / 1000));
+        buffer.putInt(offset + SAMPLE_UPDATE, (int)(update / 1000));
+        buffer.putInt(offset + SAMPLE_DRAW, (int)(draw / 1000));
+        buffer.put(offset + SAMPLE_STATE, (byte)state);
+        buffer.put(offset + SAMPLE_PIPES, (byte)pipes);
+        buffer.put(offset + SAMPLE_FUEL, (byte)fuel);
+        buffer.put(offset + SAMPLE_FLAGS, (byte)flags);
+        buffer.putInt(offset + SAMPLE_DRAW_CALLS, drawCalls);
+        buffer.putInt(offset + SAMPLE_COLLECTIONS, collections);
+        buffer.putInt(offset + SAMPLE_HEAP, (int)(heap / 1024));
+
+        //the count is written last, so a reader never counts a sample that is half written
+        written++;
+        buffer.putLong(HEADER_WRITTEN, written);
+    }
+
+    /**
+     * Get the number of samples written
+     * @return The number of samples recorded since the recording started
+     */
+    public long getWritten()
+    {
+        return this.written;
+    }
+
+    /**
+     * Write the samples to the file and stop recording
+     */
+    public void close()
+    {
+        if (buffer != null)
+        {
+            buffer.force();
+            buffer = null;
+        }
+    }
+}
\ No newline at end of file
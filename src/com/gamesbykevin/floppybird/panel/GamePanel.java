@@ -1,400 +1,803 @@
-package com.gamesbykevin.floppybird.panel;
-
-import android.graphics.Canvas;
-import android.view.MotionEvent;
-import android.view.SurfaceHolder;
-import android.view.SurfaceView;
-
-import com.gamesbykevin.androidframework.resources.Audio;
-import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.floppybird.MainActivity;
-import com.gamesbykevin.floppybird.assets.Assets;
-import com.gamesbykevin.floppybird.screen.ScreenManager;
-import com.gamesbykevin.floppybird.screen.ScreenManager.State;
-import com.gamesbykevin.floppybird.thread.MainThread;
-
-import java.util.Random;
-
-/**
- * Game Panel class
- * @author GOD
- */
-public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Disposable
-{
-    /**
-     * Our random object used to make random decisions
-     */
-    public static Random RANDOM = new Random(System.nanoTime());
-    
-    //default dimensions of window for this game
-    public static final int WIDTH = 800;
-    public static final int HEIGHT = 480;
-    
-    //the reference to our activity
-    private final MainActivity activity;
-    
-    //the object containing our game screens
-    private ScreenManager screen;
-    
-    //our main game thread
-    private MainThread thread;
-    
-    //did motion event down happen
-    private boolean down = false;
-    
-    //get the ratio of the users screen compared to the default dimensions for the motion event
-    private float scaleMotionX, scaleMotionY;
-
-    //get the ratio of the users screen compared to the default dimensions for the render
-    private float scaleRenderX, scaleRenderY;
-    
-    //did we calculate the screen ratio yet?
-    private boolean ratio = false;
-    
-    /**
-     * Create a new game panel
-     * @param activity Our main activity reference
-     */
-    public GamePanel(final MainActivity activity)
-    {
-        //call to parent constructor
-        super(activity);
-        
-        //store context
-        this.activity = activity;
-            
-        //make game panel focusable = true so it can handle events
-        super.setFocusable(true);
-    }
-    
-    /**
-     * Get the main game thread.<br>
-     * If the main thread does not exist, it will be created
-     * @return The main game thread
-     */
-    private MainThread getThread()
-    {
-    	return this.thread;
-    }
-    
-    /**
-     * Get the screen manager 
-     * @return The screen manager containing all our screens
-     */
-    private ScreenManager getScreen()
-    {
-    	return this.screen;
-    }
-    
-    @Override
-    public void dispose()
-    {
-        //it could take several attempts to stop the thread
-        boolean retry = true;
-        
-        //count number of attempts to complete thread
-        int count = 0;
-        
-        //here we will attempt to stop the thread
-        while (retry && count <= MainThread.COMPLETE_THREAD_ATTEMPTS)
-        {
-            try
-            {
-                //increase count
-                count++;
-                
-                if (getThread() != null)
-                {
-                	//don't pause the thread
-                	getThread().setPause(false);
-                	
-                    //set running false, to stop the infinite loop
-                	getThread().setRunning(false);
-
-                    //wait for thread to finish
-                	getThread().join();
-                }
-                
-                //if we made it here, we were successful
-                retry = false;
-            }
-            catch (InterruptedException e)
-            {
-                e.printStackTrace();
-            }
-        }
-        
-        //make thread null
-        this.thread = null;
-        
-        //assign null
-        RANDOM = null;
-        
-        if (screen != null)
-        {
-            screen.dispose();
-            screen = null;
-        }
-        
-        //recycle all asset objects
-        Assets.recycle();
-    }
-    
-    /**
-     * Get the activity
-     * @return The activity reference
-     */
-    public final MainActivity getActivity()
-    {
-        return this.activity;
-    }
-    
-    /**
-     * Flag that we have the screen ratio
-     * @param ratio true if we calculated the screen ratio, false otherwise
-     */
-    private void setRatio(final boolean ratio)
-    {
-    	this.ratio = ratio;
-    }
-    
-    /**
-     * Did we calculate the ratio
-     * @return true if we calculated the screen ratio, false otherwise
-     */
-    private boolean hasRatio()
-    {
-    	return this.ratio;
-    }
-    
-    @Override
-    public boolean performClick() 
-    {
-        //call parent
-        super.performClick();
-        
-        //return true
-        return true;
-    }
-    
-    @Override
-    public boolean onTouchEvent(final MotionEvent event)
-    {
-        try
-        {
-            if (getScreen() != null)
-            {
-            	//in order to handle multiple motion events, we need to get the action of the current event
-            	final int actionIndex = event.getActionIndex();
-            	
-                //adjust the coordinates
-                final float x = event.getX(actionIndex) * getScaleMotionX();
-                final float y = event.getY(actionIndex) * getScaleMotionY();
-            	
-                //get the current action that was performed here
-                final int action = event.getActionMasked();
-                
-                switch (action)
-                {
-	                case MotionEvent.ACTION_DOWN:
-	                	
-	                	//flag motion down occurred
-		            	down = true;
-		            	break;
-		            	
-	                case MotionEvent.ACTION_UP:
-	                	
-	                	//if we have previously action down
-	                	if (down)
-	                	{
-	                		//flag false
-	                		down = false;
-	                		
-	                    	//perform click
-	                    	performClick();
-	                	}
-	                	break;
-                }
-                
-                //update the screen/game etc.. with the specified motion events
-                getScreen().update(action, x, y);
-            }
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-        
-        //return true because we want all motion events
-        return true;
-    }
-    
-    /**
-     * Now that the surface has been created we can create our game objects
-     * @param holder Object used to track events
-     */
-    @Override
-    public void surfaceCreated(SurfaceHolder holder)
-    {
-        try
-        {
-            //create if null
-            if (RANDOM == null)
-                RANDOM = new Random(System.nanoTime());
-            
-            //create the thread if it doesn't exist
-            if (getThread() == null)
-        		this.thread = new MainThread(getHolder(), this);
-            
-            //if the thread isn't running, start it
-            if (!getThread().isRunning())
-            	getThread().start();
-            
-            //flag the thread as not paused
-            getThread().setPause(false);
-            
-            //if we haven't calculated the ratio yet
-            if (!hasRatio())
-            {
-	            //store the ratio for the motion event
-	            this.scaleMotionX = (float)GamePanel.WIDTH / getWidth();
-	            this.scaleMotionY = (float)GamePanel.HEIGHT / getHeight();
-	            
-	            //store the ratio for the render
-	            this.scaleRenderX = getWidth() / (float)GamePanel.WIDTH;
-	            this.scaleRenderY = getHeight() / (float)GamePanel.HEIGHT;
-	            
-	            //flag that we have the ratio
-	            setRatio(true);
-            }
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-    }
-    
-    @Override
-    public void surfaceDestroyed(SurfaceHolder holder)
-    {
-        //pause the game
-        if (getScreen() != null)
-        {
-            //stop all audio while paused
-            Audio.stop();
-            
-            //flag the thread as paused
-            getThread().setPause(true);
-            
-            //set the state
-            getScreen().setState(State.Paused);
-        }
-        else
-        {
-        	//if the screen does not exist, just exit the game
-        	getActivity().finish();
-        }
-    }
-    
-    @Override
-    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height)
-    {
-        //does anything need to be done here?
-    }
-    
-    /**
-     * Update the game state
-     */
-    public void update()
-    {
-        try
-        {
-            //make sure the screen is created first before the thread starts
-            if (getScreen() == null)
-            {
-                //create new screen manager
-                this.screen = new ScreenManager(this);
-            }
-            else
-            {
-            	getScreen().update();
-            }
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-    }
-    
-    /**
-     * Get the x scale factor for the motion event
-     * @return The x ratio of the user's width compared to the default width
-     */
-    private float getScaleMotionX()
-    {
-    	return this.scaleMotionX;
-    }
-    
-    /**
-     * Get the y scale factor for the motion event
-     * @return The y ratio of the user's height compared to the default height
-     */
-    private float getScaleMotionY()
-    {
-    	return this.scaleMotionY;
-    }
-
-    /**
-     * Get the x scale factor for the render
-     * @return The x ratio of the user's width compared to the default width
-     */
-    private float getScaleRenderX()
-    {
-    	return this.scaleRenderX;
-    }
-    
-    /**
-     * Get the y scale factor for the render
-     * @return The y ratio of the user's height compared to the default height
-     */
-    private float getScaleRenderY()
-    {
-    	return this.scaleRenderY;
-    }
-    
-    @Override
-    public void onDraw(Canvas canvas)
-    {
-    	draw(canvas);
-    }
-    
-    @Override
-    public void draw(Canvas canvas)
-    {
-        if (canvas != null)
-        {
-            //store the canvas state
-            final int savedState = canvas.save();
-            
-            try
-            {
-                //make sure the screen object exists
-                if (getScreen() != null)
-                {
-                    //scale to the screen size
-                    canvas.scale(getScaleRenderX(), getScaleRenderY());
-                
-                    //render the main screen containing the game and other screens
-                    getScreen().render(canvas);
-                }
-            }
-            catch (Exception e)
-            {
-                e.printStackTrace();
-            }
-            
-            //restore previous canvas state
-            canvas.restoreToCount(savedState);
-        }
-    }
+package com.gamesbykevin.floppybird.panel;
+
+import android.content.pm.ApplicationInfo;
+import android.graphics.Canvas;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.floppybird.MainActivity;
+import com.gamesbykevin.floppybird.assets.Assets;
+import com.gamesbykevin.floppybird.audio.SoundEngine;
+import com.gamesbykevin.floppybird.game.Game;
+import com.gamesbykevin.floppybird.game.GameContext;
+import com.gamesbykevin.floppybird.hud.PerformanceHud;
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.metrics.JankDetector;
+import com.gamesbykevin.floppybird.metrics.MetricsRecorder;
+import com.gamesbykevin.floppybird.profiler.SamplingProfiler;
+import com.gamesbykevin.floppybird.screen.ScreenManager;
+import com.gamesbykevin.floppybird.screen.ScreenManager.State;
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.storage.session.Session;
+import com.gamesbykevin.floppybird.thread.HotThread;
+import com.gamesbykevin.floppybird.thread.MainThread;
+import com.gamesbykevin.floppybird.thread.Watchdog;
+import com.gamesbykevin.floppybird.trace.PlatformTracer;
+import com.gamesbykevin.floppybird.trace.Trace;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.Writer;
+
+/**
+ * Game Panel class
+ * @author GOD
+ */
+public class GamePanel extends SurfaceView implements SurfaceHolder.Callback, Disposable
+{
+    //default dimensions of window for this game
+    public static final int WIDTH = Simulation.WIDTH;
+    public static final int HEIGHT = Simulation.HEIGHT;
+    
+    /**
+     * The file name of our frame metrics
+     */
+    public static final String METRICS_FILE_NAME = "Metrics";
+    
+    /**
+     * The number of frames of metrics we keep (5 minutes)
+     */
+    private static final int METRICS_CAPACITY = MainThread.FPS * 60 * 5;
+    
+    /**
+     * The file name of our profile, in the collapsed stack format
+     */
+    public static final String PROFILE_FILE_NAME = "Profile";
+    
+    /**
+     * The file name of the stalls of the main thread
+     */
+    public static final String WATCHDOG_FILE_NAME = "Watchdog";
+    
+    /**
+     * The time the main thread can go without a beat before the watchdog reports a stall (nanoseconds)
+     */
+    private static final long WATCHDOG_THRESHOLD = Watchdog.THRESHOLD_DEFAULT;
+    
+    /**
+     * The longest we wait for the log to be written when the game closes (milliseconds)
+     */
+    private static final long LOG_FLUSH_TIMEOUT = 500L;
+    
+    //the reference to our activity
+    private final MainActivity activity;
+    
+    //the object containing our game screens
+    private ScreenManager screen;
+    
+    //the state of our game session, shared by the objects of this panel only
+    private GameContext context = new GameContext();
+    
+    //our main game thread
+    private MainThread thread;
+    
+    //the snapshot of the run in progress
+    private final Session session;
+    
+    //the thread reading the snapshot, null once the snapshot has been handed to the menu
+    private Thread sessionLoader;
+    
+    //has the snapshot been read, and is there a run to resume, set by the loader thread
+    private volatile boolean sessionLoaded = false, sessionResumable = false;
+    
+    //the recording of each frame, null if we aren't recording or the file isn't open yet
+    private volatile MetricsRecorder metrics;
+    
+    //the thread opening our metrics file, null if we aren't recording
+    private Thread metricsOpener;
+    
+    //reports when the main thread stops beating
+    private final Watchdog watchdog;
+    
+    //samples the main thread, null until profiling is requested
+    private SamplingProfiler profiler;
+    
+    //the samples per second we were asked to profile at, 0 if we aren't profiling
+    private int profileRate = 0;
+    
+    //did motion event down happen
+    private boolean down = false;
+    
+    //get the ratio of the users screen compared to the default dimensions for the motion event
+    private float scaleMotionX, scaleMotionY;
+
+    //get the ratio of the users screen compared to the default dimensions for the render
+    private float scaleRenderX, scaleRenderY;
+    
+    //did we calculate the screen ratio yet?
+    private boolean ratio = false;
+    
+    /**
+     * Create a new game panel
+     * @param activity Our main activity reference
+     */
+    public GamePanel(final MainActivity activity)
+    {
+        //call to parent constructor
+        super(activity);
+        
+        //store context
+        this.activity = activity;
+        
+        //write the log in the background, so logging never blocks the game
+        GameLog.start();
+        
+        //create our session storage, and read the run that was in progress in the background
+        this.session = new Session(activity);
+        loadSession();
+        
+        //a development build
+        final boolean debuggable = (activity.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        
+        //a debuggable build sends the trace sections to the system trace
+        if (debuggable && PlatformTracer.isSupported())
+        	Trace.setTracer(new PlatformTracer());
+        
+        //a debuggable build reports anything that blocks the main thread
+        HotThread.setup(debuggable, HotThread.THRESHOLD_DEFAULT);
+        
+        //the name of each state so the late frames and the recording can be read without the game
+        final State[] states = State.values();
+        final String[] names = new String[states.length];
+        
+        for (int index = 0; index < states.length; index++)
+        {
+        	names[index] = states[index].name();
+        }
+        
+        //flag the frames over budget
+        JankDetector.setup(MainThread.FPS, names);
+        
+        //watch for the main thread getting stuck
+        this.watchdog = new Watchdog(activity.getFileStreamPath(WATCHDOG_FILE_NAME), WATCHDOG_THRESHOLD, names);
+        
+        //start recording the frames on our test devices, the same as the other developer tools
+        if (MainThread.METRICS && debuggable)
+        	openMetrics(names);
+            
+        //make game panel focusable = true so it can handle events
+        super.setFocusable(true);
+    }
+    
+    /**
+     * Get the main game thread.<br>
+     * If the main thread does not exist, it will be created
+     * @return The main game thread
+     */
+    private MainThread getThread()
+    {
+    	return this.thread;
+    }
+    
+    /**
+     * Get the screen manager 
+     * @return The screen manager containing all our screens
+     */
+    private ScreenManager getScreen()
+    {
+    	return this.screen;
+    }
+    
+    /**
+     * Get the game context
+     * @return The state of our game session
+     */
+    public GameContext getContext()
+    {
+    	return this.context;
+    }
+    
+    @Override
+    public void dispose()
+    {
+        //write what we sampled before the thread is stopped
+        stopProfiler();
+        
+        //it could take several attempts to stop the thread
+        boolean retry = true;
+        
+        //count number of attempts to complete thread
+        int count = 0;
+        
+        //here we will attempt to stop the thread
+        while (retry && count <= MainThread.COMPLETE_THREAD_ATTEMPTS)
+        {
+            try
+            {
+                //increase count
+                count++;
+                
+                if (getThread() != null)
+                {
+                	//don't pause the thread
+                	getThread().setPause(false);
+                	
+                    //set running false, to stop the infinite loop
+                	getThread().setRunning(false);
+
+                    //wait for thread to finish
+                	getThread().join();
+                }
+                
+                //if we made it here, we were successful
+                retry = false;
+            }
+            catch (InterruptedException e)
+            {
+                GameLog.error("GamePanel.dispose", e);
+            }
+        }
+        
+        //make thread null
+        this.thread = null;
+        
+        //the thread is gone, there is nothing left to watch
+        watchdog.stop();
+        
+        //report what blocked the main thread
+        if (HotThread.getTotal() > 0)
+        {
+        	try
+        	{
+        		final StringBuilder report = new StringBuilder();
+        		HotThread.dump(report);
+        		GameLog.info("HotThread", report.toString());
+        	}
+        	catch (Exception e)
+        	{
+        		GameLog.error("GamePanel.dispose", e);
+        	}
+        }
+        
+        if (watchdog.getStalls() > 0)
+        {
+        	GameLog.info("Watchdog", "stalls " + watchdog.getStalls() + ", longest " + (watchdog.getLongest() / 1000000L) +
+        		"ms, total " + (watchdog.getTotal() / 1000000L) + "ms");
+        }
+        
+        //assign null
+        context = null;
+        
+        if (screen != null)
+        {
+            screen.dispose();
+            screen = null;
+        }
+        
+        //recycle all asset objects
+        Assets.recycle();
+        
+        //report the late frames
+        if (JankDetector.getCount() > 0)
+        {
+        	try
+        	{
+        		final StringBuilder report = new StringBuilder();
+        		JankDetector.dump(report);
+        		GameLog.info("JankDetector", report.toString());
+        	}
+        	catch (Exception e)
+        	{
+        		GameLog.error("GamePanel.dispose", e);
+        	}
+        }
+        
+        //make sure the file is open before we close it
+        if (metricsOpener != null)
+        {
+        	try
+        	{
+        		metricsOpener.join();
+        	}
+        	catch (InterruptedException e)
+        	{
+        		GameLog.error("GamePanel.dispose", e);
+        	}
+        	
+        	metricsOpener = null;
+        }
+        
+        //write the remaining frames to the file
+        if (metrics != null)
+        {
+        	metrics.close();
+        	metrics = null;
+        }
+        
+        //report what the log left out, then write what is left before we are gone
+        if (GameLog.getSuppressed() > 0 || GameLog.getDropped() > 0)
+        	GameLog.info("GameLog", "suppressed " + GameLog.getSuppressed() + ", dropped " + GameLog.getDropped());
+        
+        GameLog.flush(LOG_FLUSH_TIMEOUT);
+    }
+    
+    /**
+     * Let the watchdog know the main thread is alive, called by the main thread once per loop
+     */
+    public void heartbeat()
+    {
+    	watchdog.beat((getScreen() != null) ? getScreen().getState().ordinal() : 0);
+    }
+    
+    /**
+     * Check and record the frame that just finished, called by the main thread at the start of each frame
+     */
+    public void record()
+    {
+    	//the first frame after a pause has no time
+    	if (PerformanceHud.getFrameTime() == 0)
+    		return;
+    	
+    	final Game game = (getScreen() != null) ? getScreen().getScreenGame().getGame() : null;
+    	final SimulationState state = (game != null) ? game.getSimulation().getState() : null;
+    	final int ordinal = (getScreen() != null) ? getScreen().getState().ordinal() : 0;
+    	final int pipes = (state != null) ? state.countPipes() : 0;
+    	final int fuel = (state != null) ? state.countFuel() : 0;
+    	
+    	//flag the frame if it was late
+    	final int flags = JankDetector.check(
+    		PerformanceHud.getFrameTime(),
+    		PerformanceHud.getUpdateTime(),
+    		PerformanceHud.getLockTime(),
+    		PerformanceHud.getRenderTime(),
+    		PerformanceHud.getPostTime(),
+    		PerformanceHud.hasCollected(),
+    		ordinal,
+    		(state != null) ? state.step : -1,
+    		(state != null) ? state.score : 0,
+    		pipes,
+    		fuel
+    	);
+    	
+    	//the file may still be opening
+    	final MetricsRecorder metrics = this.metrics;
+    	
+    	if (metrics == null)
+    		return;
+    	
+    	final Runtime runtime = Runtime.getRuntime();
+    	
+    	metrics.record(
+    		(state != null) ? state.step : -1,
+    		PerformanceHud.getFrameTime(),
+    		PerformanceHud.getUpdateTime(),
+    		PerformanceHud.getDrawTime(),
+    		ordinal,
+    		pipes,
+    		fuel,
+    		flags,
+    		PerformanceHud.getDrawCalls(),
+    		PerformanceHud.getCollections(),
+    		runtime.totalMemory() - runtime.freeMemory()
+    	);
+    }
+    
+    /**
+     * Read the snapshot of the run in progress in the background, so the game thread doesn't wait for the disk.<br>
+     * The menu offers the run once the snapshot is read
+     */
+    private void loadSession()
+    {
+    	this.sessionLoader = new Thread("Session")
+    	{
+    		@Override
+    		public void run()
+    		{
+    			sessionResumable = session.load();
+    			sessionLoaded = true;
+    		}
+    	};
+    	
+    	this.sessionLoader.setDaemon(true);
+    	this.sessionLoader.start();
+    }
+    
+    /**
+     * Create and map our metrics file in the background, so the UI thread doesn't wait for the disk.<br>
+     * The frames are recorded once the file is open
+     * @param names The name of each screen state
+     */
+    private void openMetrics(final String[] names)
+    {
+    	this.metricsOpener = new Thread("MetricsRecorder")
+    	{
+    		@Override
+    		public void run()
+    		{
+    			try
+    			{
+    				metrics = new MetricsRecorder(activity.getFileStreamPath(METRICS_FILE_NAME), METRICS_CAPACITY, MainThread.FPS, names);
+    			}
+    			catch (Exception e)
+    			{
+    				GameLog.error("GamePanel.metrics", e);
+    			}
+    		}
+    	};
+    	
+    	this.metricsOpener.setDaemon(true);
+    	this.metricsOpener.start();
+    }
+    
+    /**
+     * Start sampling the main thread, if the thread doesn't exist yet we start once it does
+     * @param rate The number of samples per second
+     */
+    public void startProfiler(final int rate)
+    {
+    	this.profileRate = rate;
+    	
+    	if (getThread() == null || !getThread().isAlive())
+    		return;
+    	
+    	//the call tree is only created when we profile
+    	if (profiler == null)
+    		profiler = new SamplingProfiler();
+    	
+    	profiler.start(getThread(), rate);
+    	PerformanceHud.setProfiler(profiler);
+    }
+    
+    /**
+     * Stop sampling the main thread and write the profile to the internal storage
+     */
+    public void stopProfiler()
+    {
+    	this.profileRate = 0;
+    	
+    	if (profiler == null || !profiler.isRunning())
+    		return;
+    	
+    	profiler.stop();
+    	
+    	try
+    	{
+    		final Writer writer = new BufferedWriter(new FileWriter(getActivity().getFileStreamPath(PROFILE_FILE_NAME)));
+    		
+    		try
+    		{
+    			profiler.export(writer);
+    		}
+    		finally
+    		{
+    			writer.close();
+    		}
+    	}
+    	catch (Exception e)
+    	{
+    		GameLog.error("GamePanel.stopProfiler", e);
+    	}
+    }
+    
+    /**
+     * Start or stop sampling the main thread at the default rate
+     */
+    public void toggleProfiler()
+    {
+    	if (profiler != null && profiler.isRunning())
+    	{
+    		stopProfiler();
+    	}
+    	else
+    	{
+    		startProfiler(SamplingProfiler.RATE_DEFAULT);
+    	}
+    }
+    
+    /**
+     * Save the run in progress, so it can be continued if the process is killed in the background
+     */
+    public void saveSession()
+    {
+    	//don't replace the snapshot before it has been read and the screen is created
+    	if (getScreen() == null || !sessionLoaded)
+    		return;
+    	
+    	session.save(getScreen().getScreenGame().getGame());
+    }
+    
+    /**
+     * Get the activity
+     * @return The activity reference
+     */
+    public final MainActivity getActivity()
+    {
+        return this.activity;
+    }
+    
+    /**
+     * Flag that we have the screen ratio
+     * @param ratio true if we calculated the screen ratio, false otherwise
+     */
+    private void setRatio(final boolean ratio)
+    {
+    	this.ratio = ratio;
+    }
+    
+    /**
+     * Did we calculate the ratio
+     * @return true if we calculated the screen ratio, false otherwise
+     */
+    private boolean hasRatio()
+    {
+    	return this.ratio;
+    }
+    
+    @Override
+    public boolean performClick() 
+    {
+        //call parent
+        super.performClick();
+        
+        //return true
+        return true;
+    }
+    
+    @Override
+    public boolean onTouchEvent(final MotionEvent event)
+    {
+        try
+        {
+            if (getScreen() != null)
+            {
+            	//in order to handle multiple motion events, we need to get the action of the current event
+            	final int actionIndex = event.getActionIndex();
+            	
+                //adjust the coordinates
+                final float x = event.getX(actionIndex) * getScaleMotionX();
+                final float y = event.getY(actionIndex) * getScaleMotionY();
+            	
+                //get the current action that was performed here
+                final int action = event.getActionMasked();
+                
+                switch (action)
+                {
+	                case MotionEvent.ACTION_DOWN:
+	                	
+	                	//flag motion down occurred
+		            	down = true;
+		            	break;
+		            	
+	                case MotionEvent.ACTION_UP:
+	                	
+	                	//if we have previously action down
+	                	if (down)
+	                	{
+	                		//flag false
+	                		down = false;
+	                		
+	                    	//perform click
+	                    	performClick();
+	                	}
+	                	break;
+	                	
+	                case MotionEvent.ACTION_POINTER_DOWN:
+	                	
+	                	//a three finger tap displays or hides the developer overlay
+	                	if (event.getPointerCount() == 3)
+	                		PerformanceHud.toggle();
+	                	
+	                	//a four finger tap starts or stops the profiler while the overlay is displayed
+	                	if (event.getPointerCount() == 4)
+	                	{
+	                		//the third finger already toggled the overlay, put it back
+	                		PerformanceHud.toggle();
+	                		
+	                		if (PerformanceHud.isEnabled())
+	                			toggleProfiler();
+	                	}
+	                	break;
+                }
+                
+                //update the screen/game etc.. with the specified motion events
+                getScreen().update(action, x, y);
+            }
+        }
+        catch (Exception e)
+        {
+            GameLog.error("GamePanel.onTouchEvent", e);
+        }
+        
+        //return true because we want all motion events
+        return true;
+    }
+    
+    /**
+     * Now that the surface has been created we can create our game objects
+     * @param holder Object used to track events
+     */
+    @Override
+    public void surfaceCreated(SurfaceHolder holder)
+    {
+        try
+        {
+            //create if null
+            if (context == null)
+                context = new GameContext();
+            
+            //create the thread if it doesn't exist
+            if (getThread() == null)
+        		this.thread = new MainThread(getHolder(), this);
+            
+            //if the thread isn't running, start it
+            if (!getThread().isRunning())
+            	getThread().start();
+            
+            //watch the thread, this does nothing if we are already watching
+            watchdog.start(getThread());
+            
+            //if we were asked to profile, sample the thread now that it exists
+            if (profileRate > 0)
+            	startProfiler(profileRate);
+            
+            //flag the thread as not paused
+            getThread().setPause(false);
+            
+            //if we haven't calculated the ratio yet
+            if (!hasRatio())
+            {
+	            //store the ratio for the motion event
+	            this.scaleMotionX = (float)GamePanel.WIDTH / getWidth();
+	            this.scaleMotionY = (float)GamePanel.HEIGHT / getHeight();
+	            
+	            //store the ratio for the render
+	            this.scaleRenderX = getWidth() / (float)GamePanel.WIDTH;
+	            this.scaleRenderY = getHeight() / (float)GamePanel.HEIGHT;
+	            
+	            //flag that we have the ratio
+	            setRatio(true);
+            }
+        }
+        catch (Exception e)
+        {
+            GameLog.error("GamePanel.surfaceCreated", e);
+        }
+    }
+    
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder)
+    {
+        //pause the game
+        if (getScreen() != null)
+        {
+            //stop all audio while paused
+            SoundEngine.stop();
+            
+            //flag the thread as paused
+            getThread().setPause(true);
+            
+            //set the state
+            getScreen().setState(State.Paused);
+        }
+        else
+        {
+        	//if the screen does not exist, just exit the game
+        	getActivity().finish();
+        }
+    }
+    
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height)
+    {
+        //does anything need to be done here?
+    }
+    
+    /**
+     * Update the game state
+     */
+    public void update()
+    {
+        try
+        {
+            //make sure the screen is created first before the thread starts
+            if (getScreen() == null)
+            {
+                //create new screen manager
+                this.screen = new ScreenManager(this);
+            }
+            else
+            {
+            	getScreen().update();
+            }
+            
+            //if a run was in progress when the app was last closed, continue it once the snapshot is read
+            if (sessionLoader != null && sessionLoaded)
+            {
+            	sessionLoader = null;
+            	
+            	//the player may have started a new game while we were reading
+            	if (sessionResumable && getScreen().getState() == State.Ready)
+            		getScreen().getScreenMenu().resume(session);
+            }
+        }
+        catch (Exception e)
+        {
+            GameLog.error("GamePanel.update", e);
+        }
+    }
+    
+    /**
+     * Get the x scale factor for the motion event
+     * @return The x ratio of the user's width compared to the default width
+     */
+    private float getScaleMotionX()
+    {
+    	return this.scaleMotionX;
+    }
+    
+    /**
+     * Get the y scale factor for the motion event
+     * @return The y ratio of the user's height compared to the default height
+     */
+    private float getScaleMotionY()
+    {
+    	return this.scaleMotionY;
+    }
+
+    /**
+     * Get the x scale factor for the render
+     * @return The x ratio of the user's width compared to the default width
+     */
+    private float getScaleRenderX()
+    {
+    	return this.scaleRenderX;
+    }
+    
+    /**
+     * Get the y scale factor for the render
+     * @return The y ratio of the user's height compared to the default height
+     */
+    private float getScaleRenderY()
+    {
+    	return this.scaleRenderY;
+    }
+    
+    @Override
+    public void onDraw(Canvas canvas)
+    {
+    	draw(canvas);
+    }
+    
+    @Override
+    public void draw(Canvas canvas)
+    {
+        if (canvas != null)
+        {
+            //store the canvas state
+            final int savedState = canvas.save();
+            
+            try
+            {
+                //make sure the screen object exists
+                if (getScreen() != null)
+                {
+                    //scale to the screen size
+                    canvas.scale(getScaleRenderX(), getScaleRenderY());
+                
+                    //render the main screen containing the game and other screens
+                    getScreen().render(canvas);
+                }
+            }
+            catch (Exception e)
+            {
+                GameLog.error("GamePanel.draw", e);
+            }
+            
+            //restore previous canvas state
+            canvas.restoreToCount(savedState);
+        }
+    }
 }
\ No newline at end of file
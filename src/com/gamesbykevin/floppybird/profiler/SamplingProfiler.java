@@ -0,0 +1,420 @@
+package com.gamesbykevin.floppybird.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.gamesbykevin.floppybird.log.GameLog;
+
+/**
+ * Samples the stack of a thread at a fixed rate and counts the samples of each call path.<br>
+ * The sampling runs on its own low priority thread, the thread we sample only pauses while its stack is read,
+ * so we can profile a real play session without an attached profiler distorting the timing.<br>
+ * The samples are merged into a call tree of primitive arrays sized when the profiler is created, each node is a
+ * method called from the path of its parent. Each method is stored once, by the class and method name of the stack.
+ * Once the tree is full the samples are added to the deepest node we have, and counted as truncated.<br>
+ * The tree is exported in the collapsed stack format (the methods from the root separated by ';', a space and the
+ * number of samples, one path per line) that flamegraph.pl, speedscope and most flame graph tools read.
+ * @author GOD
+ */
+public final class SamplingProfiler implements Runnable
+{
+    /**
+     * The number of samples per second by default
+     */
+    public static final int RATE_DEFAULT = 100;
+
+    /**
+     * The most samples we take per second
+     */
+    public static final int RATE_MAX = 1000;
+
+    /**
+     * The number of nodes in our call tree by default
+     */
+    public static final int NODES_DEFAULT = 16384;
+
+    /**
+     * The number of different methods we store by default
+     */
+    public static final int METHODS_DEFAULT = 4096;
+
+    /**
+     * The deepest stack we follow, anything deeper is added to the node at this depth
+     */
+    public static final int DEPTH_MAX = 256;
+
+    /**
+     * The root of the call tree
+     */
+    private static final int ROOT = 0;
+
+    /**
+     * The node or method doesn't exist
+     */
+    private static final int NONE = -1;
+
+    //each node of the call tree, the method, the first child, the next child of the same parent, and the samples ending here
+    private final int[] nodeMethod, nodeChild, nodeSibling, nodeSamples;
+
+    //the number of nodes in use
+    private int nodes;
+
+    //the class and method name of each method we have seen
+    private final String[] methodClass, methodName;
+
+    //the number of methods in use
+    private int methods;
+
+    //the hash table locating each method, each slot is the method or NONE
+    private final int[] slots;
+
+    //the number of samples taken, read without locking by the developer overlay
+    private volatile long samples;
+
+    //the samples that didn't fit in the tree
+    private long truncated;
+
+    //the thread we sample, and the thread sampling it
+    private Thread target, sampler;
+
+    //the time between samples (nanoseconds)
+    private long interval;
+
+    //are we sampling, this is changed by the thread starting and stopping us
+    private volatile boolean running = false;
+
+    /**
+     * Create a profiler with the default size
+     */
+    public SamplingProfiler()
+    {
+        this(NODES_DEFAULT, METHODS_DEFAULT);
+    }
+
+    /**
+     * Create a profiler
+     * @param capacity The number of nodes in the call tree
+     * @param methods The number of different methods we can store
+     */
+    public SamplingProfiler(final int capacity, final int methods)
+    {
+        if (capacity < 1 || methods < 1)
+            throw new IllegalArgumentException("The capacity and methods have to be at least 1 " + capacity + ", " + methods);
+
+        this.nodeMethod = new int[capacity];
+        this.nodeChild = new int[capacity];
+        this.nodeSibling = new int[capacity];
+        this.nodeSamples = new int[capacity];
+        this.methodClass = new String[methods];
+        this.methodName = new String[methods];
+
+        //keep the hash table at most half full
+        int size = 1;
+
+        while (size < methods * 2)
+        {
+            size <<= 1;
+        }
+
+        this.slots = new int[size];
+
+        clear();
+    }
+
+    /**
+     * Remove every sample
+     */
+    public synchronized void clear()
+    {
+        this.nodes = 1;
+        this.nodeMethod[ROOT] = NONE;
+        this.nodeChild[ROOT] = NONE;
+        this.nodeSibling[ROOT] = NONE;
+        this.nodeSamples[ROOT] = 0;
+
+        this.methods = 0;
+
+        for (int index = 0; index < slots.length; index++)
+        {
+            slots[index] = NONE;
+        }
+
+        for (int index = 0; index < methodClass.length; index++)
+        {
+            methodClass[index] = null;
+            methodName[index] = null;
+        }
+
+        this.samples = 0;
+        this.truncated = 0;
+    }
+
+    /**
+     * Start sampling, the samples are added to the samples we already have
+     * @param target The thread we want to sample
+     * @param rate The number of samples per second, at most RATE_MAX
+     */
+    public synchronized void start(final Thread target, final int rate)
+    {
+        if (running)
+            return;
+
+        this.target = target;
+        this.interval = 1000000000L / Math.max(1, Math.min(RATE_MAX, rate));
+        this.running = true;
+
+        //sample from a low priority thread, so the game thread wins when they compete
+        this.sampler = new Thread(this, "SamplingProfiler");
+        this.sampler.setPriority(Thread.MIN_PRIORITY);
+        this.sampler.setDaemon(true);
+        this.sampler.start();
+    }
+
+    /**
+     * Stop sampling and wait for the sampling thread to finish
+     */
+    public void stop()
+    {
+        final Thread thread;
+
+        synchronized (this)
+        {
+            if (!running)
+                return;
+
+            running = false;
+            thread = sampler;
+            sampler = null;
+        }
+
+        thread.interrupt();
+
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            GameLog.error("SamplingProfiler.stop", e);
+        }
+    }
+
+    /**
+     * Are we sampling?
+     * @return true if the sampling thread is running, false otherwise
+     */
+    public boolean isRunning()
+    {
+        return this.running;
+    }
+
+    @Override
+    public void run()
+    {
+        long next = System.nanoTime();
+
+        while (running)
+        {
+            //the target finished, there is nothing left to sample
+            if (!target.isAlive())
+            {
+                running = false;
+                break;
+            }
+
+            add(target.getStackTrace());
+
+            //keep the rate even if reading the stack was slow, but never try to catch up
+            next = Math.max(next + interval, System.nanoTime());
+            final long wait = next - System.nanoTime();
+
+            if (wait > 0)
+            {
+                try
+                {
+                    Thread.sleep(wait / 1000000L, (int)(wait % 1000000L));
+                }
+                catch (InterruptedException e)
+                {
+                    //we are asked to stop
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a sample
+     * @param stack The stack of the thread, the method running first as Thread.getStackTrace returns it
+     */
+    public synchronized void add(final StackTraceElement[] stack)
+    {
+        //the thread may not be running yet, or already finished
+        if (stack.length == 0)
+            return;
+
+        samples++;
+
+        int node = ROOT;
+
+        //follow the calls from the bottom of the stack
+        for (int index = stack.length - 1, depth = 0; index >= 0 && depth < DEPTH_MAX; index--, depth++)
+        {
+            final int method = method(stack[index]);
+            final int child = (method != NONE) ? child(node, method) : NONE;
+
+            //the tree is full, the sample ends at the deepest node we have
+            if (child == NONE)
+            {
+                truncated++;
+                break;
+            }
+
+            node = child;
+        }
+
+        nodeSamples[node]++;
+    }
+
+    /**
+     * Locate the method, adding it if we haven't seen it
+     * @param element The element of the stack
+     * @return The method, or NONE if we can't store any more methods
+     */
+    private int method(final StackTraceElement element)
+    {
+        final String className = element.getClassName();
+        final String name = element.getMethodName();
+        final int mask = slots.length - 1;
+
+        int slot = ((className.hashCode() * 31) + name.hashCode()) & mask;
+
+        while (slots[slot] != NONE)
+        {
+            final int method = slots[slot];
+
+            if (methodName[method].equals(name) && methodClass[method].equals(className))
+                return method;
+
+            slot = (slot + 1) & mask;
+        }
+
+        if (methods >= methodClass.length)
+            return NONE;
+
+        methodClass[methods] = className;
+        methodName[methods] = name;
+        slots[slot] = methods;
+
+        return methods++;
+    }
+
+    /**
+     * Locate the child of the node for the method, adding it if it doesn't exist
+     * @param parent The node calling the method
+     * @param method The method called
+     * @return The child, or NONE if the tree is full
+     */
+    private int child(final int parent, final int method)
+    {
+        for (int child = nodeChild[parent]; child != NONE; child = nodeSibling[child])
+        {
+            if (nodeMethod[child] == method)
+                return child;
+        }
+
+        if (nodes >= nodeMethod.length)
+            return NONE;
+
+        final int child = nodes++;
+
+        nodeMethod[child] = method;
+        nodeChild[child] = NONE;
+        nodeSamples[child] = 0;
+
+        //the new child becomes the first child of the parent
+        nodeSibling[child] = nodeChild[parent];
+        nodeChild[parent] = child;
+
+        return child;
+    }
+
+    /**
+     * Get the number of samples
+     * @return The number of samples taken
+     */
+    public long getSamples()
+    {
+        return this.samples;
+    }
+
+    /**
+     * Get the number of truncated samples
+     * @return The number of samples that ended early because the call tree or the methods were full
+     */
+    public synchronized long getTruncated()
+    {
+        return this.truncated;
+    }
+
+    /**
+     * Get the number of nodes
+     * @return The number of nodes of the call tree in use, including the root
+     */
+    public synchronized int getNodes()
+    {
+        return this.nodes;
+    }
+
+    /**
+     * Write each call path and the number of samples ending there in the collapsed stack format
+     * @param writer Where we write the paths
+     * @throws IOException If the paths can't be written
+     */
+    public synchronized void export(final Writer writer) throws IOException
+    {
+        final StringBuilder path = new StringBuilder();
+
+        for (int child = nodeChild[ROOT]; child != NONE; child = nodeSibling[child])
+        {
+            export(writer, path, child);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Write the paths of the node and every node below it
+     * @param writer Where we write the paths
+     * @param path The path of the parent
+     * @param node The node we are writing
+     * @throws IOException If the paths can't be written
+     */
+    private void export(final Writer writer, final StringBuilder path, final int node) throws IOException
+    {
+        final int length = path.length();
+
+        if (length > 0)
+            path.append(';');
+
+        //flame graph tools split the path on ';' and the count on the last space
+        final int method = nodeMethod[node];
+        path.append(methodClass[method].replace(';', ':').replace(' ', '_'));
+        path.append('.');
+        path.append(methodName[method].replace(';', ':').replace(' ', '_'));
+
+        if (nodeSamples[node] > 0)
+        {
+            writer.write(path.toString());
+            writer.write(' ');
+            writer.write(Integer.toString(nodeSamples[node]));
+            writer.write('\n');
+        }
+
+        for (int child = nodeChild[node]; child != NONE; child = nodeSibling[child])
+        {
+            export(writer, path, child);
+        }
+
+        path.setLength(length);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.gamesbykevin.floppybird.replay;
+
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Replays a recorded run next to the player's run, one step for each step of the player.<br>
+ * The recording is played back through its own simulation, so we only ever keep the current state no matter how
+ * long the recorded run was. The ghost waits at its first jump until the player starts, then keeps pace with the player.
+ * @author GOD
+ */
+public final class GhostRun
+{
+    //the simulation replaying the recorded run
+    private final Simulation simulation;
+
+    //the recording we are playing
+    private final Playback playback;
+
+    //is there a run to play
+    private boolean active = false;
+
+    //has the player started
+    private boolean started = false;
+
+    //the number of steps since the ghost jumped
+    private int steps = 0;
+
+    /**
+     * Create the ghost run, the simulation and playback are created once and reused for every run
+     */
+    public GhostRun()
+    {
+        this.simulation = new Simulation(0, Simulation.PIPE_GAP_NORMAL, false);
+        this.playback = new Playback();
+    }
+
+    /**
+     * Start playing the recording
+     * @param recording The run we want to play, null if there is no run to play
+     */
+    public void reset(final Recording recording)
+    {
+        this.started = false;
+        this.steps = 0;
+
+        //we need a complete run to play
+        this.active = (recording != null && recording.isFinished() && recording.getFlaps() > 0);
+
+        if (!isActive())
+            return;
+
+        simulation.reset(recording.getSeed(), recording.getPipeGap(), recording.isSurvival());
+        playback.reset(recording);
+
+        final SimulationState state = simulation.getState();
+
+        //skip the time before the first jump, so the ghost starts when the player starts
+        while (!state.started && state.step < recording.getEnd())
+        {
+            simulation.step(playback.isFlap(state.step));
+        }
+    }
+
+    /**
+     * Catch up with a player's run that already started, when a run is restored
+     * @param player The state of the player's run
+     */
+    public void resume(final SimulationState player)
+    {
+        if (!isActive() || !player.started)
+            return;
+
+        //the ghost waited on the step the player started, then took a step for each step after it
+        this.started = true;
+
+        for (int tick = 1; tick < player.ticks; tick++)
+        {
+            simulation.step(playback.isFlap(simulation.getState().step));
+        }
+    }
+
+    /**
+     * Take the step of the ghost for a step of the player
+     * @param player The state of the player's run
+     */
+    public void update(final SimulationState player)
+    {
+        if (!isActive())
+            return;
+
+        //the ghost made the first jump in reset, so it waits for the step the player starts
+        if (!started)
+        {
+            started = player.started;
+            return;
+        }
+
+        //the ghost keeps falling after it dies, there are no more jumps after the run ended
+        final int events = simulation.step(playback.isFlap(simulation.getState().step));
+
+        //start the animation over when the ghost jumps
+        if ((events & Simulation.EVENT_FLAP) != 0)
+        {
+            steps = 0;
+        }
+        else
+        {
+            steps++;
+        }
+    }
+
+    /**
+     * Is the ghost active?
+     * @return true if we are playing a run, false otherwise
+     */
+    public boolean isActive()
+    {
+        return this.active;
+    }
+
+    /**
+     * Get the simulation
+     * @return The simulation replaying the recorded run
+     */
+    public Simulation getSimulation()
+    {
+        return this.simulation;
+    }
+
+    /**
+     * Get the steps since the ghost jumped
+     * @return The number of steps since the latest jump, used to pick the animation frame
+     */
+    public int getSteps()
+    {
+        return this.steps;
+    }
+}
\ No newline at end of file
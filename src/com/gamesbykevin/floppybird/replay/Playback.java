@@ -0,0 +1,126 @@
+package com.gamesbykevin.floppybird.replay;
+
+import com.gamesbykevin.floppybird.simulation.Simulation;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Play a recording back through the simulation.<br>
+ * The jumps are decoded one at a time as the steps are reached, so nothing is created while playing.
+ * @author GOD
+ */
+public final class Playback
+{
+    //the recording we are playing
+    private Recording recording;
+
+    //the position of the next jump in the recording
+    private int position;
+
+    //the number of jumps left
+    private int remaining;
+
+    //the step of the next jump
+    private int next;
+
+    /**
+     * Start playing the recording from the beginning
+     * @param recording The recording we want to play
+     */
+    public void reset(final Recording recording)
+    {
+        this.recording = recording;
+        this.position = 0;
+        this.remaining = recording.getFlaps();
+        this.next = 0;
+
+        //locate the first jump
+        advance();
+    }
+
+    /**
+     * Decode the next jump
+     */
+    private void advance()
+    {
+        //if there are no more jumps
+        if (remaining <= 0)
+        {
+            next = -1;
+            return;
+        }
+
+        remaining--;
+
+        int delta = 0;
+        int shift = 0;
+
+        //7 bits at a time, the high bit is set if there are more bytes
+        while (true)
+        {
+            final int value = recording.getByte(position++);
+
+            delta |= (value & 0x7F) << shift;
+
+            if ((value & 0x80) == 0)
+                break;
+
+            shift += 7;
+        }
+
+        next += delta;
+    }
+
+    /**
+     * Did the player jump at this step?
+     * @param step The number of steps taken so far
+     * @return true if the jump is applied to the next step, false otherwise
+     */
+    public boolean isFlap(final int step)
+    {
+        if (next < 0 || step != next)
+            return false;
+
+        advance();
+
+        return true;
+    }
+
+    /**
+     * Play the entire recording as fast as possible
+     * @param simulation The simulation used to play the recording, it will be reset
+     * @return The number of steps played
+     */
+    public int play(final Simulation simulation)
+    {
+        simulation.reset(recording.getSeed(), recording.getPipeGap(), recording.isSurvival());
+
+        final SimulationState state = simulation.getState();
+
+        //play until the step the recording ended
+        while (state.step < recording.getEnd() && !state.dead)
+        {
+            simulation.step(isFlap(state.step));
+        }
+
+        return state.step;
+    }
+
+    /**
+     * Play the recording and make sure the run is the same
+     * @param simulation The simulation used to play the recording, it will be reset
+     * @return true if the run ended at the same step with the same score and cause of death, false otherwise
+     */
+    public boolean verify(final Simulation simulation)
+    {
+        final SimulationState state = simulation.getState();
+
+        play(simulation);
+
+        return (
+            state.step == recording.getEnd() &&
+            state.score == recording.getScore() &&
+            state.death == recording.getDeath() &&
+            state.flaps == recording.getFlaps()
+        );
+    }
+}
\ No newline at end of file
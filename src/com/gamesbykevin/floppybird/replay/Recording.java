@@ -0,0 +1,291 @@
+package com.gamesbykevin.floppybird.replay;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * The recording of a single run.<br>
+ * The simulation is deterministic, so a run is the seed plus the step of each jump.<br>
+ * Each jump is stored as the number of steps since the previous jump, written as a variable length integer,
+ * so most jumps need a single byte.
+ * @author GOD
+ */
+public final class Recording
+{
+    /**
+     * Identify our file format
+     */
+    private static final int MAGIC = 0x46425250;
+
+    /**
+     * The current version of our file format, version 1 did not store if the run ended and was only read back finished
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * The number of bytes we start with, enough for a few thousand jumps before we need to grow
+     */
+    private static final int CAPACITY = 4096;
+
+    //the seed, the pipe gap, and is the bird using fuel
+    private long seed;
+    private int pipeGap;
+    private boolean survival;
+
+    //the encoded jumps
+    private byte[] data = new byte[CAPACITY];
+
+    //the number of bytes used
+    private int size;
+
+    //the number of jumps
+    private int flaps;
+
+    //the step of the previous jump
+    private int previous;
+
+    //the last step of the run, the score, and how the bird died
+    private int end, score, death;
+
+    //did the run end
+    private boolean finished;
+
+    /**
+     * Start a new recording
+     * @param seed The seed of the run
+     * @param pipeGap The y-pixel difference between the top and bottom pipes
+     * @param survival Is the bird using fuel
+     */
+    public void reset(final long seed, final int pipeGap, final boolean survival)
+    {
+        this.seed = seed;
+        this.pipeGap = pipeGap;
+        this.survival = survival;
+        this.size = 0;
+        this.flaps = 0;
+        this.previous = 0;
+        this.end = 0;
+        this.score = 0;
+        this.death = SimulationState.DEATH_NONE;
+        this.finished = false;
+    }
+
+    /**
+     * Record a jump
+     * @param step The number of steps taken before the step the jump was applied to
+     */
+    public void record(final int step)
+    {
+        //we can't add to a finished run
+        if (finished)
+            return;
+
+        //the jumps are stored as the difference from the previous jump
+        int delta = step - previous;
+        previous = step;
+        flaps++;
+
+        //make sure we have room for the largest integer, this will rarely happen
+        if (size + 5 > data.length)
+        {
+            final byte[] tmp = new byte[data.length * 2];
+            System.arraycopy(data, 0, tmp, 0, size);
+            data = tmp;
+        }
+
+        //7 bits at a time, the high bit is set if there are more bytes
+        while ((delta & ~0x7F) != 0)
+        {
+            data[size++] = (byte)((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+
+        data[size++] = (byte)delta;
+    }
+
+    /**
+     * Finish the recording
+     * @param state The state of the run when it ended
+     */
+    public void finish(final SimulationState state)
+    {
+        if (finished)
+            return;
+
+        this.end = state.step;
+        this.score = state.score;
+        this.death = state.death;
+        this.finished = true;
+    }
+
+    /**
+     * Get the byte
+     * @param index The position in our encoded jumps
+     * @return The byte at the position
+     */
+    byte getByte(final int index)
+    {
+        return data[index];
+    }
+
+    /**
+     * Get the seed
+     * @return The seed of the run
+     */
+    public long getSeed()
+    {
+        return this.seed;
+    }
+
+    /**
+     * Get the pipe gap
+     * @return The y-pixel difference between the top and bottom pipes
+     */
+    public int getPipeGap()
+    {
+        return this.pipeGap;
+    }
+
+    /**
+     * Is the bird using fuel?
+     * @return true if the run was played in survival mode, false otherwise
+     */
+    public boolean isSurvival()
+    {
+        return this.survival;
+    }
+
+    /**
+     * Get the number of jumps
+     * @return The number of jumps recorded
+     */
+    public int getFlaps()
+    {
+        return this.flaps;
+    }
+
+    /**
+     * Get the size
+     * @return The number of bytes used to store the jumps
+     */
+    public int getSize()
+    {
+        return this.size;
+    }
+
+    /**
+     * Get the end
+     * @return The number of steps in the run
+     */
+    public int getEnd()
+    {
+        return this.end;
+    }
+
+    /**
+     * Get the score
+     * @return The score when the run ended
+     */
+    public int getScore()
+    {
+        return this.score;
+    }
+
+    /**
+     * Get the death
+     * @return How the bird died, see SimulationState.DEATH_*
+     */
+    public int getDeath()
+    {
+        return this.death;
+    }
+
+    /**
+     * Has the recording finished?
+     * @return true if the run ended, false otherwise
+     */
+    public boolean isFinished()
+    {
+        return this.finished;
+    }
+
+    /**
+     * Copy the recording
+     * @param other The recording we want to copy from
+     */
+    public void copy(final Recording other)
+    {
+        reset(other.seed, other.pipeGap, other.survival);
+
+        if (data.length < other.size)
+            data = new byte[other.data.length];
+
+        System.arraycopy(other.data, 0, data, 0, other.size);
+
+        this.size = other.size;
+        this.flaps = other.flaps;
+        this.previous = other.previous;
+        this.end = other.end;
+        this.score = other.score;
+        this.death = other.death;
+        this.finished = other.finished;
+    }
+
+    /**
+     * Write the recording
+     * @param stream The stream we are writing to
+     * @throws IOException
+     */
+    public void write(final DataOutputStream stream) throws IOException
+    {
+        stream.writeInt(MAGIC);
+        stream.writeByte(VERSION);
+        stream.writeLong(seed);
+        stream.writeShort(pipeGap);
+        stream.writeBoolean(survival);
+        stream.writeInt(end);
+        stream.writeInt(score);
+        stream.writeByte(death);
+        stream.writeInt(flaps);
+        stream.writeInt(previous);
+        stream.writeInt(size);
+        stream.write(data, 0, size);
+        stream.writeBoolean(finished);
+    }
+
+    /**
+     * Read the recording
+     * @param stream The stream we are reading from
+     * @throws IOException If the content is not a recording we recognize
+     */
+    public void read(final DataInputStream stream) throws IOException
+    {
+        if (stream.readInt() != MAGIC)
+            throw new IOException("Not a recording");
+
+        final int version = stream.readUnsignedByte();
+
+        if (version < 1 || version > VERSION)
+            throw new IOException("Recording version not supported " + version);
+
+        reset(stream.readLong(), stream.readShort(), stream.readBoolean());
+
+        this.end = stream.readInt();
+        this.score = stream.readInt();
+        this.death = stream.readUnsignedByte();
+        this.flaps = stream.readInt();
+        this.previous = stream.readInt();
+        this.size = stream.readInt();
+
+        if (data.length < size)
+            data = new byte[size];
+
+        stream.readFully(data, 0, size);
+
+        //a run in progress keeps recording once it is restored
+        this.finished = (version == 1) ? true : stream.readBoolean();
+    }
+}
\ No newline at end of file
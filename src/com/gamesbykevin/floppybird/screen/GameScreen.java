@@ -1,85 +1,108 @@
-package com.gamesbykevin.floppybird.screen;
-
-import android.graphics.Canvas;
-import com.gamesbykevin.androidframework.resources.Disposable;
-import com.gamesbykevin.androidframework.screen.Screen;
-import com.gamesbykevin.floppybird.game.Game;
-
-/**
- * The game screen that contains the game
- * @author GOD
- */
-public class GameScreen implements Screen, Disposable
-{
-    //our object containing the main game functionality
-    private Game game;
-    
-    //our main screen reference
-    private final ScreenManager screen;
-    
-    public GameScreen(final ScreenManager screen)
-    {
-        this.screen = screen;
-    }
-    
-    protected Game getGame()
-    {
-        return this.game;
-    }
-    
-    /**
-     * Create game object
-     * @throws Exception
-     */
-    public void createGame() throws Exception
-    {
-        if (getGame() == null)
-            this.game = new Game(screen);
-        
-        //reset the game level
-        getGame().setReset(true);
-    }
-    
-    /**
-     * Reset any necessary screen elements here
-     */
-    @Override
-    public void reset()
-    {
-        //anything need to be reset here
-    }
-    
-    @Override
-    public boolean update(final int action, final float x, final float y) throws Exception
-    {
-        if (getGame() != null)
-            getGame().update(action, x, y);
-        
-        return true;
-    }
-    
-    @Override
-    public void update() throws Exception
-    {
-        if (getGame() != null)
-            getGame().update();
-    }
-    
-    @Override
-    public void render(final Canvas canvas) throws Exception
-    {
-        //render game if exists
-        if (getGame() != null)
-            getGame().render(canvas);
-    }
-    
-    @Override
-    public void dispose()
-    {
-        if (game != null)
-        {
-            game.dispose();
-            game = null;
-        }
-    }
+package com.gamesbykevin.floppybird.screen;
+
+import android.graphics.Canvas;
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.androidframework.screen.Screen;
+import com.gamesbykevin.floppybird.game.Game;
+import com.gamesbykevin.floppybird.trace.Trace;
+
+/**
+ * The game screen that contains the game
+ * @author GOD
+ */
+public class GameScreen implements Screen, Disposable
+{
+    //our object containing the main game functionality
+    private Game game;
+    
+    //our main screen reference
+    private final ScreenManager screen;
+    
+    public GameScreen(final ScreenManager screen)
+    {
+        this.screen = screen;
+    }
+    
+    protected Game getGame()
+    {
+        return this.game;
+    }
+    
+    /**
+     * Create game object
+     * @throws Exception
+     */
+    public void createGame() throws Exception
+    {
+        if (getGame() == null)
+            this.game = new Game(screen, screen.getPanel().getContext());
+        
+        //reset the game level
+        getGame().setReset(true);
+    }
+    
+    /**
+     * Reset any necessary screen elements here
+     */
+    @Override
+    public void reset()
+    {
+        //anything need to be reset here
+    }
+    
+    @Override
+    public boolean update(final int action, final float x, final float y) throws Exception
+    {
+        if (getGame() != null)
+            getGame().update(action, x, y);
+        
+        return true;
+    }
+    
+    @Override
+    public void update() throws Exception
+    {
+        if (getGame() != null)
+        {
+            Trace.begin("Game.update");
+            
+            try
+            {
+                getGame().update();
+            }
+            finally
+            {
+                Trace.end();
+            }
+        }
+    }
+    
+    @Override
+    public void render(final Canvas canvas) throws Exception
+    {
+        //render game if exists
+        if (getGame() != null)
+        {
+            Trace.begin("Game.render");
+            
+            try
+            {
+                getGame().render(canvas);
+            }
+            finally
+            {
+                Trace.end();
+            }
+        }
+    }
+    
+    @Override
+    public void dispose()
+    {
+        if (game != null)
+        {
+            game.dispose();
+            game = null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.gamesbykevin.floppybird.simulation;
+
+/**
+ * The outline of an object used for collision detection.<br>
+ * The outline is a polygon defined around the center of the object, rotated and positioned on each update.
+ * Only plain arrays are used so collision can be checked without any platform classes.
+ * @author GOD
+ */
+public final class Outline
+{
+    //the base coordinates of the outline, offset from the center
+    private int[] xpoints, ypoints;
+
+    //the current coordinates of the outline
+    private final int[] x, y;
+
+    //the number of points in use
+    private int count = 0;
+
+    //the bounds of the current outline
+    private int minX, minY, maxX, maxY;
+
+    /**
+     * Create a new outline
+     * @param capacity The maximum number of points in the outline
+     */
+    public Outline(final int capacity)
+    {
+        this.x = new int[capacity];
+        this.y = new int[capacity];
+    }
+
+    /**
+     * Assign the points that make up the outline
+     * @param xpoints array of x-coordinates, offset from the center
+     * @param ypoints array of y-coordinates, offset from the center
+     */
+    public void setPoints(final int[] xpoints, final int[] ypoints)
+    {
+        this.xpoints = xpoints;
+        this.ypoints = ypoints;
+        this.count = xpoints.length;
+    }
+
+    /**
+     * Update the outline based on the rotation and the current position
+     * @param left The x-coordinate of the object
+     * @param top The y-coordinate of the object
+     * @param width The width of the object
+     * @param height The height of the object
+     * @param rotation The rotation (degrees)
+     */
+    public void update(final double left, final double top, final double width, final double height, final float rotation)
+    {
+        //we will offset from the center of the object
+        final double centerX = left + (width / 2);
+        final double centerY = top + (height / 2);
+
+        //convert the rotation from degrees to radian's
+        final double radians = Math.toRadians(rotation);
+        final double cos = Math.cos(radians);
+        final double sin = Math.sin(radians);
+
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        maxY = Integer.MIN_VALUE;
+
+        for (int index = 0; index < count; index++)
+        {
+            //determine the new coordinates for the outline based on the rotation
+            final double newX = (xpoints[index] * cos) - (ypoints[index] * sin);
+            final double newY = (xpoints[index] * sin) + (ypoints[index] * cos);
+
+            x[index] = (int)(centerX + newX);
+            y[index] = (int)(centerY + newY);
+
+            //track the bounds
+            if (x[index] < minX)
+                minX = x[index];
+            if (x[index] > maxX)
+                maxX = x[index];
+            if (y[index] < minY)
+                minY = y[index];
+            if (y[index] > maxY)
+                maxY = y[index];
+        }
+    }
+
+    /**
+     * Does this outline overlap the other outline?
+     * @param other The outline we want to check collision against
+     * @return true if any edges cross or one outline is inside the other, false otherwise
+     */
+    public boolean intersects(final Outline other)
+    {
+        //if the bounds don't overlap there is no collision
+        if (maxX < other.minX || other.maxX < minX || maxY < other.minY || other.maxY < minY)
+            return false;
+
+        //check if any edges cross
+        for (int index = 0; index < count; index++)
+        {
+            final int next = (index + 1) % count;
+
+            for (int otherIndex = 0; otherIndex < other.count; otherIndex++)
+            {
+                final int otherNext = (otherIndex + 1) % other.count;
+
+                if (crosses(
+                    x[index], y[index], x[next], y[next],
+                    other.x[otherIndex], other.y[otherIndex], other.x[otherNext], other.y[otherNext]))
+                    return true;
+            }
+        }
+
+        //if no edges cross, one outline can still be completely inside the other
+        return contains(other.x[0], other.y[0]) || other.contains(x[0], y[0]);
+    }
+
+    /**
+     * Is the point inside this outline?
+     * @param px x-coordinate
+     * @param py y-coordinate
+     * @return true = yes, false = no
+     */
+    public boolean contains(final int px, final int py)
+    {
+        boolean inside = false;
+
+        for (int index = 0, previous = count - 1; index < count; previous = index++)
+        {
+            //each edge crossed by a ray to the right flips the result
+            if ((y[index] > py) != (y[previous] > py) &&
+                px < (double)(x[previous] - x[index]) * (py - y[index]) / (y[previous] - y[index]) + x[index])
+                inside = !inside;
+        }
+
+        return inside;
+    }
+
+    /**
+     * Do the 2 line segments cross?
+     * @return true if segment (x1, y1)-(x2, y2) crosses segment (x3, y3)-(x4, y4), false otherwise
+     */
+    private static boolean crosses(
+        final int x1, final int y1, final int x2, final int y2,
+        final int x3, final int y3, final int x4, final int y4)
+    {
+        final long d1 = direction(x3, y3, x4, y4, x1, y1);
+        final long d2 = direction(x3, y3, x4, y4, x2, y2);
+        final long d3 = direction(x1, y1, x2, y2, x3, y3);
+        final long d4 = direction(x1, y1, x2, y2, x4, y4);
+
+        return ((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0));
+    }
+
+    /**
+     * Which side of the line is the point on?
+     * @return positive for one side, negative for the other side, 0 if on the line
+     */
+    private static long direction(final int x1, final int y1, final int x2, final int y2, final int px, final int py)
+    {
+        return ((long)(x2 - x1) * (py - y1)) - ((long)(y2 - y1) * (px - x1));
+    }
+
+    /**
+     * Get the number of points
+     * @return The number of points in the outline
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get the x-coordinate
+     * @param index The index of the point
+     * @return The current x-coordinate of the point
+     */
+    public int getX(final int index)
+    {
+        return this.x[index];
+    }
+
+    /**
+     * Get the y-coordinate
+     * @param index The index of the point
+     * @return The current y-coordinate of the point
+     */
+    public int getY(final int index)
+    {
+        return this.y[index];
+    }
+}
\ No newline at end of file
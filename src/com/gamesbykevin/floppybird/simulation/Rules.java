@@ -0,0 +1,83 @@
+package com.gamesbykevin.floppybird.simulation;
+
+/**
+ * The tunable rules of the simulation.<br>
+ * The game always plays the default rules, other rules are used to balance the difficulty offline.
+ * @author GOD
+ */
+public final class Rules
+{
+    /**
+     * The rules the game is played with
+     */
+    public static final Rules DEFAULT = new Rules(
+        Simulation.JUMP_HEIGHT_MAX,
+        Simulation.DROP_HEIGHT_MAX,
+        Simulation.PIPE_PIXEL_SPAWN,
+        Simulation.PIPE_DISPLAY_MIN,
+        Simulation.FUEL_MAX,
+        Simulation.FUEL_ADD
+    );
+
+    //the y-velocity of a jump, and the maximum y-velocity when falling
+    public final int jumpHeightMax, dropHeightMax;
+
+    //the number of pixels scrolled between each pipe
+    public final int pipePixelSpawn;
+
+    //the minimum number of pixels of each pipe that are always displayed
+    public final int pipeDisplayMin;
+
+    //the fuel the bird starts with, and the fuel added by each tank
+    public final int fuelMax, fuelAdd;
+
+    /**
+     * Create the rules
+     * @param jumpHeightMax The y-velocity of a jump, must be negative
+     * @param dropHeightMax The maximum y-velocity when falling, must be positive
+     * @param pipePixelSpawn The number of pixels scrolled between each pipe, there has to be room for the fuel between pipes
+     * @param pipeDisplayMin The minimum number of pixels of each pipe that are always displayed, every pipe gap of the game has to fit
+     * @param fuelMax The fuel the bird starts with
+     * @param fuelAdd The fuel added by each tank
+     * @throws IllegalArgumentException If the rules can't be played
+     */
+    public Rules(final int jumpHeightMax, final int dropHeightMax, final int pipePixelSpawn, final int pipeDisplayMin, final int fuelMax, final int fuelAdd)
+    {
+        if (jumpHeightMax >= 0 || dropHeightMax <= 0)
+            throw new IllegalArgumentException("The bird has to be able to jump and fall");
+        if (pipePixelSpawn <= Simulation.PIPE_WIDTH + Simulation.FUEL_WIDTH)
+            throw new IllegalArgumentException("The pipes are too close " + pipePixelSpawn);
+        if (pipeDisplayMin <= 0)
+            throw new IllegalArgumentException("The pipes have to be displayed " + pipeDisplayMin);
+        if (fuelMax <= 0 || fuelAdd < 0)
+            throw new IllegalArgumentException("The bird needs fuel");
+
+        this.jumpHeightMax = jumpHeightMax;
+        this.dropHeightMax = dropHeightMax;
+        this.pipePixelSpawn = pipePixelSpawn;
+        this.pipeDisplayMin = pipeDisplayMin;
+        this.fuelMax = fuelMax;
+        this.fuelAdd = fuelAdd;
+
+        //the easy gap is the widest the game plays
+        checkGap(Simulation.PIPE_GAP_EASY);
+    }
+
+    /**
+     * Make sure there is room to place the pipes with a gap
+     * @param gap The number of pixels between the top and bottom pipe
+     * @throws IllegalArgumentException If the gap doesn't leave a range of pixels to spawn the pipes in
+     */
+    public void checkGap(final int gap)
+    {
+        if (Simulation.HEIGHT - (pipeDisplayMin * 2) - gap - Simulation.GROUND_HEIGHT <= 0)
+            throw new IllegalArgumentException("The pipe gap " + gap + " does not fit with display " + pipeDisplayMin);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "jump=" + jumpHeightMax + " drop=" + dropHeightMax + " spawn=" + pipePixelSpawn +
+            " display=" + pipeDisplayMin + " fuel=" + fuelMax + " fuelAdd=" + fuelAdd;
+    }
+}
\ No newline at end of file
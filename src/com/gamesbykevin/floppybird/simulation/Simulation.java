@@ -0,0 +1,598 @@
+package com.gamesbykevin.floppybird.simulation;
+
+/**
+ * The game rules: bird physics, pipe spawning, scrolling, scoring and collision.<br>
+ * This has no platform dependencies so it can run anywhere, the game renders from our state.<br>
+ * Each call to step advances the run by a single update, and no objects are created while stepping.
+ * @author GOD
+ */
+public final class Simulation
+{
+    /**
+     * The dimensions of the game
+     */
+    public static final int WIDTH = 800, HEIGHT = 480;
+
+    /**
+     * The height of the ground
+     */
+    public static final int GROUND_HEIGHT = 58;
+
+    /**
+     * The number of pixels the pipes and ground scroll each step
+     */
+    public static final int SCROLL_X = 10;
+
+    /**
+     * The start coordinates for the bird
+     */
+    public static final int START_X = 100, START_Y = 100;
+
+    /**
+     * The number of pixels to climb when jumping
+     */
+    public static final int JUMP_HEIGHT_MAX = -10;
+
+    /**
+     * The number of pixels to fall when falling
+     */
+    public static final int DROP_HEIGHT_MAX = 22;
+
+    /**
+     * The maximum amount of fuel allowed
+     */
+    public static final int FUEL_MAX = 500;
+
+    /**
+     * The allowed amount of fuel to add
+     */
+    public static final int FUEL_ADD = 40;
+
+    /**
+     * The number of different birds
+     */
+    public static final int VARIANTS = 4;
+
+    /**
+     * The dimensions of each bird
+     */
+    private static final int[] BIRD_WIDTH = {75, 75, 75, 75}, BIRD_HEIGHT = {52, 52, 54, 54};
+
+    /**
+     * The dimensions of the pipe(s)
+     */
+    public static final int PIPE_WIDTH = 89, PIPE_HEIGHT = 480;
+
+    /**
+     * The dimensions of the fuel
+     */
+    public static final int FUEL_WIDTH = 39, FUEL_HEIGHT = 38;
+
+    /**
+     * The y-pixel difference between pipes for each difficulty
+     */
+    public static final int PIPE_GAP_NORMAL = 120, PIPE_GAP_HARD = 100, PIPE_GAP_EASY = 150;
+
+    /**
+     * The minimum pixels that need to show for the pipe
+     */
+    public static final int PIPE_DISPLAY_MIN = 50;
+
+    /**
+     * The number of pixels required to spawn another pipe
+     */
+    public static final int PIPE_PIXEL_SPAWN = 375;
+
+    /**
+     * The max number of pipes before we reuse a paused pipe
+     */
+    private static final int MAX = (WIDTH / PIPE_WIDTH);
+
+    /**
+     * Arrays of coordinates that make up the bird, used for collision detection
+     */
+    private static final int[] BIRD_X_POINTS = {-24, -13, 6, 17, 24, 24, 37, 27, 18, -1, -23, -25};
+    private static final int[] BIRD_Y_POINTS = {-4, -15, -17, -12, -5, 3, 10, 10, 14, 19, 10, 5};
+
+    /**
+     * Arrays of coordinates that make up the top pipe, used for collision detection
+     */
+    private static final int[] PIPE_TOP_X_POINTS = {-33, 31, 31, 42, 42, 35, -37, -45, -45, -33};
+    private static final int[] PIPE_TOP_Y_POINTS = {-240, -240, 205, 211, 230, 240, 240, 231, 211, 204};
+
+    /**
+     * Arrays of coordinates that make up the bottom pipe, used for collision detection
+     */
+    private static final int[] PIPE_BOTTOM_X_POINTS = {-37, 35, 42, 42, 31, 31, -33, -33, -45, -45};
+    private static final int[] PIPE_BOTTOM_Y_POINTS = {-240, -240, -232, -215, -206, 240, 240, -206, -215, -232};
+
+    /**
+     * Arrays of coordinates that make up the fuel, used for collision detection
+     */
+    private static final int[] FUEL_X_POINTS = {-19, 20, 20, -19};
+    private static final int[] FUEL_Y_POINTS = {-19, -19, 19, 19};
+
+    /**
+     * Event flags returned from each step
+     */
+    public static final int EVENT_FLAP = 1, EVENT_SCORE = 2, EVENT_FUEL = 4, EVENT_DEAD = 8;
+
+    //the state of our run
+    private final SimulationState state = new SimulationState();
+
+    //the rules we are playing
+    private final Rules rules;
+
+    //the outlines used for collision detection
+    private final Outline bird = new Outline(BIRD_X_POINTS.length), pipeTop = new Outline(PIPE_TOP_X_POINTS.length);
+    private final Outline pipeBottom = new Outline(PIPE_BOTTOM_X_POINTS.length), fuel = new Outline(FUEL_X_POINTS.length);
+
+    //the events of the current step
+    private int events;
+
+    /**
+     * Create a new simulation
+     * @param seed The seed of the first run
+     * @param pipeGap The y-pixel difference between the top and bottom pipes
+     * @param survival Does the bird use fuel
+     */
+    public Simulation(final long seed, final int pipeGap, final boolean survival)
+    {
+        this(seed, pipeGap, survival, Rules.DEFAULT);
+    }
+
+    /**
+     * Create a new simulation with different rules
+     * @param seed The seed of the first run
+     * @param pipeGap The y-pixel difference between the top and bottom pipes
+     * @param survival Does the bird use fuel
+     * @param rules The rules we are playing
+     */
+    public Simulation(final long seed, final int pipeGap, final boolean survival, final Rules rules)
+    {
+        this.rules = rules;
+        this.bird.setPoints(BIRD_X_POINTS, BIRD_Y_POINTS);
+        this.pipeTop.setPoints(PIPE_TOP_X_POINTS, PIPE_TOP_Y_POINTS);
+        this.pipeBottom.setPoints(PIPE_BOTTOM_X_POINTS, PIPE_BOTTOM_Y_POINTS);
+        this.fuel.setPoints(FUEL_X_POINTS, FUEL_Y_POINTS);
+
+        reset(seed, pipeGap, survival);
+    }
+
+    /**
+     * Get the state
+     * @return The state of the current run
+     */
+    public SimulationState getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * Get the rules
+     * @return The rules we are playing
+     */
+    public Rules getRules()
+    {
+        return this.rules;
+    }
+
+    /**
+     * Start a new run
+     * @param seed The seed used for every random decision, the same seed and input will always play the same
+     * @param pipeGap The y-pixel difference between the top and bottom pipes
+     * @param survival Does the bird use fuel
+     */
+    public void reset(final long seed, final int pipeGap, final boolean survival)
+    {
+        state.pipeGap = pipeGap;
+        state.survival = survival;
+        state.random = (seed ^ 0x5DEECE66DL) & ((1L << 48) - 1);
+        state.step = 0;
+        state.ticks = 0;
+        state.started = false;
+        state.dead = false;
+        state.death = SimulationState.DEATH_NONE;
+
+        //pick a random bird
+        state.variant = nextInt(VARIANTS);
+
+        //reset the bird
+        state.birdX = START_X;
+        state.birdY = START_Y;
+        state.birdWidth = BIRD_WIDTH[state.variant];
+        state.birdHeight = BIRD_HEIGHT[state.variant];
+        state.birdDY = 0;
+        state.rotation = 0;
+        state.fuel = rules.fuelMax;
+        state.score = 0;
+        state.flaps = 0;
+        state.fuelPickups = 0;
+
+        //remove all pipes and fuel
+        state.pipeCount = 0;
+        state.fuelCount = 0;
+        state.pipePixelProgress = 0;
+    }
+
+    /**
+     * Restore a previous state
+     * @param state The state we want to continue from
+     */
+    public void restore(final SimulationState state)
+    {
+        this.state.copy(state);
+    }
+
+    /**
+     * Advance the run by a single update
+     * @param flap Did the player jump since the previous step
+     * @return The events that happened during this step, see EVENT_FLAP, EVENT_SCORE, EVENT_FUEL and EVENT_DEAD
+     */
+    public int step(final boolean flap)
+    {
+        events = 0;
+        state.step++;
+
+        //if the bird is dead we can't jump
+        if (flap && !state.dead)
+        {
+            state.started = true;
+            state.flaps++;
+            state.birdDY = rules.jumpHeightMax;
+            events |= EVENT_FLAP;
+        }
+
+        //track how long the bird has been alive
+        if (state.started && !state.dead)
+            state.ticks++;
+
+        updateBird();
+        updatePipes();
+
+        return events;
+    }
+
+    /**
+     * Flag the bird dead
+     * @param death How the bird died
+     */
+    private void kill(final int death)
+    {
+        //only the first cause of death counts
+        if (state.dead)
+            return;
+
+        state.dead = true;
+        state.death = death;
+        events |= EVENT_DEAD;
+    }
+
+    /**
+     * Update the bird, the bird will continue to fall after it dies
+     */
+    void updateBird()
+    {
+        //if we did not start
+        if (!state.started)
+            return;
+
+        //update the y-coordinate
+        state.birdY += state.birdDY;
+
+        //keep the bird on the screen
+        if (state.birdY < 0)
+            state.birdY = 0;
+
+        //increase the y-velocity
+        state.birdDY++;
+
+        //limit how fast we can jump and fall
+        if (state.birdDY < rules.jumpHeightMax)
+            state.birdDY = rules.jumpHeightMax;
+        if (state.birdDY > rules.dropHeightMax)
+            state.birdDY = rules.dropHeightMax;
+
+        //rotate the bird depending on the y-velocity
+        final float progress = (state.dead) ? 0 :
+            ((float)rules.dropHeightMax - (float)state.birdDY) / ((float)rules.dropHeightMax - (float)rules.jumpHeightMax);
+        state.rotation = 45 - (90 * progress);
+
+        //make sure the bird didn't hit the ground
+        if (state.birdY + state.birdHeight > HEIGHT - GROUND_HEIGHT)
+        {
+            //position bird right above the ground
+            state.birdY = HEIGHT - GROUND_HEIGHT - state.birdHeight;
+
+            kill(SimulationState.DEATH_GROUND);
+        }
+        else if (state.survival)
+        {
+            //if no more fuel, game over
+            if (state.fuel <= 0)
+                kill(SimulationState.DEATH_FUEL);
+
+            //decrease the fuel
+            if (state.fuel > 0)
+                state.fuel--;
+        }
+    }
+
+    /**
+     * Scroll the pipes and fuel, spawn new pipes, then check for collision
+     */
+    void updatePipes()
+    {
+        //don't continue if the bird is dead or if the bird has not started
+        if (state.dead || !state.started)
+            return;
+
+        for (int index = 0; index < state.pipeCount; index++)
+        {
+            //if the pipe is no longer on the screen, we will pause it
+            if (state.pipeX[index] + PIPE_WIDTH < 0)
+            {
+                state.pipePause[index] = true;
+            }
+            else if (!state.pipePause[index])
+            {
+                state.pipeX[index] -= SCROLL_X;
+
+                //if the pipe was previously ahead, but am not any longer we add a point
+                if (!state.pipeCleared[index] && state.pipeX[index] < state.birdX)
+                {
+                    state.pipeCleared[index] = true;
+                    state.score++;
+                    events |= EVENT_SCORE;
+                }
+            }
+        }
+
+        for (int index = 0; index < state.fuelCount; index++)
+        {
+            //if the fuel is no longer on the screen, we will pause it
+            if (state.fuelX[index] + FUEL_WIDTH < 0)
+            {
+                state.fuelPause[index] = true;
+            }
+            else if (!state.fuelPause[index])
+            {
+                state.fuelX[index] -= SCROLL_X;
+            }
+        }
+
+        //if we met the requirement for spawning
+        state.pipePixelProgress += SCROLL_X;
+
+        if (state.pipePixelProgress >= rules.pipePixelSpawn)
+        {
+            state.pipePixelProgress = 0;
+            spawn();
+        }
+
+        //the bird's outline is the same for both checks
+        bird.update(state.birdX, state.birdY, state.birdWidth, state.birdHeight, state.rotation);
+
+        //check for fuel collision first
+        if (hasFuelCollision())
+        {
+            //add fuel to the bird
+            state.fuel = Math.min(rules.fuelMax, state.fuel + rules.fuelAdd);
+            state.fuelPickups++;
+            events |= EVENT_FUEL;
+        }
+        else if (hasPipeCollision())
+        {
+            kill(SimulationState.DEATH_PIPE);
+        }
+    }
+
+    /**
+     * Do we have collision with any pipe?
+     * @return true if the bird has collision with any pipe, false otherwise
+     */
+    boolean hasPipeCollision()
+    {
+        for (int index = 0; index < state.pipeCount; index++)
+        {
+            //if the pipe is paused, we don't need to check
+            if (state.pipePause[index])
+                continue;
+
+            //if the pipe is not close enough to the bird, we will skip it
+            if (state.pipeX[index] > state.birdX + state.birdWidth)
+                continue;
+            if (state.pipeX[index] + PIPE_WIDTH < state.birdX)
+                continue;
+
+            //only check collision with the top pipe if in range
+            if (state.birdY <= state.pipeTop[index] + PIPE_HEIGHT)
+            {
+                pipeTop.update(state.pipeX[index], state.pipeTop[index], PIPE_WIDTH, PIPE_HEIGHT, 0);
+
+                if (pipeTop.intersects(bird))
+                    return true;
+            }
+
+            //only check collision with the bottom pipe if in range
+            if (state.birdY + state.birdHeight >= state.pipeBottom[index])
+            {
+                pipeBottom.update(state.pipeX[index], state.pipeBottom[index], PIPE_WIDTH, PIPE_HEIGHT, 0);
+
+                if (pipeBottom.intersects(bird))
+                    return true;
+            }
+        }
+
+        //no collision was found
+        return false;
+    }
+
+    /**
+     * Do we have collision with any fuel? If so the fuel is paused
+     * @return true if the bird has collision with any fuel, false otherwise
+     */
+    boolean hasFuelCollision()
+    {
+        for (int index = 0; index < state.fuelCount; index++)
+        {
+            //if the fuel is paused, we don't need to check
+            if (state.fuelPause[index])
+                continue;
+
+            final int x = state.fuelX[index];
+            final int y = state.fuelY[index];
+
+            //if the fuel is not close enough to the bird, we will skip it
+            if (x > state.birdX + state.birdWidth || x + FUEL_WIDTH < state.birdX)
+                continue;
+            if (y + FUEL_HEIGHT < state.birdY || y > state.birdY + state.birdHeight)
+                continue;
+
+            //don't check for collision if the centers are not close enough
+            final double distanceX = (x + (FUEL_WIDTH / 2.0)) - (state.birdX + (state.birdWidth / 2.0));
+            final double distanceY = (y + (FUEL_HEIGHT / 2.0)) - (state.birdY + (state.birdHeight / 2.0));
+
+            if ((distanceX * distanceX) + (distanceY * distanceY) > FUEL_WIDTH * FUEL_WIDTH)
+                continue;
+
+            fuel.update(x, y, FUEL_WIDTH, FUEL_HEIGHT, 0);
+
+            if (fuel.intersects(bird))
+            {
+                //flag it paused
+                state.fuelPause[index] = true;
+                return true;
+            }
+        }
+
+        //no collision was found
+        return false;
+    }
+
+    /**
+     * Spawn a pipe (top & bottom)<br>
+     * We will also spawn the fuel here if the bird is using fuel
+     */
+    void spawn()
+    {
+        //start at the far east
+        int x = WIDTH;
+
+        //calculate the minimum y-coordinate and the range
+        final int minimumY = rules.pipeDisplayMin - PIPE_HEIGHT;
+        final int range = (HEIGHT - rules.pipeDisplayMin - state.pipeGap - GROUND_HEIGHT - PIPE_HEIGHT) - minimumY;
+
+        //pick the random location of the top pipe, the bottom pipe is below the gap
+        final int yTop = minimumY + nextInt(range);
+        final int yBottom = yTop + PIPE_HEIGHT + state.pipeGap;
+
+        //pick the pipe to use, if the max is exceeded reuse a paused pipe
+        final int index = (state.pipeCount > MAX) ? find(state.pipePause, state.pipeCount) : state.pipeCount++;
+
+        if (index >= 0)
+        {
+            state.pipePause[index] = false;
+            state.pipeCleared[index] = false;
+            state.pipeX[index] = x;
+            state.pipeTop[index] = yTop;
+            state.pipeBottom[index] = yBottom;
+        }
+
+        //only spawn fuel if the bird is using fuel
+        if (!state.survival)
+            return;
+
+        //pick random coordinate
+        x += (PIPE_WIDTH + nextInt(rules.pipePixelSpawn - PIPE_WIDTH - FUEL_WIDTH));
+
+        //make the y-coordinate close enough to the gap
+        int y = yBottom - (state.pipeGap / 2);
+
+        if (nextBoolean())
+        {
+            y -= nextInt(rules.pipeDisplayMin);
+        }
+        else
+        {
+            y += nextInt(rules.pipeDisplayMin);
+        }
+
+        //make sure the fuel stays on screen
+        if (y < 0)
+            y = 0;
+        if (y > HEIGHT - GROUND_HEIGHT - FUEL_HEIGHT)
+            y = HEIGHT - GROUND_HEIGHT - FUEL_HEIGHT;
+
+        //pick the fuel to use, if the max is exceeded reuse a paused fuel
+        final int fuelIndex = (state.fuelCount > MAX) ? find(state.fuelPause, state.fuelCount) : state.fuelCount++;
+
+        if (fuelIndex >= 0)
+        {
+            state.fuelPause[fuelIndex] = false;
+            state.fuelX[fuelIndex] = x;
+            state.fuelY[fuelIndex] = y;
+        }
+    }
+
+    /**
+     * Find the first paused object
+     * @param pause The pause flag of each object
+     * @param count The number of objects
+     * @return The index of the first paused object, -1 if none are paused
+     */
+    private static int find(final boolean[] pause, final int count)
+    {
+        for (int index = 0; index < count; index++)
+        {
+            if (pause[index])
+                return index;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the next random bits, this is the same generator as java.util.Random but the seed is part of our state
+     * @param bits The number of bits
+     * @return The random bits
+     */
+    private int next(final int bits)
+    {
+        state.random = (state.random * 0x5DEECE66DL + 0xBL) & ((1L << 48) - 1);
+
+        return (int)(state.random >>> (48 - bits));
+    }
+
+    /**
+     * Get a random number
+     * @param bound The upper bound (exclusive), must be positive
+     * @return A random number between 0 and bound - 1
+     */
+    private int nextInt(final int bound)
+    {
+        //if the bound is a power of 2
+        if ((bound & -bound) == bound)
+            return (int)((bound * (long)next(31)) >> 31);
+
+        int bits, value;
+
+        do
+        {
+            bits = next(31);
+            value = bits % bound;
+        }
+        while (bits - value + (bound - 1) < 0);
+
+        return value;
+    }
+
+    /**
+     * Get a random boolean
+     * @return true or false
+     */
+    private boolean nextBoolean()
+    {
+        return next(1) != 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,273 @@
+package com.gamesbykevin.floppybird.simulation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The complete state of a single run.<br>
+ * This is plain data, the simulation updates it on each step and the game renders from it.
+ * @author GOD
+ */
+public final class SimulationState
+{
+    /**
+     * The bird is alive
+     */
+    public static final int DEATH_NONE = 0;
+
+    /**
+     * The bird hit the ground
+     */
+    public static final int DEATH_GROUND = 1;
+
+    /**
+     * The bird hit a pipe
+     */
+    public static final int DEATH_PIPE = 2;
+
+    /**
+     * The bird ran out of fuel
+     */
+    public static final int DEATH_FUEL = 3;
+
+    /**
+     * The number of different causes of death, including DEATH_NONE
+     */
+    public static final int DEATH_CAUSES = 4;
+
+    /**
+     * The maximum number of pipes (and fuel) in play at once
+     */
+    public static final int CAPACITY = (Simulation.WIDTH / Simulation.PIPE_WIDTH) + 1;
+
+    //the y-pixel difference between the top and bottom pipes
+    public int pipeGap;
+
+    //is the bird using fuel
+    public boolean survival;
+
+    //the seed of our random number generator, so the state is repeatable from any point
+    public long random;
+
+    //the number of steps since the run was reset
+    public int step;
+
+    //the number of steps the bird has been alive since the first jump
+    public int ticks;
+
+    //did the bird start, is the bird dead
+    public boolean started, dead;
+
+    //how the bird died
+    public int death;
+
+    //the bird animation chosen for this run
+    public int variant;
+
+    //the location, dimensions and y-velocity of the bird
+    public int birdX, birdY, birdWidth, birdHeight, birdDY;
+
+    //the rotation of the bird (degrees)
+    public float rotation;
+
+    //the amount of fuel the bird has
+    public int fuel;
+
+    //the score, number of jumps, and number of fuel tanks collected
+    public int score, flaps, fuelPickups;
+
+    //the number of pipes created
+    public int pipeCount;
+
+    //the location of each pipe
+    public final int[] pipeX = new int[CAPACITY], pipeTop = new int[CAPACITY], pipeBottom = new int[CAPACITY];
+
+    //is each pipe paused, has the bird cleared each pipe
+    public final boolean[] pipePause = new boolean[CAPACITY], pipeCleared = new boolean[CAPACITY];
+
+    //the number of fuel tanks created
+    public int fuelCount;
+
+    //the location of each fuel tank
+    public final int[] fuelX = new int[CAPACITY], fuelY = new int[CAPACITY];
+
+    //is each fuel tank paused
+    public final boolean[] fuelPause = new boolean[CAPACITY];
+
+    //current pixel progress that will determine if we spawn another pipe
+    public int pipePixelProgress;
+
+    /**
+     * Copy the state
+     * @param other The state we want to copy from
+     */
+    public void copy(final SimulationState other)
+    {
+        pipeGap = other.pipeGap;
+        survival = other.survival;
+        random = other.random;
+        step = other.step;
+        ticks = other.ticks;
+        started = other.started;
+        dead = other.dead;
+        death = other.death;
+        variant = other.variant;
+        birdX = other.birdX;
+        birdY = other.birdY;
+        birdWidth = other.birdWidth;
+        birdHeight = other.birdHeight;
+        birdDY = other.birdDY;
+        rotation = other.rotation;
+        fuel = other.fuel;
+        score = other.score;
+        flaps = other.flaps;
+        fuelPickups = other.fuelPickups;
+        pipeCount = other.pipeCount;
+        fuelCount = other.fuelCount;
+        pipePixelProgress = other.pipePixelProgress;
+
+        System.arraycopy(other.pipeX, 0, pipeX, 0, CAPACITY);
+        System.arraycopy(other.pipeTop, 0, pipeTop, 0, CAPACITY);
+        System.arraycopy(other.pipeBottom, 0, pipeBottom, 0, CAPACITY);
+        System.arraycopy(other.pipePause, 0, pipePause, 0, CAPACITY);
+        System.arraycopy(other.pipeCleared, 0, pipeCleared, 0, CAPACITY);
+        System.arraycopy(other.fuelX, 0, fuelX, 0, CAPACITY);
+        System.arraycopy(other.fuelY, 0, fuelY, 0, CAPACITY);
+        System.arraycopy(other.fuelPause, 0, fuelPause, 0, CAPACITY);
+    }
+
+    /**
+     * Write the state
+     * @param stream The stream we are writing to
+     * @throws IOException
+     */
+    public void write(final DataOutputStream stream) throws IOException
+    {
+        stream.writeShort(pipeGap);
+        stream.writeBoolean(survival);
+        stream.writeLong(random);
+        stream.writeInt(step);
+        stream.writeInt(ticks);
+        stream.writeBoolean(started);
+        stream.writeBoolean(dead);
+        stream.writeByte(death);
+        stream.writeByte(variant);
+        stream.writeShort(birdX);
+        stream.writeShort(birdY);
+        stream.writeShort(birdWidth);
+        stream.writeShort(birdHeight);
+        stream.writeShort(birdDY);
+        stream.writeFloat(rotation);
+        stream.writeInt(fuel);
+        stream.writeInt(score);
+        stream.writeInt(flaps);
+        stream.writeInt(fuelPickups);
+        stream.writeByte(pipeCount);
+        stream.writeByte(fuelCount);
+        stream.writeInt(pipePixelProgress);
+
+        //only the pipes and fuel created are written
+        for (int index = 0; index < pipeCount; index++)
+        {
+            stream.writeShort(pipeX[index]);
+            stream.writeShort(pipeTop[index]);
+            stream.writeShort(pipeBottom[index]);
+            stream.writeBoolean(pipePause[index]);
+            stream.writeBoolean(pipeCleared[index]);
+        }
+
+        for (int index = 0; index < fuelCount; index++)
+        {
+            stream.writeShort(fuelX[index]);
+            stream.writeShort(fuelY[index]);
+            stream.writeBoolean(fuelPause[index]);
+        }
+    }
+
+    /**
+     * Read the state
+     * @param stream The stream we are reading from
+     * @throws IOException If the content is not a state we can play
+     */
+    public void read(final DataInputStream stream) throws IOException
+    {
+        pipeGap = stream.readShort();
+        survival = stream.readBoolean();
+        random = stream.readLong();
+        step = stream.readInt();
+        ticks = stream.readInt();
+        started = stream.readBoolean();
+        dead = stream.readBoolean();
+        death = stream.readUnsignedByte();
+        variant = stream.readUnsignedByte();
+        birdX = stream.readShort();
+        birdY = stream.readShort();
+        birdWidth = stream.readShort();
+        birdHeight = stream.readShort();
+        birdDY = stream.readShort();
+        rotation = stream.readFloat();
+        fuel = stream.readInt();
+        score = stream.readInt();
+        flaps = stream.readInt();
+        fuelPickups = stream.readInt();
+        pipeCount = stream.readUnsignedByte();
+        fuelCount = stream.readUnsignedByte();
+        pipePixelProgress = stream.readInt();
+
+        if (pipeCount > CAPACITY || fuelCount > CAPACITY)
+            throw new IOException("Too many pipes " + pipeCount + " or fuel " + fuelCount);
+        if (death >= DEATH_CAUSES || variant >= Simulation.VARIANTS)
+            throw new IOException("Unknown cause of death " + death + " or bird " + variant);
+
+        for (int index = 0; index < pipeCount; index++)
+        {
+            pipeX[index] = stream.readShort();
+            pipeTop[index] = stream.readShort();
+            pipeBottom[index] = stream.readShort();
+            pipePause[index] = stream.readBoolean();
+            pipeCleared[index] = stream.readBoolean();
+        }
+
+        for (int index = 0; index < fuelCount; index++)
+        {
+            fuelX[index] = stream.readShort();
+            fuelY[index] = stream.readShort();
+            fuelPause[index] = stream.readBoolean();
+        }
+    }
+
+    /**
+     * Count the pipes in play
+     * @return The number of pipes that are not paused
+     */
+    public int countPipes()
+    {
+        int count = 0;
+
+        for (int index = 0; index < pipeCount; index++)
+        {
+            if (!pipePause[index])
+                count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Count the fuel tanks in play
+     * @return The number of fuel tanks that are not paused
+     */
+    public int countFuel()
+    {
+        int count = 0;
+
+        for (int index = 0; index < fuelCount; index++)
+        {
+            if (!fuelPause[index])
+                count++;
+        }
+
+        return count;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,411 @@
+package com.gamesbykevin.floppybird.storage;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.content.Context;
+
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.metrics.JankDetector;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+/**
+ * Write files to the internal storage on a background thread.<br>
+ * Multiple writes to the same file before it is written are combined so only the latest content is written.<br>
+ * Each file is written to a temporary file then renamed, so a crash in the middle of a write
+ * will never leave a partially written file behind.<br>
+ * Files can also be appended to, once an appended file reaches its limit it is rolled over to a backup file.
+ * Appended files hold fixed size records, a partial record left at the end by an interrupted append is cut off
+ * before the next append, so the records after it stay aligned.
+ * @author GOD
+ */
+public final class WriteBehind
+{
+    /**
+     * The extension of the temporary file we write to before renaming
+     */
+    private static final String EXTENSION_TEMP = ".tmp";
+
+    /**
+     * The extension of the backup file, when an appended file is rolled over
+     */
+    public static final String EXTENSION_BACKUP = ".1";
+
+    //the content waiting to be written for each file
+    private static final LinkedHashMap<File, Pending> PENDING = new LinkedHashMap<File, Pending>();
+
+    //the thread that writes our files
+    private static Thread WORKER;
+
+    //is the worker currently writing a file
+    private static boolean WRITING = false;
+
+    //the number of files written
+    private static int WRITES = 0;
+
+    //the number of writes that were replaced by a newer write before they were written
+    private static int COALESCED = 0;
+
+    //the number of writes that failed
+    private static int FAILURES = 0;
+
+    /**
+     * This class only has static methods
+     */
+    private WriteBehind()
+    {
+        //do nothing
+    }
+
+    /**
+     * Queue the content to be written to the file.<br>
+     * This will not block, the file is written on our background thread
+     * @param context Object used to locate the internal storage
+     * @param filename The name of the file in the internal storage
+     * @param content The content of the file
+     */
+    public static void write(final Context context, final String filename, final byte[] content)
+    {
+        //locate the file
+        final File file = context.getFileStreamPath(filename);
+
+        //let the jank detector know a file was saved this frame
+        JankDetector.mark(JankDetector.FLAG_SAVE);
+
+        //the worker only holds the lock briefly, the guard reports it if we wait longer
+        final long start = HotThread.waitStart();
+
+        synchronized (PENDING)
+        {
+            HotThread.waitEnd("WriteBehind.write", start);
+
+            //if the file was already waiting, the new content will replace it
+            if (PENDING.put(file, new Pending(content, false, 0, 1)) != null)
+                COALESCED++;
+
+            //start our thread
+            start();
+        }
+    }
+
+    /**
+     * Queue the content to be added to the end of the file.<br>
+     * This will not block, the file is written on our background thread
+     * @param context Object used to locate the internal storage
+     * @param filename The name of the file in the internal storage
+     * @param content The content to add to the file
+     * @param limit The maximum size (bytes) of the file, once reached the file is renamed with EXTENSION_BACKUP and a new file is started
+     * @param record The size (bytes) of each record in the file
+     */
+    public static void append(final Context context, final String filename, final byte[] content, final int limit, final int record)
+    {
+        //locate the file
+        final File file = context.getFileStreamPath(filename);
+
+        //let the jank detector know a file was saved this frame
+        JankDetector.mark(JankDetector.FLAG_SAVE);
+
+        final long start = HotThread.waitStart();
+
+        synchronized (PENDING)
+        {
+            HotThread.waitEnd("WriteBehind.append", start);
+
+            //the content already waiting for this file
+            final Pending pending = PENDING.get(file);
+
+            if (pending == null)
+            {
+                PENDING.put(file, new Pending(content, true, limit, record));
+            }
+            else
+            {
+                //add our content after the content already waiting
+                final byte[] combined = new byte[pending.content.length + content.length];
+                System.arraycopy(pending.content, 0, combined, 0, pending.content.length);
+                System.arraycopy(content, 0, combined, pending.content.length, content.length);
+                pending.content = combined;
+                pending.limit = limit;
+                pending.record = record;
+                COALESCED++;
+            }
+
+            //start our thread
+            start();
+        }
+    }
+
+    /**
+     * Create our thread if it does not exist and wake it.<br>
+     * The caller must hold the lock on PENDING
+     */
+    private static void start()
+    {
+        //create our thread if it does not exist
+        if (WORKER == null)
+        {
+            WORKER = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    process();
+                }
+            }, "WriteBehind");
+
+            //this thread is not urgent
+            WORKER.setPriority(Thread.MIN_PRIORITY);
+            WORKER.setDaemon(true);
+            WORKER.start();
+        }
+
+        //wake our thread
+        PENDING.notifyAll();
+    }
+
+    /**
+     * Wait until every pending file has been written.<br>
+     * This should be called when the app is stopped, so nothing is lost if the process is killed
+     */
+    public static void flush()
+    {
+        synchronized (PENDING)
+        {
+            while (!PENDING.isEmpty() || WRITING)
+            {
+                try
+                {
+                    PENDING.wait();
+                }
+                catch (InterruptedException e)
+                {
+                    GameLog.error("WriteBehind.flush", e);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write each pending file, this runs on our background thread
+     */
+    private static void process()
+    {
+        while (true)
+        {
+            final File file;
+            final Pending pending;
+
+            synchronized (PENDING)
+            {
+                //wait until we have a file to write
+                while (PENDING.isEmpty())
+                {
+                    //we are no longer writing
+                    WRITING = false;
+
+                    //let anyone waiting on flush know we are done
+                    PENDING.notifyAll();
+
+                    try
+                    {
+                        PENDING.wait();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        GameLog.error("WriteBehind.process", e);
+                    }
+                }
+
+                //take the oldest file
+                final Iterator<Map.Entry<File, Pending>> iterator = PENDING.entrySet().iterator();
+                final Map.Entry<File, Pending> entry = iterator.next();
+                file = entry.getKey();
+                pending = entry.getValue();
+                iterator.remove();
+
+                //flag that we are writing
+                WRITING = true;
+            }
+
+            try
+            {
+                //write the file outside of the lock
+                if (pending.append)
+                {
+                    append(file, pending.content, pending.limit, pending.record);
+                }
+                else
+                {
+                    write(file, pending.content);
+                }
+
+                synchronized (PENDING)
+                {
+                    WRITES++;
+                }
+            }
+            catch (Exception e)
+            {
+                GameLog.error("WriteBehind.process", e);
+
+                synchronized (PENDING)
+                {
+                    FAILURES++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the content to a temporary file, then replace the file
+     * @param file The file we want to write
+     * @param content The content of the file
+     * @throws IOException
+     */
+    private static void write(final File file, final byte[] content) throws IOException
+    {
+        //the temporary file is in the same directory, so the rename is atomic
+        final File temp = new File(file.getPath() + EXTENSION_TEMP);
+
+        final FileOutputStream stream = new FileOutputStream(temp);
+
+        try
+        {
+            //write our content
+            stream.write(content);
+            stream.flush();
+
+            //make sure the content is on the disk before we rename
+            stream.getFD().sync();
+        }
+        finally
+        {
+            stream.close();
+        }
+
+        //replace the previous file
+        if (!temp.renameTo(file))
+            throw new IOException("Unable to rename " + temp + " to " + file);
+    }
+
+    /**
+     * Add the content to the end of the file, rolling the file over first if it would exceed the limit
+     * @param file The file we want to add to
+     * @param content The content to add
+     * @param limit The maximum size (bytes) of the file
+     * @param record The size (bytes) of each record in the file
+     * @throws IOException
+     */
+    private static void append(final File file, final byte[] content, final int limit, final int record) throws IOException
+    {
+        //an interrupted append leaves a partial record at the end, cut it off so our content starts on a record
+        final long length = file.length();
+
+        if (length % record != 0)
+        {
+            final RandomAccessFile truncate = new RandomAccessFile(file, "rw");
+
+            try
+            {
+                truncate.setLength(length - (length % record));
+            }
+            finally
+            {
+                truncate.close();
+            }
+        }
+
+        //if the file is full, replace the backup with it so we start a new file
+        if (file.exists() && file.length() + content.length > limit)
+        {
+            final File backup = new File(file.getPath() + EXTENSION_BACKUP);
+
+            if (!file.renameTo(backup))
+                throw new IOException("Unable to rename " + file + " to " + backup);
+        }
+
+        final FileOutputStream stream = new FileOutputStream(file, true);
+
+        try
+        {
+            //add our content
+            stream.write(content);
+            stream.flush();
+
+            //make sure the content is on the disk
+            stream.getFD().sync();
+        }
+        finally
+        {
+            stream.close();
+        }
+    }
+
+    /**
+     * Get the number of files written
+     * @return The number of successful writes
+     */
+    public static int getWrites()
+    {
+        synchronized (PENDING)
+        {
+            return WRITES;
+        }
+    }
+
+    /**
+     * Get the number of combined writes
+     * @return The number of writes that were replaced by newer content before being written
+     */
+    public static int getCoalesced()
+    {
+        synchronized (PENDING)
+        {
+            return COALESCED;
+        }
+    }
+
+    /**
+     * Get the number of failed writes
+     * @return The number of writes that failed
+     */
+    public static int getFailures()
+    {
+        synchronized (PENDING)
+        {
+            return FAILURES;
+        }
+    }
+
+    /**
+     * Content waiting to be written
+     */
+    private static final class Pending
+    {
+        //the content to write
+        private byte[] content;
+
+        //do we add to the end of the file instead of replacing it
+        private final boolean append;
+
+        //the maximum size of an appended file
+        private int limit;
+
+        //the size of each record of an appended file
+        private int record;
+
+        private Pending(final byte[] content, final boolean append, final int limit, final int record)
+        {
+            this.content = content;
+            this.append = append;
+            this.limit = limit;
+            this.record = record;
+        }
+    }
+}
\ No newline at end of file
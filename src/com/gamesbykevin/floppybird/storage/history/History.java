@@ -0,0 +1,302 @@
+package com.gamesbykevin.floppybird.storage.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.storage.WriteBehind;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+import android.app.Activity;
+
+/**
+ * The history of every run played.<br>
+ * Each run is added to the end of a binary log, once the log is full it is rolled over so we only keep the most recent runs.<br>
+ * The aggregates for each mode and difficulty are updated with each run and saved separately,
+ * so they are available immediately without reading the log.
+ * @author GOD
+ */
+public class History implements Disposable
+{
+    /**
+     * The file name of our run log
+     */
+    private static final String FILE_NAME_LOG = "History";
+
+    /**
+     * The file name of our aggregates
+     */
+    private static final String FILE_NAME_STATS = "HistoryStats";
+
+    /**
+     * The maximum size of the log before it is rolled over
+     */
+    private static final int LOG_LIMIT = Run.SIZE * 1024;
+
+    /**
+     * Used to identify our aggregates file
+     */
+    private static final int MAGIC = 0x46424853;
+
+    /**
+     * The current version of our aggregates file format
+     */
+    private static final int VERSION = 2;
+
+    //the number of modes and difficulties
+    private final int modes, difficulties;
+
+    //the aggregates for each mode and difficulty, accessed by (mode * difficulties) + difficulty
+    private RunStats[] stats;
+
+    //object needed to locate the internal storage
+    private final Activity activity;
+
+    //the run we are adding, reused for each run
+    private final Run run = new Run();
+
+    //the buffers we write a run and our aggregates to, reused so nothing grows at game over
+    private final ByteArrayOutputStream runBytes = new ByteArrayOutputStream(Run.SIZE);
+    private final DataOutputStream runStream = new DataOutputStream(runBytes);
+    private final ByteArrayOutputStream statsBytes = new ByteArrayOutputStream();
+    private final DataOutputStream statsStream = new DataOutputStream(statsBytes);
+
+    /**
+     * Create our history
+     * @param screen Object to reference that has the modes we are tracking
+     * @param activity Object needed to write data to internal storage
+     */
+    public History(final OptionsScreen screen, final Activity activity)
+    {
+        //store our activity reference
+        this.activity = activity;
+
+        //get the # of difficulties and game modes in the settings
+        this.difficulties = screen.getButtons().get(OptionsScreen.Key.Difficulty).getDescriptions().size();
+        this.modes = screen.getButtons().get(OptionsScreen.Key.Mode).getDescriptions().size();
+
+        //create our aggregates
+        this.stats = create();
+
+        try
+        {
+            //read our aggregates, if they don't exist rebuild them from the log
+            if (!readStats())
+            {
+                rebuild();
+            }
+        }
+        catch (Exception e)
+        {
+            GameLog.error("History", e);
+        }
+    }
+
+    /**
+     * Create empty aggregates for each mode and difficulty
+     * @return The new aggregates
+     */
+    private RunStats[] create()
+    {
+        final RunStats[] stats = new RunStats[modes * difficulties];
+
+        for (int index = 0; index < stats.length; index++)
+        {
+            stats[index] = new RunStats();
+        }
+
+        return stats;
+    }
+
+    /**
+     * Get the aggregates
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @return The aggregates of every run played for the mode and difficulty
+     */
+    public RunStats getStats(final int mode, final int difficulty)
+    {
+        return this.stats[(mode * difficulties) + difficulty];
+    }
+
+    /**
+     * Add a run to our history
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @param state The state of the finished run
+     * @param duration How long the bird survived (milliseconds)
+     */
+    public void add(final int mode, final int difficulty, final SimulationState state, final long duration)
+    {
+        run.date = System.currentTimeMillis();
+        run.mode = mode;
+        run.difficulty = difficulty;
+        run.score = state.score;
+        run.flaps = state.flaps;
+        run.fuelPickups = state.fuelPickups;
+        run.duration = (int)Math.min(duration, Integer.MAX_VALUE);
+        run.cause = state.death;
+
+        //update our aggregates
+        getStats(mode, difficulty).add(run);
+
+        try
+        {
+            //add the run to the end of the log, the content is copied since it waits to be written
+            runBytes.reset();
+            run.write(runStream);
+            runStream.flush();
+            WriteBehind.append(activity, FILE_NAME_LOG, runBytes.toByteArray(), LOG_LIMIT, Run.SIZE);
+
+            //save our aggregates
+            saveStats();
+        }
+        catch (Exception e)
+        {
+            GameLog.error("History.add", e);
+        }
+    }
+
+    /**
+     * Save our aggregates to the internal storage, the file is written on a background thread
+     * @throws IOException
+     */
+    private void saveStats() throws IOException
+    {
+        final DataOutputStream stream = statsStream;
+        statsBytes.reset();
+
+        //our header
+        stream.writeInt(MAGIC);
+        stream.writeInt(VERSION);
+        stream.writeInt(modes);
+        stream.writeInt(difficulties);
+
+        for (RunStats current : stats)
+        {
+            current.write(stream);
+        }
+
+        stream.flush();
+
+        //write the data in the background
+        WriteBehind.write(activity, FILE_NAME_STATS, statsBytes.toByteArray());
+    }
+
+    /**
+     * Read our aggregates from the internal storage
+     * @return true if the aggregates were read, false if they don't exist or no longer match our modes and difficulties
+     * @throws Exception
+     */
+    private boolean readStats() throws Exception
+    {
+        final byte[] content = read(activity.getFileStreamPath(FILE_NAME_STATS));
+
+        if (content == null)
+            return false;
+
+        final DataInputStream stream = new DataInputStream(new ByteArrayInputStream(content));
+
+        //check our header
+        if (stream.readInt() != MAGIC || stream.readInt() != VERSION)
+            return false;
+        if (stream.readInt() != modes || stream.readInt() != difficulties)
+            return false;
+
+        for (RunStats current : stats)
+        {
+            current.read(stream);
+        }
+
+        return true;
+    }
+
+    /**
+     * Rebuild our aggregates by reading every run in the log, oldest first
+     * @throws Exception
+     */
+    private void rebuild() throws Exception
+    {
+        //start over
+        this.stats = create();
+
+        //was any run found
+        boolean found = false;
+
+        //the rolled over log is older than the current log
+        final File file = activity.getFileStreamPath(FILE_NAME_LOG);
+        final File[] files = new File[] {new File(file.getPath() + WriteBehind.EXTENSION_BACKUP), file};
+
+        for (File current : files)
+        {
+            final byte[] content = read(current);
+
+            if (content == null)
+                continue;
+
+            final DataInputStream stream = new DataInputStream(new ByteArrayInputStream(content));
+
+            //any partial run at the end of the log is ignored
+            for (int index = 0; index < content.length / Run.SIZE; index++)
+            {
+                //skip runs we don't recognize or that no longer exist
+                if (!run.read(stream))
+                    continue;
+                if (run.mode >= modes || run.difficulty >= difficulties)
+                    continue;
+
+                getStats(run.mode, run.difficulty).add(run);
+                found = true;
+            }
+        }
+
+        //save the aggregates so we don't rebuild again
+        if (found)
+            saveStats();
+    }
+
+    /**
+     * Read the entire file in a single read
+     * @param file The file we want to read
+     * @return The content of the file, null if the file does not exist
+     * @throws IOException
+     */
+    private static byte[] read(final File file) throws IOException
+    {
+        //the guard reports this if we read on the main thread
+        HotThread.check(HotThread.BLOCK_DISK, "History.read");
+
+        //if the file does not exist there is nothing to read
+        if (!file.exists())
+            return null;
+
+        final byte[] content = new byte[(int)file.length()];
+
+        final DataInputStream stream = new DataInputStream(new FileInputStream(file));
+
+        try
+        {
+            stream.readFully(content);
+        }
+        finally
+        {
+            stream.close();
+        }
+
+        return content;
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.stats = null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.gamesbykevin.floppybird.storage.history;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A single run in our history log.<br>
+ * Every run is written with the same number of bytes, so the log can be read without any separators.<br>
+ * The 4 bytes after the score are unused, they held the pipes cleared which is always the same as the score.
+ * @author GOD
+ */
+public final class Run
+{
+    /**
+     * The current version of our record format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of bytes of each run in the log
+     */
+    public static final int SIZE = 32;
+
+    //when the run was played (milliseconds since epoch)
+    public long date;
+
+    //the score of the run
+    public int score;
+
+    //the number of times the bird jumped
+    public int flaps;
+
+    //the number of fuel tanks collected
+    public int fuelPickups;
+
+    //how long the bird survived (milliseconds)
+    public int duration;
+
+    //the mode and difficulty index
+    public int mode, difficulty;
+
+    //how the bird died, see SimulationState.DEATH_*
+    public int cause;
+
+    /**
+     * Write the run
+     * @param stream The stream we are writing to
+     * @throws IOException
+     */
+    public void write(final DataOutputStream stream) throws IOException
+    {
+        stream.writeLong(date);
+        stream.writeInt(score);
+        stream.writeInt(0);
+        stream.writeInt(flaps);
+        stream.writeInt(fuelPickups);
+        stream.writeInt(duration);
+        stream.writeByte(mode);
+        stream.writeByte(difficulty);
+        stream.writeByte(cause);
+        stream.writeByte(VERSION);
+    }
+
+    /**
+     * Read the run
+     * @param stream The stream we are reading from
+     * @return true if the run was read, false if the record is a version we don't recognize
+     * @throws IOException
+     */
+    public boolean read(final DataInputStream stream) throws IOException
+    {
+        date = stream.readLong();
+        score = stream.readInt();
+        stream.readInt();
+        flaps = stream.readInt();
+        fuelPickups = stream.readInt();
+        duration = stream.readInt();
+        mode = stream.readUnsignedByte();
+        difficulty = stream.readUnsignedByte();
+        cause = stream.readUnsignedByte();
+
+        return (stream.readUnsignedByte() == VERSION);
+    }
+}
\ No newline at end of file
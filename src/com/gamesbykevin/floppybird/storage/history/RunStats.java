@@ -0,0 +1,289 @@
+package com.gamesbykevin.floppybird.storage.history;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+
+/**
+ * Aggregates of every run played, updated one run at a time.<br>
+ * Scores are counted in a compact histogram so percentiles can be estimated without keeping every score.
+ * Scores below EXACT are counted exactly, higher scores share a bucket with scores within 25% of them.
+ * @author GOD
+ */
+public final class RunStats
+{
+    /**
+     * Scores below this value each have their own bucket
+     */
+    private static final int EXACT = 32;
+
+    /**
+     * The number of buckets for each power of 2 above EXACT
+     */
+    private static final int SUB_BUCKETS = 4;
+
+    /**
+     * The total number of buckets, enough for any positive int
+     */
+    private static final int BUCKETS = EXACT + ((31 - 5) * SUB_BUCKETS);
+
+    //the number of runs
+    private int count = 0;
+
+    //the totals of every run
+    private long totalScore = 0, totalFlaps = 0, totalFuelPickups = 0, totalDuration = 0;
+
+    //the best score
+    private int best = 0;
+
+    //the number of deaths for each cause, indexed by Run.cause
+    private final int[] deaths = new int[SimulationState.DEATH_CAUSES];
+
+    //the current and longest number of runs in a row that cleared at least one pipe
+    private int streak = 0, streakLongest = 0;
+
+    //the number of scores in each bucket
+    private final int[] histogram = new int[BUCKETS];
+
+    /**
+     * Add the run to our aggregates
+     * @param run The run we want to add
+     */
+    public void add(final Run run)
+    {
+        count++;
+        totalScore += run.score;
+        totalFlaps += run.flaps;
+        totalFuelPickups += run.fuelPickups;
+        totalDuration += run.duration;
+
+        if (run.score > best)
+            best = run.score;
+
+        if (run.cause < deaths.length)
+            deaths[run.cause]++;
+
+        //continue the streak, or start over
+        if (run.score > 0)
+        {
+            streak++;
+
+            if (streak > streakLongest)
+                streakLongest = streak;
+        }
+        else
+        {
+            streak = 0;
+        }
+
+        histogram[getBucket(Math.max(0, run.score))]++;
+    }
+
+    /**
+     * Get the bucket for the score
+     * @param score The score, must not be negative
+     * @return The index of the histogram bucket
+     */
+    private static int getBucket(final int score)
+    {
+        if (score < EXACT)
+            return score;
+
+        //the highest bit set
+        final int exponent = 31 - Integer.numberOfLeadingZeros(score);
+
+        //the 2 bits after the highest bit
+        final int mantissa = (score >> (exponent - 2)) & (SUB_BUCKETS - 1);
+
+        return EXACT + ((exponent - 5) * SUB_BUCKETS) + mantissa;
+    }
+
+    /**
+     * Get the lowest score in the bucket
+     * @param bucket The index of the histogram bucket
+     * @return The lowest score that is counted in the bucket
+     */
+    private static int getLowest(final int bucket)
+    {
+        if (bucket < EXACT)
+            return bucket;
+
+        final int exponent = ((bucket - EXACT) / SUB_BUCKETS) + 5;
+        final int mantissa = (bucket - EXACT) % SUB_BUCKETS;
+
+        return (SUB_BUCKETS + mantissa) << (exponent - 2);
+    }
+
+    /**
+     * Get the number of runs
+     * @return The number of runs played
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get the best score
+     * @return The best score of all runs
+     */
+    public int getBest()
+    {
+        return this.best;
+    }
+
+    /**
+     * Get the average score
+     * @return The mean score of all runs, 0 if there are no runs
+     */
+    public double getMeanScore()
+    {
+        return (count == 0) ? 0 : (double)totalScore / count;
+    }
+
+    /**
+     * Get the average duration
+     * @return The mean time (milliseconds) the bird survived, 0 if there are no runs
+     */
+    public double getMeanDuration()
+    {
+        return (count == 0) ? 0 : (double)totalDuration / count;
+    }
+
+    /**
+     * Get the total flaps
+     * @return The number of jumps in all runs
+     */
+    public long getTotalFlaps()
+    {
+        return this.totalFlaps;
+    }
+
+    /**
+     * Get the total fuel pickups
+     * @return The number of fuel tanks collected in all runs
+     */
+    public long getTotalFuelPickups()
+    {
+        return this.totalFuelPickups;
+    }
+
+    /**
+     * Get the total duration
+     * @return The time (milliseconds) the bird survived in all runs
+     */
+    public long getTotalDuration()
+    {
+        return this.totalDuration;
+    }
+
+    /**
+     * Get the number of deaths
+     * @param cause The cause of death, see SimulationState.DEATH_*
+     * @return The number of runs that ended this way
+     */
+    public int getDeaths(final int cause)
+    {
+        return this.deaths[cause];
+    }
+
+    /**
+     * Get the current streak
+     * @return The number of most recent runs in a row that cleared at least one pipe
+     */
+    public int getStreak()
+    {
+        return this.streak;
+    }
+
+    /**
+     * Get the longest streak
+     * @return The most runs in a row that cleared at least one pipe
+     */
+    public int getStreakLongest()
+    {
+        return this.streakLongest;
+    }
+
+    /**
+     * Estimate the score at the percentile
+     * @param percentile The percentile (0 - 100)
+     * @return The lowest score of the bucket containing the percentile, 0 if there are no runs
+     */
+    public int getPercentile(final double percentile)
+    {
+        if (count == 0)
+            return 0;
+
+        //the number of runs at or below the percentile
+        final long rank = Math.max(1, (long)Math.ceil((percentile / 100) * count));
+
+        long total = 0;
+
+        for (int bucket = 0; bucket < histogram.length; bucket++)
+        {
+            total += histogram[bucket];
+
+            if (total >= rank)
+                return Math.min(getLowest(bucket), best);
+        }
+
+        return best;
+    }
+
+    /**
+     * Write our aggregates
+     * @param stream The stream we are writing to
+     * @throws IOException
+     */
+    public void write(final DataOutputStream stream) throws IOException
+    {
+        stream.writeInt(count);
+        stream.writeLong(totalScore);
+        stream.writeLong(totalFlaps);
+        stream.writeLong(totalFuelPickups);
+        stream.writeLong(totalDuration);
+        stream.writeInt(best);
+        stream.writeInt(streak);
+        stream.writeInt(streakLongest);
+
+        for (int index = 0; index < deaths.length; index++)
+        {
+            stream.writeInt(deaths[index]);
+        }
+
+        for (int index = 0; index < histogram.length; index++)
+        {
+            stream.writeInt(histogram[index]);
+        }
+    }
+
+    /**
+     * Read our aggregates
+     * @param stream The stream we are reading from
+     * @throws IOException
+     */
+    public void read(final DataInputStream stream) throws IOException
+    {
+        count = stream.readInt();
+        totalScore = stream.readLong();
+        totalFlaps = stream.readLong();
+        totalFuelPickups = stream.readLong();
+        totalDuration = stream.readLong();
+        best = stream.readInt();
+        streak = stream.readInt();
+        streakLongest = stream.readInt();
+
+        for (int index = 0; index < deaths.length; index++)
+        {
+            deaths[index] = stream.readInt();
+        }
+
+        for (int index = 0; index < histogram.length; index++)
+        {
+            histogram[index] = stream.readInt();
+        }
+    }
+}
\ No newline at end of file
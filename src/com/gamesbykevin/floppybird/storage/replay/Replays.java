@@ -0,0 +1,180 @@
+package com.gamesbykevin.floppybird.storage.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.replay.Recording;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.storage.WriteBehind;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+import android.app.Activity;
+
+/**
+ * Store the recordings of our runs in the internal storage
+ * @author GOD
+ */
+public final class Replays
+{
+    /**
+     * The file name of the most recent run
+     */
+    public static final String FILE_NAME_LAST = "Replay";
+
+    /**
+     * The file name of the best run, followed by the mode and difficulty index
+     */
+    public static final String FILE_NAME_BEST = "ReplayBest";
+
+    //object needed to locate the internal storage
+    private final Activity activity;
+
+    //the best run for each mode and difficulty
+    private final Recording[][] best;
+
+    /**
+     * Create our replay storage, the best runs are read now
+     * @param screen Object to reference that has the modes we are tracking
+     * @param activity Object needed to write data to internal storage
+     */
+    public Replays(final OptionsScreen screen, final Activity activity)
+    {
+        this.activity = activity;
+
+        //get the # of game modes and difficulties from the settings
+        final int modeLength = screen.getButtons().get(OptionsScreen.Key.Mode).getDescriptions().size();
+        final int difficultyLength = screen.getButtons().get(OptionsScreen.Key.Difficulty).getDescriptions().size();
+
+        this.best = new Recording[modeLength][difficultyLength];
+
+        for (int mode = 0; mode < modeLength; mode++)
+        {
+            for (int difficulty = 0; difficulty < difficultyLength; difficulty++)
+            {
+                this.best[mode][difficulty] = new Recording();
+
+                //read the best run if it exists
+                read(getFileName(mode, difficulty), this.best[mode][difficulty]);
+            }
+        }
+    }
+
+    /**
+     * Get the file name of the best run
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @return The file name
+     */
+    private static String getFileName(final int mode, final int difficulty)
+    {
+        return FILE_NAME_BEST + mode + difficulty;
+    }
+
+    /**
+     * Read the recording from the internal storage
+     * @param filename The name of the file
+     * @param recording The recording we are reading into
+     */
+    private void read(final String filename, final Recording recording)
+    {
+        //the guard reports this if we read on the main thread
+        HotThread.check(HotThread.BLOCK_DISK, "Replays.read");
+
+        //locate the file
+        final File file = activity.getFileStreamPath(filename);
+
+        //if the file does not exist there is nothing to read
+        if (!file.exists())
+            return;
+
+        try
+        {
+            final DataInputStream stream = new DataInputStream(new FileInputStream(file));
+
+            try
+            {
+                recording.read(stream);
+            }
+            finally
+            {
+                stream.close();
+            }
+        }
+        catch (Exception e)
+        {
+            //start over with an empty recording
+            recording.reset(0, 0, false);
+
+            GameLog.error("Replays.read", e);
+        }
+    }
+
+    /**
+     * Get the best run
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @return The recording of the best run, it is not finished if there is no best run yet
+     */
+    public Recording getBest(final int mode, final int difficulty)
+    {
+        return best[mode][difficulty];
+    }
+
+    /**
+     * Save the recording of the run that just ended.<br>
+     * If the score is better than the best run, the recording becomes the best run
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @param recording The recording of the run that just ended
+     */
+    public void save(final int mode, final int difficulty, final Recording recording)
+    {
+        //only complete runs can be played back or become the best run
+        if (!recording.isFinished())
+            return;
+
+        //save the most recent run
+        save(FILE_NAME_LAST, recording);
+
+        final Recording previous = getBest(mode, difficulty);
+
+        //only a better score replaces the best run
+        if (previous.isFinished() && recording.getScore() <= previous.getScore())
+            return;
+
+        previous.copy(recording);
+        save(getFileName(mode, difficulty), previous);
+    }
+
+    /**
+     * Save the recording to the internal storage
+     * @param filename The name of the file
+     * @param recording The recording we want to save
+     */
+    private void save(final String filename, final Recording recording)
+    {
+        //only complete runs can be played back
+        if (!recording.isFinished())
+            return;
+
+        try
+        {
+            //write our recording to a byte array
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream stream = new DataOutputStream(bytes);
+            recording.write(stream);
+            stream.flush();
+
+            //write the data in the background
+            WriteBehind.write(activity, filename, bytes.toByteArray());
+        }
+        catch (Exception e)
+        {
+            GameLog.error("Replays.save", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.gamesbykevin.floppybird.storage.score;
+
+/**
+ * The position of each digit when rendering a number.<br>
+ * This has no platform dependencies so the layout can be measured anywhere.
+ * @author GOD
+ */
+public final class DigitLayout
+{
+    /**
+     * The maximum number of digits in a number
+     */
+    private static final int MAX_DIGITS = 10;
+
+    //the width of each digit
+    private final int digitWidth;
+
+    //the width of the screen, used to center the number
+    private final int screenWidth;
+
+    //the value and x-coordinate of each digit
+    private final int[] digits = new int[MAX_DIGITS], x = new int[MAX_DIGITS];
+
+    //the number of digits in use
+    private int count = 0;
+
+    /**
+     * Create a new layout
+     * @param digitWidth The width of each digit
+     * @param screenWidth The width of the screen, used to center the number
+     */
+    public DigitLayout(final int digitWidth, final int screenWidth)
+    {
+        this.digitWidth = digitWidth;
+        this.screenWidth = screenWidth;
+    }
+
+    /**
+     * Position each digit of the number
+     * @param number The desired number, must not be negative
+     * @param start The starting x-coordinate
+     * @param center Center the number on the screen, which will override the starting x-coordinate
+     */
+    public void set(final int number, final int start, final boolean center)
+    {
+        //count the digits, this is called every frame so we don't convert the number to text
+        this.count = 1;
+
+        for (int remaining = number / 10; remaining > 0; remaining /= 10)
+        {
+            this.count++;
+        }
+
+        //extract each digit, starting with the right most
+        int remaining = number;
+
+        for (int index = count - 1; index >= 0; index--)
+        {
+            digits[index] = remaining % 10;
+            remaining /= 10;
+        }
+
+        //calculate the starting point
+        int position = (center) ? (screenWidth / 2) - ((count * digitWidth) / 2) : start;
+
+        for (int index = 0; index < count; index++)
+        {
+            x[index] = position;
+
+            //adjust x-coordinate
+            position += digitWidth;
+        }
+    }
+
+    /**
+     * Get the number of digits
+     * @return The number of digits in the current number
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Get the digit
+     * @param index The position of the digit, 0 being the left most
+     * @return The value of the digit (0 - 9)
+     */
+    public int getDigit(final int index)
+    {
+        return this.digits[index];
+    }
+
+    /**
+     * Get the x
+     * @param index The position of the digit, 0 being the left most
+     * @return The x-coordinate of the digit
+     */
+    public int getX(final int index)
+    {
+        return this.x[index];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+package com.gamesbykevin.floppybird.storage.score;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The local leaderboard, keeping the top runs for each mode and difficulty.<br>
+ * Each board is found directly by index and kept sorted, so the best score is always the first entry.
+ * @author GOD
+ */
+public final class Leaderboard
+{
+    /**
+     * Used to identify our file
+     */
+    private static final int MAGIC = 0x46424C42;
+
+    /**
+     * The current version of our file format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * The number of runs we keep for each mode and difficulty
+     */
+    public static final int CAPACITY = 10;
+
+    //the number of modes and difficulties
+    private final int modes, difficulties;
+
+    //a board for each mode and difficulty, accessed by (mode * difficulties) + difficulty
+    private final Board[] boards;
+
+    /**
+     * Create an empty leaderboard
+     * @param modes The number of game modes
+     * @param difficulties The number of difficulties
+     */
+    public Leaderboard(final int modes, final int difficulties)
+    {
+        this.modes = modes;
+        this.difficulties = difficulties;
+        this.boards = new Board[modes * difficulties];
+
+        for (int index = 0; index < boards.length; index++)
+        {
+            this.boards[index] = new Board();
+        }
+    }
+
+    /**
+     * Get the board
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @return The board for the mode and difficulty
+     */
+    private Board getBoard(final int mode, final int difficulty)
+    {
+        return boards[(mode * difficulties) + difficulty];
+    }
+
+    /**
+     * Get the best score
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @return The best score, 0 if there are no runs
+     */
+    public int getBest(final int mode, final int difficulty)
+    {
+        final Board board = getBoard(mode, difficulty);
+
+        return (board.count == 0) ? 0 : board.scores[0];
+    }
+
+    /**
+     * Get the number of runs recorded
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @return The number of runs on the board
+     */
+    public int getCount(final int mode, final int difficulty)
+    {
+        return getBoard(mode, difficulty).count;
+    }
+
+    /**
+     * Get the score of a run
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @param rank The position on the board, 0 being the best
+     * @return The score
+     */
+    public int getScore(final int mode, final int difficulty, final int rank)
+    {
+        return getBoard(mode, difficulty).scores[rank];
+    }
+
+    /**
+     * Get the duration of a run
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @param rank The position on the board, 0 being the best
+     * @return How long the run lasted (milliseconds)
+     */
+    public long getDuration(final int mode, final int difficulty, final int rank)
+    {
+        return getBoard(mode, difficulty).durations[rank];
+    }
+
+    /**
+     * Get the date of a run
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @param rank The position on the board, 0 being the best
+     * @return When the run was played (milliseconds since epoch)
+     */
+    public long getDate(final int mode, final int difficulty, final int rank)
+    {
+        return getBoard(mode, difficulty).dates[rank];
+    }
+
+    /**
+     * Add a run to the board.<br>
+     * The position is found with a binary search, runs with the same score keep the older run first
+     * @param mode The mode index
+     * @param difficulty The difficulty index
+     * @param score The score of the run
+     * @param duration How long the run lasted (milliseconds)
+     * @param date When the run was played (milliseconds since epoch)
+     * @return The rank of the run, -1 if the run did not make the board
+     */
+    public int add(final int mode, final int difficulty, final int score, final long duration, final long date)
+    {
+        final Board board = getBoard(mode, difficulty);
+
+        //find the first position with a lower score
+        int low = 0;
+        int high = board.count;
+
+        while (low < high)
+        {
+            final int middle = (low + high) >>> 1;
+
+            if (board.scores[middle] >= score)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        //if the board is full and the score is not high enough, it doesn't make the board
+        if (low >= CAPACITY)
+            return -1;
+
+        //the number of runs we need to move down
+        final int length = Math.min(board.count, CAPACITY - 1) - low;
+
+        //move the lower runs down
+        if (length > 0)
+        {
+            System.arraycopy(board.scores, low, board.scores, low + 1, length);
+            System.arraycopy(board.durations, low, board.durations, low + 1, length);
+            System.arraycopy(board.dates, low, board.dates, low + 1, length);
+        }
+
+        //add our run
+        board.scores[low] = score;
+        board.durations[low] = duration;
+        board.dates[low] = date;
+
+        //increase the count if not full
+        if (board.count < CAPACITY)
+            board.count++;
+
+        //return the rank
+        return low;
+    }
+
+    /**
+     * Write the leaderboard
+     * @param stream The stream we are writing to
+     * @throws IOException
+     */
+    public void write(final DataOutputStream stream) throws IOException
+    {
+        //our header
+        stream.writeInt(MAGIC);
+        stream.writeInt(VERSION);
+        stream.writeInt(modes);
+        stream.writeInt(difficulties);
+
+        //write each board
+        for (Board board : boards)
+        {
+            stream.writeInt(board.count);
+
+            for (int index = 0; index < board.count; index++)
+            {
+                stream.writeInt(board.scores[index]);
+                stream.writeLong(board.durations[index]);
+                stream.writeLong(board.dates[index]);
+            }
+        }
+    }
+
+    /**
+     * Read the leaderboard.<br>
+     * If the number of modes or difficulties have changed, the boards that still exist will be kept
+     * @param stream The stream we are reading from
+     * @throws IOException If the content is not a leaderboard or is a version we don't recognize
+     */
+    public void read(final DataInputStream stream) throws IOException
+    {
+        //check our header
+        if (stream.readInt() != MAGIC)
+            throw new IOException("Content is not a leaderboard");
+
+        final int version = stream.readInt();
+
+        if (version != VERSION)
+            throw new IOException("Leaderboard version not supported: " + version);
+
+        //the dimensions of the stored leaderboard
+        final int storedModes = stream.readInt();
+        final int storedDifficulties = stream.readInt();
+
+        for (int mode = 0; mode < storedModes; mode++)
+        {
+            for (int difficulty = 0; difficulty < storedDifficulties; difficulty++)
+            {
+                //only keep the boards that still exist
+                final boolean keep = (mode < modes && difficulty < difficulties);
+
+                //the board we are reading into
+                final Board board = (keep) ? getBoard(mode, difficulty) : null;
+
+                //the number of runs stored
+                final int count = stream.readInt();
+
+                for (int index = 0; index < count; index++)
+                {
+                    final int score = stream.readInt();
+                    final long duration = stream.readLong();
+                    final long date = stream.readLong();
+
+                    if (board != null && index < CAPACITY)
+                    {
+                        board.scores[index] = score;
+                        board.durations[index] = duration;
+                        board.dates[index] = date;
+                        board.count = index + 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The runs for a single mode and difficulty, sorted by score
+     */
+    private static final class Board
+    {
+        //the number of runs
+        private int count = 0;
+
+        //the details of each run
+        private final int[] scores = new int[CAPACITY];
+        private final long[] durations = new long[CAPACITY];
+        private final long[] dates = new long[CAPACITY];
+    }
+}
\ No newline at end of file
@@ -1,273 +1,260 @@
-package com.gamesbykevin.floppybird.storage.score;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import com.gamesbykevin.androidframework.io.storage.Internal;
-import com.gamesbykevin.floppybird.screen.OptionsScreen;
-import com.gamesbykevin.floppybird.storage.settings.Settings;
-
-import android.app.Activity;
-
-public class Score extends Internal 
-{
-	/**
-	 * The file name to track our score
-	 */
-	private static final String FILE_NAME = "Score";
-	
-	//list of score records
-	private List<Record> records;
-	
-	/**
-	 * The y-coordinate where the score is rendered
-	 */
-	public static final int SCORE_Y = 20;
-	
-	//the current score
-	private int currentScore = 0;
-	
-	/**
-	 * The character to separate each stat apart
-	 */
-	private static final String SEPARATOR_STAT = "-";
-	
-	/**
-	 * Create new score object to track high score
-	 * @param screen Object to reference that has the modes we are tracking
-	 * @param activity Object needed to write data to internal storage
-	 */
-	public Score(final OptionsScreen screen, final Activity activity) 
-	{
-		super(FILE_NAME, activity);
-		
-		//create list for our records
-		this.records = new ArrayList<Record>();
-		
-        try
-        {
-            //get the # of difficulties in the settings
-            final int difficultyLength = screen.getButtons().get(OptionsScreen.Key.Difficulty).getDescriptions().size();
-            
-            //get the # of game modes from the settings
-            final int modeLength = screen.getButtons().get(OptionsScreen.Key.Mode).getDescriptions().size();
-            
-            //if content exists load it
-            if (super.getContent().toString().trim().length() > 0)
-            {
-                //split the content into an array (each record is separated by a specific character)
-                final String[] records = super.getContent().toString().split(Settings.SEPARATOR);
-                
-                //loop through each record
-                for (int index = 0; index < records.length; index++)
-                {
-                	//separate each stat for the current record
-                	final String[] stats = records[index].split(SEPARATOR_STAT);
-                	
-                	//the mode
-                	final int modeIndex = Integer.parseInt(stats[0]);
-                	
-                	//the difficulty
-                	final int difficultyIndex = Integer.parseInt(stats[1]);
-                	
-                	//get the score for the specified difficulty index
-                	final int score = Integer.parseInt(stats[2]);
-                	
-                	//add loaded score to our array list
-                	this.records.add(new Record(modeIndex, difficultyIndex, score));
-                }
-            }
-            else
-            {
-            	//add default 0 score for all
-            	for (int modeIndex = 0; modeIndex < modeLength; modeIndex++)
-            	{
-	                for (int difficultyIndex = 0; difficultyIndex < difficultyLength; difficultyIndex++)
-	                {
-	                	this.records.add(new Record(modeIndex, difficultyIndex, 0));
-	                }
-            	}
-            }
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-	}
-	
-	/**
-	 * Get the current score
-	 * @return The current score
-	 */
-	public int getCurrentScore()
-	{
-		return this.currentScore;
-	}
-	
-	/**
-	 * Set the current score
-	 * @param currentScore The current score
-	 */
-	public void setCurrentScore(final int currentScore)
-	{
-		this.currentScore = currentScore;
-	}
-	
-    /**
-     * Save the scores to the internal storage
-     */
-    @Override
-    public void save()
-    {
-        try
-        {
-            //remove all existing content
-            super.getContent().delete(0, super.getContent().length());
-
-            //save every record in our array list, to the internal storage
-            for (Record record : records)
-            {
-            	//add the game mode
-            	super.getContent().append(record.getMode());
-            	
-            	//separate the stats
-            	super.getContent().append(SEPARATOR_STAT);
-            	
-            	//add the difficulty
-            	super.getContent().append(record.getDifficulty());
-            	
-            	//separate the stats
-            	super.getContent().append(SEPARATOR_STAT);
-            	
-            	//add score
-            	super.getContent().append(record.getScore());
-            	
-            	//add delimiter to separate each record
-        		super.getContent().append(Settings.SEPARATOR);
-            }
-            
-            //remove the last character since there won't be any additional elements
-            super.getContent().deleteCharAt(super.getContent().length() - 1);
-
-            //save data
-            super.save();
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-    }
-    
-    /**
-     * Get the high score
-     * @param modeIndex The specified mode index
-     * @param difficultyIndex The specified difficulty index
-     * @return The high score for the specified difficulty index
-     */
-    public int getHighScore(final int modeIndex, final int difficultyIndex)
-    {
-    	//check each record
-    	for (Record record : records)
-    	{
-    		//if the difficulty does not match, skip it
-    		if (record.getDifficulty() != difficultyIndex)
-    			continue;
-    		
-    		//if the mode does not match, skip it
-    		if (record.getMode() != modeIndex)
-    			continue;
-    		
-    		//return our score
-    		return record.getScore();
-    	}
-    	
-    	//if the mode was not found return 0
-    	return 0;
-    }
-    
-    /**
-     * Update the score
-     * @param modeIndex The game mode played
-     * @param difficultyIndex The difficulty we are checking
-     * @param score The score we are checking
-     * @return true if the score was updated with a new record, false otherwise
-     */
-    public boolean updateScore(final int modeIndex, final int difficultyIndex, final int score)
-    {
-    	//check each record
-    	for (Record record : records)
-    	{
-    		//if the difficulty does not match, skip it
-    		if (record.getDifficulty() != difficultyIndex)
-    			continue;
-    		
-    		//if the mode does not match, skip it
-    		if (record.getMode() != modeIndex)
-    			continue;
-    		
-    		//if the score is bigger, we have a new record
-    		if (score > record.getScore())
-    		{
-    			//set the new record
-    			record.setScore(score);
-    			
-    			//save to internal storage
-    			save();
-    			
-    			//score was updated successful
-    			return true;
-    		}
-    		else
-    		{
-    			//no need to check the remaining
-    			break;
-    		}
-    	}
-    	
-    	//score was not updated
-    	return false;
-    }
-    
-    @Override
-    public void dispose()
-    {
-        super.dispose();
-        
-        if (records != null)
-        {
-        	records.clear();
-        	records = null;
-        }
-    }
-    
-    /**
-     * A score record for a specific game difficulty
-     */
-	private class Record
-	{
-		private final int difficulty;
-		private final int mode;
-		private int score;
-		
-		/**
-		 * Create record of score
-		 * @param mode The game mode played
-		 * @param difficulty The difficulty the score is for
-		 * @param score The score for that mode
-		 */
-		public Record(final int mode, final int difficulty, final int score)
-		{
-			this.mode = mode;
-			this.difficulty = difficulty;
-			setScore(score);
-		}
-		
-		private int getDifficulty() { return this.difficulty; }
-		
-		private int getScore() { return this.score; }
-		
-		private int getMode() { return this.mode; }
-		
-		private final void setScore(final int score) { this.score = score; }
-	}
+package com.gamesbykevin.floppybird.storage.score;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.storage.WriteBehind;
+import com.gamesbykevin.floppybird.storage.settings.Settings;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+import android.app.Activity;
+
+public class Score implements Disposable
+{
+	/**
+	 * The file name of our leaderboard
+	 */
+	private static final String FILE_NAME = "Leaderboard";
+
+	/**
+	 * The file name where the best scores were previously tracked
+	 */
+	private static final String FILE_NAME_LEGACY = "Score";
+
+	//our top runs for each mode and difficulty
+	private Leaderboard leaderboard;
+
+	/**
+	 * The y-coordinate where the score is rendered
+	 */
+	public static final int SCORE_Y = 20;
+
+	//the current score
+	private int currentScore = 0;
+
+	//object needed to locate the internal storage
+	private final Activity activity;
+
+	/**
+	 * The character to separate each stat apart
+	 */
+	private static final String SEPARATOR_STAT = "-";
+
+	/**
+	 * Create new score object to track high score
+	 * @param screen Object to reference that has the modes we are tracking
+	 * @param activity Object needed to write data to internal storage
+	 */
+	public Score(final OptionsScreen screen, final Activity activity)
+	{
+		//store our activity reference
+		this.activity = activity;
+
+        //get the # of difficulties in the settings
+        final int difficultyLength = screen.getButtons().get(OptionsScreen.Key.Difficulty).getDescriptions().size();
+
+        //get the # of game modes from the settings
+        final int modeLength = screen.getButtons().get(OptionsScreen.Key.Mode).getDescriptions().size();
+
+		//create our leaderboard
+		this.leaderboard = new Leaderboard(modeLength, difficultyLength);
+
+        try
+        {
+        	//read the leaderboard if it exists
+        	final byte[] content = read(FILE_NAME);
+
+        	if (content != null)
+        	{
+        		leaderboard.read(new DataInputStream(new ByteArrayInputStream(content)));
+        	}
+        	else
+        	{
+        		//if we have the previous best scores, add them to our leaderboard
+        		final byte[] legacy = read(FILE_NAME_LEGACY);
+
+        		if (legacy != null && importLegacy(new String(legacy)))
+        			save();
+        	}
+        }
+        catch (Exception e)
+        {
+            GameLog.error("Score", e);
+        }
+	}
+
+	/**
+	 * Read the entire file from the internal storage in a single read
+	 * @param filename The name of the file
+	 * @return The content of the file, null if the file does not exist
+	 * @throws Exception
+	 */
+	private byte[] read(final String filename) throws Exception
+	{
+		//the guard reports this if we read on the main thread
+		HotThread.check(HotThread.BLOCK_DISK, "Score.read");
+
+		//locate the file
+		final File file = activity.getFileStreamPath(filename);
+
+		//if the file does not exist there is nothing to read
+		if (!file.exists())
+			return null;
+
+		//create an array for the entire file
+		final byte[] content = new byte[(int)file.length()];
+
+		final DataInputStream stream = new DataInputStream(new FileInputStream(file));
+
+		try
+		{
+			stream.readFully(content);
+		}
+		finally
+		{
+			stream.close();
+		}
+
+		//return our content
+		return content;
+	}
+
+	/**
+	 * Add the best scores from the previous file format to our leaderboard
+	 * @param content The content of the previous file
+	 * @return true if any scores were added, false otherwise
+	 */
+	private boolean importLegacy(final String content)
+	{
+		//if there is no content, there is nothing to add
+		if (content.trim().length() < 1)
+			return false;
+
+		//was anything added
+		boolean result = false;
+
+        //split the content into an array (each record is separated by a specific character)
+        final String[] records = content.split(Settings.SEPARATOR);
+
+        //loop through each record
+        for (int index = 0; index < records.length; index++)
+        {
+        	//separate each stat for the current record
+        	final String[] stats = records[index].split(SEPARATOR_STAT);
+
+        	//the mode, difficulty, and score
+        	final int modeIndex = Integer.parseInt(stats[0]);
+        	final int difficultyIndex = Integer.parseInt(stats[1]);
+        	final int score = Integer.parseInt(stats[2]);
+
+        	//we only want actual scores, we don't know the duration or date
+        	if (score > 0 && leaderboard.add(modeIndex, difficultyIndex, score, 0, 0) >= 0)
+        		result = true;
+        }
+
+        //return our result
+        return result;
+	}
+
+	/**
+	 * Get the current score
+	 * @return The current score
+	 */
+	public int getCurrentScore()
+	{
+		return this.currentScore;
+	}
+
+	/**
+	 * Set the current score
+	 * @param currentScore The current score
+	 */
+	public void setCurrentScore(final int currentScore)
+	{
+		this.currentScore = currentScore;
+	}
+
+	/**
+	 * Get the leaderboard
+	 * @return Our top runs for each mode and difficulty
+	 */
+	public Leaderboard getLeaderboard()
+	{
+		return this.leaderboard;
+	}
+
+    /**
+     * Save the leaderboard to the internal storage.<br>
+     * The file is written on a background thread, so this won't block the game
+     */
+    public void save()
+    {
+        try
+        {
+        	//write our leaderboard to a byte array
+        	final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        	final DataOutputStream stream = new DataOutputStream(bytes);
+        	leaderboard.write(stream);
+        	stream.flush();
+
+            //write the data in the background
+            WriteBehind.write(activity, FILE_NAME, bytes.toByteArray());
+        }
+        catch (Exception e)
+        {
+            GameLog.error("Score.save", e);
+        }
+    }
+
+    /**
+     * Get the high score
+     * @param modeIndex The specified mode index
+     * @param difficultyIndex The specified difficulty index
+     * @return The high score for the specified difficulty index
+     */
+    public int getHighScore(final int modeIndex, final int difficultyIndex)
+    {
+    	return leaderboard.getBest(modeIndex, difficultyIndex);
+    }
+
+    /**
+     * Update the score
+     * @param modeIndex The game mode played
+     * @param difficultyIndex The difficulty we are checking
+     * @param score The score we are checking
+     * @param duration How long the run lasted (milliseconds)
+     * @return true if the score was updated with a new record, false otherwise
+     */
+    public boolean updateScore(final int modeIndex, final int difficultyIndex, final int score, final long duration)
+    {
+    	//we don't track runs without a score
+    	if (score < 1)
+    		return false;
+
+    	//the previous best score
+    	final int best = getHighScore(modeIndex, difficultyIndex);
+
+    	//add the run to our leaderboard
+    	final int rank = leaderboard.add(modeIndex, difficultyIndex, score, duration, System.currentTimeMillis());
+
+    	//if the run made the board, save to internal storage
+    	if (rank >= 0)
+    		save();
+
+    	//we only have a new record if we beat the previous best
+    	return (score > best);
+    }
+
+    @Override
+    public void dispose()
+    {
+    	leaderboard = null;
+    }
 }
\ No newline at end of file
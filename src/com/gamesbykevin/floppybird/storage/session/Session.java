@@ -0,0 +1,237 @@
+package com.gamesbykevin.floppybird.storage.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+import com.gamesbykevin.floppybird.game.Game;
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.replay.Recording;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.simulation.SimulationState;
+import com.gamesbykevin.floppybird.storage.WriteBehind;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+import android.app.Activity;
+
+/**
+ * A snapshot of the run in progress, so the run survives the process being killed while the app is in the background.<br>
+ * The snapshot is the complete simulation state and the recording so far, a few hundred bytes that are
+ * written in memory when the app is paused, then to the internal storage by our background writer.<br>
+ * When there is no run in progress we write an empty snapshot, so a run that already ended is never resumed.
+ * @author GOD
+ */
+public final class Session
+{
+    /**
+     * The file name of our snapshot
+     */
+    public static final String FILE_NAME = "Session";
+
+    /**
+     * Identifies the file as our snapshot
+     */
+    private static final int MAGIC = 0x4642534E;
+
+    /**
+     * The version of the snapshot, a snapshot of a different version is ignored
+     */
+    private static final int VERSION = 2;
+
+    //object needed to locate the internal storage
+    private final Activity activity;
+
+    //the state and the recording of the run we restored
+    private final SimulationState state;
+    private final Recording recording;
+
+    //the mode and difficulty index of the run we restored
+    private int mode, difficulty;
+
+    //was the run we restored assisted
+    private boolean assisted;
+
+    /**
+     * Create our session storage
+     * @param activity Object needed to write data to internal storage
+     */
+    public Session(final Activity activity)
+    {
+        this.activity = activity;
+        this.state = new SimulationState();
+        this.recording = new Recording();
+    }
+
+    /**
+     * Save the run in progress, this is called when the app is paused
+     * @param game The game we are saving, null if the game has not been created
+     */
+    public void save(final Game game)
+    {
+        try
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+            final DataOutputStream stream = new DataOutputStream(bytes);
+
+            //our header
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+
+            if (game == null)
+            {
+                stream.writeBoolean(false);
+            }
+            else
+            {
+                //don't let the game thread change the run while we copy it
+                synchronized (game)
+                {
+                    final boolean active = game.isResumable();
+                    stream.writeBoolean(active);
+
+                    if (active)
+                    {
+                        stream.writeByte(game.getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Mode));
+                        stream.writeByte(game.getScreen().getScreenOptions().getIndex(OptionsScreen.Key.Difficulty));
+                        stream.writeBoolean(game.isAssisted());
+                        game.getSimulation().getState().write(stream);
+                        game.getRecording().write(stream);
+                    }
+                }
+            }
+
+            stream.flush();
+
+            //add the checksum of everything written
+            final CRC32 checksum = new CRC32();
+            checksum.update(bytes.toByteArray());
+            stream.writeLong(checksum.getValue());
+            stream.flush();
+
+            //the file is written on a background thread, the activity flushes it when stopped
+            WriteBehind.write(activity, FILE_NAME, bytes.toByteArray());
+        }
+        catch (Exception e)
+        {
+            GameLog.error("Session.save", e);
+        }
+    }
+
+    /**
+     * Load the run that was in progress
+     * @return true if there is a run to resume, false otherwise
+     */
+    public boolean load()
+    {
+        //the guard reports this if we read on the main thread
+        HotThread.check(HotThread.BLOCK_DISK, "Session.load");
+
+        try
+        {
+            //locate the file
+            final File file = activity.getFileStreamPath(FILE_NAME);
+
+            //if the file does not exist there is nothing to resume
+            if (!file.exists())
+                return false;
+
+            final byte[] content = new byte[(int)file.length()];
+            final DataInputStream input = new DataInputStream(new FileInputStream(file));
+
+            try
+            {
+                input.readFully(content);
+            }
+            finally
+            {
+                input.close();
+            }
+
+            //the checksum is stored in the last 8 bytes
+            if (content.length < 8)
+                return false;
+
+            final CRC32 checksum = new CRC32();
+            checksum.update(content, 0, content.length - 8);
+
+            if (new DataInputStream(new ByteArrayInputStream(content, content.length - 8, 8)).readLong() != checksum.getValue())
+                return false;
+
+            final DataInputStream stream = new DataInputStream(new ByteArrayInputStream(content, 0, content.length - 8));
+
+            //make sure the snapshot is ours
+            if (stream.readInt() != MAGIC)
+                return false;
+            if (stream.readInt() != VERSION)
+                return false;
+
+            //there was no run in progress
+            if (!stream.readBoolean())
+                return false;
+
+            this.mode = stream.readUnsignedByte();
+            this.difficulty = stream.readUnsignedByte();
+            this.assisted = stream.readBoolean();
+            this.state.read(stream);
+            this.recording.read(stream);
+
+            //only a run that was still going can be resumed
+            return (state.started && !state.dead);
+        }
+        catch (IOException e)
+        {
+            GameLog.error("Session.load", e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the mode
+     * @return The mode index of the run we restored
+     */
+    public int getMode()
+    {
+        return this.mode;
+    }
+
+    /**
+     * Get the difficulty
+     * @return The difficulty index of the run we restored
+     */
+    public int getDifficulty()
+    {
+        return this.difficulty;
+    }
+
+    /**
+     * Was the run assisted?
+     * @return true if the autopilot helped in the run we restored, false otherwise
+     */
+    public boolean isAssisted()
+    {
+        return this.assisted;
+    }
+
+    /**
+     * Get the state
+     * @return The simulation state of the run we restored
+     */
+    public SimulationState getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * Get the recording
+     * @return The recording of the run we restored
+     */
+    public Recording getRecording()
+    {
+        return this.recording;
+    }
+}
\ No newline at end of file
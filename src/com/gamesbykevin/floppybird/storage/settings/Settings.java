@@ -1,109 +1,282 @@
-package com.gamesbykevin.floppybird.storage.settings;
-
-import android.app.Activity;
-import com.gamesbykevin.androidframework.io.storage.Internal;
-import com.gamesbykevin.androidframework.resources.Audio;
-import com.gamesbykevin.floppybird.screen.OptionsScreen;
-
-/**
- * Save the settings to the internal storage
- * @author GOD
- */
-public final class Settings extends Internal
-{
-    //our options screen reference object
-    private final OptionsScreen screen;
-    
-    /**
-     * This string will separate each setting
-     */
-    public static final String SEPARATOR = ";";
-    
-    public Settings(final OptionsScreen screen, final Activity activity)
-    {
-        super("Settings", activity);
-        
-        //store our screen reference object
-        this.screen = screen;
-        
-        //if content exists load it
-        if (super.getContent().toString().trim().length() > 0)
-        {
-            try
-            {
-                //split the content into an array (each element for each option in settings)
-                final String[] data = super.getContent().toString().split(SEPARATOR);
-
-                //get the # of the options in the settings
-                final int length = OptionsScreen.Key.values().length;
-                
-                //load each option
-                for (int position = 0; position < length; position++)
-                {
-                	//make sure we stay in bounds
-                	if (position >= length || position >= data.length)
-                		break;
-                	
-                	//locate the option key
-                	OptionsScreen.Key key = OptionsScreen.Key.values()[position];
-                	
-                	//parse the index value from this array element
-                	final int value = Integer.parseInt(data[position]);
-                	
-                	//restore settings
-                	screen.setIndex(key, value);
-                	
-                	//if the sound option, we need to flag the audio enabled/disabled
-                	if (key == OptionsScreen.Key.Sound)
-                		Audio.setAudioEnabled(value == 0);
-                }
-            }
-            catch (Exception e)
-            {
-                e.printStackTrace();
-            }
-        }
-        
-        //make sure the text in the buttons are aligned
-        screen.reset();
-    }
-    
-    /**
-     * Save the settings to the internal storage
-     */
-    @Override
-    public void save()
-    {
-        try
-        {
-            //remove all existing content
-            super.getContent().delete(0, super.getContent().length());
-
-            //save every option we have in our options screen
-            for (OptionsScreen.Key key : OptionsScreen.Key.values())
-            {
-            	//add the data to our string builder
-            	super.getContent().append(screen.getButtons().get(key).getIndex());
-            	
-            	//add delimiter to separate each option index value
-        		super.getContent().append(SEPARATOR);
-            }
-            
-            //remove the last character since there won't be any additional settings
-            super.getContent().deleteCharAt(super.getContent().length() - 1);
-
-            //save data
-            super.save();
-        }
-        catch (Exception e)
-        {
-            e.printStackTrace();
-        }
-    }
-    
-    @Override
-    public void dispose()
-    {
-        super.dispose();
-    }
+package com.gamesbykevin.floppybird.storage.settings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import android.app.Activity;
+
+import com.gamesbykevin.androidframework.resources.Disposable;
+import com.gamesbykevin.floppybird.audio.SoundEngine;
+import com.gamesbykevin.floppybird.log.GameLog;
+import com.gamesbykevin.floppybird.screen.OptionsScreen;
+import com.gamesbykevin.floppybird.storage.WriteBehind;
+import com.gamesbykevin.floppybird.thread.HotThread;
+
+/**
+ * Save the settings to the internal storage.<br>
+ * The settings are stored as a binary record with a checksum, each option is stored by the name of its key,
+ * so options can be added, removed or reordered without losing the rest of the settings.
+ * @author GOD
+ */
+public final class Settings implements Disposable
+{
+    //our options screen reference object
+    private final OptionsScreen screen;
+
+    //object needed to locate the internal storage
+    private final Activity activity;
+
+    /**
+     * This string will separate each setting
+     */
+    public static final String SEPARATOR = ";";
+
+    /**
+     * The file name of our settings
+     */
+    private static final String FILE_NAME = "Settings.bin";
+
+    /**
+     * The file name where the settings were previously stored as text
+     */
+    private static final String FILE_NAME_LEGACY = "Settings";
+
+    /**
+     * The keys in the order they were stored in the text settings, the text settings were stored by ordinal
+     */
+    private static final String[] LEGACY_KEYS = {"Back", "Sound", "Vibrate", "Difficulty", "Mode", "Instructions", "Facebook", "Twitter"};
+
+    /**
+     * Used to identify our file
+     */
+    private static final int MAGIC = 0x46425354;
+
+    /**
+     * The current version of our file format
+     */
+    private static final int VERSION = 1;
+
+    //the last content saved, so we don't write the same settings again
+    private byte[] saved;
+
+    public Settings(final OptionsScreen screen, final Activity activity)
+    {
+        //store our references
+        this.screen = screen;
+        this.activity = activity;
+
+        try
+        {
+            //read our settings if they exist
+            final byte[] content = read(FILE_NAME);
+
+            if (content != null)
+            {
+                //load the settings, if the record is damaged we will keep the defaults
+                if (load(content))
+                    this.saved = content;
+            }
+            else
+            {
+                //if we have the previous settings, convert them
+                final byte[] legacy = read(FILE_NAME_LEGACY);
+
+                if (legacy != null)
+                {
+                    loadLegacy(new String(legacy));
+
+                    //save in our new format
+                    save();
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            GameLog.error("Settings", e);
+        }
+
+        //make sure the text in the buttons are aligned
+        screen.reset();
+    }
+
+    /**
+     * Read the entire file from the internal storage in a single read
+     * @param filename The name of the file
+     * @return The content of the file, null if the file does not exist
+     * @throws IOException
+     */
+    private byte[] read(final String filename) throws IOException
+    {
+        //the guard reports this if we read on the main thread
+        HotThread.check(HotThread.BLOCK_DISK, "Settings.read");
+
+        //locate the file
+        final File file = activity.getFileStreamPath(filename);
+
+        //if the file does not exist there is nothing to read
+        if (!file.exists())
+            return null;
+
+        final byte[] content = new byte[(int)file.length()];
+
+        final DataInputStream stream = new DataInputStream(new FileInputStream(file));
+
+        try
+        {
+            stream.readFully(content);
+        }
+        finally
+        {
+            stream.close();
+        }
+
+        return content;
+    }
+
+    /**
+     * Load the settings from our binary record.<br>
+     * Options that no longer exist are skipped, options that were not stored keep their default
+     * @param content The content of our file
+     * @return true if the settings were loaded, false if the record is damaged or a version we don't recognize
+     * @throws IOException
+     */
+    private boolean load(final byte[] content) throws IOException
+    {
+        //the checksum is stored in the last 8 bytes
+        if (content.length < 8)
+            return false;
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(content, 0, content.length - 8);
+
+        final DataInputStream stream = new DataInputStream(new ByteArrayInputStream(content));
+
+        //make sure the record is ours, and was not damaged
+        if (stream.readInt() != MAGIC)
+            return false;
+        if (stream.readInt() != VERSION)
+            return false;
+        if (new DataInputStream(new ByteArrayInputStream(content, content.length - 8, 8)).readLong() != checksum.getValue())
+            return false;
+
+        //the number of options stored
+        final int count = stream.readUnsignedByte();
+
+        for (int index = 0; index < count; index++)
+        {
+            final String name = stream.readUTF();
+            final int value = stream.readUnsignedByte();
+
+            //restore the option if it still exists
+            apply(name, value);
+        }
+
+        return true;
+    }
+
+    /**
+     * Load the settings from the previous text format
+     * @param content The content of the previous file
+     */
+    private void loadLegacy(final String content)
+    {
+        //if there is no content, there is nothing to load
+        if (content.trim().length() < 1)
+            return;
+
+        //split the content into an array (each element for each option in settings)
+        final String[] data = content.split(SEPARATOR);
+
+        //load each option
+        for (int position = 0; position < data.length && position < LEGACY_KEYS.length; position++)
+        {
+            apply(LEGACY_KEYS[position], Integer.parseInt(data[position].trim()));
+        }
+    }
+
+    /**
+     * Restore the option
+     * @param name The name of the option key
+     * @param value The index value of the option
+     */
+    private void apply(final String name, final int value)
+    {
+        for (OptionsScreen.Key key : OptionsScreen.Key.values())
+        {
+            if (!key.name().equals(name))
+                continue;
+
+            //restore settings
+            screen.setIndex(key, value);
+
+            //if the sound option, we need to flag the audio enabled/disabled
+            if (key == OptionsScreen.Key.Sound)
+                SoundEngine.setAudioEnabled(value == 0);
+
+            //no need to check the other keys
+            break;
+        }
+    }
+
+    /**
+     * Save the settings to the internal storage.<br>
+     * The file is written on a background thread, so this won't block the menu
+     */
+    public void save()
+    {
+        try
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream stream = new DataOutputStream(bytes);
+
+            //our header
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+
+            //save every option we have in our options screen
+            stream.writeByte(OptionsScreen.Key.values().length);
+
+            for (OptionsScreen.Key key : OptionsScreen.Key.values())
+            {
+                stream.writeUTF(key.name());
+                stream.writeByte(screen.getButtons().get(key).getIndex());
+            }
+
+            stream.flush();
+
+            //add the checksum of everything written
+            final CRC32 checksum = new CRC32();
+            checksum.update(bytes.toByteArray());
+            stream.writeLong(checksum.getValue());
+            stream.flush();
+
+            final byte[] content = bytes.toByteArray();
+
+            //if nothing changed, there is no need to write
+            if (Arrays.equals(content, saved))
+                return;
+
+            this.saved = content;
+
+            //write the data in the background
+            WriteBehind.write(activity, FILE_NAME, content);
+        }
+        catch (Exception e)
+        {
+            GameLog.error("Settings.save", e);
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        this.saved = null;
+    }
 }
\ No newline at end of file
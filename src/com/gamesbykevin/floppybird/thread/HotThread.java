@@ -0,0 +1,256 @@
+package com.gamesbykevin.floppybird.thread;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.gamesbykevin.floppybird.log.GameLog;
+
+/**
+ * A development guard proving the main thread never blocks.<br>
+ * The main thread marks itself hot, and the places that can block (reading a file, decoding an image, looking up a
+ * system service, waiting for a lock) check in here. When they run on the hot thread the operation is counted,
+ * and the first time each operation is caught its stack is logged so we know who called it.
+ * Waiting for a lock only counts when the wait is longer than the threshold.<br>
+ * The guard is off in release builds, checking in then costs a single read of a field.
+ * Anything we don't check in for (the disk and network access of other code) is caught by StrictMode,
+ * which the main thread enables for itself while the guard is on.
+ * @author GOD
+ */
+public final class HotThread
+{
+    /**
+     * What the operation blocked on
+     */
+    public static final int BLOCK_DISK = 0, BLOCK_SERVICE = 1, BLOCK_LOCK = 2;
+
+    /**
+     * The name of each block
+     */
+    public static final String[] BLOCKS = {"disk", "service", "lock"};
+
+    /**
+     * The time waiting for a lock before it is counted by default (nanoseconds)
+     */
+    public static final long THRESHOLD_DEFAULT = 1000000L;
+
+    /**
+     * The number of different operations we count, any operations after these are only counted by their block
+     */
+    public static final int OPERATIONS = 32;
+
+    /**
+     * Thrown nowhere, this only carries the stack of an operation caught on the hot thread to the log
+     */
+    public static final class Violation extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        private Violation(final String message)
+        {
+            super(message);
+        }
+    }
+
+    //is the guard on
+    private static volatile boolean ENABLED = false;
+
+    //the time waiting for a lock before it is counted (nanoseconds)
+    private static volatile long THRESHOLD = THRESHOLD_DEFAULT;
+
+    //the thread that must not block
+    private static volatile Thread HOT;
+
+    //the number of times each block was caught
+    private static final AtomicIntegerArray COUNTS = new AtomicIntegerArray(BLOCKS.length);
+
+    //each operation we caught, its block, and the number of times it was caught
+    private static final AtomicReferenceArray<String> OPERATION = new AtomicReferenceArray<String>(OPERATIONS);
+    private static final int[] OPERATION_BLOCK = new int[OPERATIONS];
+    private static final AtomicIntegerArray OPERATION_COUNTS = new AtomicIntegerArray(OPERATIONS);
+
+    /**
+     * This class only has static methods
+     */
+    private HotThread()
+    {
+        //do nothing
+    }
+
+    /**
+     * Turn the guard on or off, this should be done before the main thread starts
+     * @param enabled true to catch blocking operations on the hot thread, false to ignore them
+     * @param threshold The time waiting for a lock before it is counted (nanoseconds)
+     */
+    public static void setup(final boolean enabled, final long threshold)
+    {
+        ENABLED = enabled;
+        THRESHOLD = threshold;
+    }
+
+    /**
+     * Is the guard on?
+     * @return true if we catch blocking operations on the hot thread, false otherwise
+     */
+    public static boolean isEnabled()
+    {
+        return ENABLED;
+    }
+
+    /**
+     * Mark the thread that must not block
+     * @param thread The hot thread, null when it finishes
+     */
+    public static void mark(final Thread thread)
+    {
+        HOT = thread;
+    }
+
+    /**
+     * Are we on the hot thread?
+     * @return true if the guard is on and the current thread is hot, false otherwise
+     */
+    public static boolean isHot()
+    {
+        return ENABLED && Thread.currentThread() == HOT;
+    }
+
+    /**
+     * Check in before an operation that blocks
+     * @param block What the operation blocks on, one of the BLOCK constants
+     * @param operation The name of the operation, a constant such as "Score.read"
+     */
+    public static void check(final int block, final String operation)
+    {
+        if (isHot())
+            catches(block, operation, 0);
+    }
+
+    /**
+     * Mark the start of waiting for a lock
+     * @return The time we started waiting, 0 if we are not on the hot thread
+     */
+    public static long waitStart()
+    {
+        return (isHot()) ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Mark the end of waiting for a lock, the wait is caught if it took longer than the threshold
+     * @param operation The name of the lock, a constant such as "MainThread.holder"
+     * @param start The time returned by waitStart
+     */
+    public static void waitEnd(final String operation, final long start)
+    {
+        if (start == 0)
+            return;
+
+        final long waited = System.nanoTime() - start;
+
+        if (waited > THRESHOLD)
+            catches(BLOCK_LOCK, operation, waited);
+    }
+
+    /**
+     * Count the operation caught on the hot thread, logging its stack the first time
+     * @param block What the operation blocked on
+     * @param operation The name of the operation
+     * @param waited The time waiting for a lock, 0 for the other blocks (nanoseconds)
+     */
+    private static void catches(final int block, final String operation, final long waited)
+    {
+        COUNTS.incrementAndGet(block);
+
+        final int slot = operation(operation, block);
+
+        //after the first time we only count it
+        if (slot >= 0 && OPERATION_COUNTS.incrementAndGet(slot) > 1)
+            return;
+
+        final String message = BLOCKS[block] + " " + operation + " on " + Thread.currentThread().getName() +
+            ((waited > 0) ? ", waited " + (waited / 1000L) + "us" : "");
+
+        GameLog.error(operation, new Violation(message));
+    }
+
+    /**
+     * Locate the operation, claiming a slot the first time we see it
+     * @param operation The name of the operation
+     * @param block What the operation blocks on
+     * @return The slot of the operation, or -1 if every slot is claimed by other operations
+     */
+    private static int operation(final String operation, final int block)
+    {
+        for (int slot = 0; slot < OPERATIONS; slot++)
+        {
+            final String current = OPERATION.get(slot);
+
+            if (current == null)
+            {
+                if (OPERATION.compareAndSet(slot, null, operation))
+                {
+                    OPERATION_BLOCK[slot] = block;
+                    return slot;
+                }
+
+                if (operation.equals(OPERATION.get(slot)))
+                    return slot;
+            }
+            else if (current == operation || current.equals(operation))
+            {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the number of times a block was caught
+     * @param block One of the BLOCK constants
+     * @return The number of operations caught on the hot thread that blocked on it
+     */
+    public static int getCount(final int block)
+    {
+        return COUNTS.get(block);
+    }
+
+    /**
+     * Get the number of operations caught
+     * @return The number of operations caught on the hot thread
+     */
+    public static int getTotal()
+    {
+        int total = 0;
+
+        for (int block = 0; block < BLOCKS.length; block++)
+        {
+            total += COUNTS.get(block);
+        }
+
+        return total;
+    }
+
+    /**
+     * Write the number of times each block and each operation was caught
+     * @param out Where we write the counts
+     * @throws IOException If the counts can't be written
+     */
+    public static void dump(final Appendable out) throws IOException
+    {
+        out.append("Blocking operations on the hot thread " + getTotal() + "\n");
+
+        for (int block = 0; block < BLOCKS.length; block++)
+        {
+            out.append(BLOCKS[block] + " " + COUNTS.get(block) + "\n");
+
+            for (int slot = 0; slot < OPERATIONS; slot++)
+            {
+                final String operation = OPERATION.get(slot);
+
+                if (operation != null && OPERATION_BLOCK[slot] == block)
+                    out.append("    " + operation + " " + OPERATION_COUNTS.get(slot) + "\n");
+            }
+        }
+    }
+}
\ No newline at end of file
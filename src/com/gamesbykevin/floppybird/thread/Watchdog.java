@@ -0,0 +1,273 @@
+package com.gamesbykevin.floppybird.thread;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+
+import com.gamesbykevin.floppybird.log.GameLog;
+
+/**
+ * Watches the heartbeat of the main thread from its own thread and reports when the main thread stops beating.<br>
+ * The main thread beats once per loop, when a beat is later than the threshold the main thread is stalled, we capture
+ * its stack and the screen state and append them to the report file right away, so the report survives the process
+ * being killed for not responding. Once the main thread beats again the length of the stall is appended.<br>
+ * If the watchdog itself wakes up late the whole process was suspended (the device slept or the app was frozen in the
+ * background), that is not a stall so we skip it.<br>
+ * The number of stalls, the longest and the total time stalled are kept so they can be reported when the game closes.
+ * @author GOD
+ */
+public final class Watchdog implements Runnable
+{
+    /**
+     * The time without a beat before the main thread is stalled by default (nanoseconds)
+     */
+    public static final long THRESHOLD_DEFAULT = 500000000L;
+
+    /**
+     * The most lines of the stack we write
+     */
+    private static final int STACK_DEPTH = 64;
+
+    /**
+     * Once the report is larger than this we start a new one (bytes)
+     */
+    private static final long FILE_SIZE_MAX = 256 * 1024;
+
+    //the file we append the stalls to
+    private final File file;
+
+    //the time without a beat before the main thread is stalled (nanoseconds)
+    private final long threshold;
+
+    //the name of each screen state
+    private final String[] states;
+
+    //the time of the latest beat (nanoseconds), 0 before the first beat, and the screen state of the beat
+    private volatile long heartbeat = 0;
+    private volatile int state = 0;
+
+    //the thread we watch, and the thread watching it
+    private Thread target, watcher;
+
+    //are we watching
+    private volatile boolean running = false;
+
+    //the number of stalls, the longest stall and the time stalled, counted once each stall ends (nanoseconds)
+    private volatile int stalls = 0;
+    private volatile long longest = 0, total = 0;
+
+    /**
+     * Create the watchdog
+     * @param file The file we append the stalls to
+     * @param threshold The time without a beat before the main thread is stalled (nanoseconds)
+     * @param states The name of each screen state, in order
+     */
+    public Watchdog(final File file, final long threshold, final String[] states)
+    {
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold has to be at least 1 " + threshold);
+
+        this.file = file;
+        this.threshold = threshold;
+        this.states = states;
+
+        //don't let the report grow forever
+        if (file.length() > FILE_SIZE_MAX && !file.delete())
+            GameLog.info("Watchdog", "Unable to delete " + file);
+    }
+
+    /**
+     * Mark the main thread is alive, called by the main thread once per loop
+     * @param state The ordinal of the screen state
+     */
+    public void beat(final int state)
+    {
+        this.state = state;
+        this.heartbeat = System.nanoTime();
+    }
+
+    /**
+     * Start watching
+     * @param target The thread we watch
+     */
+    public synchronized void start(final Thread target)
+    {
+        if (running)
+            return;
+
+        this.target = target;
+        this.heartbeat = 0;
+        this.running = true;
+
+        this.watcher = new Thread(this, "Watchdog");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Stop watching and wait for the watching thread to finish
+     */
+    public void stop()
+    {
+        final Thread thread;
+
+        synchronized (this)
+        {
+            if (!running)
+                return;
+
+            running = false;
+            thread = watcher;
+            watcher = null;
+        }
+
+        thread.interrupt();
+
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            //we are done waiting
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        //check a few times per threshold, so a stall is caught soon after it passes the threshold
+        final long interval = Math.max(1, threshold / 4 / 1000000L);
+
+        //the beat the current stall started after, 0 if the main thread isn't stalled
+        long stalled = 0;
+
+        long checked = System.nanoTime();
+
+        while (running && target.isAlive())
+        {
+            try
+            {
+                Thread.sleep(interval);
+            }
+            catch (InterruptedException e)
+            {
+                continue;
+            }
+
+            final long now = System.nanoTime();
+            final boolean suspended = (now - checked > threshold);
+            checked = now;
+
+            final long beat = heartbeat;
+
+            //the main thread beat since the stall started, the stall is over
+            if (stalled != 0 && beat != stalled)
+            {
+                end(beat - stalled);
+                stalled = 0;
+            }
+
+            //nothing to watch until the first beat, and the process was suspended if we slept too long ourselves
+            if (beat == 0 || suspended)
+                continue;
+
+            if (stalled == 0 && now - beat > threshold)
+            {
+                stalled = beat;
+                begin(now - beat);
+            }
+        }
+    }
+
+    /**
+     * Capture the stalled main thread and append it to the report
+     * @param late The time since the latest beat (nanoseconds)
+     */
+    private void begin(final long late)
+    {
+        final StackTraceElement[] stack = target.getStackTrace();
+        final int ordinal = state;
+        final String name = (ordinal >= 0 && ordinal < states.length) ? states[ordinal] : "State" + ordinal;
+
+        final String summary = "stall " + (stalls + 1) + ": " + target.getName() + " has not beat for " + (late / 1000000L) + "ms, state " + name;
+        GameLog.info("Watchdog", summary);
+
+        final StringBuilder report = new StringBuilder();
+        report.append(new Date()).append(' ').append(summary).append('\n');
+
+        for (int index = 0; index < stack.length && index < STACK_DEPTH; index++)
+        {
+            report.append("    at ").append(stack[index]).append('\n');
+        }
+
+        append(report.toString());
+    }
+
+    /**
+     * Count the stall that ended and append its length to the report
+     * @param duration The time between the beat before the stall and the beat after (nanoseconds)
+     */
+    private void end(final long duration)
+    {
+        stalls++;
+        total += duration;
+        longest = Math.max(longest, duration);
+
+        append(new Date() + " stall " + stalls + " ended after " + (duration / 1000000L) + "ms\n");
+    }
+
+    /**
+     * Append text to the report file
+     * @param text The text we append
+     */
+    private void append(final String text)
+    {
+        try
+        {
+            final Writer writer = new FileWriter(file, true);
+
+            try
+            {
+                writer.write(text);
+            }
+            finally
+            {
+                writer.close();
+            }
+        }
+        catch (IOException e)
+        {
+            GameLog.error("Watchdog", e);
+        }
+    }
+
+    /**
+     * Get the number of stalls
+     * @return The number of stalls that ended
+     */
+    public int getStalls()
+    {
+        return this.stalls;
+    }
+
+    /**
+     * Get the longest stall
+     * @return The longest time between beats of a stall that ended (nanoseconds)
+     */
+    public long getLongest()
+    {
+        return this.longest;
+    }
+
+    /**
+     * Get the time stalled
+     * @return The time between beats of every stall that ended (nanoseconds)
+     */
+    public long getTotal()
+    {
+        return this.total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.gamesbykevin.floppybird.trace;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+
+/**
+ * Sends the sections to the system trace, so they appear in systrace and perfetto next to the rendering of the device.<br>
+ * The system trace is only available since android 4.3, check the version before creating this.
+ * @author GOD
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+public final class PlatformTracer implements Tracer
+{
+    /**
+     * Is the system trace available on this device?
+     * @return true if the device runs android 4.3 or later, false otherwise
+     */
+    public static boolean isSupported()
+    {
+        return (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2);
+    }
+
+    @Override
+    public void begin(final String section)
+    {
+        android.os.Trace.beginSection(section);
+    }
+
+    @Override
+    public void end()
+    {
+        android.os.Trace.endSection();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.gamesbykevin.floppybird.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the most recent sections in memory and exports them as a Chrome trace,
+ * open the file in chrome://tracing or ui.perfetto.dev to see each frame.<br>
+ * Each begin and end is an event in a ring of preallocated arrays, so recording allocates nothing,
+ * and once the ring is full the oldest events are replaced.
+ * @author GOD
+ */
+public final class RingTracer implements Tracer
+{
+    //the time of each event (nanoseconds)
+    private final long[] times;
+
+    //the thread of each event
+    private final long[] threads;
+
+    //the name of the thread of each event
+    private final String[] threadNames;
+
+    //the section of each event, null for the end of a section
+    private final String[] sections;
+
+    //the number of events recorded
+    private long written = 0;
+
+    /**
+     * Create the tracer
+     * @param capacity The number of events we keep, each section is 2 events
+     */
+    public RingTracer(final int capacity)
+    {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity has to be at least 1 " + capacity);
+
+        this.times = new long[capacity];
+        this.threads = new long[capacity];
+        this.threadNames = new String[capacity];
+        this.sections = new String[capacity];
+    }
+
+    @Override
+    public synchronized void begin(final String section)
+    {
+        add(section);
+    }
+
+    @Override
+    public synchronized void end()
+    {
+        add(null);
+    }
+
+    private void add(final String section)
+    {
+        final Thread thread = Thread.currentThread();
+        final int index = (int)(written % times.length);
+
+        times[index] = System.nanoTime();
+        threads[index] = thread.getId();
+        threadNames[index] = thread.getName();
+        sections[index] = section;
+        written++;
+    }
+
+    /**
+     * Forget every event
+     */
+    public synchronized void clear()
+    {
+        written = 0;
+    }
+
+    /**
+     * Get the number of events recorded
+     * @return The number of events recorded since the tracer was created or cleared, including the ones replaced
+     */
+    public synchronized long getWritten()
+    {
+        return this.written;
+    }
+
+    /**
+     * Write the events we kept in the Chrome trace format.<br>
+     * The ring may start in the middle of a section, an end without its begin is skipped
+     * and a section without its end is shown as unfinished
+     * @param writer Where we write the trace
+     * @throws IOException If the trace can't be written
+     */
+    public synchronized void export(final Writer writer) throws IOException
+    {
+        final long first = Math.max(0, written - times.length);
+        final long origin = (written > first) ? times[(int)(first % times.length)] : 0;
+
+        //the sections open on each thread, and the name of each thread
+        final Map<Long, Integer> depths = new HashMap<Long, Integer>();
+        final Map<Long, String> names = new HashMap<Long, String>();
+
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+        boolean comma = false;
+
+        for (long event = first; event < written; event++)
+        {
+            final int index = (int)(event % times.length);
+            final Long thread = threads[index];
+            final Integer open = depths.get(thread);
+            final int depth = (open != null) ? open : 0;
+
+            names.put(thread, threadNames[index]);
+
+            if (sections[index] == null)
+            {
+                //the begin of this section was replaced
+                if (depth == 0)
+                    continue;
+
+                depths.put(thread, depth - 1);
+            }
+            else
+            {
+                depths.put(thread, depth + 1);
+            }
+
+            if (comma)
+                writer.write(',');
+
+            writer.write("{\"ph\":\"");
+            writer.write((sections[index] != null) ? "B" : "E");
+            writer.write("\",\"pid\":1,\"tid\":");
+            writer.write(String.valueOf(threads[index]));
+            writer.write(",\"ts\":");
+            writer.write(String.valueOf((times[index] - origin) / 1000.0));
+
+            if (sections[index] != null)
+            {
+                writer.write(",\"name\":");
+                writeString(writer, sections[index]);
+            }
+
+            writer.write('}');
+            comma = true;
+        }
+
+        //name each thread
+        for (Map.Entry<Long, String> entry : names.entrySet())
+        {
+            if (comma)
+                writer.write(',');
+
+            writer.write("{\"ph\":\"M\",\"pid\":1,\"tid\":");
+            writer.write(String.valueOf(entry.getKey()));
+            writer.write(",\"name\":\"thread_name\",\"args\":{\"name\":");
+            writeString(writer, entry.getValue());
+            writer.write("}}");
+            comma = true;
+        }
+
+        writer.write("]}");
+        writer.flush();
+    }
+
+    /**
+     * Write the text as a json string
+     * @param writer Where we write the text
+     * @param text The text
+     * @throws IOException If the text can't be written
+     */
+    private static void writeString(final Writer writer, final String text) throws IOException
+    {
+        writer.write('"');
+
+        for (int index = 0; index < text.length(); index++)
+        {
+            final char character = text.charAt(index);
+
+            if (character == '"' || character == '\\')
+            {
+                writer.write('\\');
+                writer.write(character);
+            }
+            else if (character < ' ')
+            {
+                writer.write(String.format("\\u%04x", (int)character));
+            }
+            else
+            {
+                writer.write(character);
+            }
+        }
+
+        writer.write('"');
+    }
+}
\ No newline at end of file
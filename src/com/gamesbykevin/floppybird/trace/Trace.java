@@ -0,0 +1,78 @@
+package com.gamesbykevin.floppybird.trace;
+
+/**
+ * Mark the sections of each frame so we can see where the time went in a trace viewer.<br>
+ * Wrap the work in begin and end. If the work can throw, end in a finally block so an exception never leaves a section open:<br>
+ * Trace.begin("Bird.render"); try { ... } finally { Trace.end(); }<br>
+ * <br>
+ * The sections go to the assigned tracer. By default that is NONE, which does nothing, so a release build pays for an empty call.
+ * A debuggable build on the device assigns the PlatformTracer so the sections are in the system trace,
+ * and the JVM tools assign a RingTracer to export a Chrome trace.
+ * @author GOD
+ */
+public final class Trace
+{
+    /**
+     * The tracer that does nothing
+     */
+    public static final Tracer NONE = new Tracer()
+    {
+        @Override
+        public void begin(final String section)
+        {
+            //do nothing
+        }
+
+        @Override
+        public void end()
+        {
+            //do nothing
+        }
+    };
+
+    //where the sections are sent, this is assigned before the game thread starts so it doesn't need to be volatile
+    private static Tracer TRACER = NONE;
+
+    /**
+     * This class only has static methods
+     */
+    private Trace()
+    {
+        //do nothing
+    }
+
+    /**
+     * Assign the tracer, this should be done before the game thread starts so no section is split between two tracers
+     * @param tracer Where the sections are sent, null to stop tracing
+     */
+    public static void setTracer(final Tracer tracer)
+    {
+        TRACER = (tracer != null) ? tracer : NONE;
+    }
+
+    /**
+     * Get the tracer
+     * @return Where the sections are sent
+     */
+    public static Tracer getTracer()
+    {
+        return TRACER;
+    }
+
+    /**
+     * Start a section
+     * @param section The name of the section, a constant
+     */
+    public static void begin(final String section)
+    {
+        TRACER.begin(section);
+    }
+
+    /**
+     * End the most recent section started on this thread
+     */
+    public static void end()
+    {
+        TRACER.end();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.gamesbykevin.floppybird.trace;
+
+/**
+ * Where the trace sections are sent.<br>
+ * Sections are nested, every begin is followed by an end on the same thread, and the section names are constants so nothing is allocated.
+ * @author GOD
+ */
+public interface Tracer
+{
+    /**
+     * Start a section
+     * @param section The name of the section
+     */
+    public void begin(final String section);
+
+    /**
+     * End the most recent section started on this thread
+     */
+    public void end();
+}
\ No newline at end of file